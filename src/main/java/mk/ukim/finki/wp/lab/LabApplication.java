@@ -2,12 +2,18 @@ package mk.ukim.finki.wp.lab;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.boot.web.servlet.ServletComponentScan;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
-@SpringBootApplication
+/**
+ * R2DBC is configured by {@link mk.ukim.finki.wp.lab.config.CatalogReactiveConfig}
+ * for the reactive API only; Boot's own R2DBC connection factory would turn off
+ * the JDBC data source that JPA needs.
+ */
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 @ServletComponentScan
 public class LabApplication {
 
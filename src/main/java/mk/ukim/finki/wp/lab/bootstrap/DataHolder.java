@@ -14,6 +14,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.ArrayList;
+import java.util.List;
 
 @Component
 public class DataHolder {
@@ -32,6 +33,10 @@ public class DataHolder {
 
     @PostConstruct
     public void init() {
+        // Against an existing database (e.g. a CLI import) the sample data is already there.
+        if (dishRepository.count() > 0) {
+            return;
+        }
 
         Chef chef1 = new Chef("Gordon","Ramsay",
                 "World-renowned chef known for his fiery personality.", new ArrayList<>(),Gender.MALE);
@@ -48,11 +53,7 @@ public class DataHolder {
         Chef chef5 = new Chef("Dominique","Crenn",
                 "Chef celebrated for artistic and creative cuisine.", new ArrayList<>(),Gender.MALE);
 
-        chefRepository.save(chef1);
-        chefRepository.save(chef2);
-        chefRepository.save(chef3);
-        chefRepository.save(chef4);
-        chefRepository.save(chef5);
+        chefRepository.saveAll(List.of(chef1, chef2, chef3, chef4, chef5));
 
         Dish dish1 = new Dish("D01", "Scrambled Eggs", Cuisine.BRITISH, 10, new ArrayList<>());
         Dish dish2 = new Dish("D02", "Tiramisu", Cuisine.ITALIAN, 30, new ArrayList<>());
@@ -60,17 +61,12 @@ public class DataHolder {
         Dish dish4 = new Dish("D04", "Lobster Ravioli", Cuisine.FRENCH, 80, new ArrayList<>());
         Dish dish5 = new Dish("D05", "Tagliatelle al Ragu", Cuisine.ITALIAN, 60, new ArrayList<>());
 
-        dishRepository.save(dish1);
-        dishRepository.save(dish2);
-        dishRepository.save(dish3);
-        dishRepository.save(dish4);
-        dishRepository.save(dish5);
+        dishRepository.saveAll(List.of(dish1, dish2, dish3, dish4, dish5));
 
 
         User admin = new User("admin",passwordEncoder.encode("admin"),"Admin","Admin", Role.ROLE_ADMIN);
         User user = new User("user",passwordEncoder.encode("user"),"User","User",Role.ROLE_USER);
 
-        userRepository.save(admin);
-        userRepository.save(user);
+        userRepository.saveAll(List.of(admin, user));
     }
 }
\ No newline at end of file
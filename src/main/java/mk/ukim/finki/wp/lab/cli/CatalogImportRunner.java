@@ -0,0 +1,71 @@
+package mk.ukim.finki.wp.lab.cli;
+
+import mk.ukim.finki.wp.lab.model.dto.ImportReport;
+import mk.ukim.finki.wp.lab.model.dto.ImportRowError;
+import mk.ukim.finki.wp.lab.model.enums.ImportFormat;
+import mk.ukim.finki.wp.lab.model.enums.ImportKind;
+import mk.ukim.finki.wp.lab.service.CatalogImportService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Command line bulk import, for files too large to upload:
+ * <pre>
+ * java -jar lab.jar import DISHES dishes.csv chefs.json ... \
+ *      --spring.main.web-application-type=none --spring.jpa.hibernate.ddl-auto=none
+ * </pre>
+ * Files ending in .csv are read as CSV, anything else as JSON. Each file is
+ * imported in its own transaction and its report is printed to standard output.
+ */
+@Component
+public class CatalogImportRunner implements ApplicationRunner {
+
+    private final CatalogImportService catalogImportService;
+
+    public CatalogImportRunner(CatalogImportService catalogImportService) {
+        this.catalogImportService = catalogImportService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        List<String> command = args.getNonOptionArgs();
+        if (command.isEmpty() || !command.get(0).equals("import")) {
+            return;
+        }
+        if (command.size() < 3) {
+            System.out.println("usage: import CHEFS|DISHES|ASSIGNMENTS <file>...");
+            for (ImportKind kind : ImportKind.values()) {
+                System.out.println("  " + kind + ": " + String.join(", ", kind.getColumns()));
+            }
+            return;
+        }
+
+        ImportKind kind = ImportKind.valueOf(command.get(1).toUpperCase(Locale.ROOT));
+        for (String file : command.subList(2, command.size())) {
+            Path path = Path.of(file);
+            ImportFormat format = file.toLowerCase(Locale.ROOT).endsWith(".csv") ? ImportFormat.CSV : ImportFormat.JSON;
+            try (InputStream input = Files.newInputStream(path)) {
+                print(path, catalogImportService.importCatalog(kind, format, input));
+            }
+        }
+    }
+
+    private static void print(Path path, ImportReport report) {
+        System.out.printf("%s: %d rows read, %d inserted, %d updated, %d rejected%n",
+                path, report.rowsRead(), report.inserted(), report.updated(), report.rejected());
+        for (ImportRowError error : report.errors()) {
+            System.out.printf("  row %d: %s%n", error.row(), error.message());
+        }
+        if (report.rejected() > report.errors().size()) {
+            System.out.printf("  ... and %d more%n", report.rejected() - report.errors().size());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package mk.ukim.finki.wp.lab.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration
+@EnableConfigurationProperties(CatalogCacheProperties.class)
+public class CacheConfig {
+
+    public static final String CHEF_DISHES_REGION = Chef.class.getName() + ".dishes";
+
+    /**
+     * Second-level cache regions used by the catalog, keyed by the alias used
+     * in {@code catalog.cache.regions}.
+     */
+    public static final Map<String, String> REGIONS = Map.of(
+            "chef", Chef.class.getName(),
+            "dish", Dish.class.getName(),
+            "dish-natural-id", Dish.class.getName() + "##NaturalId",
+            "chef-dishes", CHEF_DISHES_REGION,
+            "dish-chefs", Dish.class.getName() + ".chefs",
+            "query-results", RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME
+    );
+
+    /**
+     * Every application context gets its own cache manager, so two contexts
+     * in the same JVM (e.g. test contexts against different databases) never
+     * share cached rows. Hibernate closes it when the session factory shuts down.
+     */
+    @Bean
+    public CacheManager hibernateCacheManager(CatalogCacheProperties properties) {
+        CachingProvider provider = Caching.getCachingProvider(
+                "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider");
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("urn:catalog:" + UUID.randomUUID()), getClass().getClassLoader());
+
+        REGIONS.forEach((alias, region) -> {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(properties.maxSize(alias)));
+            configuration.setExpireAfterWrite(OptionalLong.of(properties.timeToLive(alias).toNanos()));
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(region, configuration);
+        });
+
+        // Query results are only valid while they are newer than these timestamps,
+        // so this region must never evict or expire entries.
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStatisticsEnabled(true);
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package mk.ukim.finki.wp.lab.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Bounds for the Hibernate second-level cache regions.
+ *
+ * {@code maxSize} and {@code timeToLive} apply to every region unless it is
+ * overridden under {@code catalog.cache.regions.<alias>}, where the alias is
+ * one of the keys of {@link CacheConfig#REGIONS}.
+ */
+@ConfigurationProperties("catalog.cache")
+public record CatalogCacheProperties(
+        @DefaultValue("10000") long maxSize,
+        @DefaultValue("10m") Duration timeToLive,
+        Map<String, Region> regions) {
+
+    public CatalogCacheProperties {
+        regions = regions == null ? Map.of() : Map.copyOf(regions);
+    }
+
+    public long maxSize(String alias) {
+        Region region = regions.get(alias);
+        return region != null && region.maxSize() != null ? region.maxSize() : maxSize;
+    }
+
+    public Duration timeToLive(String alias) {
+        Region region = regions.get(alias);
+        return region != null && region.timeToLive() != null ? region.timeToLive() : timeToLive;
+    }
+
+    public record Region(Long maxSize, Duration timeToLive) {
+    }
+}
@@ -0,0 +1,48 @@
+package mk.ukim.finki.wp.lab.config;
+
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.FieldComplexityEnvironment;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.schema.GraphQLTypeUtil;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+@Configuration
+@EnableConfigurationProperties(CatalogGraphQlProperties.class)
+public class CatalogGraphQlConfig {
+
+    @Bean
+    @Order(1)
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(CatalogGraphQlProperties properties) {
+        return new MaxQueryDepthInstrumentation(properties.maxDepth());
+    }
+
+    @Bean
+    @Order(2)
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(CatalogGraphQlProperties properties) {
+        return new MaxQueryComplexityInstrumentation(properties.maxCost(), cost(properties.maxRelated()));
+    }
+
+    /**
+     * Every field costs one, plus its selection once per row it resolves:
+     * {@code first} rows for a page, the rows of the page for its
+     * {@code items}, and {@code maxRelated} for the related chefs or
+     * dishes, which the batch mappings never exceed.
+     */
+    static FieldComplexityCalculator cost(int maxRelated) {
+        return (environment, childCost) -> {
+            if (environment.getArguments().get("first") instanceof Integer first)
+                return 1 + Math.max(first, 0) * childCost;
+            if (!GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(environment.getFieldDefinition().getType())))
+                return 1 + childCost;
+            return 1 + (isPaged(environment.getParentEnvironment()) ? 1 : maxRelated) * childCost;
+        };
+    }
+
+    private static boolean isPaged(FieldComplexityEnvironment parent) {
+        return parent != null && parent.getArguments().get("first") instanceof Integer;
+    }
+}
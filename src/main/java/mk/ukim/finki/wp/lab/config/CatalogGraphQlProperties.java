@@ -0,0 +1,19 @@
+package mk.ukim.finki.wp.lab.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Limits of the GraphQL endpoint, checked before a query is executed.
+ *
+ * {@code maxDepth} bounds how deeply fields are nested. {@code maxCost}
+ * bounds the number of values a query can resolve, where a page counts as
+ * {@code first} rows and a list of related chefs or dishes as
+ * {@code maxRelated} rows, the most such a list returns.
+ */
+@ConfigurationProperties("catalog.graphql")
+public record CatalogGraphQlProperties(
+        @DefaultValue("8") int maxDepth,
+        @DefaultValue("10000") int maxCost,
+        @DefaultValue("10") int maxRelated) {
+}
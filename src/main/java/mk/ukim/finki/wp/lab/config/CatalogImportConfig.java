@@ -0,0 +1,9 @@
+package mk.ukim.finki.wp.lab.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CatalogImportProperties.class)
+public class CatalogImportConfig {
+}
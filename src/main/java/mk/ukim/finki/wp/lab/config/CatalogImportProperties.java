@@ -0,0 +1,23 @@
+package mk.ukim.finki.wp.lab.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Tuning of bulk catalog imports.
+ *
+ * Rows are read in batches of {@code batchSize} and validated on
+ * {@code parallelism} threads (0 means one per processor). At most two
+ * batches per thread are held in memory at any time, so memory use does not
+ * depend on the size of the file.
+ */
+@ConfigurationProperties("catalog.import")
+public record CatalogImportProperties(
+        @DefaultValue("5000") int batchSize,
+        @DefaultValue("0") int parallelism,
+        @DefaultValue("1000") int maxReportedErrors) {
+
+    public int threads() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+}
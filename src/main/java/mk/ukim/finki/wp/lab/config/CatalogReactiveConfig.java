@@ -0,0 +1,90 @@
+package mk.ukim.finki.wp.lab.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import mk.ukim.finki.wp.lab.repository.r2dbc.ReactiveDishRepository;
+import mk.ukim.finki.wp.lab.web.controller.ReactiveDishApiHandler;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ServletHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+
+/**
+ * The reactive read path: WebFlux handlers over R2DBC repositories, served
+ * by the same Tomcat under {@value #REACTIVE_API_PATH}, behind the same
+ * security filters as the rest of the application.
+ */
+@Configuration
+@EnableConfigurationProperties(CatalogReactiveProperties.class)
+@EnableR2dbcRepositories(basePackageClasses = ReactiveDishRepository.class, entityOperationsRef = "reactiveEntityTemplate")
+public class CatalogReactiveConfig {
+
+    public static final String REACTIVE_API_PATH = "/reactive/api/v1";
+
+    private ConnectionPool connectionPool;
+
+    /**
+     * Reads the database of {@code spring.datasource} through its own pool.
+     * The pool is deliberately not a bean: Boot backs off its JDBC
+     * auto-configuration as soon as a ConnectionFactory bean exists.
+     */
+    @Bean
+    public R2dbcEntityTemplate reactiveEntityTemplate(DataSourceProperties dataSource,
+                                                      CatalogReactiveProperties properties) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions
+                .parse(dataSource.determineUrl().replaceFirst("^jdbc:", "r2dbc:"))
+                .mutate()
+                .option(ConnectionFactoryOptions.USER, dataSource.determineUsername());
+        if (dataSource.determinePassword() != null)
+            options.option(ConnectionFactoryOptions.PASSWORD, dataSource.determinePassword());
+
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .initialSize(0)
+                .maxSize(properties.maxConnections())
+                .maxAcquireTime(properties.maxAcquireTime())
+                .build());
+        return new R2dbcEntityTemplate(connectionPool);
+    }
+
+    @PreDestroy
+    public void closeConnectionPool() {
+        if (connectionPool != null)
+            connectionPool.dispose();
+    }
+
+    /**
+     * Requests are handed to the handlers without a thread each; Tomcat
+     * threads are only used to accept them and to write the responses.
+     */
+    @Bean
+    public ServletRegistrationBean<ServletHttpHandlerAdapter> reactiveApiServlet(ReactiveDishApiHandler dishes,
+                                                                                 ObjectMapper objectMapper) {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        HttpHandler handler = RouterFunctions.toHttpHandler(dishes.routes(), strategies);
+
+        ServletRegistrationBean<ServletHttpHandlerAdapter> registration =
+                new ServletRegistrationBean<>(new ServletHttpHandlerAdapter(handler), REACTIVE_API_PATH + "/*");
+        registration.setName("reactiveApi");
+        registration.setAsyncSupported(true);
+        registration.setLoadOnStartup(1);
+        return registration;
+    }
+}
@@ -0,0 +1,19 @@
+package mk.ukim.finki.wp.lab.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Connection pool of the reactive API, which reads the same database as
+ * JPA over R2DBC.
+ *
+ * Requests wait for a connection without holding a thread, for at most
+ * {@code maxAcquireTime}.
+ */
+@ConfigurationProperties("catalog.reactive")
+public record CatalogReactiveProperties(
+        @DefaultValue("5") int maxConnections,
+        @DefaultValue("20s") Duration maxAcquireTime) {
+}
@@ -0,0 +1,11 @@
+package mk.ukim.finki.wp.lab.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("snapshot")
+@EnableConfigurationProperties(CatalogSnapshotProperties.class)
+public class CatalogSnapshotConfig {
+}
@@ -0,0 +1,21 @@
+package mk.ukim.finki.wp.lab.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Persistence of the in-memory catalog of the "snapshot" profile.
+ *
+ * When {@code file} is set, a node starts from the snapshot in that file and
+ * reconciles it with the database in the background, and the current
+ * snapshot is written back every {@code writeInterval} when it changed, and
+ * on shutdown. Without a file every start reads the catalog from the database.
+ */
+@ConfigurationProperties("catalog.snapshot")
+public record CatalogSnapshotProperties(
+        Path file,
+        @DefaultValue("5m") Duration writeInterval) {
+}
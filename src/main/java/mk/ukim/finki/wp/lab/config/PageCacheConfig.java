@@ -0,0 +1,34 @@
+package mk.ukim.finki.wp.lab.config;
+
+import mk.ukim.finki.wp.lab.service.CatalogVersionService;
+import mk.ukim.finki.wp.lab.web.RenderedPageCache;
+import mk.ukim.finki.wp.lab.web.RenderedPageCacheFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(PageCacheProperties.class)
+@ConditionalOnProperty(name = "catalog.page-cache.enabled", matchIfMissing = true)
+public class PageCacheConfig {
+
+    @Bean
+    public RenderedPageCache renderedPageCache(PageCacheProperties properties) {
+        return new RenderedPageCache(properties.maxSize().toBytes());
+    }
+
+    /**
+     * Keeps the default, lowest order, so it runs after Spring Security:
+     * the user is known and anonymous requests are already redirected.
+     */
+    @Bean
+    public FilterRegistrationBean<RenderedPageCacheFilter> renderedPageCacheFilter(
+            RenderedPageCache renderedPageCache, CatalogVersionService catalogVersion) {
+        FilterRegistrationBean<RenderedPageCacheFilter> registration =
+                new FilterRegistrationBean<>(new RenderedPageCacheFilter(renderedPageCache, catalogVersion));
+        registration.addUrlPatterns("/dishes", "/chefs", "/chefs/dishes/*");
+        return registration;
+    }
+}
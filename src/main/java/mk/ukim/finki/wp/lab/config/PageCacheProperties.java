@@ -0,0 +1,17 @@
+package mk.ukim.finki.wp.lab.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Cache of the rendered catalog pages.
+ *
+ * Pages are kept gzip compressed and evicted once they take more than
+ * {@code maxSize} together, least used first.
+ */
+@ConfigurationProperties("catalog.page-cache")
+public record PageCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("32MB") DataSize maxSize) {
+}
@@ -2,35 +2,59 @@ package mk.ukim.finki.wp.lab.model;
 
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import mk.ukim.finki.wp.lab.model.enums.Gender;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
-import java.util.List;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
 
-@Data
+@Getter
+@Setter
+@ToString
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_chef_external_key", columnNames = "externalKey"),
+        indexes = {
+                @Index(name = "idx_chef_last_name_first_name_id", columnList = "lastName, firstName, id")
+        })
 public class Chef {
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "chef_seq")
+    @SequenceGenerator(name = "chef_seq", sequenceName = "chef_seq", allocationSize = 50)
     private Long id;
+    /**
+     * Key of the chef in a partner catalog, set by bulk imports so that
+     * later imports and dish assignments can refer to the same chef. Chefs
+     * created any other way get a random key, so every export names them.
+     */
+    private String externalKey;
     private String firstName;
     private String lastName;
     private String bio;
 
+    @ToString.Exclude
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @ManyToMany(mappedBy = "chefs")
-    private List<Dish> dishes;
+    private Set<Dish> dishes = new LinkedHashSet<>();
 
     @Enumerated(EnumType.STRING)
     private Gender gender;
 
     public Chef() {}
 
-    public Chef(String firstName, String lastName, String bio, List<Dish> dishes, Gender gender) {
+    public Chef(String firstName, String lastName, String bio, Collection<Dish> dishes, Gender gender) {
         this.firstName = firstName;
         this.lastName = lastName;
         this.bio = bio;
-        this.dishes = dishes;
+        this.dishes = new LinkedHashSet<>(dishes);
         this.gender = gender;
     }
 
@@ -40,4 +64,30 @@ public class Chef {
         this.bio = bio;
         this.gender = gender;
     }
+
+    @PrePersist
+    void assignExternalKey() {
+        if (externalKey == null)
+            externalKey = UUID.randomUUID().toString();
+    }
+
+    /**
+     * Final and based on {@link #getId()}, so comparing an uninitialized proxy
+     * (e.g. one obtained through getReferenceById) does not load it.
+     */
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Chef other)) return false;
+        return getId() != null && getId().equals(other.getId());
+    }
+
+    /**
+     * Constant, so an entity keeps its hash when persisting assigns the id.
+     * {@code Chef.class} rather than getClass(), which differs for a proxy.
+     */
+    @Override
+    public final int hashCode() {
+        return Chef.class.hashCode();
+    }
 }
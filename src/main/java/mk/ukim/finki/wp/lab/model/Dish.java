@@ -2,35 +2,65 @@ package mk.ukim.finki.wp.lab.model;
 
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
-import java.util.List;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
-@Data
+@Getter
+@Setter
+@ToString
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_dish_dish_id", columnNames = "dishId"),
+        indexes = {
+                @Index(name = "idx_dish_name_id", columnList = "name, id"),
+                @Index(name = "idx_dish_cuisine_id", columnList = "cuisine, id"),
+                @Index(name = "idx_dish_preparation_time_id", columnList = "preparationTime, id"),
+                @Index(name = "idx_dish_cuisine_preparation_time_id", columnList = "cuisine, preparationTime, id")
+        })
+@NamedEntityGraph(name = "Dish.chefs", attributeNodes = @NamedAttributeNode("chefs"))
 public class Dish {
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dish_seq")
+    @SequenceGenerator(name = "dish_seq", sequenceName = "dish_seq", allocationSize = 50)
     private Long id;
+    @NaturalId(mutable = true)
+    @Column(nullable = false)
     private String dishId;
     private String name;
     @Enumerated(EnumType.STRING)
     private Cuisine cuisine;
     private int preparationTime;
 
+    @ToString.Exclude
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @ManyToMany
-    private List<Chef> chefs;
+    @JoinTable(name = "dish_chefs",
+            joinColumns = @JoinColumn(name = "dish_id"),
+            inverseJoinColumns = @JoinColumn(name = "chefs_id"),
+            indexes = @Index(name = "idx_dish_chefs_chefs_id_dish_id", columnList = "chefs_id, dish_id"))
+    private Set<Chef> chefs = new LinkedHashSet<>();
 
     public Dish() {}
 
-    public Dish(String dishId, String name, Cuisine cuisine, int preparationTime, List<Chef> chefs) {
+    public Dish(String dishId, String name, Cuisine cuisine, int preparationTime, Collection<Chef> chefs) {
         this.dishId = dishId;
         this.name = name;
         this.cuisine = cuisine;
         this.preparationTime = preparationTime;
-        this.chefs = chefs;
+        this.chefs = new LinkedHashSet<>(chefs);
     }
 
     public Dish(String dishId, String name, Cuisine cuisine, int preparationTime) {
@@ -39,4 +69,24 @@ public class Dish {
         this.cuisine = cuisine;
         this.preparationTime = preparationTime;
     }
+
+    /**
+     * Final and based on {@link #getId()}, so comparing an uninitialized proxy
+     * (e.g. one obtained through getReferenceById) does not load it.
+     */
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Dish other)) return false;
+        return getId() != null && getId().equals(other.getId());
+    }
+
+    /**
+     * Constant, so an entity keeps its hash when persisting assigns the id.
+     * {@code Dish.class} rather than getClass(), which differs for a proxy.
+     */
+    @Override
+    public final int hashCode() {
+        return Dish.class.hashCode();
+    }
 }
@@ -0,0 +1,7 @@
+package mk.ukim.finki.wp.lab.model.dto;
+
+/**
+ * Number of dishes of one chef that match the other filters.
+ */
+public record ChefFacet(Long id, String name, long count) {
+}
@@ -0,0 +1,10 @@
+package mk.ukim.finki.wp.lab.model.dto;
+
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+
+/**
+ * Read-only row of the chef listing and export. Loaded as a projection, so it
+ * is never tracked by the persistence context.
+ */
+public record ChefSummary(Long id, String externalKey, String firstName, String lastName, String bio, Gender gender) {
+}
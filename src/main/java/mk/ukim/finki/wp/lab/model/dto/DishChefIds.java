@@ -0,0 +1,7 @@
+package mk.ukim.finki.wp.lab.model.dto;
+
+/**
+ * One row of dish_chefs, by database ids.
+ */
+public record DishChefIds(Long dishId, Long chefId) {
+}
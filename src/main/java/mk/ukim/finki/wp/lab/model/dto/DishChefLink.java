@@ -0,0 +1,8 @@
+package mk.ukim.finki.wp.lab.model.dto;
+
+/**
+ * One row of dish_chefs, identified the way imports refer to it:
+ * by dish id and chef external key. The chef id is exported too.
+ */
+public record DishChefLink(String dishId, String chefKey, Long chefId) {
+}
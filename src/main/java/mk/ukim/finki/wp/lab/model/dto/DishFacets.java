@@ -0,0 +1,21 @@
+package mk.ukim.finki.wp.lab.model.dto;
+
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.PreparationTimeRange;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dish counts per facet value. Each facet is counted with every filter
+ * applied except its own, so the counts tell how many dishes choosing that
+ * value instead (or, for chefs, as well) would show.
+ *
+ * @param cuisines         every cuisine, in declaration order
+ * @param preparationTimes every range, in declaration order
+ * @param chefs            chefs with at least one such dish, most dishes first
+ */
+public record DishFacets(Map<Cuisine, Long> cuisines,
+                         Map<PreparationTimeRange, Long> preparationTimes,
+                         List<ChefFacet> chefs) {
+}
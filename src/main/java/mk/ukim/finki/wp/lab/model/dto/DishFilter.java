@@ -0,0 +1,22 @@
+package mk.ukim.finki.wp.lab.model.dto;
+
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+
+import java.util.Set;
+
+/**
+ * Restricts dish searches and listings. Empty sets and null bounds do not
+ * restrict anything; values within one set are alternatives.
+ */
+public record DishFilter(Set<Cuisine> cuisines,
+                         Integer minPreparationTime,
+                         Integer maxPreparationTime,
+                         Set<Long> chefIds) {
+
+    public static final DishFilter NONE = new DishFilter(null, null, null, null);
+
+    public DishFilter {
+        cuisines = cuisines == null ? Set.of() : Set.copyOf(cuisines);
+        chefIds = chefIds == null ? Set.of() : Set.copyOf(chefIds);
+    }
+}
@@ -0,0 +1,17 @@
+package mk.ukim.finki.wp.lab.model.dto;
+
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+
+/**
+ * A full-text search result. {@code headline} is the dish name and chef
+ * names, HTML-escaped, with the matched words wrapped in {@code <mark>}.
+ */
+public record DishSearchHit(Long id,
+                            String dishId,
+                            String name,
+                            Cuisine cuisine,
+                            int preparationTime,
+                            String chefNames,
+                            double rank,
+                            String headline) {
+}
@@ -0,0 +1,10 @@
+package mk.ukim.finki.wp.lab.model.dto;
+
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+
+/**
+ * Read-only row of the dish listings and export. Loaded as a projection, so
+ * it is never tracked by the persistence context.
+ */
+public record DishSummary(Long id, String dishId, String name, Cuisine cuisine, int preparationTime) {
+}
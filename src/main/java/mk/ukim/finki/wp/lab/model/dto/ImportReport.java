@@ -0,0 +1,18 @@
+package mk.ukim.finki.wp.lab.model.dto;
+
+import mk.ukim.finki.wp.lab.model.enums.ImportKind;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk catalog import. {@code rejected} counts every row that
+ * was not loaded, while {@code errors} holds at most
+ * {@code catalog.import.max-reported-errors} of them, in row order.
+ */
+public record ImportReport(ImportKind kind,
+                           long rowsRead,
+                           long inserted,
+                           long updated,
+                           long rejected,
+                           List<ImportRowError> errors) {
+}
@@ -0,0 +1,8 @@
+package mk.ukim.finki.wp.lab.model.dto;
+
+/**
+ * A row of an import file that was not loaded. {@code row} is 1-based and
+ * does not count the CSV header.
+ */
+public record ImportRowError(long row, String message) {
+}
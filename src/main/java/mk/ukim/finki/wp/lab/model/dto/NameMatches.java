@@ -0,0 +1,17 @@
+package mk.ukim.finki.wp.lab.model.dto;
+
+import java.util.List;
+
+/**
+ * Result of a typo-tolerant name lookup.
+ *
+ * @param matches    rows whose name is similar enough to the query, best first
+ * @param didYouMean the closest name, even when no row was similar enough to
+ *                   be a match; null when nothing is close
+ */
+public record NameMatches<T>(List<T> matches, String didYouMean) {
+
+    public static <T> NameMatches<T> none() {
+        return new NameMatches<>(List.of(), null);
+    }
+}
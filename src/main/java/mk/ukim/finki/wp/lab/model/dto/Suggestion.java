@@ -0,0 +1,6 @@
+package mk.ukim.finki.wp.lab.model.dto;
+
+import mk.ukim.finki.wp.lab.model.enums.SuggestionType;
+
+public record Suggestion(SuggestionType type, Long id, String label) {
+}
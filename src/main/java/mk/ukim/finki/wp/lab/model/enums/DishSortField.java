@@ -0,0 +1,15 @@
+package mk.ukim.finki.wp.lab.model.enums;
+
+public enum DishSortField {
+    NAME("name"), CUISINE("cuisine"), PREPARATION_TIME("preparationTime");
+
+    private final String property;
+
+    DishSortField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+}
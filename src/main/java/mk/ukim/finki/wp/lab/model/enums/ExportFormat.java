@@ -0,0 +1,9 @@
+package mk.ukim.finki.wp.lab.model.enums;
+
+/**
+ * Output format of a catalog export: CSV with a header row, or one JSON
+ * object per line.
+ */
+public enum ExportFormat {
+    CSV, NDJSON
+}
@@ -0,0 +1,9 @@
+package mk.ukim.finki.wp.lab.model.enums;
+
+/**
+ * Input format of a bulk catalog import. CSV files must have a header row;
+ * JSON is either a top-level array of objects or newline-delimited objects.
+ */
+public enum ImportFormat {
+    CSV, JSON
+}
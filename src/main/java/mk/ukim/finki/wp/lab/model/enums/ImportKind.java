@@ -0,0 +1,21 @@
+package mk.ukim.finki.wp.lab.model.enums;
+
+/**
+ * What a bulk catalog import file contains, together with the columns
+ * (CSV header names or JSON property names) each row is read from.
+ */
+public enum ImportKind {
+    CHEFS("externalKey", "firstName", "lastName", "bio", "gender"),
+    DISHES("dishId", "name", "cuisine", "preparationTime"),
+    ASSIGNMENTS("dishId", "chefKey");
+
+    private final String[] columns;
+
+    ImportKind(String... columns) {
+        this.columns = columns;
+    }
+
+    public String[] getColumns() {
+        return columns.clone();
+    }
+}
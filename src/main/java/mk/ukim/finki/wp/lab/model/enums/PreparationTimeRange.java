@@ -0,0 +1,43 @@
+package mk.ukim.finki.wp.lab.model.enums;
+
+/**
+ * Preparation time buckets of the dish facets. Bounds are in minutes and
+ * inclusive; a null bound is open.
+ */
+public enum PreparationTimeRange {
+    UNDER_15("Under 15 min", 0, 14),
+    UNDER_30("15 - 29 min", 15, 29),
+    UNDER_60("30 - 59 min", 30, 59),
+    LONGER("60 min or more", 60, null);
+
+    private final String label;
+    private final Integer min;
+    private final Integer max;
+
+    PreparationTimeRange(String label, Integer min, Integer max) {
+        this.label = label;
+        this.min = min;
+        this.max = max;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public Integer getMin() {
+        return min;
+    }
+
+    public Integer getMax() {
+        return max;
+    }
+
+    public static PreparationTimeRange of(int minutes) {
+        for (PreparationTimeRange range : values()) {
+            if (range.max == null || minutes <= range.max) {
+                return range;
+            }
+        }
+        throw new IllegalStateException();
+    }
+}
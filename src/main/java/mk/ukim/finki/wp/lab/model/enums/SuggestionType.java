@@ -0,0 +1,6 @@
+package mk.ukim.finki.wp.lab.model.enums;
+
+public enum SuggestionType {
+    DISH,
+    CHEF
+}
@@ -0,0 +1,9 @@
+package mk.ukim.finki.wp.lab.model.events;
+
+/**
+ * Published by the services whenever chefs or dishes change. Listeners that
+ * keep derived data (indexes, caches) should react after commit.
+ */
+public sealed interface CatalogChangedEvent
+        permits DishSavedEvent, DishesDeletedEvent, ChefSavedEvent, ChefsDeletedEvent, CatalogImportedEvent {
+}
@@ -0,0 +1,9 @@
+package mk.ukim.finki.wp.lab.model.events;
+
+import mk.ukim.finki.wp.lab.model.enums.ImportKind;
+
+/**
+ * A bulk import wrote around Hibernate, so any number of rows of {@code kind} may have changed.
+ */
+public record CatalogImportedEvent(ImportKind kind) implements CatalogChangedEvent {
+}
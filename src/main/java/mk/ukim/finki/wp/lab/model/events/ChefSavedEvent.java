@@ -0,0 +1,7 @@
+package mk.ukim.finki.wp.lab.model.events;
+
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+
+public record ChefSavedEvent(Long id, String externalKey, String firstName, String lastName, String bio, Gender gender)
+        implements CatalogChangedEvent {
+}
@@ -0,0 +1,9 @@
+package mk.ukim.finki.wp.lab.model.events;
+
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+
+import java.util.Set;
+
+public record DishSavedEvent(Long id, String dishId, String name, Cuisine cuisine, int preparationTime,
+                             Set<Long> chefIds) implements CatalogChangedEvent {
+}
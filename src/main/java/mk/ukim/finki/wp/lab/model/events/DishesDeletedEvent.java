@@ -0,0 +1,6 @@
+package mk.ukim.finki.wp.lab.model.events;
+
+import java.util.List;
+
+public record DishesDeletedEvent(List<Long> ids) implements CatalogChangedEvent {
+}
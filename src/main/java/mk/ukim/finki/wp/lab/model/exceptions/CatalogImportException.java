@@ -0,0 +1,11 @@
+package mk.ukim.finki.wp.lab.model.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class CatalogImportException extends RuntimeException {
+    public CatalogImportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
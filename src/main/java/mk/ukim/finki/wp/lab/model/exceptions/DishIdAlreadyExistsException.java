@@ -0,0 +1,11 @@
+package mk.ukim.finki.wp.lab.model.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class DishIdAlreadyExistsException extends RuntimeException {
+    public DishIdAlreadyExistsException(String dishId) {
+        super(String.format("Dish with dish id: %s already exists", dishId));
+    }
+}
@@ -0,0 +1,11 @@
+package mk.ukim.finki.wp.lab.model.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidApiRequestException extends RuntimeException {
+    public InvalidApiRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,242 @@
+package mk.ukim.finki.wp.lab.repository.jdbc;
+
+import mk.ukim.finki.wp.lab.model.dto.ImportRowError;
+import mk.ukim.finki.wp.lab.model.enums.ImportKind;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+/**
+ * Staging tables for bulk catalog imports.
+ *
+ * Rows are streamed with the PostgreSQL COPY protocol into a temporary table
+ * that is dropped at commit, and then merged into the catalog with one
+ * set-based statement. Every method must run inside the importing transaction,
+ * so that COPY, the merge and the JPA session share one connection.
+ */
+@Repository
+public class CatalogStagingRepository {
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public CatalogStagingRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1000);
+    }
+
+    public void create(ImportKind kind) {
+        jdbcTemplate.execute(switch (kind) {
+            case CHEFS -> """
+                    create temporary table import_chef (
+                        row_no bigint not null, external_key text, first_name text,
+                        last_name text, bio text, gender text
+                    ) on commit drop""";
+            case DISHES -> """
+                    create temporary table import_dish (
+                        row_no bigint not null, dish_id text, name text,
+                        cuisine text, preparation_time integer
+                    ) on commit drop""";
+            case ASSIGNMENTS -> """
+                    create temporary table import_dish_chef (
+                        row_no bigint not null, dish_id text, chef_key text
+                    ) on commit drop""";
+        });
+    }
+
+    /**
+     * Opens a COPY into the staging table of {@code kind}. Each written row is
+     * the row number followed by the values of {@link ImportKind#getColumns()}.
+     */
+    public CopyWriter copy(ImportKind kind) {
+        String sql = switch (kind) {
+            case CHEFS -> "copy import_chef (row_no, external_key, first_name, last_name, bio, gender)";
+            case DISHES -> "copy import_dish (row_no, dish_id, name, cuisine, preparation_time)";
+            case ASSIGNMENTS -> "copy import_dish_chef (row_no, dish_id, chef_key)";
+        };
+        // The connection is bound to the transaction and stays open after release.
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn(sql + " from stdin with (format csv)");
+            return new CopyWriter(copyIn);
+        } catch (SQLException e) {
+            throw jdbcTemplate.getExceptionTranslator().translate("COPY", sql, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Removes every staged row whose key appears again later in the file;
+     * the last occurrence wins. Each removed row is passed to {@code rejected}.
+     */
+    public void removeSuperseded(ImportKind kind, Consumer<ImportRowError> rejected) {
+        String sql = switch (kind) {
+            case CHEFS -> """
+                    delete from import_chef s using import_chef l
+                    where s.external_key = l.external_key and s.row_no < l.row_no
+                    returning s.row_no, 'Chef ' || s.external_key || ' appears again in row ' || l.row_no""";
+            case DISHES -> """
+                    delete from import_dish s using import_dish l
+                    where s.dish_id = l.dish_id and s.row_no < l.row_no
+                    returning s.row_no, 'Dish ' || s.dish_id || ' appears again in row ' || l.row_no""";
+            case ASSIGNMENTS -> null;
+        };
+        if (sql != null) {
+            jdbcTemplate.query(sql, rowErrors(rejected));
+        }
+    }
+
+    /**
+     * Passes every staged assignment whose dish or chef does not exist
+     * (neither before nor in this import) to {@code rejected}.
+     */
+    public void findUnresolvedAssignments(Consumer<ImportRowError> rejected) {
+        jdbcTemplate.query("""
+                select s.row_no,
+                       case when d.id is null then 'Unknown dish ' || s.dish_id
+                            else 'Unknown chef ' || s.chef_key end
+                from import_dish_chef s
+                left join dish d on d.dish_id = s.dish_id
+                left join chef c on c.external_key = s.chef_key
+                where d.id is null or c.id is null
+                order by s.row_no""",
+                rowErrors(rejected));
+    }
+
+    /**
+     * Upserts the staged rows into the catalog and returns the number of
+     * inserted and updated rows. Chefs are matched by external key, dishes by
+     * dish id; assignments that already exist are left as they are.
+     */
+    public MergeResult merge(ImportKind kind) {
+        String sql = switch (kind) {
+            case CHEFS -> """
+                    with incoming as (
+                        select s.*, row_number() over (order by s.row_no) - 1 as n from import_chef s
+                    ), blocks as (
+                        select b, nextval('chef_seq') as lo
+                        from generate_series(0, (select (count(*) - 1) / %1$d from import_chef)) as b
+                    ), merged as (
+                        insert into chef (id, external_key, first_name, last_name, bio, gender)
+                        select blocks.lo + i.n %% %1$d, i.external_key, i.first_name, i.last_name, i.bio, i.gender
+                        from incoming i join blocks on blocks.b = i.n / %1$d
+                        on conflict (external_key) do update
+                            set first_name = excluded.first_name, last_name = excluded.last_name,
+                                bio = excluded.bio, gender = excluded.gender
+                        returning xmax = 0 as inserted
+                    )
+                    select count(*) filter (where inserted), count(*) filter (where not inserted) from merged"""
+                    .formatted(idBlock("chef_seq"));
+            case DISHES -> """
+                    with incoming as (
+                        select s.*, row_number() over (order by s.row_no) - 1 as n from import_dish s
+                    ), blocks as (
+                        select b, nextval('dish_seq') as lo
+                        from generate_series(0, (select (count(*) - 1) / %1$d from import_dish)) as b
+                    ), merged as (
+                        insert into dish (id, dish_id, name, cuisine, preparation_time)
+                        select blocks.lo + i.n %% %1$d, i.dish_id, i.name, i.cuisine, i.preparation_time
+                        from incoming i join blocks on blocks.b = i.n / %1$d
+                        on conflict (dish_id) do update
+                            set name = excluded.name, cuisine = excluded.cuisine,
+                                preparation_time = excluded.preparation_time
+                        returning xmax = 0 as inserted
+                    )
+                    select count(*) filter (where inserted), count(*) filter (where not inserted) from merged"""
+                    .formatted(idBlock("dish_seq"));
+            case ASSIGNMENTS -> """
+                    with merged as (
+                        insert into dish_chefs (dish_id, chefs_id)
+                        select d.id, c.id
+                        from import_dish_chef s
+                        join dish d on d.dish_id = s.dish_id
+                        join chef c on c.external_key = s.chef_key
+                        on conflict do nothing
+                        returning 1
+                    )
+                    select count(*), 0 from merged""";
+        };
+        return jdbcTemplate.queryForObject(sql, (rs, i) -> new MergeResult(rs.getLong(1), rs.getLong(2)));
+    }
+
+    /**
+     * The increment of {@code sequence}. Merged rows take their ids the way
+     * the pooled-lo optimizer does, one nextval per block of that many ids,
+     * so they never overlap a block Hibernate has handed out.
+     */
+    private long idBlock(String sequence) {
+        return jdbcTemplate.queryForObject("""
+                select increment_by from pg_sequences
+                where schemaname = current_schema() and sequencename = ?""", Long.class, sequence);
+    }
+
+    private static RowCallbackHandler rowErrors(Consumer<ImportRowError> rejected) {
+        return rs -> rejected.accept(new ImportRowError(rs.getLong(1), rs.getString(2)));
+    }
+
+    public record MergeResult(long inserted, long updated) {
+    }
+
+    /**
+     * Encodes rows as CSV and sends them to the server in chunks of about
+     * 64 KB, so only one chunk is held in memory.
+     */
+    public static final class CopyWriter implements AutoCloseable {
+
+        private static final int CHUNK = 64 * 1024;
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(CHUNK + 1024);
+        private boolean finished;
+
+        private CopyWriter(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        public void write(long row, String[] values) throws SQLException {
+            buffer.append(row);
+            for (String value : values) {
+                buffer.append(',');
+                // An unquoted empty field is NULL in CSV COPY; everything else is quoted.
+                if (value != null) {
+                    buffer.append('"').append(value.replace("\"", "\"\"")).append('"');
+                }
+            }
+            buffer.append('\n');
+            if (buffer.length() >= CHUNK) {
+                flush();
+            }
+        }
+
+        public long finish() throws SQLException {
+            flush();
+            finished = true;
+            return copyIn.endCopy();
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (!finished && copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+}
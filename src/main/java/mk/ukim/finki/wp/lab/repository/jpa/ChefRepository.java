@@ -1,10 +1,34 @@
 package mk.ukim.finki.wp.lab.repository.jpa;
 
+import jakarta.persistence.QueryHint;
 import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.dto.ChefSummary;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
 @Repository
-public interface ChefRepository extends JpaRepository<Chef, Long> {
+public interface ChefRepository extends JpaRepository<Chef, Long>, ChefSearchRepository {
+    Window<Chef> findBy(ScrollPosition position, Sort sort, Limit limit);
+    Window<ChefSummary> findSummariesBy(ScrollPosition position, Sort sort, Limit limit);
+    Window<ChefSummary> findSummariesByGender(Gender gender, ScrollPosition position, Sort sort, Limit limit);
+    List<ChefSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    @Query("select c.id from Chef c where c.id in :ids")
+    Set<Long> findExistingIds(Collection<Long> ids);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<ChefSummary> streamSummariesBy(Sort sort);
 }
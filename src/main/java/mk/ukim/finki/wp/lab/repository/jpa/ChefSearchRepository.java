@@ -0,0 +1,14 @@
+package mk.ukim.finki.wp.lab.repository.jpa;
+
+import mk.ukim.finki.wp.lab.model.dto.ChefSummary;
+
+import java.util.List;
+
+public interface ChefSearchRepository {
+    /**
+     * Chefs whose full name contains words similar to {@code name}, most similar first.
+     *
+     * @param threshold minimal pg_trgm word_similarity, between 0 and 1
+     */
+    List<ChefSummary> findByNameSimilarTo(String name, double threshold, int limit);
+}
@@ -0,0 +1,48 @@
+package mk.ukim.finki.wp.lab.repository.jpa;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import mk.ukim.finki.wp.lab.model.dto.ChefSummary;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Trigram lookup over first_name || ' ' || last_name, which is served by
+ * idx_chef_full_name_trgm (see schema.sql) as long as the expression here
+ * stays the same as in the index.
+ */
+class ChefSearchRepositoryImpl implements ChefSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ChefSummary> findByNameSimilarTo(String name, double threshold, int limit) {
+        WordSimilarity.setThreshold(entityManager, threshold);
+
+        @SuppressWarnings("unchecked")
+        List<Tuple> rows = entityManager.createNativeQuery("""
+                        select c.id, c.external_key, c.first_name, c.last_name, c.bio, c.gender
+                        from (select * from chef where :name <% (first_name || ' ' || last_name) limit :candidates) c
+                        order by word_similarity(:name, c.first_name || ' ' || c.last_name) desc, c.id
+                        limit :limit""", Tuple.class)
+                .setParameter("name", name)
+                .setParameter("candidates", WordSimilarity.MAX_CANDIDATES)
+                .setParameter("limit", limit)
+                .getResultList();
+
+        return rows.stream()
+                .map(row -> new ChefSummary(
+                        row.get("id", Number.class).longValue(),
+                        row.get("external_key", String.class),
+                        row.get("first_name", String.class),
+                        row.get("last_name", String.class),
+                        row.get("bio", String.class),
+                        row.get("gender", String.class) == null ? null : Gender.valueOf(row.get("gender", String.class))))
+                .toList();
+    }
+}
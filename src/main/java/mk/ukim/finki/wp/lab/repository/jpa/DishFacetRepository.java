@@ -0,0 +1,14 @@
+package mk.ukim.finki.wp.lab.repository.jpa;
+
+import mk.ukim.finki.wp.lab.model.dto.DishFacets;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+
+public interface DishFacetRepository {
+    /**
+     * Counts all facets of the dishes matching {@code filter} with one query.
+     *
+     * @param maxChefs how many of the chefs with the most dishes to return,
+     *                 besides the chefs selected in {@code filter}
+     */
+    DishFacets countFacets(DishFilter filter, int maxChefs);
+}
@@ -0,0 +1,133 @@
+package mk.ukim.finki.wp.lab.repository.jpa;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import mk.ukim.finki.wp.lab.model.dto.ChefFacet;
+import mk.ukim.finki.wp.lab.model.dto.DishFacets;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.PreparationTimeRange;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Counts every facet with one query. A facet is counted without its own
+ * filter, so the chef filter is evaluated for each dish and the dishes are
+ * first reduced to counts per (cuisine, preparation time, passes the chef
+ * filter). That leaves a few hundred rows, which GROUPING SETS turns into the
+ * cuisine and preparation time counts, each summing only the rows that pass
+ * the other two filters. Chef counts come from dish_chefs, which is joined
+ * with dish only when cuisine or preparation time is filtered.
+ */
+class DishFacetRepositoryImpl implements DishFacetRepository {
+
+    private static final int CUISINE_FACET = 1;
+    private static final int PREPARATION_TIME_FACET = 2;
+    private static final int CHEF_FACET = 3;
+
+    private static final String PREPARATION_RANGE = Arrays.stream(PreparationTimeRange.values())
+            .map(range -> range.getMax() == null
+                    ? "else '%s'".formatted(range.name())
+                    : "when d.preparation_time <= %d then '%s'".formatted(range.getMax(), range.name()))
+            .collect(Collectors.joining(" ", "case ", " end"));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public DishFacets countFacets(DishFilter filter, int maxChefs) {
+        boolean byCuisine = !filter.cuisines().isEmpty();
+        boolean byTime = filter.minPreparationTime() != null || filter.maxPreparationTime() != null;
+        boolean byChef = !filter.chefIds().isEmpty();
+
+        String cuisineOk = byCuisine ? "d.cuisine in (:cuisines)" : "true";
+        String timeOk = byTime ? "d.preparation_time between :minPreparationTime and :maxPreparationTime" : "true";
+        // A hashed subplan: the chefs' dishes are read once through idx_dish_chefs_chefs_id_dish_id.
+        String chefOk = byChef ? "d.id in (select dc.dish_id from dish_chefs dc where dc.chefs_id in (:chefIds))" : "true";
+        String chefDishes = byCuisine || byTime
+                ? "dish_chefs dc join dish d on d.id = dc.dish_id where %s and %s".formatted(cuisineOk, timeOk)
+                : "dish_chefs dc";
+        String selectedChefs = byChef ? """
+                union
+                select %d, null, c.id, c.first_name, c.last_name, coalesce(ch.dishes, 0)
+                from chef c left join chefs ch on ch.chefs_id = c.id
+                where c.id in (:chefIds)""".formatted(CHEF_FACET) : "";
+
+        Query query = entityManager.createNativeQuery("""
+                with dishes as (
+                    select d.cuisine, d.preparation_time, %s as chef_ok, count(*) as dishes
+                    from dish d
+                    group by 1, 2, 3
+                ),
+                facets as (
+                    select grouping(x.cuisine, x.preparation_range) as facet,
+                           coalesce(x.cuisine, x.preparation_range) as value,
+                           case grouping(x.cuisine, x.preparation_range)
+                               when 1 then sum(x.dishes) filter (where x.time_ok and x.chef_ok)
+                               else sum(x.dishes) filter (where x.cuisine_ok and x.chef_ok)
+                           end as count
+                    from (select d.cuisine, %s as preparation_range, %s as cuisine_ok, %s as time_ok,
+                                 d.chef_ok, d.dishes
+                          from dishes d) x
+                    group by grouping sets ((x.cuisine), (x.preparation_range))
+                ),
+                chefs as (
+                    select dc.chefs_id, count(*) as dishes
+                    from %s
+                    group by dc.chefs_id
+                )
+                select f.facet, f.value, null::bigint as chef_id, null as first_name, null as last_name, f.count
+                from facets f
+                where f.value is not null and f.count > 0
+                union
+                (select %d, null, c.id, c.first_name, c.last_name, ch.dishes
+                 from chefs ch join chef c on c.id = ch.chefs_id
+                 order by ch.dishes desc, c.id
+                 limit :maxChefs)
+                %s""".formatted(chefOk, PREPARATION_RANGE, cuisineOk, timeOk, chefDishes, CHEF_FACET, selectedChefs),
+                Tuple.class);
+
+        if (byCuisine) {
+            query.setParameter("cuisines", filter.cuisines().stream().map(Cuisine::name).toList());
+        }
+        if (byTime) {
+            query.setParameter("minPreparationTime", filter.minPreparationTime() == null ? 0 : filter.minPreparationTime());
+            query.setParameter("maxPreparationTime", filter.maxPreparationTime() == null ? Integer.MAX_VALUE : filter.maxPreparationTime());
+        }
+        if (byChef) {
+            query.setParameter("chefIds", filter.chefIds());
+        }
+        query.setParameter("maxChefs", maxChefs);
+
+        Map<Cuisine, Long> cuisines = new EnumMap<>(Cuisine.class);
+        Arrays.stream(Cuisine.values()).forEach(cuisine -> cuisines.put(cuisine, 0L));
+        Map<PreparationTimeRange, Long> preparationTimes = new EnumMap<>(PreparationTimeRange.class);
+        Arrays.stream(PreparationTimeRange.values()).forEach(range -> preparationTimes.put(range, 0L));
+        List<ChefFacet> chefs = new ArrayList<>();
+
+        @SuppressWarnings("unchecked")
+        List<Tuple> rows = query.getResultList();
+        for (Tuple row : rows) {
+            long count = row.get("count", Number.class).longValue();
+            switch (row.get("facet", Number.class).intValue()) {
+                case CUISINE_FACET -> cuisines.put(Cuisine.valueOf(row.get("value", String.class)), count);
+                case PREPARATION_TIME_FACET ->
+                        preparationTimes.put(PreparationTimeRange.valueOf(row.get("value", String.class)), count);
+                default -> chefs.add(new ChefFacet(row.get("chef_id", Number.class).longValue(),
+                        row.get("first_name", String.class) + " " + row.get("last_name", String.class), count));
+            }
+        }
+        chefs.sort(Comparator.comparingLong(ChefFacet::count).reversed().thenComparing(ChefFacet::id));
+        return new DishFacets(cuisines, preparationTimes, chefs);
+    }
+}
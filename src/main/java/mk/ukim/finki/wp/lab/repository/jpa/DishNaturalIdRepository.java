@@ -0,0 +1,7 @@
+package mk.ukim.finki.wp.lab.repository.jpa;
+
+import mk.ukim.finki.wp.lab.model.Dish;
+
+public interface DishNaturalIdRepository {
+    Dish findByDishId(String dishId);
+}
@@ -0,0 +1,29 @@
+package mk.ukim.finki.wp.lab.repository.jpa;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import mk.ukim.finki.wp.lab.model.Dish;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Looks dishes up by their natural id, so the dishId to primary key
+ * resolution is served from the persistence context or the natural-id
+ * cache before any SQL is issued.
+ */
+class DishNaturalIdRepositoryImpl implements DishNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Dish findByDishId(String dishId) {
+        if (dishId == null) {
+            return null;
+        }
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Dish.class)
+                .load(dishId);
+    }
+}
@@ -1,15 +1,71 @@
 package mk.ukim.finki.wp.lab.repository.jpa;
 
+import jakarta.persistence.QueryHint;
 import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.DishChefIds;
+import mk.ukim.finki.wp.lab.model.dto.DishChefLink;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface DishRepository extends JpaRepository<Dish, Long> {
-    Dish findByDishId(String dishId);
+public interface DishRepository extends JpaRepository<Dish, Long>, JpaSpecificationExecutor<Dish>,
+        DishNaturalIdRepository, DishSearchRepository, DishFacetRepository {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Dish> findAllByChefs_Id(Long chefId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<DishSummary> findSummariesByChefs_Id(Long chefId);
 
+    Window<Dish> findBy(ScrollPosition position, Sort sort, Limit limit);
+    Window<DishSummary> findSummariesBy(ScrollPosition position, Sort sort, Limit limit);
+    List<DishSummary> findSummariesByIdIn(Collection<Long> ids);
+    List<DishSummary> findSummariesByDishIdIn(Collection<String> dishIds);
+
+    @EntityGraph("Dish.chefs")
+    Optional<Dish> findWithChefsById(Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<DishSummary> streamSummariesBy(Sort sort);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new mk.ukim.finki.wp.lab.model.dto.DishChefLink(d.dishId, c.externalKey, c.id) " +
+            "from Dish d join d.chefs c order by d.id, c.id")
+    Stream<DishChefLink> streamChefLinks();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new mk.ukim.finki.wp.lab.model.dto.DishChefIds(d.id, c.id) from Dish d join d.chefs c")
+    Stream<DishChefIds> streamChefIds();
+
+    /**
+     * The links of each dish to its first {@code limit} chefs by id.
+     */
+    @Query("select new mk.ukim.finki.wp.lab.model.dto.DishChefIds(l.dishId, l.chefId) from (" +
+            "select d.id as dishId, c.id as chefId, row_number() over (partition by d.id order by c.id) as n " +
+            "from Dish d join d.chefs c where d.id in :dishIds) l " +
+            "where l.n <= :limit order by l.chefId, l.dishId")
+    List<DishChefIds> findChefIdsByDishIds(Collection<Long> dishIds, int limit);
+
+    /**
+     * The links of each chef to its first {@code limit} dishes by id.
+     */
+    @Query("select new mk.ukim.finki.wp.lab.model.dto.DishChefIds(l.dishId, l.chefId) from (" +
+            "select d.id as dishId, c.id as chefId, row_number() over (partition by c.id order by d.id) as n " +
+            "from Dish d join d.chefs c where c.id in :chefIds) l " +
+            "where l.n <= :limit order by l.dishId, l.chefId")
+    List<DishChefIds> findChefIdsByChefIds(Collection<Long> chefIds, int limit);
 }
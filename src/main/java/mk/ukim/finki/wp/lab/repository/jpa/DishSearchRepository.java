@@ -0,0 +1,23 @@
+package mk.ukim.finki.wp.lab.repository.jpa;
+
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.dto.DishSearchHit;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+public interface DishSearchRepository {
+    /**
+     * @param tsQuery a PostgreSQL tsquery in the 'english' configuration
+     */
+    Slice<DishSearchHit> search(String tsQuery, DishFilter filter, Pageable pageable);
+
+    /**
+     * Dishes whose name contains words similar to {@code name}, most similar first.
+     *
+     * @param threshold minimal pg_trgm word_similarity, between 0 and 1
+     */
+    List<DishSummary> findByNameSimilarTo(String name, double threshold, int limit);
+}
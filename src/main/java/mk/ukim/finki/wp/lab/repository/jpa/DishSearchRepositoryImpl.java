@@ -0,0 +1,143 @@
+package mk.ukim.finki.wp.lab.repository.jpa;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.dto.DishSearchHit;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.List;
+
+/**
+ * Full-text search over dish.search_vector (see schema.sql), which is served
+ * by a GIN index. ts_rank has to read the vector of every row it ranks, so a
+ * word found in a large part of the catalog would make ranking cost as much
+ * as a full scan; only the first {@value #MAX_RANKED_MATCHES} matches are
+ * ranked and paged through. Only the rows of the requested page get a
+ * headline, since ts_headline re-parses the text. Name lookups use the
+ * trigram index on dish.name instead.
+ */
+class DishSearchRepositoryImpl implements DishSearchRepository {
+
+    static final int MAX_RANKED_MATCHES = 1000;
+
+    private static final String START_MARK = "\u0001";
+    private static final String STOP_MARK = "\u0002";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<DishSearchHit> search(String tsQuery, DishFilter filter, Pageable pageable) {
+        StringBuilder where = new StringBuilder("d.search_vector @@ to_tsquery('english', :query)");
+        if (!filter.cuisines().isEmpty()) {
+            where.append(" and d.cuisine in (:cuisines)");
+        }
+        if (filter.minPreparationTime() != null) {
+            where.append(" and d.preparation_time >= :minPreparationTime");
+        }
+        if (filter.maxPreparationTime() != null) {
+            where.append(" and d.preparation_time <= :maxPreparationTime");
+        }
+        if (!filter.chefIds().isEmpty()) {
+            where.append(" and exists (select 1 from dish_chefs dc where dc.dish_id = d.id and dc.chefs_id in (:chefIds))");
+        }
+
+        Query query = entityManager.createNativeQuery("""
+                with matches as (
+                    select d.id, d.dish_id, d.name, d.cuisine, d.preparation_time, d.chef_names, d.search_vector
+                    from dish d
+                    where %s
+                    limit :maxRanked
+                ),
+                page as (
+                    select m.id, m.dish_id, m.name, m.cuisine, m.preparation_time, m.chef_names,
+                           ts_rank(m.search_vector, to_tsquery('english', :query)) as rank
+                    from matches m
+                    order by rank desc, m.id
+                    limit :limit offset :offset
+                )
+                select page.*,
+                       ts_headline('english', page.name || coalesce(' - ' || page.chef_names, ''),
+                                   to_tsquery('english', :query),
+                                   'HighlightAll=true, StartSel=' || chr(1) || ', StopSel=' || chr(2)) as headline
+                from page
+                order by page.rank desc, page.id""".formatted(where), Tuple.class);
+
+        query.setParameter("query", tsQuery);
+        query.setParameter("maxRanked", MAX_RANKED_MATCHES);
+        if (!filter.cuisines().isEmpty()) {
+            query.setParameter("cuisines", filter.cuisines().stream().map(Cuisine::name).toList());
+        }
+        if (filter.minPreparationTime() != null) {
+            query.setParameter("minPreparationTime", filter.minPreparationTime());
+        }
+        if (filter.maxPreparationTime() != null) {
+            query.setParameter("maxPreparationTime", filter.maxPreparationTime());
+        }
+        if (!filter.chefIds().isEmpty()) {
+            query.setParameter("chefIds", filter.chefIds());
+        }
+        // One extra row tells whether there is a next page, without counting all matches.
+        query.setParameter("limit", pageable.getPageSize() + 1);
+        query.setParameter("offset", pageable.getOffset());
+
+        @SuppressWarnings("unchecked")
+        List<Tuple> rows = query.getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<DishSearchHit> hits = rows.stream()
+                .limit(pageable.getPageSize())
+                .map(DishSearchRepositoryImpl::toHit)
+                .toList();
+        return new SliceImpl<>(hits, pageable, hasNext);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DishSummary> findByNameSimilarTo(String name, double threshold, int limit) {
+        WordSimilarity.setThreshold(entityManager, threshold);
+
+        @SuppressWarnings("unchecked")
+        List<Tuple> rows = entityManager.createNativeQuery("""
+                        select d.id, d.dish_id, d.name, d.cuisine, d.preparation_time
+                        from (select * from dish where :name <% name limit :candidates) d
+                        order by word_similarity(:name, d.name) desc, d.id
+                        limit :limit""", Tuple.class)
+                .setParameter("name", name)
+                .setParameter("candidates", WordSimilarity.MAX_CANDIDATES)
+                .setParameter("limit", limit)
+                .getResultList();
+
+        return rows.stream()
+                .map(row -> new DishSummary(
+                        row.get("id", Number.class).longValue(),
+                        row.get("dish_id", String.class),
+                        row.get("name", String.class),
+                        Cuisine.valueOf(row.get("cuisine", String.class)),
+                        row.get("preparation_time", Number.class).intValue()))
+                .toList();
+    }
+
+    private static DishSearchHit toHit(Tuple row) {
+        return new DishSearchHit(
+                row.get("id", Number.class).longValue(),
+                row.get("dish_id", String.class),
+                row.get("name", String.class),
+                Cuisine.valueOf(row.get("cuisine", String.class)),
+                row.get("preparation_time", Number.class).intValue(),
+                row.get("chef_names", String.class),
+                row.get("rank", Number.class).doubleValue(),
+                HtmlUtils.htmlEscape(row.get("headline", String.class), "UTF-8")
+                        .replace(START_MARK, "<mark>")
+                        .replace(STOP_MARK, "</mark>"));
+    }
+}
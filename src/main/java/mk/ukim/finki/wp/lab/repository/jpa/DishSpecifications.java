@@ -0,0 +1,73 @@
+package mk.ukim.finki.wp.lab.repository.jpa;
+
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Criteria for {@link DishRepository#findBy(Specification, java.util.function.Function)}.
+ * They only compare columns of dish and dish_chefs, so every one of them can
+ * be served by an index (see {@link Dish} and {@link DishFacetRepositoryImpl}).
+ */
+public final class DishSpecifications {
+
+    private DishSpecifications() {
+    }
+
+    public static Specification<Dish> matching(DishFilter filter) {
+        List<Specification<Dish>> specifications = new ArrayList<>(3);
+        if (!filter.cuisines().isEmpty()) {
+            specifications.add(hasCuisineIn(filter.cuisines()));
+        }
+        if (filter.minPreparationTime() != null || filter.maxPreparationTime() != null) {
+            specifications.add(preparationTimeBetween(filter.minPreparationTime(), filter.maxPreparationTime()));
+        }
+        if (!filter.chefIds().isEmpty()) {
+            specifications.add(hasAnyChef(filter.chefIds()));
+        }
+        return Specification.allOf(specifications);
+    }
+
+    public static Specification<Dish> hasCuisineIn(Set<Cuisine> cuisines) {
+        return (root, query, cb) -> root.get("cuisine").in(cuisines);
+    }
+
+    /**
+     * @param min inclusive, or null for no lower bound
+     * @param max inclusive, or null for no upper bound
+     */
+    public static Specification<Dish> preparationTimeBetween(Integer min, Integer max) {
+        return (root, query, cb) -> {
+            if (min == null) {
+                return cb.le(root.get("preparationTime"), max);
+            }
+            if (max == null) {
+                return cb.ge(root.get("preparationTime"), min);
+            }
+            return cb.between(root.get("preparationTime"), min, max);
+        };
+    }
+
+    /**
+     * An exists subquery rather than a join, so a dish with several of the
+     * chefs is still returned once and keyset scrolling keeps working.
+     */
+    public static Specification<Dish> hasAnyChef(Set<Long> chefIds) {
+        return (root, query, cb) -> {
+            Subquery<Long> subquery = query.subquery(Long.class);
+            Root<Dish> dish = subquery.correlate(root);
+            Join<Dish, Chef> chef = dish.join("chefs");
+            subquery.select(chef.get("id")).where(chef.get("id").in(chefIds));
+            return cb.exists(subquery);
+        };
+    }
+}
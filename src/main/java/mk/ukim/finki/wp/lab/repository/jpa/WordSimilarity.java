@@ -0,0 +1,30 @@
+package mk.ukim.finki.wp.lab.repository.jpa;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * The pg_trgm {@code <%} operator, which is what the trigram GIN indexes
+ * (see schema.sql) can serve, compares word_similarity against a setting
+ * instead of a parameter.
+ */
+final class WordSimilarity {
+
+    /**
+     * A misspelled common word can be similar to a large part of the catalog,
+     * and word_similarity is costly to compute for every such row, so only
+     * this many matches are ordered by similarity.
+     */
+    static final int MAX_CANDIDATES = 200;
+
+    private WordSimilarity() {
+    }
+
+    /**
+     * Sets the threshold of {@code <%} until the end of the current transaction.
+     */
+    static void setThreshold(EntityManager entityManager, double threshold) {
+        entityManager.createNativeQuery("select set_config('pg_trgm.word_similarity_threshold', :threshold, true)")
+                .setParameter("threshold", Double.toString(threshold))
+                .getSingleResult();
+    }
+}
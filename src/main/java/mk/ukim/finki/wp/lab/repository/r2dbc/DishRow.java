@@ -0,0 +1,13 @@
+package mk.ukim.finki.wp.lab.repository.r2dbc;
+
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * The dish table as the reactive repositories read it. The table itself is
+ * mapped and created by JPA through {@link mk.ukim.finki.wp.lab.model.Dish}.
+ */
+@Table("dish")
+public record DishRow(@Id Long id, String dishId, String name, Cuisine cuisine, int preparationTime) {
+}
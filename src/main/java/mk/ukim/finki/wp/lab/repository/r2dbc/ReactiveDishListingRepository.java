@@ -0,0 +1,19 @@
+package mk.ukim.finki.wp.lab.repository.r2dbc;
+
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveDishListingRepository {
+    /**
+     * A keyset page of the dishes matching {@code filter}, with the same
+     * positions as the JPA listing, so cursors work for both.
+     *
+     * @param filter restricts by cuisine and preparation time; a chef
+     *               filter is not supported here
+     */
+    Mono<Window<DishSummary>> findSummaries(DishFilter filter, Sort sort, ScrollPosition position, int limit);
+}
@@ -0,0 +1,106 @@
+package mk.ukim.finki.wp.lab.repository.r2dbc;
+
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.r2dbc.core.R2dbcEntityOperations;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keyset paging as Spring Data JPA does it: the rows after the position in
+ * sort order, one more than asked for to know whether there is a next
+ * page. Backward pages are read in reverse order and turned around.
+ */
+class ReactiveDishListingRepositoryImpl implements ReactiveDishListingRepository {
+
+    private static final Map<String, Function<DishSummary, Object>> KEYS = Map.of(
+            "id", DishSummary::id,
+            "name", DishSummary::name,
+            "cuisine", DishSummary::cuisine,
+            "preparationTime", DishSummary::preparationTime);
+
+    private final R2dbcEntityOperations entityOperations;
+
+    ReactiveDishListingRepositoryImpl(R2dbcEntityOperations entityOperations) {
+        this.entityOperations = entityOperations;
+    }
+
+    @Override
+    public Mono<Window<DishSummary>> findSummaries(DishFilter filter, Sort sort, ScrollPosition position, int limit) {
+        Assert.isTrue(filter.chefIds().isEmpty(), "Dishes are not filtered by chef here, see findAllByChefs_Id");
+        KeysetScrollPosition keyset = position instanceof KeysetScrollPosition requested
+                ? requested
+                : ScrollPosition.keyset();
+        Sort order = keyset.scrollsBackward() ? sort.reverse() : sort;
+
+        List<Criteria> criteria = new ArrayList<>();
+        if (!filter.cuisines().isEmpty())
+            criteria.add(Criteria.where("cuisine").in(filter.cuisines()));
+        if (filter.minPreparationTime() != null)
+            criteria.add(Criteria.where("preparationTime").greaterThanOrEquals(filter.minPreparationTime()));
+        if (filter.maxPreparationTime() != null)
+            criteria.add(Criteria.where("preparationTime").lessThanOrEquals(filter.maxPreparationTime()));
+        if (!keyset.getKeys().isEmpty())
+            criteria.add(after(order, keyset.getKeys()));
+
+        return entityOperations.select(DishRow.class)
+                .as(DishSummary.class)
+                .matching(Query.query(Criteria.from(criteria)).sort(order).limit(limit + 1))
+                .all()
+                .collectList()
+                .map(rows -> {
+                    List<DishSummary> page = new ArrayList<>(rows.subList(0, Math.min(rows.size(), limit)));
+                    if (keyset.scrollsBackward())
+                        Collections.reverse(page);
+                    return Window.from(page,
+                            index -> ScrollPosition.of(keys(page.get(index), sort), keyset.getDirection()),
+                            rows.size() > limit);
+                });
+    }
+
+    /**
+     * (a > :a) or (a = :a and b > :b) or ..., with {@code <} for
+     * descending properties.
+     */
+    private static Criteria after(Sort sort, Map<String, ?> keys) {
+        List<Sort.Order> orders = sort.toList();
+        Criteria any = null;
+        for (int i = 0; i < orders.size(); i++) {
+            List<Criteria> step = new ArrayList<>();
+            for (Sort.Order equal : orders.subList(0, i)) {
+                step.add(Criteria.where(equal.getProperty()).is(keys.get(equal.getProperty())));
+            }
+            Sort.Order order = orders.get(i);
+            Object key = keys.get(order.getProperty());
+            step.add(order.isAscending()
+                    ? Criteria.where(order.getProperty()).greaterThan(key)
+                    : Criteria.where(order.getProperty()).lessThan(key));
+            any = any == null ? Criteria.from(step) : any.or(Criteria.from(step));
+        }
+        return any;
+    }
+
+    /**
+     * In the order Spring Data JPA puts them, the id first, so both APIs
+     * hand out the same cursor for a row.
+     */
+    private static Map<String, Object> keys(DishSummary dish, Sort sort) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("id", dish.id());
+        sort.forEach(order -> keys.put(order.getProperty(), KEYS.get(order.getProperty()).apply(dish)));
+        return keys;
+    }
+}
@@ -0,0 +1,23 @@
+package mk.ukim.finki.wp.lab.repository.r2dbc;
+
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of the dish reads of
+ * {@link mk.ukim.finki.wp.lab.repository.jpa.DishRepository}, for the
+ * reactive API.
+ */
+public interface ReactiveDishRepository extends R2dbcRepository<DishRow, Long>, ReactiveDishListingRepository {
+
+    @Query("select d.id, d.dish_id, d.name, d.cuisine, d.preparation_time from dish d " +
+            "join dish_chefs dc on dc.dish_id = d.id where dc.chefs_id = :chefId order by d.id")
+    Flux<DishSummary> findAllByChefs_Id(Long chefId);
+
+    Mono<DishSummary> findByDishId(String dishId);
+
+    Mono<DishSummary> findSummaryById(Long id);
+}
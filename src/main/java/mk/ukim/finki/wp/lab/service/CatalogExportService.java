@@ -0,0 +1,11 @@
+package mk.ukim.finki.wp.lab.service;
+
+import mk.ukim.finki.wp.lab.model.enums.ExportFormat;
+import mk.ukim.finki.wp.lab.model.enums.ImportKind;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface CatalogExportService {
+    void export(ImportKind kind, ExportFormat format, OutputStream output) throws IOException;
+}
@@ -0,0 +1,11 @@
+package mk.ukim.finki.wp.lab.service;
+
+import mk.ukim.finki.wp.lab.model.dto.ImportReport;
+import mk.ukim.finki.wp.lab.model.enums.ImportFormat;
+import mk.ukim.finki.wp.lab.model.enums.ImportKind;
+
+import java.io.InputStream;
+
+public interface CatalogImportService {
+    ImportReport importCatalog(ImportKind kind, ImportFormat format, InputStream input);
+}
@@ -0,0 +1,14 @@
+package mk.ukim.finki.wp.lab.service;
+
+public interface CatalogVersionService {
+    /**
+     * Changes with every committed write to dishes or chefs, and on restart.
+     */
+    String version();
+
+    /**
+     * When the catalog last changed, in epoch milliseconds; the start time
+     * until the first write.
+     */
+    long lastModified();
+}
@@ -1,14 +1,26 @@
 package mk.ukim.finki.wp.lab.service;
 
 import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.dto.ChefSummary;
+import mk.ukim.finki.wp.lab.model.dto.NameMatches;
 import mk.ukim.finki.wp.lab.model.enums.Gender;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ChefService {
     List<Chef> listChefs();
+    Window<ChefSummary> listChefs(Gender gender, Sort.Direction direction, ScrollPosition position, int pageSize);
+    List<ChefSummary> findSummariesById(Collection<Long> ids);
+    Map<Long, List<ChefSummary>> listChefsByDishes(Collection<Long> dishIds, int limit);
     Chef findById(Long id);
+    NameMatches<ChefSummary> findByNameFuzzy(String name);
     Chef create(String firstName, String lastName, String bio,Gender gender);
     Chef update(Long id, String firstName, String lastName, String bio,Gender gender);
     void delete(Long id);
+    void deleteAll(List<Long> ids);
 }
\ No newline at end of file
@@ -1,17 +1,38 @@
 package mk.ukim.finki.wp.lab.service;
 
 import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.DishFacets;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.dto.DishSearchHit;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import mk.ukim.finki.wp.lab.model.dto.NameMatches;
 import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.DishSortField;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface DishService {
     List<Dish> listDishes();
+    Window<DishSummary> listDishes(DishFilter filter, DishSortField sortField, Sort.Direction direction, ScrollPosition position, int pageSize);
+    DishFacets countFacets(DishFilter filter);
     Dish findByDishId(String dishId);
+    List<DishSummary> findSummariesById(Collection<Long> ids);
+    List<DishSummary> findSummariesByDishId(Collection<String> dishIds);
     Dish findById(Long id);
     Dish create(String dishId, String name, Cuisine cuisine, int preparationTime, List<Long> chefsId);
     Dish update(Long id, String dishId, String name, Cuisine cuisine, int preparationTime, List<Long> chefsId);
     void delete(Long id);
-    List<Dish> listDishesByChef(Long chefId);
+    void deleteAll(List<Long> ids);
+    List<DishSummary> listDishesByChef(Long chefId);
+    Map<Long, List<DishSummary>> listDishesByChefs(Collection<Long> chefIds, int limit);
+    Slice<DishSearchHit> search(String query, DishFilter filter, Pageable pageable);
+    NameMatches<DishSummary> findByNameFuzzy(String name);
 
 }
\ No newline at end of file
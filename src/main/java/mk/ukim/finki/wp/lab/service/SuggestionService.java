@@ -0,0 +1,14 @@
+package mk.ukim.finki.wp.lab.service;
+
+import mk.ukim.finki.wp.lab.model.dto.Suggestion;
+import mk.ukim.finki.wp.lab.model.enums.SuggestionType;
+
+import java.util.List;
+
+public interface SuggestionService {
+    /**
+     * @param type null for dishes and chefs
+     */
+    List<Suggestion> suggest(String prefix, SuggestionType type, int limit);
+    void reload(SuggestionType type);
+}
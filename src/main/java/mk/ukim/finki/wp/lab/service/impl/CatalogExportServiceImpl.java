@@ -0,0 +1,115 @@
+package mk.ukim.finki.wp.lab.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.persistence.EntityManager;
+import mk.ukim.finki.wp.lab.model.dto.ChefSummary;
+import mk.ukim.finki.wp.lab.model.dto.DishChefLink;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import mk.ukim.finki.wp.lab.model.enums.ExportFormat;
+import mk.ukim.finki.wp.lab.model.enums.ImportKind;
+import mk.ukim.finki.wp.lab.repository.jpa.ChefRepository;
+import mk.ukim.finki.wp.lab.repository.jpa.DishRepository;
+import mk.ukim.finki.wp.lab.service.CatalogExportService;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class CatalogExportServiceImpl implements CatalogExportService {
+
+    private static final int CLEAR_INTERVAL = 1000;
+
+    private final DishRepository dishRepository;
+    private final ChefRepository chefRepository;
+    private final EntityManager entityManager;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final ObjectMapper objectMapper;
+
+    public CatalogExportServiceImpl(DishRepository dishRepository, ChefRepository chefRepository,
+                                    EntityManager entityManager, ObjectMapper objectMapper) {
+        this.dishRepository = dishRepository;
+        this.chefRepository = chefRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Streams the rows from a server-side cursor straight into {@code output},
+     * so only one fetch of rows is held in memory. The columns are the import
+     * columns of {@code kind} (plus database ids), so an export can be imported
+     * again. {@code output} is flushed but not closed.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void export(ImportKind kind, ExportFormat format, OutputStream output) throws IOException {
+        String[] columns = columns(kind);
+        long rows = 0;
+        try (Stream<?> stream = rows(kind);
+             SequenceWriter writer = writer(kind, format, columns).writeValues(output)) {
+            Iterator<?> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                // Projections are not managed, so this only keeps the session
+                // empty if a query ever returns entities.
+                if (++rows % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        if (rows > 0 && format == ExportFormat.NDJSON) {
+            output.write('\n');
+        } else if (rows == 0 && format == ExportFormat.CSV) {
+            // The CSV writer only writes the header together with the first row.
+            output.write((String.join(",", columns) + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        output.flush();
+    }
+
+    private Stream<?> rows(ImportKind kind) {
+        return switch (kind) {
+            case CHEFS -> chefRepository.streamSummariesBy(Sort.by("id"));
+            case DISHES -> dishRepository.streamSummariesBy(Sort.by("id"));
+            case ASSIGNMENTS -> dishRepository.streamChefLinks();
+        };
+    }
+
+    private static String[] columns(ImportKind kind) {
+        return switch (kind) {
+            case CHEFS, DISHES -> Stream.concat(Stream.of("id"), Stream.of(kind.getColumns())).toArray(String[]::new);
+            case ASSIGNMENTS -> Stream.concat(Stream.of(kind.getColumns()), Stream.of("chefId")).toArray(String[]::new);
+        };
+    }
+
+    private ObjectWriter writer(ImportKind kind, ExportFormat format, String[] columns) {
+        Class<?> type = switch (kind) {
+            case CHEFS -> ChefSummary.class;
+            case DISHES -> DishSummary.class;
+            case ASSIGNMENTS -> DishChefLink.class;
+        };
+        ObjectWriter writer;
+        if (format == ExportFormat.CSV) {
+            CsvSchema.Builder schema = CsvSchema.builder().setUseHeader(true);
+            for (String column : columns) {
+                schema.addColumn(column);
+            }
+            writer = csvMapper.writerFor(type).with(schema.build());
+        } else {
+            writer = objectMapper.writerFor(type).withRootValueSeparator("\n");
+        }
+        // Let the generator buffer, and leave the response stream open.
+        return writer.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+}
@@ -0,0 +1,293 @@
+package mk.ukim.finki.wp.lab.service.impl;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.persistence.EntityManagerFactory;
+import mk.ukim.finki.wp.lab.config.CatalogImportProperties;
+import mk.ukim.finki.wp.lab.model.dto.ImportReport;
+import mk.ukim.finki.wp.lab.model.dto.ImportRowError;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.model.enums.ImportFormat;
+import mk.ukim.finki.wp.lab.model.enums.ImportKind;
+import mk.ukim.finki.wp.lab.model.events.CatalogImportedEvent;
+import mk.ukim.finki.wp.lab.model.exceptions.CatalogImportException;
+import mk.ukim.finki.wp.lab.repository.jdbc.CatalogStagingRepository;
+import mk.ukim.finki.wp.lab.repository.jdbc.CatalogStagingRepository.CopyWriter;
+import mk.ukim.finki.wp.lab.repository.jdbc.CatalogStagingRepository.MergeResult;
+import mk.ukim.finki.wp.lab.service.CatalogImportService;
+import org.hibernate.Cache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Service
+public class CatalogImportServiceImpl implements CatalogImportService {
+
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final CatalogStagingRepository stagingRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CatalogImportProperties properties;
+    private final ObjectReader csvReader;
+    private final ObjectReader jsonReader;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CatalogImportServiceImpl(CatalogStagingRepository stagingRepository,
+                                    EntityManagerFactory entityManagerFactory,
+                                    CatalogImportProperties properties,
+                                    ObjectMapper objectMapper,
+                                    ApplicationEventPublisher eventPublisher) {
+        this.stagingRepository = stagingRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.csvReader = new CsvMapper().readerFor(Map.class).with(CsvSchema.emptySchema().withHeader());
+        this.jsonReader = objectMapper.readerFor(Map.class);
+    }
+
+    /**
+     * Reads the file once, validating batches of rows in parallel while the
+     * valid ones are streamed into a staging table with COPY, then merges the
+     * staging table into the catalog. Nothing is written if the file cannot be
+     * parsed; rows that fail validation are skipped and reported.
+     */
+    @Override
+    @Transactional
+    public ImportReport importCatalog(ImportKind kind, ImportFormat format, InputStream input) {
+        RowErrors errors = new RowErrors(properties.maxReportedErrors());
+        stagingRepository.create(kind);
+
+        long rowsRead;
+        long staged;
+        ObjectReader reader = format == ImportFormat.CSV ? csvReader : jsonReader;
+        try (MappingIterator<Map<String, Object>> rows = reader.readValues(input);
+             CopyWriter writer = stagingRepository.copy(kind)) {
+            rowsRead = stage(kind, rows, writer, errors);
+            staged = writer.finish();
+        } catch (IOException e) {
+            throw new CatalogImportException("Malformed input: " + e.getMessage(), e);
+        } catch (SQLException e) {
+            throw new CatalogImportException("Could not stage the import: " + e.getMessage(), e);
+        }
+
+        MergeResult merged = new MergeResult(0, 0);
+        if (staged > 0) {
+            stagingRepository.removeSuperseded(kind, errors::add);
+            merged = stagingRepository.merge(kind);
+            if (kind == ImportKind.ASSIGNMENTS) {
+                stagingRepository.findUnresolvedAssignments(errors::add);
+            }
+            evictCachesAfterCommit();
+            eventPublisher.publishEvent(new CatalogImportedEvent(kind));
+        }
+        return new ImportReport(kind, rowsRead, merged.inserted(), merged.updated(), errors.count(), errors.reported());
+    }
+
+    /**
+     * Keeps at most two batches per validator thread in flight. Batches are
+     * written in the order they were read, so COPY receives the rows in file order.
+     */
+    private long stage(ImportKind kind, MappingIterator<Map<String, Object>> rows,
+                       CopyWriter writer, RowErrors errors) throws SQLException {
+        int threads = properties.threads();
+        ExecutorService validators = Executors.newFixedThreadPool(threads);
+        Deque<Future<Batch>> pending = new ArrayDeque<>();
+        long row = 0;
+        try {
+            while (true) {
+                long first = row + 1;
+                List<Map<String, Object>> values = new ArrayList<>(properties.batchSize());
+                Map<String, Object> value;
+                while (values.size() < properties.batchSize() && (value = next(rows, row + 1)) != null) {
+                    values.add(value);
+                    row++;
+                }
+                if (values.isEmpty()) {
+                    break;
+                }
+                pending.add(validators.submit(() -> validate(kind, first, values)));
+                if (pending.size() >= 2 * threads) {
+                    write(pending.poll(), writer, errors);
+                }
+            }
+            while (!pending.isEmpty()) {
+                write(pending.poll(), writer, errors);
+            }
+            return row;
+        } finally {
+            validators.shutdownNow();
+        }
+    }
+
+    private static Map<String, Object> next(MappingIterator<Map<String, Object>> rows, long row) {
+        try {
+            return rows.hasNextValue() ? rows.nextValue() : null;
+        } catch (IOException | RuntimeJsonMappingException e) {
+            throw new CatalogImportException("Malformed input at row " + row + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void write(Future<Batch> future, CopyWriter writer, RowErrors errors) throws SQLException {
+        Batch batch;
+        try {
+            batch = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CatalogImportException("Import was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new CatalogImportException("Validation failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        for (StagedRow row : batch.rows()) {
+            writer.write(row.row(), row.values());
+        }
+        batch.errors().forEach(errors::add);
+    }
+
+    private static Batch validate(ImportKind kind, long first, List<Map<String, Object>> values) {
+        List<StagedRow> rows = new ArrayList<>(values.size());
+        List<ImportRowError> errors = new ArrayList<>();
+        for (int i = 0; i < values.size(); i++) {
+            try {
+                rows.add(new StagedRow(first + i, validate(kind, values.get(i))));
+            } catch (IllegalArgumentException e) {
+                errors.add(new ImportRowError(first + i, e.getMessage()));
+            }
+        }
+        return new Batch(rows, errors);
+    }
+
+    /**
+     * Applies the same rules as the forms and returns the normalized values
+     * in the order of {@link ImportKind#getColumns()}.
+     */
+    private static String[] validate(ImportKind kind, Map<String, Object> row) {
+        return switch (kind) {
+            case CHEFS -> new String[]{
+                    required(row, "externalKey"),
+                    required(row, "firstName"),
+                    required(row, "lastName"),
+                    required(row, "bio"),
+                    constant(row, "gender", Gender.class)};
+            case DISHES -> new String[]{
+                    required(row, "dishId"),
+                    required(row, "name"),
+                    constant(row, "cuisine", Cuisine.class),
+                    preparationTime(row)};
+            case ASSIGNMENTS -> new String[]{
+                    required(row, "dishId"),
+                    required(row, "chefKey")};
+        };
+    }
+
+    private static String required(Map<String, Object> row, String column) {
+        String value = optional(row, column);
+        if (value == null)
+            throw new IllegalArgumentException(column + " is required");
+        return value;
+    }
+
+    private static String optional(Map<String, Object> row, String column) {
+        Object raw = row.get(column);
+        if (raw == null || raw.toString().isBlank())
+            return null;
+        String value = raw.toString().trim();
+        if (value.length() > MAX_TEXT_LENGTH)
+            throw new IllegalArgumentException(column + " is longer than " + MAX_TEXT_LENGTH + " characters");
+        return value;
+    }
+
+    private static <E extends Enum<E>> String constant(Map<String, Object> row, String column, Class<E> type) {
+        String value = required(row, column);
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT)).name();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(column + " must be one of " + Arrays.toString(type.getEnumConstants()));
+        }
+    }
+
+    private static String preparationTime(Map<String, Object> row) {
+        int preparationTime;
+        try {
+            preparationTime = Integer.parseInt(required(row, "preparationTime"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("preparationTime must be a whole number");
+        }
+        if (preparationTime < 0)
+            throw new IllegalArgumentException("preparationTime must not be negative");
+        return Integer.toString(preparationTime);
+    }
+
+    /**
+     * The merge writes around Hibernate, so nothing it cached about chefs,
+     * dishes, their collections or query results can be trusted afterwards.
+     */
+    private void evictCachesAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+            }
+        });
+    }
+
+    private record StagedRow(long row, String[] values) {
+    }
+
+    private record Batch(List<StagedRow> rows, List<ImportRowError> errors) {
+    }
+
+    /**
+     * Counts every rejected row but keeps only the {@code limit} lowest row
+     * numbers, so a file full of bad rows cannot exhaust memory.
+     */
+    private static final class RowErrors {
+        private final int limit;
+        private final PriorityQueue<ImportRowError> kept =
+                new PriorityQueue<>(Comparator.comparingLong(ImportRowError::row).reversed());
+        private long count;
+
+        RowErrors(int limit) {
+            this.limit = limit;
+        }
+
+        void add(ImportRowError error) {
+            count++;
+            kept.add(error);
+            if (kept.size() > limit) {
+                kept.poll();
+            }
+        }
+
+        long count() {
+            return count;
+        }
+
+        List<ImportRowError> reported() {
+            return kept.stream().sorted(Comparator.comparingLong(ImportRowError::row)).toList();
+        }
+    }
+}
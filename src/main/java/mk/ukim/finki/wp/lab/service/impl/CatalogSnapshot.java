@@ -0,0 +1,904 @@
+package mk.ukim.finki.wp.lab.service.impl;
+
+import mk.ukim.finki.wp.lab.model.dto.ChefSummary;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.DishSortField;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.LongToIntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable copy of the whole catalog, so reads never reach the database.
+ *
+ * Dishes and chefs are stored column by column in arrays sorted by id, with
+ * interned strings, and the dish - chef links as long[] adjacency lists in
+ * both directions: the ids of the chefs of dish row {@code r} are
+ * {@code dishChefIds[dishChefOffsets[r] .. dishChefOffsets[r + 1]]}. Each
+ * listing order is kept as an array of ids, so a keyset page is a binary
+ * search followed by a scan.
+ *
+ * A snapshot never changes. The {@code with}/{@code without} methods copy
+ * the arrays into a new snapshot, which costs time linear in the catalog
+ * size and is meant for a catalog that is read far more than written.
+ */
+public final class CatalogSnapshot {
+
+    private static final Cuisine[] CUISINES = Cuisine.values();
+    private static final Gender[] GENDERS = Gender.values();
+    private static final DishSortField[] SORT_FIELDS = DishSortField.values();
+    private static final long[] NO_IDS = new long[0];
+
+    // Dishes, sorted by id.
+    private final long[] dishIds;
+    private final String[] dishCodes;
+    private final String[] dishNames;
+    private final byte[] cuisines;
+    private final int[] preparationTimes;
+    private final int[] dishChefOffsets;
+    private final long[] dishChefIds;
+
+    // Dish ids by dish code, and in the order of each DishSortField.
+    private final long[] dishesByCode;
+    private final long[][] dishesBySortField;
+
+    // Chefs, sorted by id.
+    private final long[] chefIds;
+    private final String[] externalKeys;
+    private final String[] firstNames;
+    private final String[] lastNames;
+    private final String[] bios;
+    private final byte[] genders;
+    private final int[] chefDishOffsets;
+    private final long[] chefDishIds;
+
+    // Chef ids by last name, first name.
+    private final long[] chefsByName;
+
+    /**
+     * Receives the whole content in {@link #load(Consumer)}, in any order.
+     * Links to dishes or chefs that were not loaded are dropped.
+     */
+    public interface Loader {
+        void dish(long id, String dishId, String name, Cuisine cuisine, int preparationTime);
+
+        void chef(long id, String externalKey, String firstName, String lastName, String bio, Gender gender);
+
+        void assign(long dishId, long chefId);
+    }
+
+    private CatalogSnapshot(long[] dishIds, String[] dishCodes, String[] dishNames, byte[] cuisines,
+                            int[] preparationTimes, int[] dishChefOffsets, long[] dishChefIds,
+                            long[] dishesByCode, long[][] dishesBySortField,
+                            long[] chefIds, String[] externalKeys, String[] firstNames, String[] lastNames,
+                            String[] bios, byte[] genders, long[] chefsByName, Links chefDishes) {
+        this.dishIds = dishIds;
+        this.dishCodes = dishCodes;
+        this.dishNames = dishNames;
+        this.cuisines = cuisines;
+        this.preparationTimes = preparationTimes;
+        this.dishChefOffsets = dishChefOffsets;
+        this.dishChefIds = dishChefIds;
+        this.dishesByCode = dishesByCode;
+        this.dishesBySortField = dishesBySortField;
+        this.chefIds = chefIds;
+        this.externalKeys = externalKeys;
+        this.firstNames = firstNames;
+        this.lastNames = lastNames;
+        this.bios = bios;
+        this.genders = genders;
+        this.chefsByName = chefsByName;
+
+        if (chefDishes == null) {
+            chefDishes = chefLinks(dishIds, dishChefOffsets, dishChefIds, chefIds);
+        }
+        this.chefDishOffsets = chefDishes.offsets();
+        this.chefDishIds = chefDishes.ids();
+    }
+
+    public static CatalogSnapshot load(Consumer<Loader> load) {
+        List<DishRow> dishes = new ArrayList<>();
+        List<ChefRow> chefs = new ArrayList<>();
+        List<long[]> links = new ArrayList<>();
+        load.accept(new Loader() {
+            @Override
+            public void dish(long id, String dishId, String name, Cuisine cuisine, int preparationTime) {
+                dishes.add(new DishRow(id, dishId, name, cuisine, preparationTime));
+            }
+
+            @Override
+            public void chef(long id, String externalKey, String firstName, String lastName, String bio, Gender gender) {
+                chefs.add(new ChefRow(id, externalKey, firstName, lastName, bio, gender));
+            }
+
+            @Override
+            public void assign(long dishId, long chefId) {
+                links.add(new long[]{dishId, chefId});
+            }
+        });
+
+        dishes.sort(Comparator.comparingLong(DishRow::id));
+        chefs.sort(Comparator.comparingLong(ChefRow::id));
+        links.sort(Comparator.<long[]>comparingLong(link -> link[0]).thenComparingLong(link -> link[1]));
+
+        int dishCount = dishes.size();
+        long[] dishIds = new long[dishCount];
+        String[] dishCodes = new String[dishCount];
+        String[] dishNames = new String[dishCount];
+        byte[] cuisines = new byte[dishCount];
+        int[] preparationTimes = new int[dishCount];
+        for (int row = 0; row < dishCount; row++) {
+            DishRow dish = dishes.get(row);
+            dishIds[row] = dish.id();
+            dishCodes[row] = intern(dish.dishId());
+            dishNames[row] = intern(dish.name());
+            cuisines[row] = (byte) dish.cuisine().ordinal();
+            preparationTimes[row] = dish.preparationTime();
+        }
+
+        int chefCount = chefs.size();
+        long[] chefIds = new long[chefCount];
+        String[] externalKeys = new String[chefCount];
+        String[] firstNames = new String[chefCount];
+        String[] lastNames = new String[chefCount];
+        String[] bios = new String[chefCount];
+        byte[] genders = new byte[chefCount];
+        for (int row = 0; row < chefCount; row++) {
+            ChefRow chef = chefs.get(row);
+            chefIds[row] = chef.id();
+            externalKeys[row] = intern(chef.externalKey());
+            firstNames[row] = intern(chef.firstName());
+            lastNames[row] = intern(chef.lastName());
+            bios[row] = intern(chef.bio());
+            genders[row] = (byte) (chef.gender() == null ? -1 : chef.gender().ordinal());
+        }
+
+        int[] dishChefOffsets = new int[dishCount + 1];
+        long[] dishChefIds = new long[links.size()];
+        int linkCount = 0;
+        int row = 0;
+        for (long[] link : links) {
+            while (row < dishCount && dishIds[row] < link[0]) {
+                dishChefOffsets[++row] = linkCount;
+            }
+            boolean known = row < dishCount && dishIds[row] == link[0]
+                    && Arrays.binarySearch(chefIds, link[1]) >= 0
+                    && (linkCount == dishChefOffsets[row] || dishChefIds[linkCount - 1] != link[1]);
+            if (known) {
+                dishChefIds[linkCount++] = link[1];
+            }
+        }
+        while (row < dishCount) {
+            dishChefOffsets[++row] = linkCount;
+        }
+        dishChefIds = Arrays.copyOf(dishChefIds, linkCount);
+
+        long[][] dishesBySortField = new long[SORT_FIELDS.length][];
+        for (DishSortField field : SORT_FIELDS) {
+            dishesBySortField[field.ordinal()] = sorted(dishIds,
+                    dishOrder(field, dishIds, dishNames, cuisines, preparationTimes));
+        }
+        return new CatalogSnapshot(dishIds, dishCodes, dishNames, cuisines, preparationTimes,
+                dishChefOffsets, dishChefIds, sorted(dishIds, codeOrder(dishCodes)), dishesBySortField,
+                chefIds, externalKeys, firstNames, lastNames, bios, genders,
+                sorted(chefIds, chefOrder(chefIds, firstNames, lastNames)), null);
+    }
+
+    /**
+     * The stored columns, shared and not copied, for {@link CatalogSnapshotFile}.
+     * The chef to dish links are derived again by {@link #of(Columns)}.
+     */
+    record Columns(long[] dishIds, String[] dishCodes, String[] dishNames, byte[] cuisines, int[] preparationTimes,
+                   int[] dishChefOffsets, long[] dishChefIds, long[] dishesByCode, long[][] dishesBySortField,
+                   long[] chefIds, String[] externalKeys, String[] firstNames, String[] lastNames, String[] bios,
+                   byte[] genders, long[] chefsByName) {
+    }
+
+    Columns columns() {
+        return new Columns(dishIds, dishCodes, dishNames, cuisines, preparationTimes, dishChefOffsets, dishChefIds,
+                dishesByCode, dishesBySortField, chefIds, externalKeys, firstNames, lastNames, bios, genders,
+                chefsByName);
+    }
+
+    static CatalogSnapshot of(Columns columns) {
+        return new CatalogSnapshot(columns.dishIds(), columns.dishCodes(), columns.dishNames(), columns.cuisines(),
+                columns.preparationTimes(), columns.dishChefOffsets(), columns.dishChefIds(),
+                columns.dishesByCode(), columns.dishesBySortField(), columns.chefIds(), columns.externalKeys(),
+                columns.firstNames(), columns.lastNames(), columns.bios(), columns.genders(),
+                columns.chefsByName(), null);
+    }
+
+    /**
+     * Number of dishes and of chefs whose row is missing from, or differs
+     * in, {@code other}, counting links as part of the dish row.
+     */
+    public long differences(CatalogSnapshot other) {
+        long differences = 0;
+        for (int row = 0; row < dishIds.length; row++) {
+            long id = dishIds[row];
+            if (!dishSummary(row).equals(other.dish(id)) || !Arrays.equals(chefsOf(id), other.chefsOf(id))) {
+                differences++;
+            }
+        }
+        for (long id : other.dishIds) {
+            if (Arrays.binarySearch(dishIds, id) < 0) {
+                differences++;
+            }
+        }
+        for (int row = 0; row < chefIds.length; row++) {
+            if (!chefSummary(row).equals(other.chef(chefIds[row]))) {
+                differences++;
+            }
+        }
+        for (long id : other.chefIds) {
+            if (Arrays.binarySearch(chefIds, id) < 0) {
+                differences++;
+            }
+        }
+        return differences;
+    }
+
+    public int dishCount() {
+        return dishIds.length;
+    }
+
+    public int chefCount() {
+        return chefIds.length;
+    }
+
+    /**
+     * Approximate heap taken by the arrays and strings, counting each
+     * interned string once and references as compressed.
+     */
+    public long sizeInBytes() {
+        long bytes = 8L * (dishIds.length * (2L + SORT_FIELDS.length) + chefIds.length * 2L
+                + dishChefIds.length * 2L)
+                + 4L * (preparationTimes.length + dishChefOffsets.length + chefDishOffsets.length)
+                + cuisines.length + genders.length
+                + 4L * (dishIds.length * 2L + chefIds.length * 4L);
+        Set<String> strings = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String[] column : List.of(dishCodes, dishNames, externalKeys, firstNames, lastNames, bios)) {
+            for (String value : column) {
+                if (value != null && strings.add(value)) {
+                    bytes += 40 + value.length();
+                }
+            }
+        }
+        return bytes;
+    }
+
+    public DishSummary dish(long id) {
+        int row = Arrays.binarySearch(dishIds, id);
+        return row < 0 ? null : dishSummary(row);
+    }
+
+    public DishSummary dishByCode(String dishId) {
+        int low = 0;
+        int high = dishesByCode.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int row = Arrays.binarySearch(dishIds, dishesByCode[middle]);
+            int comparison = dishCodes[row].compareTo(dishId);
+            if (comparison == 0) {
+                return dishSummary(row);
+            }
+            if (comparison < 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Every dish, by id.
+     */
+    public List<DishSummary> dishes() {
+        return list(dishIds.length, this::dishSummary);
+    }
+
+    public ChefSummary chef(long id) {
+        int row = Arrays.binarySearch(chefIds, id);
+        return row < 0 ? null : chefSummary(row);
+    }
+
+    /**
+     * Every chef, by id.
+     */
+    public List<ChefSummary> chefs() {
+        return list(chefIds.length, this::chefSummary);
+    }
+
+    /**
+     * Ids of the chefs of a dish, by id.
+     */
+    public long[] chefsOf(long dishId) {
+        int row = Arrays.binarySearch(dishIds, dishId);
+        return row < 0 ? NO_IDS : Arrays.copyOfRange(dishChefIds, dishChefOffsets[row], dishChefOffsets[row + 1]);
+    }
+
+    /**
+     * Ids of the dishes of a chef, by id.
+     */
+    public long[] dishesOf(long chefId) {
+        int row = Arrays.binarySearch(chefIds, chefId);
+        return row < 0 ? NO_IDS : Arrays.copyOfRange(chefDishIds, chefDishOffsets[row], chefDishOffsets[row + 1]);
+    }
+
+    /**
+     * A keyset page of the dishes that match {@code filter}, like the
+     * repository query, with names compared case-insensitively.
+     */
+    public Window<DishSummary> listDishes(DishFilter filter, DishSortField sortField, Sort.Direction direction,
+                                          ScrollPosition position, int pageSize) {
+        DishFilter matching = filter == null ? DishFilter.NONE : filter;
+        String property = sortField.getProperty();
+        return page(dishesBySortField[sortField.ordinal()], direction, position, pageSize,
+                key -> {
+                    Object value = key.get(property);
+                    Object id = key.get("id");
+                    if (value == null || !(id instanceof Long keyId)) {
+                        return null;
+                    }
+                    return row -> compareDish(sortField, row, value, keyId);
+                },
+                row -> Arrays.binarySearch(dishIds, row),
+                row -> matches(row, matching),
+                row -> {
+                    Map<String, Object> keys = new LinkedHashMap<>();
+                    keys.put(property, switch (sortField) {
+                        case NAME -> dishNames[row];
+                        case CUISINE -> CUISINES[cuisines[row]];
+                        case PREPARATION_TIME -> preparationTimes[row];
+                    });
+                    keys.put("id", dishIds[row]);
+                    return keys;
+                },
+                this::dishSummary);
+    }
+
+    /**
+     * A keyset page of chefs by last name and first name, compared
+     * case-insensitively; only those of {@code gender} unless it is null.
+     */
+    public Window<ChefSummary> listChefs(Gender gender, Sort.Direction direction, ScrollPosition position, int pageSize) {
+        return page(chefsByName, direction, position, pageSize,
+                key -> {
+                    if (!(key.get("lastName") instanceof String lastName)
+                            || !(key.get("firstName") instanceof String firstName)
+                            || !(key.get("id") instanceof Long id)) {
+                        return null;
+                    }
+                    return row -> compareChef(row, lastName, firstName, id);
+                },
+                id -> Arrays.binarySearch(chefIds, id),
+                row -> gender == null || genders[row] == gender.ordinal(),
+                row -> {
+                    Map<String, Object> keys = new LinkedHashMap<>();
+                    keys.put("lastName", lastNames[row]);
+                    keys.put("firstName", firstNames[row]);
+                    keys.put("id", chefIds[row]);
+                    return keys;
+                },
+                this::chefSummary);
+    }
+
+    /**
+     * This snapshot with the dish added or replaced, linked to those of
+     * {@code chefIds} that are in the snapshot.
+     */
+    public CatalogSnapshot withDish(long id, String dishId, String name, Cuisine cuisine, int preparationTime,
+                                    Collection<Long> chefIds) {
+        int found = Arrays.binarySearch(dishIds, id);
+        int row = found >= 0 ? found : -found - 1;
+        int shift = found >= 0 ? 0 : 1;
+        int count = dishIds.length + shift;
+
+        long[] newIds = splice(dishIds, row, shift, id);
+        String[] newCodes = splice(dishCodes, row, shift, intern(dishId));
+        String[] newNames = splice(dishNames, row, shift, intern(name));
+        byte[] newCuisines = Arrays.copyOf(cuisines, count);
+        int[] newTimes = Arrays.copyOf(preparationTimes, count);
+        if (shift == 1) {
+            System.arraycopy(cuisines, row, newCuisines, row + 1, cuisines.length - row);
+            System.arraycopy(preparationTimes, row, newTimes, row + 1, preparationTimes.length - row);
+        }
+        newCuisines[row] = (byte) cuisine.ordinal();
+        newTimes[row] = preparationTime;
+
+        long[] chefs = chefIds.stream().mapToLong(Long::longValue)
+                .filter(chefId -> Arrays.binarySearch(this.chefIds, chefId) >= 0)
+                .distinct().sorted().toArray();
+        int oldStart = dishChefOffsets[row];
+        int oldEnd = found >= 0 ? dishChefOffsets[row + 1] : oldStart;
+        long[] newLinks = new long[dishChefIds.length - (oldEnd - oldStart) + chefs.length];
+        System.arraycopy(dishChefIds, 0, newLinks, 0, oldStart);
+        System.arraycopy(chefs, 0, newLinks, oldStart, chefs.length);
+        System.arraycopy(dishChefIds, oldEnd, newLinks, oldStart + chefs.length, dishChefIds.length - oldEnd);
+        int[] newOffsets = new int[count + 1];
+        int delta = chefs.length - (oldEnd - oldStart);
+        for (int i = 0; i <= count; i++) {
+            int old = i <= row ? i : i - shift;
+            newOffsets[i] = dishChefOffsets[old] + (i > row ? delta : 0);
+        }
+
+        long[][] newOrders = new long[SORT_FIELDS.length][];
+        for (DishSortField field : SORT_FIELDS) {
+            newOrders[field.ordinal()] = reinsert(dishesBySortField[field.ordinal()], id, newIds,
+                    dishOrder(field, newIds, newNames, newCuisines, newTimes));
+        }
+        long[] oldChefs = Arrays.copyOfRange(dishChefIds, oldStart, oldEnd);
+        return new CatalogSnapshot(newIds, newCodes, newNames, newCuisines, newTimes, newOffsets, newLinks,
+                reinsert(dishesByCode, id, newIds, codeOrder(newCodes)), newOrders,
+                this.chefIds, externalKeys, firstNames, lastNames, bios, genders, chefsByName,
+                relink(this.chefIds, new Links(chefDishOffsets, chefDishIds), id, oldChefs, chefs));
+    }
+
+    public CatalogSnapshot withoutDishes(Collection<Long> ids) {
+        long[] removed = ids.stream().mapToLong(Long::longValue).sorted().toArray();
+        LongPredicate kept = id -> Arrays.binarySearch(removed, id) < 0;
+        int[] rows = rows(dishIds.length, row -> kept.test(dishIds[row]));
+
+        int[] newOffsets = new int[rows.length + 1];
+        long[] newLinks = new long[dishChefIds.length];
+        int links = 0;
+        for (int i = 0; i < rows.length; i++) {
+            int row = rows[i];
+            int length = dishChefOffsets[row + 1] - dishChefOffsets[row];
+            System.arraycopy(dishChefIds, dishChefOffsets[row], newLinks, links, length);
+            links += length;
+            newOffsets[i + 1] = links;
+        }
+
+        long[][] newOrders = new long[SORT_FIELDS.length][];
+        for (DishSortField field : SORT_FIELDS) {
+            newOrders[field.ordinal()] = filter(dishesBySortField[field.ordinal()], kept);
+        }
+        return new CatalogSnapshot(pick(dishIds, rows), pick(dishCodes, rows), pick(dishNames, rows),
+                pick(cuisines, rows), pick(preparationTimes, rows), newOffsets, Arrays.copyOf(newLinks, links),
+                filter(dishesByCode, kept), newOrders,
+                chefIds, externalKeys, firstNames, lastNames, bios, genders, chefsByName, null);
+    }
+
+    /**
+     * This snapshot with the chef added or replaced. A null
+     * {@code externalKey} keeps the key of a replaced chef.
+     */
+    public CatalogSnapshot withChef(long id, String externalKey, String firstName, String lastName, String bio,
+                                    Gender gender) {
+        int found = Arrays.binarySearch(chefIds, id);
+        int row = found >= 0 ? found : -found - 1;
+        int shift = found >= 0 ? 0 : 1;
+        String key = externalKey == null && found >= 0 ? externalKeys[row] : externalKey;
+
+        long[] newIds = splice(chefIds, row, shift, id);
+        String[] newFirstNames = splice(firstNames, row, shift, intern(firstName));
+        String[] newLastNames = splice(lastNames, row, shift, intern(lastName));
+        byte[] newGenders = Arrays.copyOf(genders, genders.length + shift);
+        if (shift == 1) {
+            System.arraycopy(genders, row, newGenders, row + 1, genders.length - row);
+        }
+        newGenders[row] = (byte) (gender == null ? -1 : gender.ordinal());
+
+        // A new chef has no dishes yet, so its list is empty.
+        int[] newChefDishOffsets = chefDishOffsets;
+        if (shift == 1) {
+            newChefDishOffsets = new int[chefDishOffsets.length + 1];
+            System.arraycopy(chefDishOffsets, 0, newChefDishOffsets, 0, row + 1);
+            System.arraycopy(chefDishOffsets, row, newChefDishOffsets, row + 1, chefDishOffsets.length - row);
+        }
+        return new CatalogSnapshot(dishIds, dishCodes, dishNames, cuisines, preparationTimes,
+                dishChefOffsets, dishChefIds, dishesByCode, dishesBySortField,
+                newIds, splice(externalKeys, row, shift, intern(key)), newFirstNames, newLastNames,
+                splice(bios, row, shift, intern(bio)), newGenders,
+                reinsert(chefsByName, id, newIds, chefOrder(newIds, newFirstNames, newLastNames)),
+                new Links(newChefDishOffsets, chefDishIds));
+    }
+
+    /**
+     * Removing a chef also removes its links, as the database does.
+     */
+    public CatalogSnapshot withoutChefs(Collection<Long> ids) {
+        long[] removed = ids.stream().mapToLong(Long::longValue).sorted().toArray();
+        LongPredicate kept = id -> Arrays.binarySearch(removed, id) < 0;
+        int[] rows = rows(chefIds.length, row -> kept.test(chefIds[row]));
+
+        int[] newOffsets = new int[dishIds.length + 1];
+        long[] newLinks = new long[dishChefIds.length];
+        int links = 0;
+        for (int row = 0; row < dishIds.length; row++) {
+            for (int link = dishChefOffsets[row]; link < dishChefOffsets[row + 1]; link++) {
+                if (kept.test(dishChefIds[link])) {
+                    newLinks[links++] = dishChefIds[link];
+                }
+            }
+            newOffsets[row + 1] = links;
+        }
+        return new CatalogSnapshot(dishIds, dishCodes, dishNames, cuisines, preparationTimes,
+                newOffsets, Arrays.copyOf(newLinks, links), dishesByCode, dishesBySortField,
+                pick(chefIds, rows), pick(externalKeys, rows), pick(firstNames, rows), pick(lastNames, rows),
+                pick(bios, rows), pick(genders, rows), filter(chefsByName, kept), null);
+    }
+
+    private DishSummary dishSummary(int row) {
+        return new DishSummary(dishIds[row], dishCodes[row], dishNames[row], CUISINES[cuisines[row]],
+                preparationTimes[row]);
+    }
+
+    private ChefSummary chefSummary(int row) {
+        return new ChefSummary(chefIds[row], externalKeys[row], firstNames[row], lastNames[row], bios[row],
+                genders[row] < 0 ? null : GENDERS[genders[row]]);
+    }
+
+    private boolean matches(int row, DishFilter filter) {
+        if (!filter.cuisines().isEmpty() && !filter.cuisines().contains(CUISINES[cuisines[row]])) {
+            return false;
+        }
+        if (filter.minPreparationTime() != null && preparationTimes[row] < filter.minPreparationTime()) {
+            return false;
+        }
+        if (filter.maxPreparationTime() != null && preparationTimes[row] > filter.maxPreparationTime()) {
+            return false;
+        }
+        if (filter.chefIds().isEmpty()) {
+            return true;
+        }
+        for (int link = dishChefOffsets[row]; link < dishChefOffsets[row + 1]; link++) {
+            if (filter.chefIds().contains(dishChefIds[link])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int compareDish(DishSortField field, int row, Object value, long id) {
+        int comparison = switch (field) {
+            case NAME -> compareNames(dishNames[row], value.toString());
+            case CUISINE -> CUISINES[cuisines[row]].name().compareTo(value.toString());
+            case PREPARATION_TIME -> Integer.compare(preparationTimes[row], ((Number) value).intValue());
+        };
+        return comparison != 0 ? comparison : Long.compare(dishIds[row], id);
+    }
+
+    private int compareChef(int row, String lastName, String firstName, long id) {
+        int comparison = compareNames(lastNames[row], lastName);
+        if (comparison == 0) {
+            comparison = compareNames(firstNames[row], firstName);
+        }
+        return comparison != 0 ? comparison : Long.compare(chefIds[row], id);
+    }
+
+    /**
+     * Walks {@code order} from the key of {@code position} in display order,
+     * or against it when scrolling backward, collecting one row more than
+     * the page to know whether there is a next page.
+     *
+     * @param keyComparator compares a row with the key, or null for a malformed key
+     */
+    private static <T> Window<T> page(long[] order, Sort.Direction direction, ScrollPosition position,
+                                      int pageSize, Function<Map<String, ?>, RowComparator> keyComparator,
+                                      LongToIntFunction rowOf, IntPredicate matches,
+                                      IntFunction<Map<String, Object>> keysOf, IntFunction<T> summaryOf) {
+        boolean ascending = direction.isAscending();
+        boolean backward = false;
+        int start = ascending ? 0 : order.length - 1;
+        int step = ascending ? 1 : -1;
+
+        if (position instanceof KeysetScrollPosition keyset && !keyset.getKeys().isEmpty()) {
+            RowComparator key = keyComparator.apply(keyset.getKeys());
+            if (key != null) {
+                backward = keyset.scrollsBackward();
+                boolean up = ascending != backward;
+                start = up ? bound(order, rowOf, key, true) : bound(order, rowOf, key, false) - 1;
+                step = up ? 1 : -1;
+            }
+        }
+
+        List<Integer> rows = new ArrayList<>(pageSize + 1);
+        for (int i = start; i >= 0 && i < order.length && rows.size() <= pageSize; i += step) {
+            int row = rowOf.applyAsInt(order[i]);
+            if (matches.test(row)) {
+                rows.add(row);
+            }
+        }
+        boolean hasNext = rows.size() > pageSize;
+        List<Integer> page = new ArrayList<>(rows.subList(0, Math.min(pageSize, rows.size())));
+        if (backward) {
+            Collections.reverse(page);
+        }
+
+        List<T> items = page.stream().map(summaryOf::apply).toList();
+        ScrollPosition.Direction scrollDirection = backward ? ScrollPosition.Direction.BACKWARD : ScrollPosition.Direction.FORWARD;
+        return Window.from(items, index -> ScrollPosition.of(keysOf.apply(page.get(index)), scrollDirection), hasNext);
+    }
+
+    /**
+     * Index of the first id in {@code order} whose row is greater than the
+     * key, or greater than or equal to it when {@code strict} is false.
+     */
+    private static int bound(long[] order, LongToIntFunction rowOf, RowComparator key,
+                             boolean strict) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = key.compare(rowOf.applyAsInt(order[middle]));
+            if (comparison > 0 || (!strict && comparison == 0)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    @FunctionalInterface
+    private interface RowComparator {
+        /**
+         * Compares the row with the key.
+         */
+        int compare(int row);
+    }
+
+    @FunctionalInterface
+    private interface RowOrder {
+        int compare(int first, int second);
+    }
+
+    private static RowOrder dishOrder(DishSortField field, long[] ids, String[] names, byte[] cuisines, int[] times) {
+        return (a, b) -> {
+            int comparison = switch (field) {
+                case NAME -> compareNames(names[a], names[b]);
+                case CUISINE -> CUISINES[cuisines[a]].name().compareTo(CUISINES[cuisines[b]].name());
+                case PREPARATION_TIME -> Integer.compare(times[a], times[b]);
+            };
+            return comparison != 0 ? comparison : Long.compare(ids[a], ids[b]);
+        };
+    }
+
+    private static RowOrder codeOrder(String[] codes) {
+        return (a, b) -> codes[a].compareTo(codes[b]);
+    }
+
+    private static RowOrder chefOrder(long[] ids, String[] firstNames, String[] lastNames) {
+        return (a, b) -> {
+            int comparison = compareNames(lastNames[a], lastNames[b]);
+            if (comparison == 0) {
+                comparison = compareNames(firstNames[a], firstNames[b]);
+            }
+            return comparison != 0 ? comparison : Long.compare(ids[a], ids[b]);
+        };
+    }
+
+    private static int compareNames(String first, String second) {
+        int comparison = String.CASE_INSENSITIVE_ORDER.compare(first, second);
+        return comparison != 0 ? comparison : first.compareTo(second);
+    }
+
+    /**
+     * The ids, sorted by the rows they belong to.
+     */
+    private static long[] sorted(long[] ids, RowOrder order) {
+        return IntStream.range(0, ids.length).boxed().sorted(order::compare).mapToLong(row -> ids[row]).toArray();
+    }
+
+    /**
+     * {@code order} without {@code id}, with {@code id} inserted where
+     * {@code comparator} puts its row in {@code ids}, in a single copy.
+     */
+    private static long[] reinsert(long[] order, long id, long[] ids, RowOrder comparator) {
+        int skip = -1;
+        for (int i = 0; i < order.length; i++) {
+            if (order[i] == id) {
+                skip = i;
+                break;
+            }
+        }
+        int length = skip < 0 ? order.length : order.length - 1;
+        int row = Arrays.binarySearch(ids, id);
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            long other = order[skip >= 0 && middle >= skip ? middle + 1 : middle];
+            if (comparator.compare(Arrays.binarySearch(ids, other), row) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        long[] result = new long[length + 1];
+        copyWithout(order, skip, 0, low, result, 0);
+        result[low] = id;
+        copyWithout(order, skip, low, length, result, low + 1);
+        return result;
+    }
+
+    /**
+     * Copies {@code [from, to)} of {@code source} as if the element at
+     * {@code skip} was not there; a negative {@code skip} copies as is.
+     */
+    private static void copyWithout(long[] source, int skip, int from, int to, long[] target, int at) {
+        if (skip < 0 || to <= skip) {
+            System.arraycopy(source, from, target, at, to - from);
+        } else if (from >= skip) {
+            System.arraycopy(source, from + 1, target, at, to - from);
+        } else {
+            System.arraycopy(source, from, target, at, skip - from);
+            System.arraycopy(source, skip + 1, target, at + skip - from, to - skip);
+        }
+    }
+
+    /**
+     * Chef to dish links, derived from the dish to chef links; each list is
+     * sorted by dish id.
+     */
+    private static Links chefLinks(long[] dishIds, int[] dishChefOffsets, long[] dishChefIds, long[] chefIds) {
+        int[] offsets = new int[chefIds.length + 1];
+        for (long chefId : dishChefIds) {
+            offsets[Arrays.binarySearch(chefIds, chefId) + 1]++;
+        }
+        Arrays.parallelPrefix(offsets, Integer::sum);
+        long[] ids = new long[dishChefIds.length];
+        int[] next = Arrays.copyOf(offsets, chefIds.length);
+        for (int row = 0; row < dishIds.length; row++) {
+            for (int link = dishChefOffsets[row]; link < dishChefOffsets[row + 1]; link++) {
+                ids[next[Arrays.binarySearch(chefIds, dishChefIds[link])]++] = dishIds[row];
+            }
+        }
+        return new Links(offsets, ids);
+    }
+
+    /**
+     * {@code links} with {@code dishId} moved from the lists of the chefs
+     * in {@code removedFrom} to those in {@code addedTo}, both sorted. Lists
+     * of other chefs are copied in bulk.
+     */
+    private static Links relink(long[] chefIds, Links links, long dishId, long[] removedFrom, long[] addedTo) {
+        int[] offsets = new int[chefIds.length + 1];
+        long[] ids = new long[links.ids().length + addedTo.length];
+        int size = 0;
+        for (int row = 0; row < chefIds.length; row++) {
+            int start = links.offsets()[row];
+            int end = links.offsets()[row + 1];
+            boolean added = Arrays.binarySearch(addedTo, chefIds[row]) >= 0;
+            if (!added && Arrays.binarySearch(removedFrom, chefIds[row]) < 0) {
+                System.arraycopy(links.ids(), start, ids, size, end - start);
+                size += end - start;
+            } else {
+                int found = Arrays.binarySearch(links.ids(), start, end, dishId);
+                int cut = found >= 0 ? found : -found - 1;
+                int resume = found >= 0 ? found + 1 : cut;
+                System.arraycopy(links.ids(), start, ids, size, cut - start);
+                size += cut - start;
+                if (added) {
+                    ids[size++] = dishId;
+                }
+                System.arraycopy(links.ids(), resume, ids, size, end - resume);
+                size += end - resume;
+            }
+            offsets[row + 1] = size;
+        }
+        return new Links(offsets, size == ids.length ? ids : Arrays.copyOf(ids, size));
+    }
+
+    private static long[] filter(long[] ids, LongPredicate keep) {
+        long[] kept = new long[ids.length];
+        int size = 0;
+        for (long id : ids) {
+            if (keep.test(id)) {
+                kept[size++] = id;
+            }
+        }
+        return size == ids.length ? kept : Arrays.copyOf(kept, size);
+    }
+
+    private static int[] rows(int count, IntPredicate keep) {
+        int[] rows = new int[count];
+        int size = 0;
+        for (int row = 0; row < count; row++) {
+            if (keep.test(row)) {
+                rows[size++] = row;
+            }
+        }
+        return size == count ? rows : Arrays.copyOf(rows, size);
+    }
+
+    private static <T> List<T> list(int count, IntFunction<T> row) {
+        List<T> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(row.apply(i));
+        }
+        return list;
+    }
+
+    private static long[] splice(long[] array, int index, int shift, long value) {
+        long[] copy = Arrays.copyOf(array, array.length + shift);
+        if (shift == 1) {
+            System.arraycopy(array, index, copy, index + 1, array.length - index);
+        }
+        copy[index] = value;
+        return copy;
+    }
+
+    private static String[] splice(String[] array, int index, int shift, String value) {
+        String[] copy = Arrays.copyOf(array, array.length + shift);
+        if (shift == 1) {
+            System.arraycopy(array, index, copy, index + 1, array.length - index);
+        }
+        copy[index] = value;
+        return copy;
+    }
+
+    private static long[] pick(long[] array, int[] rows) {
+        long[] picked = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            picked[i] = array[rows[i]];
+        }
+        return picked;
+    }
+
+    private static int[] pick(int[] array, int[] rows) {
+        int[] picked = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            picked[i] = array[rows[i]];
+        }
+        return picked;
+    }
+
+    private static byte[] pick(byte[] array, int[] rows) {
+        byte[] picked = new byte[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            picked[i] = array[rows[i]];
+        }
+        return picked;
+    }
+
+    private static String[] pick(String[] array, int[] rows) {
+        String[] picked = new String[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            picked[i] = array[rows[i]];
+        }
+        return picked;
+    }
+
+    private static String intern(String value) {
+        return value == null ? null : value.intern();
+    }
+
+    /**
+     * Adjacency lists: the ids linked to row {@code r} are
+     * {@code ids[offsets[r] .. offsets[r + 1]]}.
+     */
+    private record Links(int[] offsets, long[] ids) {
+    }
+
+    private record DishRow(long id, String dishId, String name, Cuisine cuisine, int preparationTime) {
+    }
+
+    private record ChefRow(long id, String externalKey, String firstName, String lastName, String bio,
+                           Gender gender) {
+    }
+}
@@ -0,0 +1,313 @@
+package mk.ukim.finki.wp.lab.service.impl;
+
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.DishSortField;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary file format of a {@link CatalogSnapshot}, so a node can start
+ * serving reads before it has read the catalog from the database.
+ *
+ * The file is a fixed header (magic, format version, creation time, payload
+ * length and a CRC32C of the payload) followed by the payload: a table of
+ * the distinct strings, the names of the enum constants, and then every
+ * column as a plain array, with strings as indexes into the table and the
+ * listing orders as row numbers. Reading maps the file, checks the header
+ * and the checksum, and copies the arrays out in bulk, so nothing has to be
+ * sorted or interned more than once per distinct string.
+ *
+ * Files are written next to the target and moved into place, so a reader
+ * never sees a partial file.
+ */
+public final class CatalogSnapshotFile {
+
+    static final int MAGIC = 0x44534E50;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 32;
+
+    private CatalogSnapshotFile() {
+    }
+
+    /**
+     * A snapshot read from a file, with the time it was written.
+     */
+    public record Loaded(CatalogSnapshot snapshot, long createdAt) {
+    }
+
+    public static void write(CatalogSnapshot snapshot, Path file) throws IOException {
+        CatalogSnapshot.Columns columns = snapshot.columns();
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(HEADER_BYTES));
+
+            CRC32C checksum = new CRC32C();
+            CheckedOutputStream checked = new CheckedOutputStream(Channels.newOutputStream(channel), checksum);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked, 1 << 16));
+            writePayload(out, columns);
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .putLong(System.currentTimeMillis())
+                    .putLong(out.size())
+                    .putLong(checksum.getValue())
+                    .flip();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @throws IOException when the file is not a snapshot, was written in
+     *                     another format version, or fails its checksum
+     */
+    public static Loaded read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES)
+                throw new IOException("Not a catalog snapshot: " + file);
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC)
+                throw new IOException("Not a catalog snapshot: " + file);
+            int version = buffer.getInt();
+            if (version != FORMAT_VERSION)
+                throw new IOException("Unsupported catalog snapshot version " + version + ": " + file);
+            long createdAt = buffer.getLong();
+            long length = buffer.getLong();
+            long expected = buffer.getLong();
+            if (length != size - HEADER_BYTES)
+                throw new IOException("Truncated catalog snapshot: " + file);
+
+            CRC32C checksum = new CRC32C();
+            checksum.update(buffer.slice());
+            if (checksum.getValue() != expected)
+                throw new IOException("Catalog snapshot checksum mismatch: " + file);
+
+            return new Loaded(CatalogSnapshot.of(readPayload(buffer)), createdAt);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt catalog snapshot: " + file, e);
+        }
+    }
+
+    private static void writePayload(DataOutputStream out, CatalogSnapshot.Columns columns) throws IOException {
+        Map<String, Integer> strings = new HashMap<>();
+        List<String[]> stringColumns = List.of(columns.dishCodes(), columns.dishNames(), columns.externalKeys(),
+                columns.firstNames(), columns.lastNames(), columns.bios());
+        for (String[] column : stringColumns) {
+            for (String value : column) {
+                if (value != null) {
+                    strings.putIfAbsent(value, strings.size());
+                }
+            }
+        }
+        for (Enum<?>[] constants : List.<Enum<?>[]>of(Cuisine.values(), Gender.values(), DishSortField.values())) {
+            for (Enum<?> constant : constants) {
+                strings.putIfAbsent(constant.name(), strings.size());
+            }
+        }
+        String[] table = new String[strings.size()];
+        strings.forEach((value, index) -> table[index] = value);
+        out.writeInt(table.length);
+        for (String value : table) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        // Enums are stored by ordinal, with the names, so reordering or
+        // adding constants does not invalidate older files.
+        writeNames(out, strings, Cuisine.values());
+        writeNames(out, strings, Gender.values());
+        writeNames(out, strings, DishSortField.values());
+
+        long[] dishIds = columns.dishIds();
+        long[] chefIds = columns.chefIds();
+        out.writeInt(dishIds.length);
+        out.writeInt(chefIds.length);
+        out.writeInt(columns.dishChefIds().length);
+
+        writeLongs(out, dishIds);
+        writeStrings(out, strings, columns.dishCodes());
+        writeStrings(out, strings, columns.dishNames());
+        out.write(columns.cuisines());
+        writeInts(out, columns.preparationTimes());
+        writeInts(out, columns.dishChefOffsets());
+        writeLongs(out, columns.dishChefIds());
+        writeRows(out, dishIds, columns.dishesByCode());
+        for (long[] order : columns.dishesBySortField()) {
+            writeRows(out, dishIds, order);
+        }
+
+        writeLongs(out, chefIds);
+        writeStrings(out, strings, columns.externalKeys());
+        writeStrings(out, strings, columns.firstNames());
+        writeStrings(out, strings, columns.lastNames());
+        writeStrings(out, strings, columns.bios());
+        out.write(columns.genders());
+        writeRows(out, chefIds, columns.chefsByName());
+    }
+
+    private static CatalogSnapshot.Columns readPayload(ByteBuffer in) throws IOException {
+        String[] table = new String[in.getInt()];
+        for (int i = 0; i < table.length; i++) {
+            byte[] bytes = new byte[in.getInt()];
+            in.get(bytes);
+            table[i] = new String(bytes, StandardCharsets.UTF_8).intern();
+        }
+
+        byte[] cuisineOrdinals = readOrdinals(in, table, Cuisine.class);
+        byte[] genderOrdinals = readOrdinals(in, table, Gender.class);
+        byte[] sortFieldOrdinals = readOrdinals(in, table, DishSortField.class);
+
+        int dishCount = in.getInt();
+        int chefCount = in.getInt();
+        int linkCount = in.getInt();
+
+        long[] dishIds = readLongs(in, dishCount);
+        String[] dishCodes = readStrings(in, table, dishCount);
+        String[] dishNames = readStrings(in, table, dishCount);
+        byte[] cuisines = readBytes(in, dishCount, cuisineOrdinals);
+        int[] preparationTimes = readInts(in, dishCount);
+        int[] dishChefOffsets = readInts(in, dishCount + 1);
+        long[] dishChefIds = readLongs(in, linkCount);
+        long[] dishesByCode = readOrder(in, dishIds);
+        long[][] dishesBySortField = new long[DishSortField.values().length][];
+        for (byte ordinal : sortFieldOrdinals) {
+            dishesBySortField[ordinal] = readOrder(in, dishIds);
+        }
+        if (Arrays.asList(dishesBySortField).contains(null))
+            throw new IOException("Catalog snapshot misses a dish order");
+
+        long[] chefIds = readLongs(in, chefCount);
+        String[] externalKeys = readStrings(in, table, chefCount);
+        String[] firstNames = readStrings(in, table, chefCount);
+        String[] lastNames = readStrings(in, table, chefCount);
+        String[] bios = readStrings(in, table, chefCount);
+        byte[] genders = readBytes(in, chefCount, genderOrdinals);
+        long[] chefsByName = readOrder(in, chefIds);
+
+        if (in.hasRemaining())
+            throw new IOException("Catalog snapshot has trailing data");
+
+        return new CatalogSnapshot.Columns(dishIds, dishCodes, dishNames, cuisines, preparationTimes,
+                dishChefOffsets, dishChefIds, dishesByCode, dishesBySortField, chefIds, externalKeys, firstNames,
+                lastNames, bios, genders, chefsByName);
+    }
+
+    private static void writeNames(DataOutputStream out, Map<String, Integer> strings, Enum<?>[] constants)
+            throws IOException {
+        out.writeInt(constants.length);
+        for (Enum<?> constant : constants) {
+            out.writeInt(strings.get(constant.name()));
+        }
+    }
+
+    /**
+     * Maps each stored ordinal to the ordinal of the constant with the same name now.
+     */
+    private static <E extends Enum<E>> byte[] readOrdinals(ByteBuffer in, String[] table, Class<E> type)
+            throws IOException {
+        byte[] ordinals = new byte[in.getInt()];
+        for (int i = 0; i < ordinals.length; i++) {
+            String name = table[in.getInt()];
+            try {
+                ordinals[i] = (byte) Enum.valueOf(type, name).ordinal();
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Catalog snapshot has unknown " + type.getSimpleName() + " " + name, e);
+            }
+        }
+        return ordinals;
+    }
+
+    private static void writeLongs(DataOutputStream out, long[] values) throws IOException {
+        for (long value : values) {
+            out.writeLong(value);
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static void writeStrings(DataOutputStream out, Map<String, Integer> strings, String[] values)
+            throws IOException {
+        for (String value : values) {
+            out.writeInt(value == null ? -1 : strings.get(value));
+        }
+    }
+
+    /**
+     * An order of ids, written as the rows of those ids in {@code ids}.
+     */
+    private static void writeRows(DataOutputStream out, long[] ids, long[] order) throws IOException {
+        for (long id : order) {
+            out.writeInt(Arrays.binarySearch(ids, id));
+        }
+    }
+
+    private static long[] readLongs(ByteBuffer in, int count) {
+        long[] values = new long[count];
+        in.asLongBuffer().get(values);
+        in.position(in.position() + count * Long.BYTES);
+        return values;
+    }
+
+    private static int[] readInts(ByteBuffer in, int count) {
+        int[] values = new int[count];
+        in.asIntBuffer().get(values);
+        in.position(in.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    private static byte[] readBytes(ByteBuffer in, int count, byte[] ordinals) {
+        byte[] values = new byte[count];
+        in.get(values);
+        for (int i = 0; i < count; i++) {
+            values[i] = values[i] < 0 ? -1 : ordinals[values[i]];
+        }
+        return values;
+    }
+
+    private static String[] readStrings(ByteBuffer in, String[] table, int count) {
+        int[] indexes = readInts(in, count);
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = indexes[i] < 0 ? null : table[indexes[i]];
+        }
+        return values;
+    }
+
+    private static long[] readOrder(ByteBuffer in, long[] ids) {
+        int[] rows = readInts(in, ids.length);
+        long[] order = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            order[i] = ids[rows[i]];
+        }
+        return order;
+    }
+}
@@ -0,0 +1,55 @@
+package mk.ukim.finki.wp.lab.service.impl;
+
+import mk.ukim.finki.wp.lab.model.events.CatalogChangedEvent;
+import mk.ukim.finki.wp.lab.service.CatalogVersionService;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Counts the committed writes to the catalog, from the events the services
+ * publish. The count starts over on restart, so the version is prefixed
+ * with the start time to never repeat one from an earlier run.
+ *
+ * The version moves on after commit, and after every in-memory view of the
+ * catalog has applied the change: those listeners run at {@link #VIEW_ORDER}.
+ * A page read under a version therefore never shows an older catalog than
+ * the version promises, at worst a newer one, which only costs a reload.
+ */
+@Service
+public class CatalogVersionServiceImpl implements CatalogVersionService {
+
+    public static final int VIEW_ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
+    private record State(long count, long lastModified) {
+    }
+
+    private final String epoch;
+    private final AtomicReference<State> state;
+
+    public CatalogVersionServiceImpl() {
+        long started = System.currentTimeMillis();
+        this.epoch = Long.toString(started, Character.MAX_RADIX);
+        this.state = new AtomicReference<>(new State(0, started));
+    }
+
+    @Override
+    public String version() {
+        return epoch + "-" + state.get().count();
+    }
+
+    @Override
+    public long lastModified() {
+        return state.get().lastModified();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        long now = System.currentTimeMillis();
+        state.updateAndGet(current -> new State(current.count() + 1, Math.max(now, current.lastModified())));
+    }
+}
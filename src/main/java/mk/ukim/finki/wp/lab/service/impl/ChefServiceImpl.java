@@ -1,35 +1,128 @@
 package mk.ukim.finki.wp.lab.service.impl;
 
 import mk.ukim.finki.wp.lab.model.Chef;
-import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.ChefSummary;
+import mk.ukim.finki.wp.lab.model.dto.DishChefIds;
+import mk.ukim.finki.wp.lab.model.dto.NameMatches;
 import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.model.events.ChefSavedEvent;
+import mk.ukim.finki.wp.lab.model.events.ChefsDeletedEvent;
 import mk.ukim.finki.wp.lab.repository.jpa.ChefRepository;
 import mk.ukim.finki.wp.lab.repository.jpa.DishRepository;
 import mk.ukim.finki.wp.lab.service.ChefService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class ChefServiceImpl implements ChefService {
+    private static final double MATCH_SIMILARITY = 0.5;
+    private static final double SUGGESTION_SIMILARITY = 0.3;
+    private static final int MAX_FUZZY_MATCHES = 10;
+
     private final ChefRepository chefRepository;
     private final DishRepository dishRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ChefServiceImpl(ChefRepository chefRepository, DishRepository dishRepository) {
+    public ChefServiceImpl(ChefRepository chefRepository, DishRepository dishRepository,
+                           ApplicationEventPublisher eventPublisher) {
         this.chefRepository = chefRepository;
         this.dishRepository = dishRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Chef> listChefs() {
         return this.chefRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Window<ChefSummary> listChefs(Gender gender, Sort.Direction direction, ScrollPosition position, int pageSize) {
+        Sort sort = Sort.by(direction, "lastName", "firstName", "id");
+        if (gender == null)
+            return this.chefRepository.findSummariesBy(position, sort, Limit.of(pageSize));
+
+        return this.chefRepository.findSummariesByGender(gender, position, sort, Limit.of(pageSize));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ChefSummary> findSummariesById(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty())
+            return List.of();
+
+        return this.chefRepository.findSummariesByIdIn(ids);
+    }
+
+    /**
+     * The chefs of many dishes with two queries, the links and then the
+     * chefs, however many dishes there are; each dish's first {@code limit}
+     * chefs by id.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, List<ChefSummary>> listChefsByDishes(Collection<Long> dishIds, int limit) {
+        Map<Long, List<ChefSummary>> chefs = new LinkedHashMap<>();
+        if (dishIds == null || dishIds.isEmpty())
+            return chefs;
+
+        dishIds.forEach(dishId -> chefs.put(dishId, new ArrayList<>()));
+        List<DishChefIds> links = dishRepository.findChefIdsByDishIds(dishIds, limit);
+        Map<Long, ChefSummary> byId = new HashMap<>();
+        if (!links.isEmpty()) {
+            chefRepository.findSummariesByIdIn(links.stream().map(DishChefIds::chefId).collect(Collectors.toSet()))
+                    .forEach(chef -> byId.put(chef.id(), chef));
+        }
+        for (DishChefIds link : links) {
+            chefs.get(link.dishId()).add(byId.get(link.chefId()));
+        }
+        return chefs;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Chef findById(Long id) {
         return this.chefRepository.findById(id).orElse(null);
     }
 
+    /**
+     * Looks up chefs by first and/or last name, tolerating misspellings such
+     * as "Botura". The looser lookup for a suggestion only runs when nothing matched.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public NameMatches<ChefSummary> findByNameFuzzy(String name) {
+        if (name == null || name.isBlank())
+            return NameMatches.none();
+
+        List<ChefSummary> matches = chefRepository.findByNameSimilarTo(name.trim(), MATCH_SIMILARITY, MAX_FUZZY_MATCHES);
+        if (!matches.isEmpty())
+            return new NameMatches<>(matches, fullName(matches.get(0)));
+
+        return chefRepository.findByNameSimilarTo(name.trim(), SUGGESTION_SIMILARITY, 1).stream()
+                .findFirst()
+                .map(closest -> new NameMatches<ChefSummary>(List.of(), fullName(closest)))
+                .orElse(NameMatches.none());
+    }
+
+    private static String fullName(ChefSummary chef) {
+        return chef.firstName() + " " + chef.lastName();
+    }
+
     @Override
     public Chef create(String firstName, String lastName, String bio,Gender gender) {
         if (    firstName == null || firstName.isEmpty() ||
@@ -38,8 +131,9 @@ public class ChefServiceImpl implements ChefService {
                 gender == null)
             throw new IllegalArgumentException();
 
-        Chef chef = new Chef(firstName, lastName, bio, gender);
-        return chefRepository.save(chef);
+        Chef chef = chefRepository.save(new Chef(firstName, lastName, bio, gender));
+        eventPublisher.publishEvent(new ChefSavedEvent(chef.getId(), chef.getExternalKey(), firstName, lastName, bio, gender));
+        return chef;
     }
 
     @Override
@@ -56,16 +150,27 @@ public class ChefServiceImpl implements ChefService {
         chef.setLastName(lastName);
         chef.setBio(bio);
         chef.setGender(gender);
-        return chefRepository.save(chef);
+        Chef saved = chefRepository.save(chef);
+        eventPublisher.publishEvent(new ChefSavedEvent(id, saved.getExternalKey(), firstName, lastName, bio, gender));
+        return saved;
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
-        Chef chef = chefRepository.findById(id).orElse(null);
-        for (Dish d : chef.getDishes()) {
-            d.getChefs().remove(chef);
-        }
-        chef.getDishes().clear();
-        chefRepository.deleteById(id);
+        deleteAll(List.of(id));
+    }
+
+    @Override
+    @Transactional
+    public void deleteAll(List<Long> ids) {
+        if (ids == null || ids.isEmpty())
+            return;
+
+        // Chef.dishes is only the inverse side, but Hibernate's bulk delete
+        // still clears the dish_chefs rows of these chefs first, through the
+        // collection table of the many-to-many, and evicts its cache regions.
+        chefRepository.deleteAllByIdInBatch(ids);
+        eventPublisher.publishEvent(new ChefsDeletedEvent(List.copyOf(ids)));
     }
 }
\ No newline at end of file
@@ -0,0 +1,394 @@
+package mk.ukim.finki.wp.lab.service.impl;
+
+import mk.ukim.finki.wp.lab.model.dto.ChefFacet;
+import mk.ukim.finki.wp.lab.model.dto.DishFacets;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.PreparationTimeRange;
+import org.roaringbitmap.BatchIterator;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * In-memory index that answers dish filters without the database.
+ *
+ * It keeps one compressed (Roaring) bitmap of dish ids per cuisine, per
+ * preparation time range and per chef. A filter is the intersection of the
+ * unions of the bitmaps it selects, and a facet count is the cardinality of
+ * one bitmap intersected with the other filters, which Roaring computes
+ * without materializing the intersection. Dish ids are stored as ints.
+ *
+ * Only filters whose preparation time bounds are range bounds can be answered,
+ * see {@link #supports(DishFilter)}.
+ *
+ * Bitmaps are updated in place, so reads share a read lock and writes take
+ * the write lock. A reset builds the new bitmaps aside while writes wait, so
+ * reads are not blocked by it and no write made meanwhile is lost.
+ */
+public final class DishBitmapIndex {
+
+    private static final Cuisine[] CUISINES = Cuisine.values();
+    private static final PreparationTimeRange[] RANGES = PreparationTimeRange.values();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile State state;
+
+    /**
+     * @param chefIds replaces the chefs of the dish, if it was indexed before
+     */
+    public record Entry(long id, Cuisine cuisine, int preparationTime, Collection<Long> chefIds) {
+    }
+
+    /**
+     * Receives the whole content in {@link #reset(Consumer)}, in any order.
+     */
+    public interface Loader {
+        void dish(long id, Cuisine cuisine, int preparationTime);
+
+        void chef(long id, String name);
+
+        void assign(long dishId, long chefId);
+    }
+
+    /**
+     * Whether the index was loaded; until then nothing can be answered.
+     */
+    public boolean isLoaded() {
+        return state != null;
+    }
+
+    /**
+     * Replaces the whole content, e.g. when the index is first loaded.
+     */
+    public synchronized void reset(Consumer<Loader> load) {
+        State fresh = new State();
+        load.accept(fresh);
+        fresh.optimize();
+        state = fresh;
+    }
+
+    public synchronized void put(Entry entry) {
+        write(current -> {
+            int id = Math.toIntExact(entry.id());
+            current.removeDish(id);
+            current.dish(id, entry.cuisine(), entry.preparationTime());
+            entry.chefIds().forEach(chefId -> current.assign(id, chefId));
+        });
+    }
+
+    public synchronized void remove(long id) {
+        write(current -> current.removeDish(Math.toIntExact(id)));
+    }
+
+    public synchronized void putChef(long id, String name) {
+        write(current -> current.chef(id, name));
+    }
+
+    /**
+     * Removing a chef also removes its assignments, as the database does.
+     */
+    public synchronized void removeChef(long id) {
+        write(current -> {
+            current.chefs.remove(id);
+            current.chefNames.remove(id);
+        });
+    }
+
+    private void write(Consumer<State> write) {
+        State current = state;
+        if (current == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            write.accept(current);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether {@code filter} can be answered: its preparation time bounds,
+     * if any, have to be bounds of the ranges, e.g. 15 and 59 but not 20.
+     */
+    public boolean supports(DishFilter filter) {
+        Integer min = filter.minPreparationTime();
+        Integer max = filter.maxPreparationTime();
+        boolean minSupported = min == null;
+        boolean maxSupported = max == null;
+        for (PreparationTimeRange range : RANGES) {
+            minSupported |= min != null && min.equals(range.getMin());
+            maxSupported |= max != null && max.equals(range.getMax());
+        }
+        return minSupported && maxSupported;
+    }
+
+    /**
+     * Ids of the dishes that match {@code filter}, as a copy.
+     */
+    public RoaringBitmap match(DishFilter filter) {
+        return read(current -> and(current, current.cuisines(filter), current.ranges(filter), current.chefs(filter)).clone());
+    }
+
+    public long count(DishFilter filter) {
+        return read(current -> {
+            RoaringBitmap cuisines = current.cuisines(filter);
+            RoaringBitmap ranges = current.ranges(filter);
+            RoaringBitmap chefs = current.chefs(filter);
+            if (chefs == null) {
+                return cardinality(current, cuisines, ranges);
+            }
+            return cardinality(current, and(current, cuisines, ranges), chefs);
+        });
+    }
+
+    /**
+     * The same counts as the facet query of DishFacetRepository, including
+     * chefs selected in {@code filter} besides the top {@code maxChefs}.
+     */
+    public DishFacets countFacets(DishFilter filter, int maxChefs) {
+        return read(current -> {
+            RoaringBitmap cuisineMatches = current.cuisines(filter);
+            RoaringBitmap rangeMatches = current.ranges(filter);
+            RoaringBitmap chefMatches = current.chefs(filter);
+
+            Map<Cuisine, Long> cuisines = new EnumMap<>(Cuisine.class);
+            RoaringBitmap others = and(current, rangeMatches, chefMatches);
+            for (Cuisine cuisine : CUISINES) {
+                cuisines.put(cuisine, cardinality(current, current.cuisines[cuisine.ordinal()], others));
+            }
+
+            Map<PreparationTimeRange, Long> preparationTimes = new EnumMap<>(PreparationTimeRange.class);
+            others = and(current, cuisineMatches, chefMatches);
+            for (PreparationTimeRange range : RANGES) {
+                preparationTimes.put(range, cardinality(current, current.ranges[range.ordinal()], others));
+            }
+
+            // A chef has a few dishes in every container. Against a sparse
+            // filter, Roaring intersects two sorted arrays per container for
+            // every chef, so probing a plain bitset of the filter is cheaper.
+            List<ChefFacet> chefs = new ArrayList<>();
+            others = and(current, cuisineMatches, rangeMatches);
+            long[] sparseOthers = isSparse(others) ? words(others) : null;
+            for (Map.Entry<Long, RoaringBitmap> chef : current.chefs.entrySet()) {
+                long count = sparseOthers == null
+                        ? cardinality(current, chef.getValue(), others)
+                        : countIn(chef.getValue(), sparseOthers);
+                if (count > 0 || filter.chefIds().contains(chef.getKey())) {
+                    chefs.add(new ChefFacet(chef.getKey(), current.chefNames.get(chef.getKey()), count));
+                }
+            }
+            for (Long chefId : filter.chefIds()) {
+                if (!current.chefs.containsKey(chefId) && current.chefNames.containsKey(chefId)) {
+                    chefs.add(new ChefFacet(chefId, current.chefNames.get(chefId), 0));
+                }
+            }
+            chefs.sort(Comparator.comparingLong(ChefFacet::count).reversed().thenComparing(ChefFacet::id));
+
+            List<ChefFacet> top = new ArrayList<>(chefs.subList(0, Math.min(maxChefs, chefs.size())));
+            chefs.subList(top.size(), chefs.size()).stream()
+                    .filter(chef -> filter.chefIds().contains(chef.id()))
+                    .forEach(top::add);
+            return new DishFacets(cuisines, preparationTimes, top);
+        });
+    }
+
+    /**
+     * Number of indexed dishes.
+     */
+    public int size() {
+        return read(current -> current.all.getCardinality());
+    }
+
+    /**
+     * Serialized size of all bitmaps, which is close to what they take in memory.
+     */
+    public long sizeInBytes() {
+        return read(current -> {
+            long bytes = current.all.getLongSizeInBytes();
+            for (RoaringBitmap bitmap : current.cuisines) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            for (RoaringBitmap bitmap : current.ranges) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            for (RoaringBitmap bitmap : current.chefs.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            return bytes;
+        });
+    }
+
+    private <T> T read(Function<State, T> read) {
+        State current = state;
+        if (current == null) {
+            throw new IllegalStateException("The dish index is not loaded yet");
+        }
+        lock.readLock().lock();
+        try {
+            return read.apply(current);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Intersection of the given bitmaps, where null means no restriction.
+     * Returns {@code current.all} itself when nothing restricts.
+     */
+    private static RoaringBitmap and(State current, RoaringBitmap... bitmaps) {
+        RoaringBitmap result = null;
+        for (RoaringBitmap bitmap : bitmaps) {
+            if (bitmap != null) {
+                result = result == null ? bitmap : RoaringBitmap.and(result, bitmap);
+            }
+        }
+        return result == null ? current.all : result;
+    }
+
+    private static long cardinality(State current, RoaringBitmap first, RoaringBitmap second) {
+        if (first == null || first == current.all) {
+            return second == null ? current.all.getLongCardinality() : second.getLongCardinality();
+        }
+        if (second == null || second == current.all) {
+            return first.getLongCardinality();
+        }
+        return RoaringBitmap.andCardinality(first, second);
+    }
+
+    /**
+     * Whether Roaring keeps {@code bitmap} mostly in sorted arrays, which it
+     * does below one id in 16.
+     */
+    private static boolean isSparse(RoaringBitmap bitmap) {
+        return !bitmap.isEmpty() && bitmap.getLongCardinality() * 16 < Integer.toUnsignedLong(bitmap.last()) + 1;
+    }
+
+    private static long[] words(RoaringBitmap bitmap) {
+        long[] words = new long[(bitmap.last() >>> 6) + 1];
+        bitmap.forEach((int id) -> words[id >>> 6] |= 1L << id);
+        return words;
+    }
+
+    private static long countIn(RoaringBitmap bitmap, long[] words) {
+        long count = 0;
+        int[] batch = new int[256];
+        BatchIterator ids = bitmap.getBatchIterator();
+        while (ids.hasNext()) {
+            int size = ids.nextBatch(batch);
+            for (int i = 0; i < size; i++) {
+                int word = batch[i] >>> 6;
+                if (word < words.length && (words[word] & 1L << batch[i]) != 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static final class State implements Loader {
+
+        final RoaringBitmap all = new RoaringBitmap();
+        final RoaringBitmap[] cuisines = bitmaps(CUISINES.length);
+        final RoaringBitmap[] ranges = bitmaps(RANGES.length);
+        final Map<Long, RoaringBitmap> chefs = new HashMap<>();
+        final Map<Long, String> chefNames = new HashMap<>();
+
+        @Override
+        public void dish(long id, Cuisine cuisine, int preparationTime) {
+            int dish = Math.toIntExact(id);
+            all.add(dish);
+            cuisines[cuisine.ordinal()].add(dish);
+            ranges[PreparationTimeRange.of(preparationTime).ordinal()].add(dish);
+        }
+
+        @Override
+        public void chef(long id, String name) {
+            chefNames.put(id, name);
+        }
+
+        @Override
+        public void assign(long dishId, long chefId) {
+            chefs.computeIfAbsent(chefId, id -> new RoaringBitmap()).add(Math.toIntExact(dishId));
+        }
+
+        /**
+         * Chefs do not know their dishes here, so every chef bitmap is
+         * checked; that is cheap next to a round trip for the old chefs.
+         */
+        void removeDish(int id) {
+            if (!all.checkedRemove(id)) {
+                return;
+            }
+            for (RoaringBitmap bitmap : cuisines) {
+                bitmap.remove(id);
+            }
+            for (RoaringBitmap bitmap : ranges) {
+                bitmap.remove(id);
+            }
+            chefs.values().removeIf(bitmap -> bitmap.checkedRemove(id) && bitmap.isEmpty());
+        }
+
+        void optimize() {
+            all.runOptimize();
+            Arrays.stream(cuisines).forEach(RoaringBitmap::runOptimize);
+            Arrays.stream(ranges).forEach(RoaringBitmap::runOptimize);
+            chefs.values().forEach(RoaringBitmap::runOptimize);
+        }
+
+        RoaringBitmap cuisines(DishFilter filter) {
+            if (filter.cuisines().isEmpty()) {
+                return null;
+            }
+            return FastAggregation.or(filter.cuisines().stream().map(cuisine -> cuisines[cuisine.ordinal()]).iterator());
+        }
+
+        RoaringBitmap ranges(DishFilter filter) {
+            Integer min = filter.minPreparationTime();
+            Integer max = filter.maxPreparationTime();
+            if (min == null && max == null) {
+                return null;
+            }
+            List<RoaringBitmap> selected = new ArrayList<>();
+            for (PreparationTimeRange range : RANGES) {
+                boolean aboveMin = min == null || range.getMin() >= min;
+                boolean belowMax = max == null || (range.getMax() != null && range.getMax() <= max);
+                if (aboveMin && belowMax) {
+                    selected.add(ranges[range.ordinal()]);
+                }
+            }
+            return FastAggregation.or(selected.iterator());
+        }
+
+        RoaringBitmap chefs(DishFilter filter) {
+            if (filter.chefIds().isEmpty()) {
+                return null;
+            }
+            return FastAggregation.or(filter.chefIds().stream()
+                    .map(chefId -> chefs.getOrDefault(chefId, new RoaringBitmap()))
+                    .iterator());
+        }
+
+        private static RoaringBitmap[] bitmaps(int count) {
+            RoaringBitmap[] bitmaps = new RoaringBitmap[count];
+            for (int i = 0; i < count; i++) {
+                bitmaps[i] = new RoaringBitmap();
+            }
+            return bitmaps;
+        }
+    }
+}
@@ -1,41 +1,173 @@
 package mk.ukim.finki.wp.lab.service.impl;
 
+import jakarta.persistence.EntityManagerFactory;
+import mk.ukim.finki.wp.lab.config.CacheConfig;
 import mk.ukim.finki.wp.lab.model.Chef;
 import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.ChefFacet;
+import mk.ukim.finki.wp.lab.model.dto.ChefSummary;
+import mk.ukim.finki.wp.lab.model.dto.DishChefIds;
+import mk.ukim.finki.wp.lab.model.dto.DishFacets;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.dto.DishSearchHit;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import mk.ukim.finki.wp.lab.model.dto.NameMatches;
 import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.DishSortField;
+import mk.ukim.finki.wp.lab.model.events.CatalogChangedEvent;
+import mk.ukim.finki.wp.lab.model.events.CatalogImportedEvent;
+import mk.ukim.finki.wp.lab.model.events.ChefSavedEvent;
+import mk.ukim.finki.wp.lab.model.events.ChefsDeletedEvent;
+import mk.ukim.finki.wp.lab.model.events.DishSavedEvent;
+import mk.ukim.finki.wp.lab.model.events.DishesDeletedEvent;
+import mk.ukim.finki.wp.lab.model.exceptions.DishIdAlreadyExistsException;
 import mk.ukim.finki.wp.lab.repository.jpa.ChefRepository;
 import mk.ukim.finki.wp.lab.repository.jpa.DishRepository;
+import mk.ukim.finki.wp.lab.repository.jpa.DishSpecifications;
 import mk.ukim.finki.wp.lab.service.DishService;
+import org.hibernate.Cache;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class DishServiceImpl implements DishService {
+    private static final int MAX_QUERY_WORDS = 8;
+    private static final double MATCH_SIMILARITY = 0.5;
+    private static final double SUGGESTION_SIMILARITY = 0.3;
+    private static final int MAX_FUZZY_MATCHES = 10;
+    private static final int MAX_CHEF_FACETS = 10;
+
     private final DishRepository dishRepository;
     private final ChefRepository chefRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTransaction;
+    private final DishBitmapIndex filterIndex = new DishBitmapIndex();
 
-    public DishServiceImpl(DishRepository dishRepository, ChefRepository chefRepository) {
+    public DishServiceImpl(DishRepository dishRepository, ChefRepository chefRepository,
+                           EntityManagerFactory entityManagerFactory, ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager) {
         this.dishRepository = dishRepository;
         this.chefRepository = chefRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // loadFilterIndex also runs after an import commits, and must not
+        // read through that import's session.
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Dish> listDishes() {
         return this.dishRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Window<DishSummary> listDishes(DishFilter filter, DishSortField sortField, Sort.Direction direction, ScrollPosition position, int pageSize) {
+        Sort sort = Sort.by(direction, sortField.getProperty(), "id");
+        if (filter == null || filter.equals(DishFilter.NONE))
+            return this.dishRepository.findSummariesBy(position, sort, Limit.of(pageSize));
+
+        return this.dishRepository.findBy(DishSpecifications.matching(filter), query -> query
+                .as(DishSummary.class)
+                .sortBy(sort)
+                .limit(pageSize)
+                .scroll(position));
+    }
+
+    /**
+     * Answered from the bitmap index whenever it can, so without a
+     * transaction; the repository opens its own for the facet query.
+     */
+    @Override
+    public DishFacets countFacets(DishFilter filter) {
+        if (filter == null)
+            filter = DishFilter.NONE;
+
+        DishFacets facets = filterIndex.isLoaded() && filterIndex.supports(filter)
+                ? filterIndex.countFacets(filter, MAX_CHEF_FACETS)
+                : this.dishRepository.countFacets(filter, MAX_CHEF_FACETS);
+
+        // A selected chef stays listed, so it can be unselected, even when
+        // none of its dishes match the other filters.
+        Set<Long> missing = new HashSet<>(filter.chefIds());
+        facets.chefs().forEach(chef -> missing.remove(chef.id()));
+        if (missing.isEmpty())
+            return facets;
+
+        List<ChefFacet> chefs = new ArrayList<>(facets.chefs());
+        for (Chef chef : chefRepository.findAllById(missing)) {
+            chefs.add(new ChefFacet(chef.getId(), chef.getFirstName() + " " + chef.getLastName(), 0));
+        }
+        return new DishFacets(facets.cuisines(), facets.preparationTimes(), chefs);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Dish findByDishId(String dishId) {
         return this.dishRepository.findByDishId(dishId);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<DishSummary> findSummariesById(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty())
+            return List.of();
+
+        return this.dishRepository.findSummariesByIdIn(ids);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DishSummary> findSummariesByDishId(Collection<String> dishIds) {
+        if (dishIds == null || dishIds.isEmpty())
+            return List.of();
+
+        return this.dishRepository.findSummariesByDishIdIn(dishIds);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Dish findById(Long id) {
-        return this.dishRepository.findById(id).orElse(null);
+        return this.dishRepository.findWithChefsById(id).orElse(null);
     }
 
     @Override
+    @Transactional
     public Dish create(String dishId, String name, Cuisine cuisine, int preparationTime, List<Long> chefsId) {
         if (    dishId == null || dishId.isEmpty() ||
                 name == null || name.isEmpty() ||
@@ -44,20 +176,22 @@ public class DishServiceImpl implements DishService {
             throw new IllegalArgumentException();
 
 
-        List<Chef> chefs = chefRepository.findAllById(chefsId);
+        if (dishRepository.findByDishId(dishId) != null)
+            throw new DishIdAlreadyExistsException(dishId);
+
+        Set<Long> chefIds = existing(distinct(chefsId));
         Dish dish = new Dish(dishId, name, cuisine, preparationTime);
-        dish.setChefs(chefs);
-        for (Chef chef: chefs)
-        {
-            if(!chef.getDishes().contains(dish))
-            {
-                chef.getDishes().add(dish);
-            }
+        for (Long chefId : chefIds) {
+            dish.getChefs().add(chefRepository.getReferenceById(chefId));
         }
-        return dishRepository.save(dish);
+        evictChefDishes(chefIds);
+        Dish saved = dishRepository.save(dish);
+        eventPublisher.publishEvent(new DishSavedEvent(saved.getId(), dishId, name, cuisine, preparationTime, chefIds));
+        return saved;
     }
 
     @Override
+    @Transactional
     public Dish update(Long id, String dishId, String name, Cuisine cuisine, int preparationTime, List<Long> chefsId) {
         if (    dishId == null || dishId.isEmpty() ||
                 name == null || name.isEmpty() ||
@@ -65,32 +199,207 @@ public class DishServiceImpl implements DishService {
                 preparationTime < 0)
             throw new IllegalArgumentException();
 
-        Dish dish = dishRepository.findById(id).orElse(null);
+        Dish dish = dishRepository.findWithChefsById(id).orElse(null);
 
-        List<Chef> chefs = chefRepository.findAllById(chefsId);
+        Dish existing = dishRepository.findByDishId(dishId);
+        if (existing != null && !existing.getId().equals(id))
+            throw new DishIdAlreadyExistsException(dishId);
 
         dish.setDishId(dishId);
         dish.setName(name);
         dish.setCuisine(cuisine);
         dish.setPreparationTime(preparationTime);
-        dish.setChefs(chefs);
-        for (Chef chef: chefs)
-        {
-            if(!chef.getDishes().contains(dish))
-            {
-                chef.getDishes().add(dish);
-            }
+
+        Set<Long> requested = distinct(chefsId);
+        Set<Long> current = dish.getChefs().stream().map(Chef::getId).collect(Collectors.toSet());
+
+        Set<Long> removed = new HashSet<>(current);
+        removed.removeAll(requested);
+        Set<Long> added = new LinkedHashSet<>(requested);
+        added.removeAll(current);
+        added = existing(added);
+
+        dish.getChefs().removeIf(chef -> removed.contains(chef.getId()));
+        for (Long chefId : added) {
+            dish.getChefs().add(chefRepository.getReferenceById(chefId));
         }
-        return dishRepository.save(dish);
+        evictChefDishes(Stream.concat(removed.stream(), added.stream()).toList());
+        Set<Long> chefIds = dish.getChefs().stream().map(Chef::getId).collect(Collectors.toSet());
+        eventPublisher.publishEvent(new DishSavedEvent(id, dishId, name, cuisine, preparationTime, chefIds));
+        return dish;
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
-        dishRepository.deleteById(id);
+        deleteAll(List.of(id));
+    }
+
+    @Override
+    @Transactional
+    public void deleteAll(List<Long> ids) {
+        if (ids == null || ids.isEmpty())
+            return;
+
+        dishRepository.deleteAllByIdInBatch(ids);
+        eventPublisher.publishEvent(new DishesDeletedEvent(List.copyOf(ids)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DishSummary> listDishesByChef(Long chefId) {
+        return dishRepository.findSummariesByChefs_Id(chefId);
+    }
+
+    /**
+     * The dishes of many chefs with two queries, the links and then the
+     * dishes, however many chefs there are; each chef's first {@code limit}
+     * dishes by id.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, List<DishSummary>> listDishesByChefs(Collection<Long> chefIds, int limit) {
+        Map<Long, List<DishSummary>> dishes = new LinkedHashMap<>();
+        if (chefIds == null || chefIds.isEmpty())
+            return dishes;
+
+        chefIds.forEach(chefId -> dishes.put(chefId, new ArrayList<>()));
+        List<DishChefIds> links = dishRepository.findChefIdsByChefIds(chefIds, limit);
+        Map<Long, DishSummary> byId = new HashMap<>();
+        if (!links.isEmpty()) {
+            dishRepository.findSummariesByIdIn(links.stream().map(DishChefIds::dishId).collect(Collectors.toSet()))
+                    .forEach(dish -> byId.put(dish.id(), dish));
+        }
+        for (DishChefIds link : links) {
+            dishes.get(link.chefId()).add(byId.get(link.dishId()));
+        }
+        return dishes;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<DishSearchHit> search(String query, DishFilter filter, Pageable pageable) {
+        String tsQuery = toPrefixQuery(query);
+        if (tsQuery.isEmpty())
+            return new SliceImpl<>(List.of(), pageable, false);
+
+        return dishRepository.search(tsQuery, filter == null ? DishFilter.NONE : filter, pageable);
     }
 
+    /**
+     * Looks up dish names that contain words similar to {@code name}, so
+     * misspellings such as "Tagliatele" still find "Tagliatelle al Ragu".
+     * The looser lookup for a suggestion only runs when nothing matched.
+     */
     @Override
-    public List<Dish> listDishesByChef(Long chefId) {
-        return dishRepository.findAllByChefs_Id(chefId);
+    @Transactional(readOnly = true)
+    public NameMatches<DishSummary> findByNameFuzzy(String name) {
+        if (name == null || name.isBlank())
+            return NameMatches.none();
+
+        List<DishSummary> matches = dishRepository.findByNameSimilarTo(name.trim(), MATCH_SIMILARITY, MAX_FUZZY_MATCHES);
+        if (!matches.isEmpty())
+            return new NameMatches<>(matches, matches.get(0).name());
+
+        return dishRepository.findByNameSimilarTo(name.trim(), SUGGESTION_SIMILARITY, 1).stream()
+                .findFirst()
+                .map(closest -> new NameMatches<DishSummary>(List.of(), closest.name()))
+                .orElse(NameMatches.none());
+    }
+
+    /**
+     * Turns free text into a tsquery that matches dishes containing every
+     * word, the last one also as a prefix, so results appear while typing.
+     * Only the last word is a prefix because a prefix has to collect every
+     * indexed word it starts. Anything but letters and digits is dropped, so
+     * user input can never be parsed as tsquery operators.
+     */
+    private static String toPrefixQuery(String query) {
+        if (query == null)
+            return "";
+        List<String> words = Arrays.stream(query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .limit(MAX_QUERY_WORDS)
+                .toList();
+        if (words.isEmpty())
+            return "";
+        return String.join(" & ", words) + ":*";
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFilterIndex() {
+        filterIndex.reset(loader -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<DishSummary> dishes = dishRepository.streamSummariesBy(Sort.unsorted())) {
+                dishes.forEach(dish -> loader.dish(dish.id(), dish.cuisine(), dish.preparationTime()));
+            }
+            try (Stream<ChefSummary> chefs = chefRepository.streamSummariesBy(Sort.unsorted())) {
+                chefs.forEach(chef -> loader.chef(chef.id(), chef.firstName() + " " + chef.lastName()));
+            }
+            try (Stream<DishChefIds> assignments = dishRepository.streamChefIds()) {
+                assignments.forEach(assignment -> loader.assign(assignment.dishId(), assignment.chefId()));
+            }
+        }));
+    }
+
+    /**
+     * Keeps the bitmap index in step with the catalog, after commit so it
+     * never counts a rolled back change. Imports write around the services,
+     * so they reload it.
+     */
+    @Order(CatalogVersionServiceImpl.VIEW_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        switch (event) {
+            case DishSavedEvent dish -> filterIndex.put(
+                    new DishBitmapIndex.Entry(dish.id(), dish.cuisine(), dish.preparationTime(), dish.chefIds()));
+            case DishesDeletedEvent deleted -> deleted.ids().forEach(filterIndex::remove);
+            case ChefSavedEvent chef -> filterIndex.putChef(chef.id(), chef.firstName() + " " + chef.lastName());
+            case ChefsDeletedEvent deleted -> deleted.ids().forEach(filterIndex::removeChef);
+            case CatalogImportedEvent imported -> loadFilterIndex();
+        }
+    }
+
+    private static Set<Long> distinct(List<Long> chefsId) {
+        return chefsId == null ? Set.of() : new LinkedHashSet<>(chefsId);
+    }
+
+    /**
+     * The chef ids that still exist, in the requested order. A chef deleted
+     * while the form was open is left out instead of failing the insert.
+     */
+    private Set<Long> existing(Set<Long> chefIds) {
+        if (chefIds.isEmpty())
+            return chefIds;
+
+        Set<Long> found = chefRepository.findExistingIds(chefIds);
+        Set<Long> existing = new LinkedHashSet<>(chefIds);
+        existing.retainAll(found);
+        return existing;
+    }
+
+    /**
+     * Chef.dishes is the inverse side of the association and the write path
+     * never loads it, so Hibernate does not know its cached entries changed.
+     * Chefs added to or removed from a dish have to be evicted explicitly.
+     * The eviction runs after commit so a concurrent reader cannot put the
+     * pre-commit rows back in the cache.
+     */
+    private void evictChefDishes(Collection<Long> chefIds) {
+        Runnable evict = () -> {
+            Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+            for (Long chefId : chefIds) {
+                cache.evictCollectionData(CacheConfig.CHEF_DISHES_REGION, chefId);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
     }
-}
\ No newline at end of file
+}
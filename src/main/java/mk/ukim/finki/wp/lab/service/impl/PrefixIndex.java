@@ -0,0 +1,460 @@
+package mk.ukim.finki.wp.lab.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * In-memory prefix index for as-you-type suggestions.
+ *
+ * Every entry has a label and optional aliases, and matches any prefix of a
+ * word in them ("rag" finds "Tagliatelle al Ragu"), case-insensitively.
+ * Matches come back in the order of the matched text.
+ *
+ * Instead of a pointer trie, which costs a few objects per character, the
+ * index keeps all text in one char[] and the keys as a sorted int[] of the
+ * positions where words start, so a key costs 4 bytes and a lookup is a
+ * binary search followed by a scan. Writes go to a small delta segment that
+ * is rebuilt on every write, and entries they replace are masked out of the
+ * base segment. Once the delta holds {@code compactionThreshold} entries,
+ * both are merged into a new base on {@code compactor}; writes made in the
+ * meantime are replayed on top of it.
+ *
+ * Reads never block: every version of the index is immutable and published
+ * through a volatile field.
+ */
+public final class PrefixIndex {
+
+    private static final char END = '\0';
+
+    private final Executor compactor;
+    private final int compactionThreshold;
+
+    private volatile State state = State.EMPTY;
+
+    // Guarded by this.
+    private boolean compacting;
+    private long generation;
+    private final List<Write> replay = new ArrayList<>();
+
+    public PrefixIndex(Executor compactor, int compactionThreshold) {
+        this.compactor = compactor;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * @param id      identifies the entry; putting the same id again replaces it
+     * @param label   returned with each match
+     * @param aliases also searched, but never returned, e.g. a code
+     */
+    public record Entry(long id, String label, List<String> aliases) {
+        public Entry {
+            label = label.strip().replaceAll("\\s+", " ");
+            aliases = aliases == null ? List.of() : aliases.stream().map(alias -> alias.strip().replaceAll("\\s+", " ")).toList();
+        }
+    }
+
+    public record Match(long id, String label) {
+    }
+
+    /**
+     * Replaces the whole content, e.g. when the index is first loaded. Writes
+     * wait while {@code loader} runs, so none made meanwhile is lost.
+     */
+    public synchronized void reset(Supplier<? extends Collection<Entry>> loader) {
+        generation++;
+        replay.clear();
+        state = new State(Segment.build(loader.get()), Segment.EMPTY, Set.of(), Map.of());
+    }
+
+    public synchronized void put(Entry entry) {
+        write(new Write(entry.id(), entry));
+    }
+
+    public synchronized void remove(long id) {
+        write(new Write(id, null));
+    }
+
+    private void write(Write write) {
+        apply(write);
+        if (compacting) {
+            replay.add(write);
+        } else {
+            compactIfNeeded();
+        }
+    }
+
+    /**
+     * Number of live entries.
+     */
+    public int size() {
+        State current = state;
+        return current.base.size() - current.masked.size() + current.deltaEntries.size();
+    }
+
+    /**
+     * Up to {@code limit} distinct entries with a word starting with
+     * {@code prefix}, in the order of the matched text.
+     */
+    public List<Match> find(String prefix, int limit) {
+        char[] query = normalize(prefix).toCharArray();
+        if (query.length == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        State current = state;
+        Cursor base = new Cursor(current.base, query);
+        Cursor delta = new Cursor(current.delta, query);
+        List<Match> matches = new ArrayList<>(limit);
+        Set<Long> seen = new HashSet<>();
+        while (matches.size() < limit && (base.valid() || delta.valid())) {
+            Cursor next = !delta.valid() || (base.valid() && base.compareTo(delta) <= 0) ? base : delta;
+            int entity = next.entity();
+            long id = next.segment.ids[entity];
+            next.advance();
+            if (next == base && current.masked.contains(id)) {
+                continue;
+            }
+            if (seen.add(id)) {
+                matches.add(new Match(id, next.segment.label(entity)));
+            }
+        }
+        return matches;
+    }
+
+    private void apply(Write write) {
+        State current = state;
+        Map<Long, Entry> deltaEntries = new HashMap<>(current.deltaEntries);
+        if (write.entry() == null) {
+            deltaEntries.remove(write.id());
+        } else {
+            deltaEntries.put(write.id(), write.entry());
+        }
+        Set<Long> masked = current.masked;
+        if (current.base.contains(write.id()) && !masked.contains(write.id())) {
+            masked = new HashSet<>(masked);
+            masked.add(write.id());
+        }
+        state = new State(current.base, Segment.build(deltaEntries.values()), masked, deltaEntries);
+    }
+
+    private void compactIfNeeded() {
+        State snapshot = state;
+        if (snapshot.deltaEntries.size() < compactionThreshold) {
+            return;
+        }
+        compacting = true;
+        long started = generation;
+        compactor.execute(() -> {
+            Segment base;
+            try {
+                base = Segment.build(snapshot.liveEntries());
+            } catch (RuntimeException | Error e) {
+                synchronized (this) {
+                    compacting = false;
+                    replay.clear();
+                }
+                throw e;
+            }
+            finishCompaction(started, base);
+        });
+    }
+
+    private synchronized void finishCompaction(long started, Segment base) {
+        compacting = false;
+        // After a reset the writes were made against the new content, which
+        // the compacted segment knows nothing about.
+        if (generation == started) {
+            state = new State(base, Segment.EMPTY, Set.of(), Map.of());
+            replay.forEach(this::apply);
+        }
+        replay.clear();
+        compactIfNeeded();
+    }
+
+    /**
+     * Lower case with runs of whitespace collapsed, the form keys are compared in.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c) || c == END) {
+                space = normalized.length() > 0;
+            } else {
+                if (space) {
+                    normalized.append(' ');
+                    space = false;
+                }
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * A put, or a removal when {@code entry} is null.
+     */
+    private record Write(long id, Entry entry) {
+    }
+
+    private record State(Segment base, Segment delta, Set<Long> masked, Map<Long, Entry> deltaEntries) {
+        static final State EMPTY = new State(Segment.EMPTY, Segment.EMPTY, Set.of(), Map.of());
+
+        List<Entry> liveEntries() {
+            List<Entry> entries = new ArrayList<>(base.size() + deltaEntries.size());
+            base.forEachEntry(entry -> {
+                if (!masked.contains(entry.id())) {
+                    entries.add(entry);
+                }
+            });
+            entries.addAll(deltaEntries.values());
+            return entries;
+        }
+    }
+
+    /**
+     * Immutable, sorted part of the index. Each entity's label and aliases are
+     * stored one after another in {@code text}, each followed by END. Entities
+     * are laid out by id, so {@code starts} and {@code ids} are both sorted.
+     */
+    private static final class Segment {
+        static final Segment EMPTY = new Segment(new char[0], new long[0], new int[]{0}, new int[0]);
+
+        final char[] text;
+        final long[] ids;
+        final int[] starts;
+        final int[] keys;
+
+        private Segment(char[] text, long[] ids, int[] starts, int[] keys) {
+            this.text = text;
+            this.ids = ids;
+            this.starts = starts;
+            this.keys = keys;
+        }
+
+        static Segment build(Collection<Entry> entries) {
+            if (entries.isEmpty()) {
+                return EMPTY;
+            }
+            Entry[] sorted = entries.toArray(Entry[]::new);
+            Arrays.sort(sorted, Comparator.comparingLong(Entry::id));
+
+            StringBuilder text = new StringBuilder();
+            long[] ids = new long[sorted.length];
+            int[] starts = new int[sorted.length + 1];
+            for (int i = 0; i < sorted.length; i++) {
+                ids[i] = sorted[i].id();
+                starts[i] = text.length();
+                text.append(sorted[i].label()).append(END);
+                for (String alias : sorted[i].aliases()) {
+                    text.append(alias).append(END);
+                }
+            }
+            starts[sorted.length] = text.length();
+
+            char[] chars = new char[text.length()];
+            text.getChars(0, text.length(), chars, 0);
+            int[] keys = wordStarts(chars);
+            Segment segment = new Segment(chars, ids, starts, keys);
+            segment.sort(0, keys.length - 1, 0);
+            return segment;
+        }
+
+        private static int[] wordStarts(char[] text) {
+            int[] keys = new int[16];
+            int count = 0;
+            boolean inWord = false;
+            for (int i = 0; i < text.length; i++) {
+                boolean wordChar = Character.isLetterOrDigit(text[i]);
+                if (wordChar && !inWord) {
+                    if (count == keys.length) {
+                        keys = Arrays.copyOf(keys, count * 2);
+                    }
+                    keys[count++] = i;
+                }
+                inWord = wordChar;
+            }
+            return Arrays.copyOf(keys, count);
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, id) >= 0;
+        }
+
+        int entityAt(int position) {
+            int found = Arrays.binarySearch(starts, position);
+            return found >= 0 ? found : -found - 2;
+        }
+
+        String label(int entity) {
+            int start = starts[entity];
+            int end = start;
+            while (text[end] != END) {
+                end++;
+            }
+            return new String(text, start, end - start);
+        }
+
+        void forEachEntry(Consumer<Entry> action) {
+            for (int i = 0; i < ids.length; i++) {
+                List<String> parts = new ArrayList<>(2);
+                int from = starts[i];
+                for (int j = from; j < starts[i + 1]; j++) {
+                    if (text[j] == END) {
+                        parts.add(new String(text, from, j - from));
+                        from = j + 1;
+                    }
+                }
+                action.accept(new Entry(ids[i], parts.get(0), parts.subList(1, parts.size())));
+            }
+        }
+
+        /**
+         * Character {@code depth} of the key at {@code position}, in the
+         * compared form, or -1 past its end.
+         */
+        int charAt(int position, int depth) {
+            char c = text[position + depth];
+            if (c == END) {
+                return -1;
+            }
+            return Character.isWhitespace(c) ? ' ' : Character.toLowerCase(c);
+        }
+
+        /**
+         * Compares the key at {@code position} with {@code query}, looking only
+         * at the first {@code query.length} characters of the key.
+         */
+        int comparePrefix(int position, char[] query) {
+            for (int depth = 0; depth < query.length; depth++) {
+                int c = charAt(position, depth);
+                if (c != query[depth]) {
+                    return c < query[depth] ? -1 : 1;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Three-way radix quicksort of the keys, which compares each
+         * character of a shared prefix only once.
+         */
+        private void sort(int lo, int hi, int depth) {
+            while (hi - lo > 12) {
+                swap(lo, ThreadLocalRandom.current().nextInt(lo, hi + 1));
+                int pivot = charAt(keys[lo], depth);
+                int lt = lo;
+                int gt = hi;
+                int i = lo + 1;
+                while (i <= gt) {
+                    int c = charAt(keys[i], depth);
+                    if (c < pivot) {
+                        swap(lt++, i++);
+                    } else if (c > pivot) {
+                        swap(i, gt--);
+                    } else {
+                        i++;
+                    }
+                }
+                sort(lo, lt - 1, depth);
+                sort(gt + 1, hi, depth);
+                if (pivot < 0) {
+                    return;
+                }
+                lo = lt;
+                hi = gt;
+                depth++;
+            }
+            for (int i = lo + 1; i <= hi; i++) {
+                for (int j = i; j > lo && compare(keys[j], keys[j - 1], depth) < 0; j--) {
+                    swap(j, j - 1);
+                }
+            }
+        }
+
+        private int compare(int a, int b, int depth) {
+            while (true) {
+                int ca = charAt(a, depth);
+                int cb = charAt(b, depth);
+                if (ca != cb || ca < 0) {
+                    return Integer.compare(ca, cb);
+                }
+                depth++;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+        }
+    }
+
+    /**
+     * Walks the keys of one segment that start with the query, in order.
+     */
+    private static final class Cursor {
+        final Segment segment;
+        final char[] query;
+        int index;
+
+        Cursor(Segment segment, char[] query) {
+            this.segment = segment;
+            this.query = query;
+            int lo = 0;
+            int hi = segment.keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (segment.comparePrefix(segment.keys[mid], query) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            this.index = lo;
+        }
+
+        boolean valid() {
+            return index < segment.keys.length && segment.comparePrefix(segment.keys[index], query) == 0;
+        }
+
+        int entity() {
+            return segment.entityAt(segment.keys[index]);
+        }
+
+        void advance() {
+            index++;
+        }
+
+        int compareTo(Cursor other) {
+            int a = segment.keys[index];
+            int b = other.segment.keys[other.index];
+            for (int depth = 0; ; depth++) {
+                int ca = segment.charAt(a, depth);
+                int cb = other.segment.charAt(b, depth);
+                if (ca != cb || ca < 0) {
+                    return Integer.compare(ca, cb);
+                }
+            }
+        }
+    }
+}
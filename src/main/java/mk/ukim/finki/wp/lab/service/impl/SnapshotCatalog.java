@@ -0,0 +1,252 @@
+package mk.ukim.finki.wp.lab.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import mk.ukim.finki.wp.lab.config.CatalogSnapshotProperties;
+import mk.ukim.finki.wp.lab.model.dto.ChefSummary;
+import mk.ukim.finki.wp.lab.model.dto.DishChefIds;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import mk.ukim.finki.wp.lab.model.events.CatalogChangedEvent;
+import mk.ukim.finki.wp.lab.model.events.CatalogImportedEvent;
+import mk.ukim.finki.wp.lab.model.events.ChefSavedEvent;
+import mk.ukim.finki.wp.lab.model.events.ChefsDeletedEvent;
+import mk.ukim.finki.wp.lab.model.events.DishSavedEvent;
+import mk.ukim.finki.wp.lab.model.events.DishesDeletedEvent;
+import mk.ukim.finki.wp.lab.repository.jpa.ChefRepository;
+import mk.ukim.finki.wp.lab.repository.jpa.DishRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Holds the current {@link CatalogSnapshot} for the "snapshot" profile.
+ *
+ * Readers take {@link #current()} without any locking. Writers are
+ * serialized, build the next snapshot from the current one and publish it
+ * with a single volatile write, so a reader sees either the old or the new
+ * catalog, never a mix. Changes are applied from the events the services
+ * publish, after commit, so a snapshot never shows a rolled back change.
+ *
+ * With {@code catalog.snapshot.file} set, the snapshot is restored from that
+ * file as soon as this bean is created and reconciled with the database in
+ * the background once the application is ready. It is written back to the
+ * file when it changed, every {@code catalog.snapshot.write-interval} and on
+ * shutdown.
+ */
+@Component
+@Profile("snapshot")
+public class SnapshotCatalog {
+
+    private final DishRepository dishRepository;
+    private final ChefRepository chefRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Path file;
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final CompletableFuture<Long> reconciliation = new CompletableFuture<>();
+    private final Object writeLock = new Object();
+    private volatile CatalogSnapshot snapshot;
+    private CatalogSnapshot written;
+    private List<CatalogChangedEvent> pending;
+
+    public SnapshotCatalog(DishRepository dishRepository, ChefRepository chefRepository,
+                           PlatformTransactionManager transactionManager, CatalogSnapshotProperties properties) {
+        this.dishRepository = dishRepository;
+        this.chefRepository = chefRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // A snapshot rebuilt after an import needs its own consistent read,
+        // not the committed import transaction still bound to the thread.
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.file = properties.file();
+        if (file != null) {
+            restore();
+            long interval = properties.writeInterval().toMillis();
+            writer.scheduleWithFixedDelay(this::writeIfChanged, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * The latest snapshot, or null until the first load finished.
+     */
+    public CatalogSnapshot current() {
+        return snapshot;
+    }
+
+    /**
+     * Completes with the number of dishes and chefs the restored file
+     * differed from the database in, or zero when nothing was restored.
+     */
+    public CompletableFuture<Long> reconciliation() {
+        return reconciliation;
+    }
+
+    /**
+     * A missing, corrupt or outdated file is not an error: the node then
+     * starts from the database, and the file is replaced at the next write.
+     */
+    private void restore() {
+        if (!Files.isRegularFile(file))
+            return;
+        try {
+            snapshot = CatalogSnapshotFile.read(file).snapshot();
+            written = snapshot;
+        } catch (IOException e) {
+            snapshot = null;
+        }
+    }
+
+    /**
+     * Without a restored snapshot the catalog is loaded before the
+     * application takes requests; a restored one is already serving and is
+     * reconciled in the background.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        CatalogSnapshot restored;
+        synchronized (this) {
+            restored = snapshot;
+            if (restored == null) {
+                load();
+                reconciliation.complete(0L);
+                return;
+            }
+            pending = new ArrayList<>();
+        }
+        writer.execute(() -> {
+            try {
+                reconciliation.complete(reconcile(restored));
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pending = null;
+                }
+                reconciliation.completeExceptionally(e);
+            }
+        });
+    }
+
+    /**
+     * Reads the catalog from the database while the restored snapshot keeps
+     * serving, then replays the changes committed meanwhile on top of it.
+     * A full reload during that time is newer, so it wins.
+     */
+    private long reconcile(CatalogSnapshot restored) {
+        CatalogSnapshot database = read();
+        synchronized (this) {
+            List<CatalogChangedEvent> changes = pending;
+            pending = null;
+            if (changes.stream().noneMatch(CatalogImportedEvent.class::isInstance)) {
+                CatalogSnapshot next = database;
+                for (CatalogChangedEvent change : changes) {
+                    next = apply(next, change);
+                }
+                snapshot = next;
+            }
+        }
+        return restored.differences(database);
+    }
+
+    /**
+     * Loads the catalog from the database. Changes committed while loading
+     * wait for the lock and are applied on top, which is harmless when the
+     * load already saw them.
+     */
+    public synchronized void load() {
+        snapshot = read();
+    }
+
+    private CatalogSnapshot read() {
+        return CatalogSnapshot.load(loader -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<DishSummary> dishes = dishRepository.streamSummariesBy(Sort.unsorted())) {
+                dishes.forEach(dish -> loader.dish(dish.id(), dish.dishId(), dish.name(), dish.cuisine(),
+                        dish.preparationTime()));
+            }
+            try (Stream<ChefSummary> chefs = chefRepository.streamSummariesBy(Sort.unsorted())) {
+                chefs.forEach(chef -> loader.chef(chef.id(), chef.externalKey(), chef.firstName(), chef.lastName(),
+                        chef.bio(), chef.gender()));
+            }
+            try (Stream<DishChefIds> assignments = dishRepository.streamChefIds()) {
+                assignments.forEach(assignment -> loader.assign(assignment.dishId(), assignment.chefId()));
+            }
+        }));
+    }
+
+    /**
+     * Imports write around the services, so they reload the whole catalog.
+     * Changes before the first load are already part of it.
+     */
+    @Order(CatalogVersionServiceImpl.VIEW_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(CatalogChangedEvent event) {
+        if (pending != null) {
+            pending.add(event);
+        }
+        if (event instanceof CatalogImportedEvent) {
+            load();
+            return;
+        }
+        CatalogSnapshot current = snapshot;
+        if (current == null)
+            return;
+
+        snapshot = apply(current, event);
+    }
+
+    private static CatalogSnapshot apply(CatalogSnapshot current, CatalogChangedEvent event) {
+        return switch (event) {
+            case DishSavedEvent dish -> current.withDish(dish.id(), dish.dishId(), dish.name(), dish.cuisine(),
+                    dish.preparationTime(), dish.chefIds());
+            case DishesDeletedEvent deleted -> current.withoutDishes(deleted.ids());
+            case ChefSavedEvent chef -> current.withChef(chef.id(), chef.externalKey(), chef.firstName(), chef.lastName(),
+                    chef.bio(), chef.gender());
+            case ChefsDeletedEvent deleted -> current.withoutChefs(deleted.ids());
+            case CatalogImportedEvent imported -> current;
+        };
+    }
+
+    /**
+     * Writes the current snapshot to the file, unless it is the one last
+     * written or restored. A failed write keeps the previous file, and is
+     * tried again at the next interval.
+     */
+    public void writeIfChanged() {
+        synchronized (writeLock) {
+            CatalogSnapshot current = snapshot;
+            if (file == null || current == null || current == written)
+                return;
+            try {
+                CatalogSnapshotFile.write(current, file);
+                written = current;
+            } catch (IOException e) {
+                written = null;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdownNow();
+        writer.awaitTermination(1, TimeUnit.MINUTES);
+        writeIfChanged();
+    }
+}
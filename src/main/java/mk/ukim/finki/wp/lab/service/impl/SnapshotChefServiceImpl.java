@@ -0,0 +1,137 @@
+package mk.ukim.finki.wp.lab.service.impl;
+
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.ChefSummary;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import mk.ukim.finki.wp.lab.model.dto.NameMatches;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.service.ChefService;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Serves chef reads from the {@link SnapshotCatalog} and writes them through
+ * {@link ChefServiceImpl}, like {@link SnapshotDishServiceImpl}. The fuzzy
+ * lookup relies on trigram indexes, so it stays with the database.
+ */
+@Service
+@Primary
+@Profile("snapshot")
+public class SnapshotChefServiceImpl implements ChefService {
+
+    private final SnapshotCatalog catalog;
+    private final ChefServiceImpl delegate;
+
+    public SnapshotChefServiceImpl(SnapshotCatalog catalog, ChefServiceImpl delegate) {
+        this.catalog = catalog;
+        this.delegate = delegate;
+    }
+
+    /**
+     * The chefs do not list their dishes, as with the lazy association.
+     */
+    @Override
+    public List<Chef> listChefs() {
+        CatalogSnapshot snapshot = catalog.current();
+        if (snapshot == null)
+            return delegate.listChefs();
+
+        return snapshot.chefs().stream().map(SnapshotDishServiceImpl::toChef).toList();
+    }
+
+    @Override
+    public Window<ChefSummary> listChefs(Gender gender, Sort.Direction direction, ScrollPosition position, int pageSize) {
+        CatalogSnapshot snapshot = catalog.current();
+        if (snapshot == null)
+            return delegate.listChefs(gender, direction, position, pageSize);
+
+        return snapshot.listChefs(gender, direction, position, pageSize);
+    }
+
+    @Override
+    public List<ChefSummary> findSummariesById(Collection<Long> ids) {
+        CatalogSnapshot snapshot = catalog.current();
+        if (snapshot == null)
+            return delegate.findSummariesById(ids);
+
+        return ids == null ? List.of() : ids.stream()
+                .distinct()
+                .map(snapshot::chef)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public Map<Long, List<ChefSummary>> listChefsByDishes(Collection<Long> dishIds, int limit) {
+        CatalogSnapshot snapshot = catalog.current();
+        if (snapshot == null)
+            return delegate.listChefsByDishes(dishIds, limit);
+
+        Map<Long, List<ChefSummary>> chefs = new LinkedHashMap<>();
+        if (dishIds != null) {
+            dishIds.forEach(dishId -> chefs.put(dishId,
+                    Arrays.stream(snapshot.chefsOf(dishId)).limit(limit).mapToObj(snapshot::chef).toList()));
+        }
+        return chefs;
+    }
+
+    /**
+     * The chef with its dishes, which do not list their chefs.
+     */
+    @Override
+    public Chef findById(Long id) {
+        CatalogSnapshot snapshot = catalog.current();
+        if (snapshot == null)
+            return delegate.findById(id);
+
+        ChefSummary summary = snapshot.chef(id);
+        if (summary == null)
+            return null;
+
+        Chef chef = SnapshotDishServiceImpl.toChef(summary);
+        for (long dishId : snapshot.dishesOf(id)) {
+            DishSummary dish = snapshot.dish(dishId);
+            Dish detached = new Dish(dish.dishId(), dish.name(), dish.cuisine(), dish.preparationTime());
+            detached.setId(dish.id());
+            chef.getDishes().add(detached);
+        }
+        return chef;
+    }
+
+    @Override
+    public NameMatches<ChefSummary> findByNameFuzzy(String name) {
+        return delegate.findByNameFuzzy(name);
+    }
+
+    @Override
+    public Chef create(String firstName, String lastName, String bio, Gender gender) {
+        return delegate.create(firstName, lastName, bio, gender);
+    }
+
+    @Override
+    public Chef update(Long id, String firstName, String lastName, String bio, Gender gender) {
+        return delegate.update(id, firstName, lastName, bio, gender);
+    }
+
+    @Override
+    public void delete(Long id) {
+        delegate.delete(id);
+    }
+
+    @Override
+    public void deleteAll(List<Long> ids) {
+        delegate.deleteAll(ids);
+    }
+}
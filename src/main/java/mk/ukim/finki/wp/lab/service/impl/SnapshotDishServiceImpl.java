@@ -0,0 +1,199 @@
+package mk.ukim.finki.wp.lab.service.impl;
+
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.ChefSummary;
+import mk.ukim.finki.wp.lab.model.dto.DishFacets;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.dto.DishSearchHit;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import mk.ukim.finki.wp.lab.model.dto.NameMatches;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.DishSortField;
+import mk.ukim.finki.wp.lab.service.DishService;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Serves dish reads from the {@link SnapshotCatalog}, so they never reach
+ * the database, and writes them through {@link DishServiceImpl}. A write is
+ * visible to reads once its transaction commits. Until the first snapshot
+ * is loaded every read goes to the database.
+ *
+ * Search, fuzzy lookup and facets stay with {@link DishServiceImpl}: they
+ * rely on PostgreSQL text search and trigram indexes, and facets are
+ * already answered from its bitmap index.
+ */
+@Service
+@Primary
+@Profile("snapshot")
+public class SnapshotDishServiceImpl implements DishService {
+
+    private final SnapshotCatalog catalog;
+    private final DishServiceImpl delegate;
+
+    public SnapshotDishServiceImpl(SnapshotCatalog catalog, DishServiceImpl delegate) {
+        this.catalog = catalog;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public List<Dish> listDishes() {
+        CatalogSnapshot snapshot = catalog.current();
+        if (snapshot == null)
+            return delegate.listDishes();
+
+        Map<Long, Chef> chefs = new HashMap<>();
+        return snapshot.dishes().stream()
+                .map(dish -> toDish(snapshot, dish, chefs))
+                .toList();
+    }
+
+    @Override
+    public Window<DishSummary> listDishes(DishFilter filter, DishSortField sortField, Sort.Direction direction, ScrollPosition position, int pageSize) {
+        CatalogSnapshot snapshot = catalog.current();
+        if (snapshot == null)
+            return delegate.listDishes(filter, sortField, direction, position, pageSize);
+
+        return snapshot.listDishes(filter, sortField, direction, position, pageSize);
+    }
+
+    @Override
+    public DishFacets countFacets(DishFilter filter) {
+        return delegate.countFacets(filter);
+    }
+
+    @Override
+    public Dish findByDishId(String dishId) {
+        CatalogSnapshot snapshot = catalog.current();
+        if (snapshot == null)
+            return delegate.findByDishId(dishId);
+
+        DishSummary dish = snapshot.dishByCode(dishId);
+        return dish == null ? null : toDish(snapshot, dish, new HashMap<>());
+    }
+
+    @Override
+    public List<DishSummary> findSummariesById(Collection<Long> ids) {
+        CatalogSnapshot snapshot = catalog.current();
+        if (snapshot == null)
+            return delegate.findSummariesById(ids);
+
+        return ids == null ? List.of() : ids.stream()
+                .distinct()
+                .map(snapshot::dish)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public List<DishSummary> findSummariesByDishId(Collection<String> dishIds) {
+        CatalogSnapshot snapshot = catalog.current();
+        if (snapshot == null)
+            return delegate.findSummariesByDishId(dishIds);
+
+        return dishIds == null ? List.of() : dishIds.stream()
+                .distinct()
+                .map(snapshot::dishByCode)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public Dish findById(Long id) {
+        CatalogSnapshot snapshot = catalog.current();
+        if (snapshot == null)
+            return delegate.findById(id);
+
+        DishSummary dish = snapshot.dish(id);
+        return dish == null ? null : toDish(snapshot, dish, new HashMap<>());
+    }
+
+    @Override
+    public Dish create(String dishId, String name, Cuisine cuisine, int preparationTime, List<Long> chefsId) {
+        return delegate.create(dishId, name, cuisine, preparationTime, chefsId);
+    }
+
+    @Override
+    public Dish update(Long id, String dishId, String name, Cuisine cuisine, int preparationTime, List<Long> chefsId) {
+        return delegate.update(id, dishId, name, cuisine, preparationTime, chefsId);
+    }
+
+    @Override
+    public void delete(Long id) {
+        delegate.delete(id);
+    }
+
+    @Override
+    public void deleteAll(List<Long> ids) {
+        delegate.deleteAll(ids);
+    }
+
+    @Override
+    public List<DishSummary> listDishesByChef(Long chefId) {
+        CatalogSnapshot snapshot = catalog.current();
+        if (snapshot == null)
+            return delegate.listDishesByChef(chefId);
+
+        long[] dishIds = snapshot.dishesOf(chefId);
+        return Arrays.stream(dishIds).mapToObj(snapshot::dish).toList();
+    }
+
+    @Override
+    public Map<Long, List<DishSummary>> listDishesByChefs(Collection<Long> chefIds, int limit) {
+        CatalogSnapshot snapshot = catalog.current();
+        if (snapshot == null)
+            return delegate.listDishesByChefs(chefIds, limit);
+
+        Map<Long, List<DishSummary>> dishes = new LinkedHashMap<>();
+        if (chefIds != null) {
+            chefIds.forEach(chefId -> dishes.put(chefId,
+                    Arrays.stream(snapshot.dishesOf(chefId)).limit(limit).mapToObj(snapshot::dish).toList()));
+        }
+        return dishes;
+    }
+
+    @Override
+    public Slice<DishSearchHit> search(String query, DishFilter filter, Pageable pageable) {
+        return delegate.search(query, filter, pageable);
+    }
+
+    @Override
+    public NameMatches<DishSummary> findByNameFuzzy(String name) {
+        return delegate.findByNameFuzzy(name);
+    }
+
+    /**
+     * A detached dish with its chefs, sharing one Chef per id through
+     * {@code chefs}. The chefs do not list their dishes.
+     */
+    private static Dish toDish(CatalogSnapshot snapshot, DishSummary summary, Map<Long, Chef> chefs) {
+        Dish dish = new Dish(summary.dishId(), summary.name(), summary.cuisine(), summary.preparationTime());
+        dish.setId(summary.id());
+        for (long chefId : snapshot.chefsOf(summary.id())) {
+            dish.getChefs().add(chefs.computeIfAbsent(chefId, id -> toChef(snapshot.chef(id))));
+        }
+        return dish;
+    }
+
+    static Chef toChef(ChefSummary summary) {
+        Chef chef = new Chef(summary.firstName(), summary.lastName(), summary.bio(), summary.gender());
+        chef.setId(summary.id());
+        chef.setExternalKey(summary.externalKey());
+        return chef;
+    }
+}
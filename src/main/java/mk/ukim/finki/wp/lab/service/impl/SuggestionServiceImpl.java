@@ -0,0 +1,142 @@
+package mk.ukim.finki.wp.lab.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import mk.ukim.finki.wp.lab.model.dto.Suggestion;
+import mk.ukim.finki.wp.lab.model.enums.SuggestionType;
+import mk.ukim.finki.wp.lab.model.events.CatalogChangedEvent;
+import mk.ukim.finki.wp.lab.model.events.CatalogImportedEvent;
+import mk.ukim.finki.wp.lab.model.events.ChefSavedEvent;
+import mk.ukim.finki.wp.lab.model.events.ChefsDeletedEvent;
+import mk.ukim.finki.wp.lab.model.events.DishSavedEvent;
+import mk.ukim.finki.wp.lab.model.events.DishesDeletedEvent;
+import mk.ukim.finki.wp.lab.repository.jpa.ChefRepository;
+import mk.ukim.finki.wp.lab.repository.jpa.DishRepository;
+import mk.ukim.finki.wp.lab.service.SuggestionService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Serves suggestions from memory, so typing never reaches the database.
+ * The indexes are loaded once the application is ready and then follow the
+ * catalog through the events the services publish, applied after commit so
+ * they never show a rolled back change.
+ */
+@Service
+public class SuggestionServiceImpl implements SuggestionService {
+
+    private static final int COMPACTION_THRESHOLD = 4096;
+
+    private final DishRepository dishRepository;
+    private final ChefRepository chefRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "suggestion-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final PrefixIndex dishes = new PrefixIndex(compactor, COMPACTION_THRESHOLD);
+    private final PrefixIndex chefs = new PrefixIndex(compactor, COMPACTION_THRESHOLD);
+
+    public SuggestionServiceImpl(DishRepository dishRepository, ChefRepository chefRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.dishRepository = dishRepository;
+        this.chefRepository = chefRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // An import reloads after commit, while its finished transaction is
+        // still bound to the thread; joining it would skip the read-only one.
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public List<Suggestion> suggest(String prefix, SuggestionType type, int limit) {
+        if (type != null) {
+            return find(type, prefix, limit);
+        }
+        // Both lists are in label order already, so the best of each survive the cut.
+        List<Suggestion> suggestions = new ArrayList<>(find(SuggestionType.DISH, prefix, limit));
+        suggestions.addAll(find(SuggestionType.CHEF, prefix, limit));
+        suggestions.sort(Comparator.comparing(suggestion -> suggestion.label().toLowerCase(Locale.ROOT)));
+        return suggestions.size() > limit ? suggestions.subList(0, limit) : suggestions;
+    }
+
+    private List<Suggestion> find(SuggestionType type, String prefix, int limit) {
+        return index(type).find(prefix, limit).stream()
+                .map(match -> new Suggestion(type, match.id(), match.label()))
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload(SuggestionType.DISH);
+        reload(SuggestionType.CHEF);
+    }
+
+    @Override
+    public void reload(SuggestionType type) {
+        index(type).reset(() -> readOnlyTransaction.execute(status -> {
+            List<PrefixIndex.Entry> entries = new ArrayList<>();
+            if (type == SuggestionType.DISH) {
+                try (Stream<PrefixIndex.Entry> rows = dishRepository.streamSummariesBy(Sort.unsorted())
+                        .map(dish -> dishEntry(dish.id(), dish.dishId(), dish.name()))) {
+                    rows.forEach(entries::add);
+                }
+            } else {
+                try (Stream<PrefixIndex.Entry> rows = chefRepository.streamSummariesBy(Sort.unsorted())
+                        .map(chef -> chefEntry(chef.id(), chef.firstName(), chef.lastName()))) {
+                    rows.forEach(entries::add);
+                }
+            }
+            return entries;
+        }));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        switch (event) {
+            case DishSavedEvent dish -> dishes.put(dishEntry(dish.id(), dish.dishId(), dish.name()));
+            case DishesDeletedEvent deleted -> deleted.ids().forEach(dishes::remove);
+            case ChefSavedEvent chef -> chefs.put(chefEntry(chef.id(), chef.firstName(), chef.lastName()));
+            case ChefsDeletedEvent deleted -> deleted.ids().forEach(chefs::remove);
+            case CatalogImportedEvent imported -> {
+                switch (imported.kind()) {
+                    case DISHES -> reload(SuggestionType.DISH);
+                    case CHEFS -> reload(SuggestionType.CHEF);
+                    case ASSIGNMENTS -> {
+                    }
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        compactor.shutdownNow();
+    }
+
+    private PrefixIndex index(SuggestionType type) {
+        return type == SuggestionType.DISH ? dishes : chefs;
+    }
+
+    private static PrefixIndex.Entry dishEntry(Long id, String dishId, String name) {
+        return new PrefixIndex.Entry(id, name, dishId == null ? List.of() : List.of(dishId));
+    }
+
+    private static PrefixIndex.Entry chefEntry(Long id, String firstName, String lastName) {
+        return new PrefixIndex.Entry(id, firstName + " " + lastName, List.of());
+    }
+}
@@ -0,0 +1,59 @@
+package mk.ukim.finki.wp.lab.web;
+
+import jakarta.servlet.http.HttpServletResponse;
+import mk.ukim.finki.wp.lab.service.CatalogVersionService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+
+/**
+ * Conditional GETs for the catalog pages. A page is the same for the same
+ * catalog version, URL and user, so its ETag is the version plus a digest of
+ * the user name and roles, which the header and the admin buttons show.
+ */
+public final class CatalogETag {
+
+    private static final String PRIVATE_NO_CACHE = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private CatalogETag() {
+    }
+
+    /**
+     * Sets the validators on the response, and answers 304 when the request
+     * already has the current page. Call it before reading the catalog, so
+     * a write in between makes the ETag older than the page, never newer.
+     *
+     * @return true when the response is complete and nothing must be rendered
+     */
+    public static boolean checkNotModified(ServletWebRequest request, CatalogVersionService catalogVersion) {
+        if (request.getResponse() != null) {
+            setCacheControl(request.getResponse());
+        }
+        return request.checkNotModified(etag(catalogVersion.version()), catalogVersion.lastModified());
+    }
+
+    /**
+     * Browsers may keep the page but have to revalidate it; shared caches may not keep it.
+     */
+    static void setCacheControl(HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, PRIVATE_NO_CACHE);
+    }
+
+    static String etag(String version) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String user = authentication == null ? "" : authentication.getName() + ":"
+                + authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .collect(Collectors.joining(","));
+        String digest = DigestUtils.md5DigestAsHex(user.getBytes(StandardCharsets.UTF_8)).substring(0, 12);
+        return "\"" + version + "-" + digest + "\"";
+    }
+}
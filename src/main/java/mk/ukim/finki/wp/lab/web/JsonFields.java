@@ -0,0 +1,174 @@
+package mk.ukim.finki.wp.lab.web;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.servlet.http.HttpServletResponse;
+import mk.ukim.finki.wp.lab.model.exceptions.InvalidApiRequestException;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * The JSON fields of an API resource, written with a streaming
+ * {@link JsonGenerator} straight to the response: no tree or map is built
+ * for a row, and a client can ask for a subset of the fields
+ * ({@code ?fields=id,name}), which are then the only ones written.
+ */
+public final class JsonFields<T> {
+
+    @FunctionalInterface
+    private interface FieldWriter<T> {
+        void write(JsonGenerator generator, T row) throws IOException;
+    }
+
+    private final Map<String, FieldWriter<T>> fields;
+
+    private JsonFields(Map<String, FieldWriter<T>> fields) {
+        this.fields = fields;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Only the fields named in {@code names}, comma separated, in their
+     * usual order; every field when {@code names} is blank.
+     *
+     * @throws InvalidApiRequestException when a name is not a field
+     */
+    public JsonFields<T> select(String names) {
+        if (names == null || names.isBlank())
+            return this;
+
+        List<String> requested = Arrays.stream(names.split(",")).map(String::trim).filter(name -> !name.isEmpty()).toList();
+        for (String name : requested) {
+            if (!fields.containsKey(name))
+                throw new InvalidApiRequestException("Unknown field '" + name + "', expected one of " + fields.keySet());
+        }
+        Map<String, FieldWriter<T>> selected = new LinkedHashMap<>();
+        fields.forEach((name, writer) -> {
+            if (requested.contains(name))
+                selected.put(name, writer);
+        });
+        return new JsonFields<>(selected);
+    }
+
+    /**
+     * {@code {"items": [...], "next": ..., "previous": ...}}, where the
+     * cursors are null on the last and on the first page.
+     */
+    public void writePage(HttpServletResponse response, JsonFactory json, List<T> items,
+                          String next, String previous) throws IOException {
+        try (JsonGenerator generator = generator(response, json)) {
+            generator.writeStartObject();
+            writeItems(generator, items);
+            generator.writeStringField("next", next);
+            generator.writeStringField("previous", previous);
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * {@code {"items": [...], "missing": {"id": [...], ...}}}, where
+     * {@code missing} lists, by parameter, the requested keys that were not found.
+     */
+    public void writeBatch(HttpServletResponse response, JsonFactory json, List<T> items,
+                           Map<String, ? extends Collection<?>> missing) throws IOException {
+        try (JsonGenerator generator = generator(response, json)) {
+            generator.writeStartObject();
+            writeItems(generator, items);
+            generator.writeObjectFieldStart("missing");
+            for (Map.Entry<String, ? extends Collection<?>> keys : missing.entrySet()) {
+                generator.writeArrayFieldStart(keys.getKey());
+                for (Object key : keys.getValue()) {
+                    if (key instanceof Number number) {
+                        generator.writeNumber(number.longValue());
+                    } else {
+                        generator.writeString(String.valueOf(key));
+                    }
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+    }
+
+    public void writeOne(HttpServletResponse response, JsonFactory json, T row) throws IOException {
+        try (JsonGenerator generator = generator(response, json)) {
+            write(generator, row);
+        }
+    }
+
+    private void writeItems(JsonGenerator generator, List<T> items) throws IOException {
+        generator.writeArrayFieldStart("items");
+        for (T item : items) {
+            write(generator, item);
+        }
+        generator.writeEndArray();
+    }
+
+    private void write(JsonGenerator generator, T row) throws IOException {
+        generator.writeStartObject();
+        for (Map.Entry<String, FieldWriter<T>> field : fields.entrySet()) {
+            generator.writeFieldName(field.getKey());
+            field.getValue().write(generator, row);
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * A generator over the response body that leaves the stream open;
+     * the generator buffers, so the body is written in a few large writes.
+     */
+    private static JsonGenerator generator(HttpServletResponse response, JsonFactory json) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        return json.createGenerator(response.getOutputStream())
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    public static final class Builder<T> {
+
+        private final Map<String, FieldWriter<T>> fields = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder<T> number(String name, Function<T, ? extends Number> value) {
+            fields.put(name, (generator, row) -> {
+                Number number = value.apply(row);
+                if (number == null) {
+                    generator.writeNull();
+                } else {
+                    generator.writeNumber(number.longValue());
+                }
+            });
+            return this;
+        }
+
+        public Builder<T> integer(String name, ToIntFunction<T> value) {
+            fields.put(name, (generator, row) -> generator.writeNumber(value.applyAsInt(row)));
+            return this;
+        }
+
+        public Builder<T> string(String name, Function<T, ?> value) {
+            fields.put(name, (generator, row) -> {
+                Object text = value.apply(row);
+                generator.writeString(text == null ? null : text.toString());
+            });
+            return this;
+        }
+
+        public JsonFields<T> build() {
+            return new JsonFields<>(new LinkedHashMap<>(fields));
+        }
+    }
+}
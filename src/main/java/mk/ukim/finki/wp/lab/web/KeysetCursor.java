@@ -0,0 +1,95 @@
+package mk.ukim.finki.wp.lab.web;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+public final class KeysetCursor {
+
+    private static final ConversionService CONVERSION = DefaultConversionService.getSharedInstance();
+
+    private KeysetCursor() {
+    }
+
+    public static ScrollPosition position(String after, String before, Class<?> type) {
+        try {
+            if (before != null && !before.isEmpty()) {
+                return ScrollPosition.backward(decode(before, type));
+            }
+            if (after != null && !after.isEmpty()) {
+                return ScrollPosition.forward(decode(after, type));
+            }
+        } catch (IllegalArgumentException | ConversionException ignored) {
+        }
+        return ScrollPosition.keyset();
+    }
+
+    public static String next(Window<?> window, ScrollPosition requested) {
+        if (window.isEmpty()) {
+            return null;
+        }
+        if (isBackward(requested) || window.hasNext()) {
+            return encode(window.positionAt(window.size() - 1));
+        }
+        return null;
+    }
+
+    public static String previous(Window<?> window, ScrollPosition requested) {
+        if (window.isEmpty() || requested.isInitial()) {
+            return null;
+        }
+        if (!isBackward(requested) || window.hasNext()) {
+            return encode(window.positionAt(0));
+        }
+        return null;
+    }
+
+    static String encode(ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            throw new IllegalArgumentException("Only keyset positions can be encoded");
+        }
+        StringJoiner joiner = new StringJoiner("&");
+        keyset.getKeys().forEach((key, value) -> {
+            if (value != null) {
+                joiner.add(key + "=" + URLEncoder.encode(value.toString(), StandardCharsets.UTF_8));
+            }
+        });
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Map<String, Object> decode(String cursor, Class<?> type) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (String pair : raw.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            String property = pair.substring(0, separator);
+            Class<?> propertyType = BeanUtils.findPropertyType(property, type);
+            if (propertyType == Object.class) {
+                throw new IllegalArgumentException("Unknown cursor property " + property);
+            }
+            String value = URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+            keys.put(property, CONVERSION.convert(value, propertyType));
+        }
+        return keys;
+    }
+
+    private static boolean isBackward(ScrollPosition position) {
+        return position instanceof KeysetScrollPosition keyset && keyset.scrollsBackward();
+    }
+}
@@ -0,0 +1,68 @@
+package mk.ukim.finki.wp.lab.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import mk.ukim.finki.wp.lab.model.events.CatalogChangedEvent;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Rendered catalog pages, gzip compressed, keyed by URL and ETag. The ETag
+ * holds the catalog version and the user, so a page is never served for
+ * another version or to another user, and a write only makes the old pages
+ * unreachable; they are dropped right away anyway, to free the memory.
+ */
+public class RenderedPageCache {
+
+    /**
+     * @param gzipped the body, gzip compressed
+     */
+    public record Page(String etag, long lastModified, String contentType, byte[] gzipped) {
+    }
+
+    private record Key(String url, String etag) {
+    }
+
+    private final Cache<Key, Page> pages;
+
+    public RenderedPageCache(long maxBytes) {
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .<Key, Page>weigher((key, page) -> page.gzipped().length + 2 * key.url().length())
+                .build();
+    }
+
+    public Page get(String url, String etag) {
+        return pages.getIfPresent(new Key(url, etag));
+    }
+
+    public Page put(String url, String etag, long lastModified, String contentType, byte[] body) {
+        Page page = new Page(etag, lastModified, contentType, gzip(body));
+        pages.put(new Key(url, etag), page);
+        return page;
+    }
+
+    public long size() {
+        pages.cleanUp();
+        return pages.estimatedSize();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        pages.invalidateAll();
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
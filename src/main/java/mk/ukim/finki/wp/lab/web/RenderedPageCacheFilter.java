@@ -0,0 +1,86 @@
+package mk.ukim.finki.wp.lab.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import mk.ukim.finki.wp.lab.service.CatalogVersionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Serves catalog pages from the {@link RenderedPageCache}, so a page is
+ * rendered once per catalog version, URL and user instead of per request.
+ *
+ * Only pages the controller answered with the ETag this filter expected are
+ * kept: a write between the two makes them differ, and the page is then sent
+ * but not cached. Cached pages go out as stored to clients that accept gzip,
+ * and are decompressed for the others.
+ */
+public class RenderedPageCacheFilter extends OncePerRequestFilter {
+
+    private final RenderedPageCache cache;
+    private final CatalogVersionService catalogVersion;
+
+    public RenderedPageCacheFilter(RenderedPageCache cache, CatalogVersionService catalogVersion) {
+        this.cache = cache;
+        this.catalogVersion = catalogVersion;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String url = request.getRequestURI() + (request.getQueryString() == null ? "" : "?" + request.getQueryString());
+        long lastModified = catalogVersion.lastModified();
+        String etag = CatalogETag.etag(catalogVersion.version());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        RenderedPageCache.Page page = cache.get(url, etag);
+        if (page != null) {
+            send(page, request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper rendered = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, rendered);
+        String contentType = rendered.getContentType();
+        if (rendered.getStatus() == HttpServletResponse.SC_OK
+                && etag.equals(rendered.getHeader(HttpHeaders.ETAG))
+                && contentType != null && MediaType.TEXT_HTML.isCompatibleWith(MediaType.parseMediaType(contentType))) {
+            cache.put(url, etag, lastModified, contentType, rendered.getContentAsByteArray());
+        }
+        rendered.copyBodyToResponse();
+    }
+
+    private static void send(RenderedPageCache.Page page, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        CatalogETag.setCacheControl(response);
+        if (new ServletWebRequest(request, response).checkNotModified(page.etag(), page.lastModified())) {
+            return;
+        }
+        response.setContentType(page.contentType());
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.setContentLength(page.gzipped().length);
+            response.getOutputStream().write(page.gzipped());
+            return;
+        }
+        try (InputStream body = new GZIPInputStream(new ByteArrayInputStream(page.gzipped()))) {
+            body.transferTo(response.getOutputStream());
+        }
+    }
+}
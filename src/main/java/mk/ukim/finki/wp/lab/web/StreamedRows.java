@@ -0,0 +1,65 @@
+package mk.ukim.finki.wp.lab.web;
+
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.support.WindowIterator;
+
+import java.util.Iterator;
+import java.util.function.Function;
+
+/**
+ * Rows for a streamed table. The rows are read one keyset window at a time
+ * while the template iterates them, and whatever was rendered so far is
+ * flushed before each window is read, so the client gets the page shell and
+ * the earlier rows while the later ones are still being read (th:each looks
+ * one row ahead, so the last row of a window goes out with the next one).
+ * Only one window is held in memory, and no connection is held between windows.
+ */
+public final class StreamedRows<T> implements Iterable<T> {
+
+    private final Function<ScrollPosition, Window<T>> windows;
+    private final Runnable flush;
+    private long count;
+
+    /**
+     * @param windows reads the window after a position, in its own transaction
+     * @param flush   sends what was rendered so far to the client
+     */
+    public StreamedRows(Function<ScrollPosition, Window<T>> windows, Runnable flush) {
+        this.windows = windows;
+        this.flush = flush;
+    }
+
+    /**
+     * Reads the rows from the first one; a second iteration reads them again.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        count = 0;
+        Iterator<T> rows = WindowIterator.<T>of(position -> {
+            flush.run();
+            return windows.apply(position);
+        }).startingAt(ScrollPosition.keyset());
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public T next() {
+                T row = rows.next();
+                count++;
+                return row;
+            }
+        };
+    }
+
+    /**
+     * The number of rows iterated so far, so a template can tell after the
+     * table whether it was empty.
+     */
+    public long getCount() {
+        return count;
+    }
+}
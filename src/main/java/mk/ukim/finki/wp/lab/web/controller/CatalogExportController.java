@@ -0,0 +1,59 @@
+package mk.ukim.finki.wp.lab.web.controller;
+
+import mk.ukim.finki.wp.lab.model.enums.ExportFormat;
+import mk.ukim.finki.wp.lab.model.enums.ImportKind;
+import jakarta.servlet.http.HttpServletRequest;
+import mk.ukim.finki.wp.lab.service.CatalogExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Full catalog export for downstream systems. The body is written on an async
+ * thread while the rows are read, so the response is never built in memory.
+ */
+@RestController
+@RequestMapping("/admin/export")
+@PreAuthorize("hasRole('ADMIN')")
+public class CatalogExportController {
+
+    /**
+     * A full export can take far longer than the default async timeout, so
+     * only this request gets a longer one.
+     */
+    private static final Duration EXPORT_TIMEOUT = Duration.ofHours(1);
+
+    private final CatalogExportService catalogExportService;
+
+    public CatalogExportController(CatalogExportService catalogExportService) {
+        this.catalogExportService = catalogExportService;
+    }
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam ImportKind kind,
+                                                        @RequestParam(defaultValue = "CSV") ExportFormat format,
+                                                        HttpServletRequest request) {
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(EXPORT_TIMEOUT.toMillis());
+        MediaType mediaType = format == ExportFormat.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+        String filename = kind.name().toLowerCase(Locale.ROOT) + (format == ExportFormat.CSV ? ".csv" : ".ndjson");
+
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(output -> catalogExportService.export(kind, format, output));
+    }
+}
@@ -0,0 +1,115 @@
+package mk.ukim.finki.wp.lab.web.controller;
+
+import mk.ukim.finki.wp.lab.config.CatalogGraphQlProperties;
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.ChefSummary;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.DishSortField;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.service.ChefService;
+import mk.ukim.finki.wp.lab.service.DishService;
+import mk.ukim.finki.wp.lab.web.KeysetCursor;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The catalog as a graph at {@code POST /graphql}, e.g.
+ * {@code { chefs(first: 20) { items { lastName dishes { name chefs { lastName } } } } }}.
+ *
+ * The chefs of dishes and the dishes of chefs are batch mappings: each
+ * level of a query loads the relations of all its rows with one call to the
+ * service, and a dish or chef reached twice in one request is loaded once.
+ * Each row lists at most {@code catalog.graphql.max-related} of them, the
+ * first by id; {@code dishes(chefs: ...)} pages through all of a chef's.
+ */
+@Controller
+public class CatalogGraphQlController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final DishService dishService;
+    private final ChefService chefService;
+    private final int maxRelated;
+
+    public CatalogGraphQlController(DishService dishService, ChefService chefService,
+                                    CatalogGraphQlProperties properties) {
+        this.dishService = dishService;
+        this.chefService = chefService;
+        this.maxRelated = properties.maxRelated();
+    }
+
+    public record Page<T>(List<T> items, String next) {
+
+        static <T> Page<T> of(Window<T> window, ScrollPosition position) {
+            return new Page<>(window.getContent(), KeysetCursor.next(window, position));
+        }
+    }
+
+    @QueryMapping
+    public DishSummary dish(@Argument Long id) {
+        List<DishSummary> dish = dishService.findSummariesById(List.of(id));
+        return dish.isEmpty() ? null : dish.getFirst();
+    }
+
+    @QueryMapping
+    public Page<DishSummary> dishes(@Argument int first,
+                                    @Argument String after,
+                                    @Argument DishSortField sort,
+                                    @Argument Sort.Direction direction,
+                                    @Argument Set<Cuisine> cuisines,
+                                    @Argument Set<Long> chefs) {
+        ScrollPosition position = KeysetCursor.position(after, null, Dish.class);
+        DishFilter filter = new DishFilter(cuisines, null, null, chefs);
+        return Page.of(dishService.listDishes(filter, sort, direction, position, pageSize(first)), position);
+    }
+
+    @QueryMapping
+    public ChefSummary chef(@Argument Long id) {
+        List<ChefSummary> chef = chefService.findSummariesById(List.of(id));
+        return chef.isEmpty() ? null : chef.getFirst();
+    }
+
+    @QueryMapping
+    public Page<ChefSummary> chefs(@Argument int first,
+                                   @Argument String after,
+                                   @Argument Sort.Direction direction,
+                                   @Argument Gender gender) {
+        ScrollPosition position = KeysetCursor.position(after, null, Chef.class);
+        return Page.of(chefService.listChefs(gender, direction, position, pageSize(first)), position);
+    }
+
+    @BatchMapping(typeName = "Dish", field = "chefs")
+    public Map<DishSummary, List<ChefSummary>> dishChefs(List<DishSummary> dishes) {
+        List<Long> dishIds = dishes.stream().map(DishSummary::id).toList();
+        Map<Long, List<ChefSummary>> byDish = chefService.listChefsByDishes(dishIds, maxRelated);
+        Map<DishSummary, List<ChefSummary>> chefs = new LinkedHashMap<>();
+        dishes.forEach(dish -> chefs.put(dish, byDish.getOrDefault(dish.id(), List.of())));
+        return chefs;
+    }
+
+    @BatchMapping(typeName = "Chef", field = "dishes")
+    public Map<ChefSummary, List<DishSummary>> chefDishes(List<ChefSummary> chefs) {
+        List<Long> chefIds = chefs.stream().map(ChefSummary::id).toList();
+        Map<Long, List<DishSummary>> byChef = dishService.listDishesByChefs(chefIds, maxRelated);
+        Map<ChefSummary, List<DishSummary>> dishes = new LinkedHashMap<>();
+        chefs.forEach(chef -> dishes.put(chef, byChef.getOrDefault(chef.id(), List.of())));
+        return dishes;
+    }
+
+    private static int pageSize(int first) {
+        return Math.max(1, Math.min(first, MAX_PAGE_SIZE));
+    }
+}
@@ -0,0 +1,44 @@
+package mk.ukim.finki.wp.lab.web.controller;
+
+import mk.ukim.finki.wp.lab.model.dto.ImportReport;
+import mk.ukim.finki.wp.lab.model.enums.ImportFormat;
+import mk.ukim.finki.wp.lab.model.enums.ImportKind;
+import mk.ukim.finki.wp.lab.service.CatalogImportService;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+
+/**
+ * Bulk catalog import. The file is sent as the raw request body and read as
+ * a stream, so it is never buffered in memory or on disk, e.g. with an
+ * admin session cookie:
+ * <pre>
+ * curl -b session.txt -H 'Content-Type: text/csv' --data-binary @dishes.csv \
+ *      'http://localhost:9090/admin/import?kind=DISHES'
+ * </pre>
+ */
+@RestController
+@RequestMapping("/admin/import")
+@PreAuthorize("hasRole('ADMIN')")
+public class CatalogImportController {
+
+    private final CatalogImportService catalogImportService;
+
+    public CatalogImportController(CatalogImportService catalogImportService) {
+        this.catalogImportService = catalogImportService;
+    }
+
+    @PostMapping(consumes = "text/csv")
+    public ImportReport importCsv(@RequestParam ImportKind kind, InputStream body) {
+        return catalogImportService.importCatalog(kind, ImportFormat.CSV, body);
+    }
+
+    @PostMapping(consumes = {"application/json", "application/x-ndjson"})
+    public ImportReport importJson(@RequestParam ImportKind kind, InputStream body) {
+        return catalogImportService.importCatalog(kind, ImportFormat.JSON, body);
+    }
+}
@@ -0,0 +1,140 @@
+package mk.ukim.finki.wp.lab.web.controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.dto.ChefSummary;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.model.exceptions.InvalidApiRequestException;
+import mk.ukim.finki.wp.lab.model.exceptions.ResourceNotFoundException;
+import mk.ukim.finki.wp.lab.service.CatalogVersionService;
+import mk.ukim.finki.wp.lab.service.ChefService;
+import mk.ukim.finki.wp.lab.web.CatalogETag;
+import mk.ukim.finki.wp.lab.web.JsonFields;
+import mk.ukim.finki.wp.lab.web.KeysetCursor;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Chefs for the mobile app and integrations, by last and first name, e.g.
+ * {@code GET /api/v1/chefs?gender=FEMALE&fields=id,firstName,lastName}.
+ * Paging and the batch read work as for {@link DishApiController}.
+ */
+@RestController
+@RequestMapping("/api/v1/chefs")
+public class ChefApiController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private static final JsonFields<ChefSummary> FIELDS = JsonFields.<ChefSummary>builder()
+            .number("id", ChefSummary::id)
+            .string("externalKey", ChefSummary::externalKey)
+            .string("firstName", ChefSummary::firstName)
+            .string("lastName", ChefSummary::lastName)
+            .string("bio", ChefSummary::bio)
+            .string("gender", ChefSummary::gender)
+            .build();
+
+    private final ChefService chefService;
+    private final CatalogVersionService catalogVersion;
+    private final JsonFactory json;
+
+    public ChefApiController(ChefService chefService, CatalogVersionService catalogVersion, ObjectMapper objectMapper) {
+        this.chefService = chefService;
+        this.catalogVersion = catalogVersion;
+        this.json = objectMapper.getFactory();
+    }
+
+    @GetMapping
+    public void list(@RequestParam(defaultValue = "ASC") Sort.Direction dir,
+                     @RequestParam(required = false) String after,
+                     @RequestParam(required = false) String before,
+                     @RequestParam(defaultValue = "20") int size,
+                     @RequestParam(required = false) Gender gender,
+                     @RequestParam(required = false) String fields,
+                     ServletWebRequest request,
+                     HttpServletResponse response) throws IOException {
+
+        JsonFields<ChefSummary> selected = FIELDS.select(fields);
+        if (CatalogETag.checkNotModified(request, catalogVersion)) {
+            return;
+        }
+
+        ScrollPosition position = KeysetCursor.position(after, before, Chef.class);
+        Window<ChefSummary> chefs = chefService.listChefs(gender, dir, position,
+                Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+
+        selected.writePage(response, json, chefs.getContent(),
+                KeysetCursor.next(chefs, position), KeysetCursor.previous(chefs, position));
+    }
+
+    /**
+     * The chefs with the given ids, in the order asked for, each once;
+     * {@code missing} lists the ones that do not exist.
+     */
+    @GetMapping("/batch")
+    public void batch(@RequestParam(required = false) List<Long> id,
+                      @RequestParam(required = false) String fields,
+                      ServletWebRequest request,
+                      HttpServletResponse response) throws IOException {
+
+        Set<Long> ids = id == null ? Set.of() : new LinkedHashSet<>(id);
+        if (ids.size() > MAX_BATCH_SIZE)
+            throw new InvalidApiRequestException("At most " + MAX_BATCH_SIZE + " chefs can be read at once");
+        JsonFields<ChefSummary> selected = FIELDS.select(fields);
+        if (CatalogETag.checkNotModified(request, catalogVersion)) {
+            return;
+        }
+
+        Map<Long, ChefSummary> byId = new LinkedHashMap<>();
+        chefService.findSummariesById(ids).forEach(chef -> byId.put(chef.id(), chef));
+
+        List<ChefSummary> found = new ArrayList<>();
+        List<Long> missingIds = new ArrayList<>();
+        for (Long key : ids) {
+            ChefSummary chef = byId.get(key);
+            if (chef == null) {
+                missingIds.add(key);
+            } else {
+                found.add(chef);
+            }
+        }
+
+        selected.writeBatch(response, json, found, Map.of("id", missingIds));
+    }
+
+    @GetMapping("/{id}")
+    public void get(@PathVariable Long id,
+                    @RequestParam(required = false) String fields,
+                    ServletWebRequest request,
+                    HttpServletResponse response) throws IOException {
+
+        JsonFields<ChefSummary> selected = FIELDS.select(fields);
+        if (CatalogETag.checkNotModified(request, catalogVersion)) {
+            return;
+        }
+
+        List<ChefSummary> chef = chefService.findSummariesById(List.of(id));
+        if (chef.isEmpty())
+            throw new ResourceNotFoundException("Chef", id);
+
+        selected.writeOne(response, json, chef.getFirst());
+    }
+}
@@ -1,14 +1,22 @@
 package mk.ukim.finki.wp.lab.web.controller;
 
 import mk.ukim.finki.wp.lab.model.Chef;
-import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.ChefSummary;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
 import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.service.CatalogVersionService;
 import mk.ukim.finki.wp.lab.service.ChefService;
 import mk.ukim.finki.wp.lab.service.DishService;
+import mk.ukim.finki.wp.lab.web.CatalogETag;
+import mk.ukim.finki.wp.lab.web.KeysetCursor;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -17,20 +25,41 @@ import java.util.List;
 @RequestMapping("/chefs")
 public class ChefController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ChefService chefService;
     private final DishService dishService;
+    private final CatalogVersionService catalogVersion;
 
-    public ChefController(ChefService chefService, DishService dishService) {
+    public ChefController(ChefService chefService, DishService dishService, CatalogVersionService catalogVersion) {
         this.chefService = chefService;
         this.dishService = dishService;
+        this.catalogVersion = catalogVersion;
     }
 
     @GetMapping
-    public String getChefsPage(@RequestParam(required = false) String error, Model model) {
-
+    public String getChefsPage(@RequestParam(required = false) String error,
+                               @RequestParam(defaultValue = "ASC") Sort.Direction dir,
+                               @RequestParam(required = false) String after,
+                               @RequestParam(required = false) String before,
+                               @RequestParam(defaultValue = "20") int size,
+                               ServletWebRequest request,
+                               Model model) {
+
+        if (CatalogETag.checkNotModified(request, catalogVersion))
+            return null;
         if (error != null)
             model.addAttribute("error", error);
-        model.addAttribute("chefs", chefService.listChefs());
+
+        ScrollPosition position = KeysetCursor.position(after, before, Chef.class);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Window<ChefSummary> chefs = chefService.listChefs(null, dir, position, pageSize);
+
+        model.addAttribute("chefs", chefs.getContent());
+        model.addAttribute("dir", dir);
+        model.addAttribute("size", pageSize);
+        model.addAttribute("nextCursor", KeysetCursor.next(chefs, position));
+        model.addAttribute("previousCursor", KeysetCursor.previous(chefs, position));
         model.addAttribute("bodyContent", "chefsList");
         return "master-template";
     }
@@ -43,6 +72,13 @@ public class ChefController {
         return "redirect:/chefs";
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/delete")
+    public String deleteChefs(@RequestParam(required = false) List<Long> ids) {
+        chefService.deleteAll(ids);
+        return "redirect:/chefs";
+    }
+
     @PostMapping("/add")
     @PreAuthorize("hasRole('ADMIN')")
     public String saveChef(@RequestParam String firstName,
@@ -86,9 +122,11 @@ public class ChefController {
     }
 
     @GetMapping("/dishes/{id}")
-    public String getDishesByChef(@PathVariable Long id, Model model) {
+    public String getDishesByChef(@PathVariable Long id, ServletWebRequest request, Model model) {
+        if (CatalogETag.checkNotModified(request, catalogVersion))
+            return null;
         Chef chef = chefService.findById(id);
-        List<Dish> dishes = dishService.listDishesByChef(id);
+        List<DishSummary> dishes = dishService.listDishesByChef(id);
 
         model.addAttribute("chef", chef);
         model.addAttribute("dishes", dishes);
@@ -0,0 +1,164 @@
+package mk.ukim.finki.wp.lab.web.controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.DishSortField;
+import mk.ukim.finki.wp.lab.model.exceptions.InvalidApiRequestException;
+import mk.ukim.finki.wp.lab.model.exceptions.ResourceNotFoundException;
+import mk.ukim.finki.wp.lab.service.CatalogVersionService;
+import mk.ukim.finki.wp.lab.service.DishService;
+import mk.ukim.finki.wp.lab.web.CatalogETag;
+import mk.ukim.finki.wp.lab.web.JsonFields;
+import mk.ukim.finki.wp.lab.web.KeysetCursor;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dishes for the mobile app and integrations, e.g.
+ * {@code GET /api/v1/dishes?cuisine=ITALIAN&maxPreparationTime=30&fields=id,name&size=50}.
+ * Pages are keyset pages: {@code next} and {@code previous} are cursors for
+ * {@code after} and {@code before}. {@code GET /api/v1/dishes/batch?id=1,2&dishId=D7}
+ * reads up to {@value #MAX_BATCH_SIZE} dishes at once.
+ */
+@RestController
+@RequestMapping("/api/v1/dishes")
+public class DishApiController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private static final JsonFields<DishSummary> FIELDS = JsonFields.<DishSummary>builder()
+            .number("id", DishSummary::id)
+            .string("dishId", DishSummary::dishId)
+            .string("name", DishSummary::name)
+            .string("cuisine", DishSummary::cuisine)
+            .integer("preparationTime", DishSummary::preparationTime)
+            .build();
+
+    private final DishService dishService;
+    private final CatalogVersionService catalogVersion;
+    private final JsonFactory json;
+
+    public DishApiController(DishService dishService, CatalogVersionService catalogVersion, ObjectMapper objectMapper) {
+        this.dishService = dishService;
+        this.catalogVersion = catalogVersion;
+        this.json = objectMapper.getFactory();
+    }
+
+    @GetMapping
+    public void list(@RequestParam(defaultValue = "NAME") DishSortField sort,
+                     @RequestParam(defaultValue = "ASC") Sort.Direction dir,
+                     @RequestParam(required = false) String after,
+                     @RequestParam(required = false) String before,
+                     @RequestParam(defaultValue = "20") int size,
+                     @RequestParam(required = false) Set<Cuisine> cuisine,
+                     @RequestParam(required = false) Integer minPreparationTime,
+                     @RequestParam(required = false) Integer maxPreparationTime,
+                     @RequestParam(required = false) Set<Long> chef,
+                     @RequestParam(required = false) String fields,
+                     ServletWebRequest request,
+                     HttpServletResponse response) throws IOException {
+
+        JsonFields<DishSummary> selected = FIELDS.select(fields);
+        if (CatalogETag.checkNotModified(request, catalogVersion)) {
+            return;
+        }
+
+        ScrollPosition position = KeysetCursor.position(after, before, Dish.class);
+        DishFilter filter = new DishFilter(cuisine, minPreparationTime, maxPreparationTime, chef);
+        Window<DishSummary> dishes = dishService.listDishes(filter, sort, dir, position,
+                Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+
+        selected.writePage(response, json, dishes.getContent(),
+                KeysetCursor.next(dishes, position), KeysetCursor.previous(dishes, position));
+    }
+
+    /**
+     * The dishes with the given ids and dish ids, in the order asked for,
+     * each once; {@code missing} lists the ones that do not exist.
+     */
+    @GetMapping("/batch")
+    public void batch(@RequestParam(required = false) List<Long> id,
+                      @RequestParam(required = false) List<String> dishId,
+                      @RequestParam(required = false) String fields,
+                      ServletWebRequest request,
+                      HttpServletResponse response) throws IOException {
+
+        Set<Long> ids = id == null ? Set.of() : new LinkedHashSet<>(id);
+        Set<String> dishIds = dishId == null ? Set.of() : new LinkedHashSet<>(dishId);
+        if (ids.size() + dishIds.size() > MAX_BATCH_SIZE)
+            throw new InvalidApiRequestException("At most " + MAX_BATCH_SIZE + " dishes can be read at once");
+        JsonFields<DishSummary> selected = FIELDS.select(fields);
+        if (CatalogETag.checkNotModified(request, catalogVersion)) {
+            return;
+        }
+
+        Map<Long, DishSummary> byId = new LinkedHashMap<>();
+        dishService.findSummariesById(ids).forEach(dish -> byId.put(dish.id(), dish));
+        Map<String, DishSummary> byDishId = new LinkedHashMap<>();
+        dishService.findSummariesByDishId(dishIds).forEach(dish -> byDishId.put(dish.dishId(), dish));
+
+        Map<Long, DishSummary> found = new LinkedHashMap<>();
+        List<Long> missingIds = new ArrayList<>();
+        for (Long key : ids) {
+            DishSummary dish = byId.get(key);
+            if (dish == null) {
+                missingIds.add(key);
+            } else {
+                found.putIfAbsent(dish.id(), dish);
+            }
+        }
+        List<String> missingDishIds = new ArrayList<>();
+        for (String key : dishIds) {
+            DishSummary dish = byDishId.get(key);
+            if (dish == null) {
+                missingDishIds.add(key);
+            } else {
+                found.putIfAbsent(dish.id(), dish);
+            }
+        }
+
+        Map<String, List<?>> missing = new LinkedHashMap<>();
+        missing.put("id", missingIds);
+        missing.put("dishId", missingDishIds);
+        selected.writeBatch(response, json, List.copyOf(found.values()), missing);
+    }
+
+    @GetMapping("/{id}")
+    public void get(@PathVariable Long id,
+                    @RequestParam(required = false) String fields,
+                    ServletWebRequest request,
+                    HttpServletResponse response) throws IOException {
+
+        JsonFields<DishSummary> selected = FIELDS.select(fields);
+        if (CatalogETag.checkNotModified(request, catalogVersion)) {
+            return;
+        }
+
+        List<DishSummary> dish = dishService.findSummariesById(List.of(id));
+        if (dish.isEmpty())
+            throw new ResourceNotFoundException("Dish", id);
+
+        selected.writeOne(response, json, dish.getFirst());
+    }
+}
@@ -1,40 +1,180 @@
 package mk.ukim.finki.wp.lab.web.controller;
 
 import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.dto.DishSearchHit;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
 import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.DishSortField;
+import mk.ukim.finki.wp.lab.model.enums.PreparationTimeRange;
+import mk.ukim.finki.wp.lab.service.CatalogVersionService;
 import mk.ukim.finki.wp.lab.service.ChefService;
 import mk.ukim.finki.wp.lab.service.DishService;
+import mk.ukim.finki.wp.lab.web.CatalogETag;
+import mk.ukim.finki.wp.lab.web.KeysetCursor;
+import mk.ukim.finki.wp.lab.web.StreamedRows;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Set;
 
 @Controller
 @RequestMapping("/dishes")
 public class DishController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int STREAM_CHUNK_SIZE = 500;
+
     private final DishService dishService;
     private final ChefService chefService;
+    private final CatalogVersionService catalogVersion;
 
-    public DishController(DishService dishService, ChefService chefService) {
+    public DishController(DishService dishService, ChefService chefService, CatalogVersionService catalogVersion) {
         this.dishService = dishService;
         this.chefService = chefService;
+        this.catalogVersion = catalogVersion;
     }
 
     @GetMapping
-    public String getDishesPage(@RequestParam(required = false) String error, Model model) {
-
+    public String getDishesPage(@RequestParam(required = false) String error,
+                                @RequestParam(defaultValue = "NAME") DishSortField sort,
+                                @RequestParam(defaultValue = "ASC") Sort.Direction dir,
+                                @RequestParam(required = false) String after,
+                                @RequestParam(required = false) String before,
+                                @RequestParam(defaultValue = "20") int size,
+                                @RequestParam(required = false) Set<Cuisine> cuisine,
+                                @RequestParam(required = false) PreparationTimeRange time,
+                                @RequestParam(required = false) Set<Long> chef,
+                                ServletWebRequest request,
+                                Model model) {
+
+        if (CatalogETag.checkNotModified(request, catalogVersion)) {
+            return null;
+        }
         if (error != null) {
             model.addAttribute("error", error);
         }
 
-        model.addAttribute("dishes", dishService.listDishes());
+        ScrollPosition position = KeysetCursor.position(after, before, Dish.class);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        DishFilter filter = new DishFilter(cuisine,
+                time == null ? null : time.getMin(),
+                time == null ? null : time.getMax(),
+                chef);
+        Window<DishSummary> dishes = dishService.listDishes(filter, sort, dir, position, pageSize);
+
+        model.addAttribute("dishes", dishes.getContent());
+        model.addAttribute("facets", dishService.countFacets(filter));
+        model.addAttribute("selectedCuisines", filter.cuisines());
+        model.addAttribute("selectedTime", time);
+        model.addAttribute("selectedChefs", filter.chefIds());
+        model.addAttribute("timeRanges", PreparationTimeRange.values());
+        model.addAttribute("filterQuery", filterQuery(filter, time));
+        model.addAttribute("sort", sort);
+        model.addAttribute("dir", dir);
+        model.addAttribute("size", pageSize);
+        model.addAttribute("nextCursor", KeysetCursor.next(dishes, position));
+        model.addAttribute("previousCursor", KeysetCursor.previous(dishes, position));
         model.addAttribute("bodyContent", "listDishes");
         return "master-template";
     }
 
+    /**
+     * Every dish of the listing on one page. The page is streamed: the shell
+     * is sent before the first rows are read, and the rows follow in chunks
+     * of {@value #STREAM_CHUNK_SIZE}, so neither the time to the first byte
+     * nor the memory used grows with the catalog. Once the shell is sent the
+     * status can no longer change, so an error ends the page early.
+     */
+    @GetMapping("/all")
+    public String getAllDishesPage(@RequestParam(defaultValue = "NAME") DishSortField sort,
+                                   @RequestParam(defaultValue = "ASC") Sort.Direction dir,
+                                   @RequestParam(required = false) Set<Cuisine> cuisine,
+                                   @RequestParam(required = false) PreparationTimeRange time,
+                                   @RequestParam(required = false) Set<Long> chef,
+                                   ServletWebRequest request,
+                                   Model model) {
+
+        if (CatalogETag.checkNotModified(request, catalogVersion)) {
+            return null;
+        }
+
+        DishFilter filter = new DishFilter(cuisine,
+                time == null ? null : time.getMin(),
+                time == null ? null : time.getMax(),
+                chef);
+        StreamedRows<DishSummary> dishes = new StreamedRows<>(
+                position -> dishService.listDishes(filter, sort, dir, position, STREAM_CHUNK_SIZE),
+                () -> {
+                    try {
+                        request.getResponse().flushBuffer();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+
+        model.addAttribute("dishes", dishes);
+        model.addAttribute("filterQuery", filterQuery(filter, time));
+        model.addAttribute("sort", sort);
+        model.addAttribute("dir", dir);
+        model.addAttribute("bodyContent", "allDishes");
+        return "master-template";
+    }
+
+    @GetMapping("/search")
+    public String searchDishes(@RequestParam(defaultValue = "") String q,
+                               @RequestParam(required = false) Set<Cuisine> cuisine,
+                               @RequestParam(required = false) Integer maxPreparationTime,
+                               @RequestParam(defaultValue = "0") int page,
+                               @RequestParam(defaultValue = "20") int size,
+                               Model model) {
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        DishFilter filter = new DishFilter(cuisine, null, maxPreparationTime, null);
+        Slice<DishSearchHit> hits = dishService.search(q, filter, PageRequest.of(Math.max(page, 0), pageSize));
+
+        if (!hits.hasContent() && !hits.hasPrevious()) {
+            model.addAttribute("didYouMean", dishService.findByNameFuzzy(q).didYouMean());
+        }
+        model.addAttribute("q", q);
+        model.addAttribute("hits", hits.getContent());
+        model.addAttribute("selectedCuisines", filter.cuisines());
+        model.addAttribute("maxPreparationTime", maxPreparationTime);
+        model.addAttribute("cuisines", Cuisine.values());
+        model.addAttribute("page", hits.getNumber());
+        model.addAttribute("size", pageSize);
+        model.addAttribute("hasPrevious", hits.hasPrevious());
+        model.addAttribute("hasNext", hits.hasNext());
+        model.addAttribute("bodyContent", "searchDishes");
+        return "master-template";
+    }
+
+    /**
+     * The filter as query parameters, prefixed with '&' so the sort and
+     * paging links can append it; empty without a filter.
+     */
+    private static String filterQuery(DishFilter filter, PreparationTimeRange time) {
+        UriComponentsBuilder query = UriComponentsBuilder.newInstance();
+        filter.cuisines().stream().sorted().forEach(cuisine -> query.queryParam("cuisine", cuisine));
+        if (time != null) {
+            query.queryParam("time", time);
+        }
+        filter.chefIds().stream().sorted().forEach(chef -> query.queryParam("chef", chef));
+        String params = query.build().getQuery();
+        return params == null ? "" : "&" + params;
+    }
 
     @PostMapping("/delete/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -43,6 +183,13 @@ public class DishController {
         return "redirect:/dishes";
     }
 
+    @PostMapping("/delete")
+    @PreAuthorize("hasRole('ADMIN')")
+    public String deleteDishes(@RequestParam(required = false) List<Long> ids) {
+        dishService.deleteAll(ids);
+        return "redirect:/dishes";
+    }
+
 
     @PostMapping("/add")
     @PreAuthorize("hasRole('ADMIN')")
@@ -0,0 +1,124 @@
+package mk.ukim.finki.wp.lab.web.controller;
+
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.DishSortField;
+import mk.ukim.finki.wp.lab.model.exceptions.InvalidApiRequestException;
+import mk.ukim.finki.wp.lab.model.exceptions.ResourceNotFoundException;
+import mk.ukim.finki.wp.lab.repository.r2dbc.ReactiveDishRepository;
+import mk.ukim.finki.wp.lab.web.KeysetCursor;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Dishes for high-concurrency API clients, read without blocking, e.g.
+ * {@code GET /reactive/api/v1/dishes?cuisine=ITALIAN&size=50}. Pages and
+ * cursors are those of {@code /api/v1/dishes}, without field selection.
+ * {@code GET /reactive/api/v1/chefs/{id}/dishes} lists a chef's dishes.
+ */
+@Component
+public class ReactiveDishApiHandler {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final ConversionService CONVERSION = DefaultConversionService.getSharedInstance();
+
+    private final ReactiveDishRepository dishRepository;
+
+    public ReactiveDishApiHandler(ReactiveDishRepository dishRepository) {
+        this.dishRepository = dishRepository;
+    }
+
+    public record DishPage(List<DishSummary> items, String next, String previous) {
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .GET("/dishes", this::list)
+                .GET("/dishes/by-dish-id/{dishId}", this::getByDishId)
+                .GET("/dishes/{id}", this::get)
+                .GET("/chefs/{id}/dishes", this::listByChef)
+                .build();
+    }
+
+    public Mono<ServerResponse> list(ServerRequest request) {
+        DishSortField sort = param(request, "sort", DishSortField.class, DishSortField.NAME);
+        Sort.Direction dir = param(request, "dir", Sort.Direction.class, Sort.Direction.ASC);
+        int size = param(request, "size", Integer.class, 20);
+        DishFilter filter = new DishFilter(cuisines(request),
+                param(request, "minPreparationTime", Integer.class, null),
+                param(request, "maxPreparationTime", Integer.class, null),
+                null);
+        ScrollPosition position = KeysetCursor.position(
+                request.queryParam("after").orElse(null), request.queryParam("before").orElse(null), Dish.class);
+
+        return dishRepository.findSummaries(filter, Sort.by(dir, sort.getProperty(), "id"), position,
+                        Math.max(1, Math.min(size, MAX_PAGE_SIZE)))
+                .map(dishes -> new DishPage(dishes.getContent(),
+                        KeysetCursor.next(dishes, position), KeysetCursor.previous(dishes, position)))
+                .flatMap(page -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(page));
+    }
+
+    public Mono<ServerResponse> get(ServerRequest request) {
+        Long id = convert("id", request.pathVariable("id"), Long.class);
+        return dishRepository.findSummaryById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Dish", id)))
+                .flatMap(dish -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(dish));
+    }
+
+    public Mono<ServerResponse> getByDishId(ServerRequest request) {
+        String dishId = request.pathVariable("dishId");
+        return dishRepository.findByDishId(dishId)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Dish", dishId)))
+                .flatMap(dish -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(dish));
+    }
+
+    public Mono<ServerResponse> listByChef(ServerRequest request) {
+        Long chefId = convert("id", request.pathVariable("id"), Long.class);
+        return dishRepository.findAllByChefs_Id(chefId)
+                .collectList()
+                .flatMap(dishes -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(Map.of("items", dishes)));
+    }
+
+    private static Set<Cuisine> cuisines(ServerRequest request) {
+        return request.queryParams().getOrDefault("cuisine", List.of()).stream()
+                .flatMap(values -> Arrays.stream(values.split(",")))
+                .filter(value -> !value.isBlank())
+                .map(value -> convert("cuisine", value, Cuisine.class))
+                .collect(Collectors.toSet());
+    }
+
+    private static <T> T param(ServerRequest request, String name, Class<T> type, T defaultValue) {
+        return request.queryParam(name)
+                .filter(value -> !value.isBlank())
+                .map(value -> convert(name, value, type))
+                .orElse(defaultValue);
+    }
+
+    private static <T> T convert(String name, String value, Class<T> type) {
+        try {
+            return CONVERSION.convert(value.trim(), type);
+        } catch (ConversionException e) {
+            throw new InvalidApiRequestException("Invalid " + name + ": " + value);
+        }
+    }
+}
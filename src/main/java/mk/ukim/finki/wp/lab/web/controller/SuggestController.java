@@ -0,0 +1,36 @@
+package mk.ukim.finki.wp.lab.web.controller;
+
+import mk.ukim.finki.wp.lab.model.dto.Suggestion;
+import mk.ukim.finki.wp.lab.model.enums.SuggestionType;
+import mk.ukim.finki.wp.lab.service.SuggestionService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * As-you-type suggestions for dish and chef names, e.g.
+ * {@code GET /api/suggest?q=tag&type=DISH&limit=5}. Leaving out {@code type}
+ * suggests both.
+ */
+@RestController
+@RequestMapping("/api/suggest")
+public class SuggestController {
+
+    private static final int MAX_LIMIT = 20;
+
+    private final SuggestionService suggestionService;
+
+    public SuggestController(SuggestionService suggestionService) {
+        this.suggestionService = suggestionService;
+    }
+
+    @GetMapping
+    public List<Suggestion> suggest(@RequestParam String q,
+                                    @RequestParam(required = false) SuggestionType type,
+                                    @RequestParam(defaultValue = "10") int limit) {
+        return suggestionService.suggest(q, type, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+}
@@ -0,0 +1,73 @@
+-- Runs after Hibernate has created or updated the tables
+-- (spring.jpa.defer-datasource-initialization) and on every start,
+-- so every statement must be idempotent. The script is sent as one
+-- statement (see spring.sql.init.separator).
+
+-- Full-text search over dish name, assigned chef names and cuisine.
+-- Chef names are copied into dish.chef_names by the triggers below,
+-- because a generated column can only read its own row.
+create or replace function dish_chef_names(p_dish_id bigint) returns text as $$
+    select string_agg(c.first_name || ' ' || c.last_name, ', ' order by c.id)
+    from dish_chefs dc join chef c on c.id = dc.chefs_id
+    where dc.dish_id = p_dish_id
+$$ language sql stable;
+
+do $$
+begin
+    if not exists (select 1 from information_schema.columns
+                   where table_name = 'dish' and column_name = 'chef_names') then
+        alter table dish add column chef_names text;
+        update dish set chef_names = dish_chef_names(id);
+    end if;
+end $$;
+
+alter table dish add column if not exists search_vector tsvector generated always as (
+    setweight(to_tsvector('english'::regconfig, coalesce(name, '')), 'A') ||
+    setweight(to_tsvector('english'::regconfig, coalesce(chef_names, '')), 'B') ||
+    setweight(to_tsvector('english'::regconfig, coalesce(cuisine, '')), 'C')
+) stored;
+
+create index if not exists idx_dish_search_vector on dish using gin (search_vector);
+
+-- Statement-level triggers, so a batched or bulk write to dish_chefs
+-- refreshes every affected dish with one update.
+create or replace function dish_chefs_refresh_names() returns trigger as $$
+begin
+    update dish set chef_names = dish_chef_names(id)
+    where id in (select dish_id from changed);
+    return null;
+end $$ language plpgsql;
+
+create or replace trigger dish_chefs_inserted after insert on dish_chefs
+    referencing new table as changed
+    for each statement execute function dish_chefs_refresh_names();
+
+create or replace trigger dish_chefs_deleted after delete on dish_chefs
+    referencing old table as changed
+    for each statement execute function dish_chefs_refresh_names();
+
+create or replace function chef_refresh_dish_names() returns trigger as $$
+begin
+    update dish set chef_names = dish_chef_names(id)
+    where id in (select dc.dish_id
+                 from new_chef n
+                 join old_chef o on o.id = n.id
+                 join dish_chefs dc on dc.chefs_id = n.id
+                 where (n.first_name, n.last_name) is distinct from (o.first_name, o.last_name));
+    return null;
+end $$ language plpgsql;
+
+create or replace trigger chef_renamed after update on chef
+    referencing old table as old_chef new table as new_chef
+    for each statement execute function chef_refresh_dish_names();
+
+-- Typo-tolerant name lookup (word_similarity, the <% operator).
+create extension if not exists pg_trgm;
+
+create index if not exists idx_dish_name_trgm on dish using gin (name gin_trgm_ops);
+
+create index if not exists idx_chef_full_name_trgm on chef using gin ((first_name || ' ' || last_name) gin_trgm_ops);
+
+-- Replaced by idx_dish_chefs_chefs_id_dish_id, which also covers the dish
+-- ids of the chef filter and facet (see Dish).
+drop index if exists idx_dish_chefs_chefs_id;
@@ -0,0 +1,67 @@
+// As-you-type suggestions from /api/suggest.
+//
+// <input data-suggest="DISH">  offers matching names in a datalist.
+// <input data-suggest="CHEF" data-suggest-filter="#chefs">  hides the elements
+//   under #chefs whose data-suggest-id is not among the matches.
+(function () {
+    const LIMIT = 10;
+    const FILTER_LIMIT = 20;
+    const DELAY_MS = 80;
+
+    function fetchSuggestions(input, limit, callback) {
+        const query = input.value.trim();
+        if (!query) {
+            callback(null);
+            return;
+        }
+        const params = new URLSearchParams({q: query, limit: limit});
+        if (input.dataset.suggest) {
+            params.set('type', input.dataset.suggest);
+        }
+        fetch('/api/suggest?' + params, {headers: {'Accept': 'application/json'}})
+            .then(response => response.ok ? response.json() : [])
+            .then(suggestions => {
+                // A slower, older response must not replace a newer one.
+                if (input.value.trim() === query) {
+                    callback(suggestions);
+                }
+            })
+            .catch(() => callback(null));
+    }
+
+    function fillDatalist(input) {
+        const list = document.createElement('datalist');
+        list.id = (input.id || input.name) + '-suggestions';
+        input.after(list);
+        input.setAttribute('list', list.id);
+        input.setAttribute('autocomplete', 'off');
+        return suggestions => {
+            list.replaceChildren(...(suggestions || []).map(suggestion => {
+                const option = document.createElement('option');
+                option.value = suggestion.label;
+                return option;
+            }));
+        };
+    }
+
+    function filterElements(input) {
+        const container = document.querySelector(input.dataset.suggestFilter);
+        return suggestions => {
+            const ids = suggestions && new Set(suggestions.map(suggestion => String(suggestion.id)));
+            container.querySelectorAll('[data-suggest-id]').forEach(element => {
+                element.hidden = ids !== null && !ids.has(element.dataset.suggestId);
+            });
+        };
+    }
+
+    document.querySelectorAll('input[data-suggest]').forEach(input => {
+        const filter = input.dataset.suggestFilter;
+        const show = filter ? filterElements(input) : fillDatalist(input);
+        const limit = filter ? FILTER_LIMIT : LIMIT;
+        let timer;
+        input.addEventListener('input', () => {
+            clearTimeout(timer);
+            timer = setTimeout(() => fetchSuggestions(input, limit, show), DELAY_MS);
+        });
+    });
+})();
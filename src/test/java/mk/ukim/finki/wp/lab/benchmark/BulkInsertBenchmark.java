@@ -0,0 +1,135 @@
+package mk.ukim.finki.wp.lab.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import mk.ukim.finki.wp.lab.LabApplication;
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark за масовно внесување на Dish со поврзани Chefs.
+ *
+ * Се внесуваат 100.000 Dish, секој со два реда во dish_chefs, во трансакции
+ * од по CHUNK редови (flush и clear по секоја трансакција). Се споредуваат:
+ *  - без JDBC batching (секој INSERT е посебен round trip)
+ *  - hibernate.jdbc.batch_size со подредени inserts и PgJDBC reWriteBatchedInserts
+ *
+ * И двете извршувања користат pooled-lo секвенци (една nextval на 50 id-a),
+ * па разликата доаѓа од batching. Се печатат редови во секунда
+ * (Dish + dish_chefs) и бројот на JDBC наредби. Се стартува со: mvn test -Pbenchmark
+ */
+@Testcontainers
+class BulkInsertBenchmark {
+
+    private static final int DISHES = 100_000;
+    private static final int CHEFS = 100;
+    private static final int CHEFS_PER_DISH = 2;
+    private static final int CHUNK = 1_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_bulk_insert")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @Test
+    void compareSingleRowWithBatchedInserts() {
+        Result unbatched = run("single-row inserts",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=0",
+                "--spring.jpa.properties.hibernate.order_inserts=false",
+                "--spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=false");
+        Result batched = run("batched inserts");
+
+        System.out.println();
+        System.out.printf("%-20s %10s %12s %12s %12s%n", "mode", "rows", "statements", "seconds", "rows/s");
+        for (Result r : List.of(unbatched, batched)) {
+            System.out.printf("%-20s %10d %12d %12.2f %12.0f%n", r.name, r.rows, r.statements, r.seconds, r.rows / r.seconds);
+        }
+        System.out.println();
+
+        assertThat(batched.statements).isLessThan(unbatched.statements / 10);
+        assertThat(batched.seconds).isLessThan(unbatched.seconds);
+    }
+
+    private Result run(String name, String... overrides) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false"));
+        args.addAll(List.of(overrides));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LabApplication.class)
+                .run(args.toArray(String[]::new))) {
+
+            EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+            List<Long> chefIds = inTransaction(entityManagerFactory, em -> {
+                List<Long> ids = new ArrayList<>();
+                for (int i = 0; i < CHEFS; i++) {
+                    Chef chef = new Chef("Bulk" + i, "Chef", "Bio", Gender.values()[i % Gender.values().length]);
+                    em.persist(chef);
+                    ids.add(chef.getId());
+                }
+                return ids;
+            });
+
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.setStatisticsEnabled(true);
+            statistics.clear();
+
+            long start = System.nanoTime();
+            for (int offset = 0; offset < DISHES; offset += CHUNK) {
+                int from = offset;
+                inTransaction(entityManagerFactory, em -> {
+                    for (int i = from; i < from + CHUNK; i++) {
+                        Dish dish = new Dish("BULK" + i, "Bulk dish " + i,
+                                Cuisine.values()[i % Cuisine.values().length], 5 + i % 120);
+                        for (int c = 0; c < CHEFS_PER_DISH; c++) {
+                            dish.getChefs().add(em.getReference(Chef.class, chefIds.get((i + c) % CHEFS)));
+                        }
+                        em.persist(dish);
+                    }
+                    return null;
+                });
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            return new Result(name, (long) DISHES * (1 + CHEFS_PER_DISH), statistics.getPrepareStatementCount(), seconds);
+        }
+    }
+
+    private static <T> T inTransaction(EntityManagerFactory entityManagerFactory, Function<EntityManager, T> work) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            T result = work.apply(em);
+            em.getTransaction().commit();
+            return result;
+        } finally {
+            em.close();
+        }
+    }
+
+    private record Result(String name, long rows, long statements, double seconds) {
+    }
+}
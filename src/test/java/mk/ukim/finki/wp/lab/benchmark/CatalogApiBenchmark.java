@@ -0,0 +1,203 @@
+package mk.ukim.finki.wp.lab.benchmark;
+
+import mk.ukim.finki.wp.lab.LabApplication;
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.service.ChefService;
+import mk.ukim.finki.wp.lab.service.DishService;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmark (JMH) за латенцијата на REST API-то /api/v1.
+ *
+ * Апликацијата се стартува со 1.000 Dishes и 20 Chefs, со исклучен кеш на
+ * рендерирани страници. Преку HTTP се мери распределбата на времето по
+ * барање (SampleTime, со p50 и p99) за страница од 100 Dishes како JSON,
+ * со сите и со две полиња, наспроти истата страница како HTML, и за 50
+ * Dishes прочитани со едно групно барање наспроти 50 поединечни барања.
+ * Пред мерењето се печатат големините на одговорите.
+ *
+ * JMH работи во истиот JVM (forks 0), за да ја користи истата апликација.
+ *
+ * Се стартува со: mvn test -Pbenchmark -Dtest=CatalogApiBenchmark
+ */
+@Testcontainers
+public class CatalogApiBenchmark {
+
+    private static final int CHEFS = 20;
+    private static final int DISHES = 1_000;
+    private static final int BATCH = 50;
+
+    private static HttpClient client;
+    private static String baseUrl;
+    private static List<Long> dishIds;
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_catalog_api")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @State(Scope.Benchmark)
+    public static class Requests {
+
+        HttpRequest jsonPage;
+        HttpRequest sparseJsonPage;
+        HttpRequest htmlPage;
+        HttpRequest batch;
+        List<HttpRequest> singles;
+
+        @Setup
+        public void setup() {
+            jsonPage = request("/api/v1/dishes?size=100");
+            sparseJsonPage = request("/api/v1/dishes?size=100&fields=id,name");
+            htmlPage = request("/dishes?size=100");
+            List<Long> ids = dishIds.subList(0, BATCH);
+            batch = request("/api/v1/dishes/batch?id="
+                    + ids.stream().map(String::valueOf).collect(Collectors.joining(",")));
+            singles = ids.stream().map(id -> request("/api/v1/dishes/" + id)).toList();
+        }
+    }
+
+    private static HttpRequest request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).build();
+    }
+
+    private static byte[] send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] jsonPage(Requests requests) throws Exception {
+        return send(requests.jsonPage);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] sparseJsonPage(Requests requests) throws Exception {
+        return send(requests.sparseJsonPage);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] htmlPage(Requests requests) throws Exception {
+        return send(requests.htmlPage);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] batchOf50(Requests requests) throws Exception {
+        return send(requests.batch);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int singles50(Requests requests) throws Exception {
+        int bytes = 0;
+        for (HttpRequest single : requests.singles) {
+            bytes += send(single).length;
+        }
+        return bytes;
+    }
+
+    @Test
+    void apiLatency() throws Exception {
+        try (ConfigurableApplicationContext application = new SpringApplicationBuilder(LabApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--catalog.page-cache.enabled=false",
+                "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn")) {
+            dishIds = seed(application);
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) application).getWebServer().getPort();
+            client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .cookieHandler(new CookieManager())
+                    .build();
+            client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                            .header("Content-Type", "application/x-www-form-urlencoded")
+                            .POST(HttpRequest.BodyPublishers.ofString("username=user&password=user"))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+
+            Requests requests = new Requests();
+            requests.setup();
+            System.out.println();
+            for (Map.Entry<String, HttpRequest> response : Map.of(
+                    "json page", requests.jsonPage,
+                    "sparse json page", requests.sparseJsonPage,
+                    "html page", requests.htmlPage,
+                    "batch of 50", requests.batch).entrySet()) {
+                System.out.printf("%-17s %8d bytes%n", response.getKey(), send(response.getValue()).length);
+            }
+            System.out.println();
+
+            new Runner(new OptionsBuilder()
+                    .include(CatalogApiBenchmark.class.getName())
+                    .forks(0)
+                    .warmupIterations(2)
+                    .warmupTime(TimeValue.seconds(2))
+                    .measurementIterations(3)
+                    .measurementTime(TimeValue.seconds(3))
+                    .build()).run();
+        } finally {
+            client = null;
+        }
+    }
+
+    private static List<Long> seed(ConfigurableApplicationContext application) {
+        ChefService chefService = application.getBean(ChefService.class);
+        DishService dishService = application.getBean(DishService.class);
+        List<Long> chefIds = new ArrayList<>();
+        for (int i = 0; i < CHEFS; i++) {
+            Chef chef = chefService.create("Bench" + i, "Chef", "Bio", Gender.values()[i % Gender.values().length]);
+            chefIds.add(chef.getId());
+        }
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < DISHES; i++) {
+            Dish dish = dishService.create("API" + i, "Api dish " + i, Cuisine.values()[i % Cuisine.values().length],
+                    5 + i % 90, List.of(chefIds.get(i % CHEFS), chefIds.get((i + 1) % CHEFS)));
+            ids.add(dish.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,182 @@
+package mk.ukim.finki.wp.lab.benchmark;
+
+import mk.ukim.finki.wp.lab.LabApplication;
+import mk.ukim.finki.wp.lab.model.enums.ImportFormat;
+import mk.ukim.finki.wp.lab.model.enums.ImportKind;
+import mk.ukim.finki.wp.lab.service.CatalogImportService;
+import mk.ukim.finki.wp.lab.service.DishService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark за потрошувачката на меморија при извоз на каталогот.
+ *
+ * Базата се полни (преку увозот) до 1.000, 100.000 и 1.000.000 Dishes.
+ * За секоја големина се мери растот на живиот heap (по GC, семплиран на
+ * секои 250 ms) додека /admin/export се чита преку HTTP. За споредба,
+ * до 100.000 Dishes се мери и DishService.listDishes(), кој ги материјализира
+ * сите Dish во List.
+ *
+ * Се печатат раст на heap во MB и редови во секунда.
+ * Се стартува со: mvn test -Pbenchmark
+ */
+@Testcontainers
+class CatalogExportBenchmark {
+
+    private static final int[] SIZES = {1_000, 100_000, 1_000_000};
+    private static final int MAX_LIST_SIZE = 100_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_export")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @Test
+    void heapStaysFlatWhileExporting() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LabApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false")) {
+
+            CatalogImportService importService = context.getBean(CatalogImportService.class);
+            DishService dishService = context.getBean(DishService.class);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = login(port);
+
+            List<Result> results = new ArrayList<>();
+            int seeded = 0;
+            for (int size : SIZES) {
+                seed(importService, seeded, size);
+                seeded = size;
+
+                results.add(measure("export", size, () -> export(client, port)));
+                if (size <= MAX_LIST_SIZE) {
+                    results.add(measure("listDishes()", size, dishService::listDishes));
+                }
+            }
+
+            System.out.println();
+            System.out.printf("%-14s %10s %16s %10s %12s%n", "mode", "dishes", "heap growth MB", "seconds", "rows/s");
+            for (Result r : results) {
+                System.out.printf("%-14s %10d %16.1f %10.2f %12.0f%n",
+                        r.mode, r.dishes, r.heapGrowth / 1024.0 / 1024.0, r.seconds, r.dishes / r.seconds);
+            }
+            System.out.println();
+
+            Result small = results.get(0);
+            Result large = results.get(results.size() - 1);
+            assertThat(large.heapGrowth - small.heapGrowth).isLessThan(32L * 1024 * 1024);
+        }
+    }
+
+    /**
+     * Ги додава Dishes од {@code from} до {@code to} преку CSV увоз.
+     */
+    private static void seed(CatalogImportService importService, int from, int to) throws Exception {
+        Path file = Files.createTempFile("dishes", ".csv");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+                writer.write("dishId,name,cuisine,preparationTime\n");
+                for (int i = from; i < to; i++) {
+                    writer.write("EXPORT-" + i + ",Export dish " + i + ",FRENCH," + (i % 120) + "\n");
+                }
+            }
+            try (InputStream input = Files.newInputStream(file)) {
+                importService.importCatalog(ImportKind.DISHES, ImportFormat.CSV, input);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static HttpClient login(int port) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .cookieHandler(new CookieManager())
+                .build();
+        client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString("username=admin&password=admin"))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        return client;
+    }
+
+    private static Long export(HttpClient client, int port) throws Exception {
+        HttpResponse<InputStream> response = client.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/admin/export?kind=DISHES&format=CSV")).build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+        try (InputStream body = response.body()) {
+            return body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    /**
+     * Го мери најголемиот жив heap (по GC) додека трае {@code work},
+     * во однос на живиот heap пред почетокот.
+     */
+    private static Result measure(String mode, int dishes, Callable<?> work) throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        AtomicLong peak = new AtomicLong(baseline);
+        Runnable sample = () -> {
+            System.gc();
+            peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+        };
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        long start = System.nanoTime();
+        Object result;
+        try {
+            sampler.scheduleAtFixedRate(sample, 250, 250, TimeUnit.MILLISECONDS);
+            result = work.call();
+        } finally {
+            sampler.shutdownNow();
+            sampler.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        // The result of listDishes() is still reachable here.
+        sample.run();
+        Reference.reachabilityFence(result);
+
+        return new Result(mode, dishes, peak.get() - baseline, seconds);
+    }
+
+    private record Result(String mode, int dishes, long heapGrowth, double seconds) {
+    }
+}
@@ -0,0 +1,179 @@
+package mk.ukim.finki.wp.lab.benchmark;
+
+import mk.ukim.finki.wp.lab.LabApplication;
+import mk.ukim.finki.wp.lab.model.dto.ChefSummary;
+import mk.ukim.finki.wp.lab.model.dto.DishChefIds;
+import mk.ukim.finki.wp.lab.model.dto.DishFacets;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.repository.jpa.ChefRepository;
+import mk.ukim.finki.wp.lab.repository.jpa.DishRepository;
+import mk.ukim.finki.wp.lab.repository.jpa.DishSpecifications;
+import mk.ukim.finki.wp.lab.service.CatalogImportService;
+import mk.ukim.finki.wp.lab.service.impl.DishBitmapIndex;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark (JMH) за DishBitmapIndex наспроти истите барања во базата.
+ *
+ * Базата се полни како во DishFacetBenchmark ({@code benchmark.dishes} Dishes,
+ * стандардно 1.000.000, и 1.000 Chefs). За секој филтер се мери просечното
+ * време на бројачите (countFacets) и на бројот на Dishes (count) од индексот
+ * и од DishRepository. Пред мерењето се печатат времето на вчитување
+ * на индексот и колку меморија зафаќаат bitmaps.
+ *
+ * JMH работи во истиот JVM (forks 0), за да ја користи истата база и Spring апликација.
+ *
+ * Се стартува со: mvn test -Pbenchmark -Dtest=DishBitmapIndexBenchmark
+ */
+@Testcontainers
+public class DishBitmapIndexBenchmark {
+
+    private static ConfigurableApplicationContext context;
+    private static DishBitmapIndex index;
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_bitmaps")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @State(Scope.Benchmark)
+    public static class Catalog {
+
+        @Param({"none", "cuisine", "cuisineAndTime", "chef", "allThree"})
+        public String filter;
+
+        DishFilter dishFilter;
+        DishRepository dishRepository;
+
+        @Setup
+        public void setup() {
+            dishRepository = context.getBean(DishRepository.class);
+            Long chef = context.getBean(JdbcTemplate.class)
+                    .queryForObject("select min(id) from chef where external_key like 'FACET-C%'", Long.class);
+            dishFilter = switch (filter) {
+                case "none" -> DishFilter.NONE;
+                case "cuisine" -> new DishFilter(Set.of(Cuisine.ITALIAN), null, null, null);
+                case "cuisineAndTime" -> new DishFilter(Set.of(Cuisine.ITALIAN, Cuisine.FRENCH), 15, 29, null);
+                case "chef" -> new DishFilter(null, null, null, Set.of(chef));
+                default -> new DishFilter(Set.of(Cuisine.ITALIAN), 0, 14, Set.of(chef, chef + 1));
+            };
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public DishFacets indexFacets(Catalog catalog) {
+        return index.countFacets(catalog.dishFilter, 10);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public DishFacets repositoryFacets(Catalog catalog) {
+        return catalog.dishRepository.countFacets(catalog.dishFilter, 10);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long indexCount(Catalog catalog) {
+        return index.count(catalog.dishFilter);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long repositoryCount(Catalog catalog) {
+        return catalog.dishRepository.count(DishSpecifications.matching(catalog.dishFilter));
+    }
+
+    @Test
+    void indexAgainstRepository() throws Exception {
+        try (ConfigurableApplicationContext application = new SpringApplicationBuilder(LabApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn")) {
+            context = application;
+            JdbcTemplate jdbcTemplate = application.getBean(JdbcTemplate.class);
+            DishFacetBenchmark.seed(application.getBean(CatalogImportService.class));
+            DishFacetBenchmark.assignChefs(jdbcTemplate, application.getBean(TransactionTemplate.class));
+            jdbcTemplate.execute("vacuum analyze");
+
+            long start = System.nanoTime();
+            index = load(application);
+            System.out.println();
+            System.out.printf("%d dishes loaded in %d ms, bitmaps take %.1f MB%n", index.size(),
+                    (System.nanoTime() - start) / 1_000_000, index.sizeInBytes() / 1024.0 / 1024.0);
+            System.out.println();
+
+            new Runner(new OptionsBuilder()
+                    .include(DishBitmapIndexBenchmark.class.getName())
+                    .forks(0)
+                    .warmupIterations(2)
+                    .warmupTime(TimeValue.seconds(2))
+                    .measurementIterations(3)
+                    .measurementTime(TimeValue.seconds(3))
+                    .build()).run();
+        } finally {
+            context = null;
+            index = null;
+        }
+    }
+
+    /**
+     * Го вчитува индексот исто како DishServiceImpl при стартување.
+     */
+    private static DishBitmapIndex load(ConfigurableApplicationContext application) {
+        DishRepository dishRepository = application.getBean(DishRepository.class);
+        ChefRepository chefRepository = application.getBean(ChefRepository.class);
+        TransactionTemplate transaction = new TransactionTemplate(application.getBean(TransactionTemplate.class)
+                .getTransactionManager());
+        transaction.setReadOnly(true);
+
+        DishBitmapIndex loaded = new DishBitmapIndex();
+        loaded.reset(loader -> transaction.executeWithoutResult(status -> {
+            try (Stream<DishSummary> dishes = dishRepository.streamSummariesBy(Sort.unsorted())) {
+                dishes.forEach(dish -> loader.dish(dish.id(), dish.cuisine(), dish.preparationTime()));
+            }
+            try (Stream<ChefSummary> chefs = chefRepository.streamSummariesBy(Sort.unsorted())) {
+                chefs.forEach(chef -> loader.chef(chef.id(), chef.firstName() + " " + chef.lastName()));
+            }
+            try (Stream<DishChefIds> assignments = dishRepository.streamChefIds()) {
+                assignments.forEach(assignment -> loader.assign(assignment.dishId(), assignment.chefId()));
+            }
+        }));
+        return loaded;
+    }
+}
@@ -0,0 +1,148 @@
+package mk.ukim.finki.wp.lab.benchmark;
+
+import mk.ukim.finki.wp.lab.integration.SqlStatementCounter;
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.repository.jpa.ChefRepository;
+import mk.ukim.finki.wp.lab.repository.jpa.DishRepository;
+import mk.ukim.finki.wp.lab.service.DishService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark за ажурирање на Chefs на еден Dish.
+ *
+ * Се споредуваат две стратегии над истата dish_chefs табела:
+ *  - целосно препишување (претходното однесување со bag: DELETE на сите редови + INSERT на сите)
+ *  - промени на ниво на ред (Set кој се менува на место: INSERT/DELETE само за променетите Chefs)
+ *
+ * За секоја стратегија се печати просечниот број на SQL наредби врз dish_chefs
+ * и латенцијата по ажурирање. Се стартува со: mvn test -Pbenchmark
+ */
+@SpringBootTest
+@Testcontainers
+class DishChefsUpdateBenchmark {
+
+    private static final int CHEFS = 50;
+    private static final int ASSIGNED = 40;
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 300;
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_benchmark")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @DynamicPropertySource
+    static void setupDb(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                SqlStatementCounter.class::getName);
+    }
+
+    @Autowired
+    private DishService dishService;
+
+    @Autowired
+    private DishRepository dishRepository;
+
+    @Autowired
+    private ChefRepository chefRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void compareFullRewriteWithRowLevelChanges() {
+        List<Long> chefIds = new ArrayList<>();
+        for (int i = 0; i < CHEFS; i++) {
+            chefIds.add(chefRepository.save(new Chef("Bench" + i, "Chef", "Bio", Gender.FEMALE)).getId());
+        }
+        Long dishId = dishRepository.save(
+                new Dish("BENCH", "Benchmark", Cuisine.ITALIAN, 10, chefRepository.findAllById(chefIds.subList(0, ASSIGNED)))
+        ).getId();
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        Result rewrite = run("full rewrite (bag)", chefIds, (id, chefs) -> tx.executeWithoutResult(status -> {
+            Dish dish = dishRepository.findWithChefsById(id).orElseThrow();
+            dish.setChefs(new LinkedHashSet<>(chefRepository.findAllById(chefs)));
+        }), dishId);
+
+        Result rowLevel = run("row-level (set)", chefIds,
+                (id, chefs) -> dishService.update(id, "BENCH", "Benchmark", Cuisine.ITALIAN, 10, chefs), dishId);
+
+        System.out.println();
+        System.out.printf("%-20s %14s %14s %12s %12s%n", "strategy", "inserts/update", "deletes/update", "avg ms", "p95 ms");
+        for (Result r : List.of(rewrite, rowLevel)) {
+            System.out.printf("%-20s %14.1f %14.1f %12.3f %12.3f%n", r.name, r.inserts, r.deletes, r.avgMillis, r.p95Millis);
+        }
+        System.out.println();
+
+        assertThat(rowLevel.inserts).isLessThanOrEqualTo(2.0);
+        assertThat(rowLevel.deletes).isLessThanOrEqualTo(2.0);
+        assertThat(rewrite.inserts).isGreaterThanOrEqualTo(ASSIGNED - 1);
+    }
+
+    /**
+     * Секоја итерација заменува еден Chef од основната листа со друг, па во однос на
+     * претходната итерација се додаваат два и се отстрануваат два реда во dish_chefs.
+     */
+    private Result run(String name, List<Long> chefIds, BiConsumer<Long, List<Long>> update, Long dishId) {
+        long[] nanos = new long[ITERATIONS];
+        int inserts = 0;
+        int deletes = 0;
+        for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+            List<Long> chefs = new ArrayList<>(chefIds.subList(0, ASSIGNED));
+            chefs.set(i % ASSIGNED, chefIds.get(ASSIGNED + i % (CHEFS - ASSIGNED)));
+
+            SqlStatementCounter.reset();
+            long start = System.nanoTime();
+            update.accept(dishId, chefs);
+            long elapsed = System.nanoTime() - start;
+
+            if (i >= WARMUP) {
+                nanos[i - WARMUP] = elapsed;
+                inserts += countJoinTable("insert");
+                deletes += countJoinTable("delete");
+            }
+        }
+        Arrays.sort(nanos);
+        double avg = Arrays.stream(nanos).average().orElse(0) / 1_000_000.0;
+        double p95 = nanos[(int) (ITERATIONS * 0.95)] / 1_000_000.0;
+        return new Result(name, (double) inserts / ITERATIONS, (double) deletes / ITERATIONS, avg, p95);
+    }
+
+    private static int countJoinTable(String verb) {
+        return (int) SqlStatementCounter.statements().stream()
+                .filter(sql -> sql.startsWith(verb) && sql.contains("dish_chefs"))
+                .count();
+    }
+
+    private record Result(String name, double inserts, double deletes, double avgMillis, double p95Millis) {
+    }
+}
@@ -0,0 +1,162 @@
+package mk.ukim.finki.wp.lab.benchmark;
+
+import mk.ukim.finki.wp.lab.LabApplication;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.DishSortField;
+import mk.ukim.finki.wp.lab.model.enums.ImportFormat;
+import mk.ukim.finki.wp.lab.model.enums.ImportKind;
+import mk.ukim.finki.wp.lab.service.CatalogImportService;
+import mk.ukim.finki.wp.lab.service.DishService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Benchmark за филтрираната листа на Dishes и бројачите на филтрите.
+ *
+ * Базата се полни (преку увозот) со {@code benchmark.dishes} Dishes
+ * (стандардно 1.000.000) и 1.000 Chefs. Секој Dish добива еден или два Chefs
+ * директно со SQL, без тригерите што ги одржуваат имињата за пребарувањето,
+ * бидејќи тие би го ажурирале секој Dish, а овде не се потребни.
+ * За секој филтер се мерат p50 и p95 на 20 повици по загревање,
+ * одделно за првата страница од 20 Dishes и за бројачите.
+ *
+ * Се стартува со: mvn test -Pbenchmark -Dtest=DishFacetBenchmark
+ */
+@Testcontainers
+class DishFacetBenchmark {
+
+    static final int DISHES = Integer.getInteger("benchmark.dishes", 1_000_000);
+    static final int CHEFS = 1_000;
+    private static final int WARMUP = 3;
+    private static final int RUNS = 20;
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_facets")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @Test
+    void facetLatency() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LabApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false")) {
+
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            seed(context.getBean(CatalogImportService.class));
+            assignChefs(jdbcTemplate, context.getBean(TransactionTemplate.class));
+            jdbcTemplate.execute("vacuum analyze");
+            DishService dishService = context.getBean(DishService.class);
+            Long chef = jdbcTemplate.queryForObject("select min(id) from chef where external_key like 'FACET-C%'", Long.class);
+
+            Map<String, DishFilter> filters = new LinkedHashMap<>();
+            filters.put("none", DishFilter.NONE);
+            filters.put("cuisine", new DishFilter(Set.of(Cuisine.ITALIAN), null, null, null));
+            filters.put("cuisine + time", new DishFilter(Set.of(Cuisine.ITALIAN, Cuisine.FRENCH), 15, 29, null));
+            filters.put("chef", new DishFilter(null, null, null, Set.of(chef)));
+            filters.put("all three", new DishFilter(Set.of(Cuisine.ITALIAN), 0, 14, Set.of(chef, chef + 1)));
+
+            System.out.println();
+            System.out.printf("%-16s %12s %12s %12s %12s%n", "filter", "page p50", "page p95", "facets p50", "facets p95");
+            for (Map.Entry<String, DishFilter> filter : filters.entrySet()) {
+                double[] page = measure(f -> dishService.listDishes(f, DishSortField.NAME, Sort.Direction.ASC,
+                        ScrollPosition.keyset(), 20), filter.getValue());
+                double[] facets = measure(dishService::countFacets, filter.getValue());
+                System.out.printf("%-16s %12.1f %12.1f %12.1f %12.1f%n", filter.getKey(),
+                        page[RUNS / 2], page[RUNS * 95 / 100], facets[RUNS / 2], facets[RUNS * 95 / 100]);
+            }
+            System.out.println();
+        }
+    }
+
+    private static double[] measure(Consumer<DishFilter> call, DishFilter filter) {
+        double[] millis = new double[RUNS];
+        for (int i = -WARMUP; i < RUNS; i++) {
+            long start = System.nanoTime();
+            call.accept(filter);
+            if (i >= 0) {
+                millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+            }
+        }
+        Arrays.sort(millis);
+        return millis;
+    }
+
+    static void seed(CatalogImportService importService) throws Exception {
+        Random random = new Random(42);
+        Cuisine[] cuisines = Cuisine.values();
+        importFile(importService, ImportKind.CHEFS, writer -> {
+            writer.append("externalKey,firstName,lastName,bio,gender\n");
+            for (int i = 0; i < CHEFS; i++) {
+                writer.append("FACET-C").append(String.valueOf(i)).append(",Chef,").append(String.valueOf(i))
+                        .append(",Bio,").append(i % 2 == 0 ? "FEMALE" : "MALE").append('\n');
+            }
+        });
+        importFile(importService, ImportKind.DISHES, writer -> {
+            writer.append("dishId,name,cuisine,preparationTime\n");
+            for (int i = 0; i < DISHES; i++) {
+                writer.append("FACET-").append(String.valueOf(i)).append(",Dish ").append(String.valueOf(i))
+                        .append(',').append(cuisines[random.nextInt(cuisines.length)].name())
+                        .append(',').append(String.valueOf(random.nextInt(120))).append('\n');
+            }
+        });
+    }
+
+    static void assignChefs(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("set local session_replication_role = replica");
+            jdbcTemplate.update("""
+                    insert into dish_chefs (dish_id, chefs_id)
+                    select d.id, c.ids[1 + (d.id * 7919 + k) % ?]
+                    from dish d,
+                         (select array_agg(id order by id) as ids from chef where external_key like 'FACET-C%') c,
+                         generate_series(0, d.id % 2) k
+                    where d.dish_id like 'FACET-%'""", CHEFS);
+        });
+    }
+
+    private static void importFile(CatalogImportService importService, ImportKind kind,
+                                   IoConsumer<BufferedWriter> content) throws Exception {
+        Path file = Files.createTempFile("facets", ".csv");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+                content.accept(writer);
+            }
+            try (InputStream input = Files.newInputStream(file)) {
+                importService.importCatalog(kind, ImportFormat.CSV, input);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoConsumer<T> {
+        void accept(T value) throws Exception;
+    }
+}
@@ -0,0 +1,122 @@
+package mk.ukim.finki.wp.lab.benchmark;
+
+import mk.ukim.finki.wp.lab.LabApplication;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.ImportFormat;
+import mk.ukim.finki.wp.lab.model.enums.ImportKind;
+import mk.ukim.finki.wp.lab.service.CatalogImportService;
+import mk.ukim.finki.wp.lab.service.DishService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Benchmark за латенцијата на DishService.search().
+ *
+ * Базата се полни (преку увозот) со {@code benchmark.dishes} Dishes
+ * (стандардно 1.000.000) со имиња составени од речник, па секој збор
+ * се појавува со различна честота. За секое барање се мерат p50 и p95
+ * на 200 повици по загревање, за првата страница од 20 погодоци.
+ *
+ * Се стартува со: mvn test -Pbenchmark
+ */
+@Testcontainers
+class DishSearchBenchmark {
+
+    private static final int DISHES = Integer.getInteger("benchmark.dishes", 1_000_000);
+    private static final int WARMUP = 50;
+    private static final int RUNS = 200;
+
+    private static final String[] ADJECTIVES = {"smoked", "grilled", "braised", "crispy", "spicy", "roasted",
+            "steamed", "glazed", "stuffed", "pickled"};
+    private static final String[] MAINS = {"chicken", "lamb", "salmon", "tofu", "beef", "duck", "octopus",
+            "mushroom", "pork", "cod", "lentil", "aubergine"};
+    private static final String[] SIDES = {"polenta", "couscous", "risotto", "gnocchi", "dumplings", "noodles",
+            "flatbread", "slaw", "chutney", "gremolata"};
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_search")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @Test
+    void searchLatency() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LabApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false")) {
+
+            seed(context.getBean(CatalogImportService.class));
+            context.getBean(JdbcTemplate.class).execute("vacuum analyze dish");
+            DishService dishService = context.getBean(DishService.class);
+
+            Map<String, DishFilter> queries = new LinkedHashMap<>();
+            queries.put("gremolata octopus", DishFilter.NONE);
+            queries.put("smoked duck chut", DishFilter.NONE);
+            queries.put("octopus", new DishFilter(Set.of(Cuisine.ITALIAN), null, 30, null));
+            queries.put("dumpl", DishFilter.NONE);
+            queries.put("chicken", DishFilter.NONE);
+
+            System.out.println();
+            System.out.printf("%-22s %-10s %10s %10s%n", "query", "filtered", "p50 ms", "p95 ms");
+            for (Map.Entry<String, DishFilter> query : queries.entrySet()) {
+                double[] millis = new double[RUNS];
+                for (int i = -WARMUP; i < RUNS; i++) {
+                    long start = System.nanoTime();
+                    dishService.search(query.getKey(), query.getValue(), PageRequest.of(0, 20));
+                    if (i >= 0) {
+                        millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+                    }
+                }
+                Arrays.sort(millis);
+                System.out.printf("%-22s %-10s %10.2f %10.2f%n", query.getKey(), query.getValue() != DishFilter.NONE,
+                        millis[RUNS / 2], millis[RUNS * 95 / 100]);
+            }
+            System.out.println();
+        }
+    }
+
+    private static void seed(CatalogImportService importService) throws Exception {
+        Random random = new Random(42);
+        Cuisine[] cuisines = Cuisine.values();
+        Path file = Files.createTempFile("dishes", ".csv");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+                writer.write("dishId,name,cuisine,preparationTime\n");
+                for (int i = 0; i < DISHES; i++) {
+                    writer.write("SEARCH-" + i + ","
+                            + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                            + MAINS[random.nextInt(MAINS.length)] + " with "
+                            + SIDES[random.nextInt(SIDES.length)] + " " + i + ","
+                            + cuisines[random.nextInt(cuisines.length)] + "," + random.nextInt(120) + "\n");
+                }
+            }
+            try (InputStream input = Files.newInputStream(file)) {
+                importService.importCatalog(ImportKind.DISHES, ImportFormat.CSV, input);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package mk.ukim.finki.wp.lab.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import mk.ukim.finki.wp.lab.LabApplication;
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.repository.jpa.ChefRepository;
+import mk.ukim.finki.wp.lab.repository.jpa.DishRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load тест за страниците со листи при фиксна големина на connection pool.
+ *
+ * Апликацијата се стартува двапати над иста база, со open-in-view вклучено и исклучено.
+ * Повеќе клиенти паралелно ги бараат /dishes, /chefs и /chefs/dishes/{id}, со
+ * исклучен кеш на рендерирани страници, за секое барање да стигне до базата.
+ * Со open-in-view секое барање ја држи конекцијата и додека Thymeleaf рендерира,
+ * па pool-от се исцрпува пред процесорот да биде зафатен.
+ *
+ * Се печатат пропусната моќ (барања во секунда), времето на држење на конекција
+ * (hikaricp.connections.usage) и времето на чекање за конекција
+ * (hikaricp.connections.acquire). Се стартува со: mvn test -Pbenchmark
+ */
+@Testcontainers
+class ListPagesLoadBenchmark {
+
+    private static final int POOL_SIZE = 5;
+    private static final int CLIENTS = 32;
+    private static final int CHEFS = 20;
+    private static final int DISHES = 200;
+    private static final int PAGE_SIZE = 50;
+    private static final long WARMUP_MILLIS = 5_000;
+    private static final long MEASURE_MILLIS = 15_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_load")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @Test
+    void compareOpenInViewWithServiceLayerTransactions() throws Exception {
+        Result openInView = run("open-in-view", true);
+        Result serviceOnly = run("service tx only", false);
+
+        System.out.println();
+        System.out.printf("%-18s %6s %8s %10s %14s %14s%n",
+                "mode", "pool", "clients", "req/s", "conn held ms", "conn wait ms");
+        for (Result r : List.of(openInView, serviceOnly)) {
+            System.out.printf("%-18s %6d %8d %10.1f %14.3f %14.3f%n",
+                    r.name, POOL_SIZE, CLIENTS, r.requestsPerSecond, r.connectionHeldMillis, r.connectionWaitMillis);
+        }
+        System.out.println();
+
+        assertThat(serviceOnly.connectionHeldMillis).isLessThan(openInView.connectionHeldMillis);
+    }
+
+    private Result run(String name, boolean openInView) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LabApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--spring.datasource.hikari.maximumPoolSize=" + POOL_SIZE,
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.open-in-view=" + openInView,
+                "--catalog.page-cache.enabled=false")) {
+
+            List<Long> chefIds = seed(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = login(port);
+
+            load(client, port, chefIds, WARMUP_MILLIS);
+            MeterRegistry meters = context.getBean(MeterRegistry.class);
+            Timer usage = meters.get("hikaricp.connections.usage").timer();
+            Timer acquire = meters.get("hikaricp.connections.acquire").timer();
+            long usageCount = usage.count();
+            double usageTotal = usage.totalTime(TimeUnit.MILLISECONDS);
+            long acquireCount = acquire.count();
+            double acquireTotal = acquire.totalTime(TimeUnit.MILLISECONDS);
+
+            long requests = load(client, port, chefIds, MEASURE_MILLIS);
+
+            return new Result(name,
+                    requests * 1000.0 / MEASURE_MILLIS,
+                    (usage.totalTime(TimeUnit.MILLISECONDS) - usageTotal) / Math.max(1, usage.count() - usageCount),
+                    (acquire.totalTime(TimeUnit.MILLISECONDS) - acquireTotal) / Math.max(1, acquire.count() - acquireCount));
+        }
+    }
+
+    private static List<Long> seed(ConfigurableApplicationContext context) {
+        ChefRepository chefRepository = context.getBean(ChefRepository.class);
+        DishRepository dishRepository = context.getBean(DishRepository.class);
+
+        List<Chef> chefs = new ArrayList<>();
+        for (int i = 0; i < CHEFS; i++) {
+            chefs.add(chefRepository.save(new Chef("Load" + i, "Chef", "Bio", Gender.values()[i % Gender.values().length])));
+        }
+        for (int i = 0; i < DISHES; i++) {
+            dishRepository.save(new Dish("LOAD" + i, "Load dish " + i, Cuisine.values()[i % Cuisine.values().length],
+                    5 + i % 90, List.of(chefs.get(i % CHEFS), chefs.get((i + 1) % CHEFS))));
+        }
+        return chefs.stream().map(Chef::getId).toList();
+    }
+
+    private static HttpClient login(int port) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .cookieHandler(new CookieManager())
+                .build();
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString("username=user&password=user"))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        assertThat(response.headers().firstValue("Location")).hasValueSatisfying(l -> assertThat(l).endsWith("/dishes"));
+        return client;
+    }
+
+    /**
+     * Секој клиент ги повикува трите страници наизменично до истекот на времето;
+     * се враќа бројот на успешни одговори.
+     */
+    private static long load(HttpClient client, int port, List<Long> chefIds, long millis) throws Exception {
+        List<URI> pages = new ArrayList<>();
+        pages.add(URI.create("http://localhost:" + port + "/dishes?size=" + PAGE_SIZE));
+        pages.add(URI.create("http://localhost:" + port + "/chefs?size=" + PAGE_SIZE));
+        chefIds.forEach(id -> pages.add(URI.create("http://localhost:" + port + "/chefs/dishes/" + id)));
+
+        long deadline = System.currentTimeMillis() + millis;
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                int offset = c;
+                results.add(clients.submit(() -> {
+                    long ok = 0;
+                    for (int i = offset; System.currentTimeMillis() < deadline; i++) {
+                        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(pages.get(i % pages.size())).build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 200) {
+                            ok++;
+                        }
+                    }
+                    return ok;
+                }));
+            }
+            long total = 0;
+            for (Future<Long> result : results) {
+                total += result.get();
+            }
+            return total;
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private record Result(String name, double requestsPerSecond, double connectionHeldMillis, double connectionWaitMillis) {
+    }
+}
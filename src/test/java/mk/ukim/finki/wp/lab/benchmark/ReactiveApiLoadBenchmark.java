@@ -0,0 +1,204 @@
+package mk.ukim.finki.wp.lab.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import mk.ukim.finki.wp.lab.LabApplication;
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.repository.jpa.DishRepository;
+import mk.ukim.finki.wp.lab.service.ChefService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test за реактивното API наспроти API-то преку servlet и JPA.
+ *
+ * Апликацијата се стартува со 2.000 Dishes, а 5.000 клиенти истовремено
+ * бараат по една страница од 20 Dishes, еднаш од /reactive/api/v1/dishes
+ * (WebFlux и R2DBC) и еднаш од /api/v1/dishes (Spring MVC и JPA). Двата
+ * пула имаат по 5 конекции. За секое API се мерат латенцијата (p50, p99 и
+ * максимум), најголемиот број зафатени конекции кон базата, најголемиот
+ * број барања што чекаат конекција (нишки кај JPA, а кај R2DBC барања без
+ * нишка) и најголемиот број нишки во JVM.
+ *
+ * Реактивното API се мери прво, за нишките што Tomcat ги отвора за другото
+ * API да не се бројат кај него.
+ *
+ * Се стартува со: mvn test -Pbenchmark -Dtest=ReactiveApiLoadBenchmark
+ */
+@Testcontainers
+class ReactiveApiLoadBenchmark {
+
+    private static final int CHEFS = 20;
+    private static final int DISHES = 2_000;
+    private static final int CLIENTS = 5_000;
+    private static final int WARMUP_CLIENTS = 500;
+    private static final int POOL_SIZE = 5;
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_reactive_load")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @Test
+    void concurrentClients() throws Exception {
+        try (ConfigurableApplicationContext application = new SpringApplicationBuilder(LabApplication.class).run(
+                "--server.port=0",
+                "--server.tomcat.accept-count=" + CLIENTS,
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--spring.datasource.hikari.maximumPoolSize=" + POOL_SIZE,
+                "--catalog.reactive.max-connections=" + POOL_SIZE,
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--catalog.page-cache.enabled=false",
+                "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn");
+             ExecutorService clientThreads = Executors.newFixedThreadPool(4)) {
+            seed(application);
+            URI server = URI.create("http://localhost:"
+                    + ((WebServerApplicationContext) application).getWebServer().getPort());
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .cookieHandler(new CookieManager())
+                    .executor(clientThreads)
+                    .build();
+            client.send(HttpRequest.newBuilder(server.resolve("/login"))
+                            .header("Content-Type", "application/x-www-form-urlencoded")
+                            .POST(HttpRequest.BodyPublishers.ofString("username=user&password=user"))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+
+            HikariPoolMXBean hikari = application.getBean(DataSource.class).unwrap(HikariDataSource.class)
+                    .getHikariPoolMXBean();
+            PoolMetrics r2dbc = ((ConnectionPool) application.getBean(R2dbcEntityTemplate.class)
+                    .getDatabaseClient().getConnectionFactory()).getMetrics().orElseThrow();
+
+            String query = "/dishes?size=20&sort=PREPARATION_TIME";
+            URI reactivePage = server.resolve("/reactive/api/v1" + query);
+            URI servletPage = server.resolve("/api/v1" + query);
+
+            load(client, reactivePage, WARMUP_CLIENTS, r2dbc::acquiredSize, r2dbc::pendingAcquireSize);
+            Result reactive = load(client, reactivePage, CLIENTS, r2dbc::acquiredSize, r2dbc::pendingAcquireSize);
+            load(client, servletPage, WARMUP_CLIENTS, hikari::getActiveConnections, hikari::getThreadsAwaitingConnection);
+            Result servlet = load(client, servletPage, CLIENTS, hikari::getActiveConnections,
+                    hikari::getThreadsAwaitingConnection);
+
+            System.out.println();
+            System.out.printf("%-22s %8s %7s %9s %9s %9s %12s %12s %8s%n", "api", "clients", "errors",
+                    "p50 ms", "p99 ms", "max ms", "connections", "waiting", "threads");
+            System.out.println(reactive.line("webflux + r2dbc"));
+            System.out.println(servlet.line("servlet + jpa"));
+            System.out.println();
+
+            for (Result result : List.of(reactive, servlet)) {
+                assertThat(result.errors()).isZero();
+                assertThat(result.peakConnections()).isLessThanOrEqualTo(POOL_SIZE);
+            }
+        }
+    }
+
+    /**
+     * Ги праќа сите барања одеднаш и ги чека одговорите, додека посебна
+     * нишка ги следи пулот на конекции и бројот на нишки.
+     */
+    private static Result load(HttpClient client, URI page, int clients,
+                               IntSupplier connections, IntSupplier waiting) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        AtomicInteger peakConnections = new AtomicInteger();
+        AtomicInteger peakWaiting = new AtomicInteger();
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakConnections.accumulateAndGet(connections.getAsInt(), Math::max);
+                peakWaiting.accumulateAndGet(waiting.getAsInt(), Math::max);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        double[] millis = new double[clients];
+        AtomicInteger errors = new AtomicInteger();
+        List<CompletableFuture<?>> responses = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            int client_ = i;
+            long start = System.nanoTime();
+            responses.add(client.sendAsync(HttpRequest.newBuilder(page).build(), HttpResponse.BodyHandlers.ofByteArray())
+                    .handle((response, failure) -> {
+                        millis[client_] = (System.nanoTime() - start) / 1e6;
+                        if (failure != null || response.statusCode() != 200)
+                            errors.incrementAndGet();
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+        sampler.interrupt();
+        sampler.join();
+
+        Arrays.sort(millis);
+        return new Result(clients, errors.get(), percentile(millis, 0.50), percentile(millis, 0.99),
+                millis[millis.length - 1], peakConnections.get(), peakWaiting.get(), threads.getPeakThreadCount());
+    }
+
+    private static double percentile(double[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+
+    private static void seed(ConfigurableApplicationContext application) {
+        ChefService chefService = application.getBean(ChefService.class);
+        DishRepository dishRepository = application.getBean(DishRepository.class);
+        List<Chef> chefs = new ArrayList<>();
+        for (int i = 0; i < CHEFS; i++) {
+            chefs.add(chefService.create("Load" + i, "Chef", "Bio", Gender.values()[i % Gender.values().length]));
+        }
+        List<Dish> dishes = new ArrayList<>();
+        for (int i = 0; i < DISHES; i++) {
+            dishes.add(new Dish(String.format("LOAD%05d", i), "Load dish " + i,
+                    Cuisine.values()[i % Cuisine.values().length], 5 + i % 90, List.of(chefs.get(i % CHEFS))));
+        }
+        dishRepository.saveAll(dishes);
+    }
+
+    private record Result(int clients, int errors, double p50, double p99, double max,
+                          int peakConnections, int peakWaiting, int peakThreads) {
+
+        String line(String api) {
+            return String.format("%-22s %8d %7d %9.1f %9.1f %9.1f %12d %12d %8d",
+                    api, clients, errors, p50, p99, max, peakConnections, peakWaiting, peakThreads);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package mk.ukim.finki.wp.lab.benchmark;
+
+import mk.ukim.finki.wp.lab.LabApplication;
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.service.ChefService;
+import mk.ukim.finki.wp.lab.service.DishService;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark (JMH) за кешот на рендерирани страници (RenderedPageCache).
+ *
+ * Апликацијата се стартува со 1.000 Dishes и 20 Chefs. Преку HTTP се мери
+ * просечното време за /dishes со 100 реда и за /chefs: од кешот (gzip), и
+ * при промашување, кога секое барање има различен URL, па страницата се
+ * рендерира, компресира и става во кешот. Пред мерењето се печатат
+ * големините на страницата со и без компресија.
+ *
+ * JMH работи во истиот JVM (forks 0), за да ја користи истата апликација.
+ *
+ * Се стартува со: mvn test -Pbenchmark -Dtest=RenderedPageCacheBenchmark
+ */
+@Testcontainers
+public class RenderedPageCacheBenchmark {
+
+    private static final int CHEFS = 20;
+    private static final int DISHES = 1_000;
+
+    private static HttpClient client;
+    private static String baseUrl;
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_page_cache")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @State(Scope.Benchmark)
+    public static class Page {
+
+        @Param({"/dishes?size=100", "/chefs?size=100"})
+        public String path;
+
+        final AtomicLong misses = new AtomicLong();
+        HttpRequest cached;
+
+        @Setup
+        public void setup() {
+            cached = request(path);
+        }
+
+        HttpRequest miss() {
+            return request(path + "&miss=" + misses.incrementAndGet());
+        }
+    }
+
+    private static HttpRequest request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Accept-Encoding", "gzip")
+                .build();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] cachedPage(Page page) throws Exception {
+        return client.send(page.cached, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] renderedPage(Page page) throws Exception {
+        return client.send(page.miss(), HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    @Test
+    void cachedAgainstRendered() throws Exception {
+        try (ConfigurableApplicationContext application = new SpringApplicationBuilder(LabApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn")) {
+            seed(application);
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) application).getWebServer().getPort();
+            client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .cookieHandler(new CookieManager())
+                    .build();
+            client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                            .header("Content-Type", "application/x-www-form-urlencoded")
+                            .POST(HttpRequest.BodyPublishers.ofString("username=user&password=user"))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+
+            System.out.println();
+            for (String path : List.of("/dishes?size=100", "/chefs?size=100")) {
+                int plain = client.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).build(),
+                        HttpResponse.BodyHandlers.ofByteArray()).body().length;
+                int compressed = client.send(request(path), HttpResponse.BodyHandlers.ofByteArray()).body().length;
+                System.out.printf("%s: %d bytes rendered, %d bytes cached (gzip)%n", path, plain, compressed);
+            }
+            System.out.println();
+
+            new Runner(new OptionsBuilder()
+                    .include(RenderedPageCacheBenchmark.class.getName())
+                    .forks(0)
+                    .warmupIterations(2)
+                    .warmupTime(TimeValue.seconds(2))
+                    .measurementIterations(3)
+                    .measurementTime(TimeValue.seconds(3))
+                    .build()).run();
+        } finally {
+            client = null;
+        }
+    }
+
+    private static void seed(ConfigurableApplicationContext application) {
+        ChefService chefService = application.getBean(ChefService.class);
+        DishService dishService = application.getBean(DishService.class);
+        List<Long> chefIds = new ArrayList<>();
+        for (int i = 0; i < CHEFS; i++) {
+            Chef chef = chefService.create("Bench" + i, "Chef", "Bio", Gender.values()[i % Gender.values().length]);
+            chefIds.add(chef.getId());
+        }
+        for (int i = 0; i < DISHES; i++) {
+            dishService.create("PAGE" + i, "Page dish " + i, Cuisine.values()[i % Cuisine.values().length],
+                    5 + i % 90, List.of(chefIds.get(i % CHEFS), chefIds.get((i + 1) % CHEFS)));
+        }
+    }
+}
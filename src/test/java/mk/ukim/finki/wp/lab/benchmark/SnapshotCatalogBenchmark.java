@@ -0,0 +1,197 @@
+package mk.ukim.finki.wp.lab.benchmark;
+
+import mk.ukim.finki.wp.lab.LabApplication;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.DishSortField;
+import mk.ukim.finki.wp.lab.service.CatalogImportService;
+import mk.ukim.finki.wp.lab.service.impl.CatalogSnapshot;
+import mk.ukim.finki.wp.lab.service.impl.CatalogSnapshotFile;
+import mk.ukim.finki.wp.lab.service.impl.DishServiceImpl;
+import mk.ukim.finki.wp.lab.service.impl.SnapshotCatalog;
+import mk.ukim.finki.wp.lab.service.impl.SnapshotDishServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark (JMH) за читањата од snapshot во меморија (профил "snapshot")
+ * наспроти истите читања од базата преку DishServiceImpl.
+ *
+ * Базата се полни како во DishFacetBenchmark ({@code benchmark.dishes} Dishes,
+ * стандардно 1.000.000, и 1.000 Chefs). Се мери просечното време за прва
+ * страница од листата (без и со филтер по кујна) и за Dish по id, како и
+ * цената на една измена (нов snapshot). Пред мерењето се печатат времето на
+ * вчитување, колку меморија зафаќа snapshot и времето за запишување и читање
+ * на snapshot датотеката (CatalogSnapshotFile).
+ *
+ * JMH работи во истиот JVM (forks 0), за да ја користи истата база и Spring апликација.
+ *
+ * Се стартува со: mvn test -Pbenchmark -Dtest=SnapshotCatalogBenchmark
+ */
+@Testcontainers
+public class SnapshotCatalogBenchmark {
+
+    private static ConfigurableApplicationContext context;
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_snapshot")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @State(Scope.Benchmark)
+    public static class Catalog {
+
+        @Param({"none", "cuisine"})
+        public String filter;
+
+        DishFilter dishFilter;
+        SnapshotDishServiceImpl snapshotService;
+        DishServiceImpl databaseService;
+        CatalogSnapshot snapshot;
+        long minId;
+        long maxId;
+
+        @Setup
+        public void setup() {
+            snapshotService = context.getBean(SnapshotDishServiceImpl.class);
+            databaseService = context.getBean(DishServiceImpl.class);
+            snapshot = context.getBean(SnapshotCatalog.class).current();
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            minId = jdbcTemplate.queryForObject("select min(id) from dish", Long.class);
+            maxId = jdbcTemplate.queryForObject("select max(id) from dish", Long.class);
+            dishFilter = filter.equals("none") ? DishFilter.NONE
+                    : new DishFilter(Set.of(Cuisine.ITALIAN), null, null, null);
+        }
+
+        long randomId() {
+            return ThreadLocalRandom.current().nextLong(minId, maxId + 1);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Window<DishSummary> snapshotPage(Catalog catalog) {
+        return catalog.snapshotService.listDishes(catalog.dishFilter, DishSortField.NAME, Sort.Direction.ASC,
+                ScrollPosition.keyset(), 20);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Window<DishSummary> databasePage(Catalog catalog) {
+        return catalog.databaseService.listDishes(catalog.dishFilter, DishSortField.NAME, Sort.Direction.ASC,
+                ScrollPosition.keyset(), 20);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Dish snapshotFindById(Catalog catalog) {
+        return catalog.snapshotService.findById(catalog.randomId());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Dish databaseFindById(Catalog catalog) {
+        return catalog.databaseService.findById(catalog.randomId());
+    }
+
+    /**
+     * Цената за објавување на нов snapshot по измена на еден Dish,
+     * без запишувањето во базата.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public CatalogSnapshot snapshotWrite(Catalog catalog) {
+        DishSummary dish = catalog.snapshot.dish(catalog.randomId());
+        return catalog.snapshot.withDish(dish.id(), dish.dishId(), dish.name() + "!", dish.cuisine(),
+                dish.preparationTime(), List.of());
+    }
+
+    @Test
+    void snapshotAgainstDatabase() throws Exception {
+        try (ConfigurableApplicationContext application = new SpringApplicationBuilder(LabApplication.class).run(
+                "--server.port=0",
+                "--spring.profiles.active=snapshot",
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn")) {
+            context = application;
+            JdbcTemplate jdbcTemplate = application.getBean(JdbcTemplate.class);
+            DishFacetBenchmark.seed(application.getBean(CatalogImportService.class));
+            DishFacetBenchmark.assignChefs(jdbcTemplate, application.getBean(TransactionTemplate.class));
+            jdbcTemplate.execute("vacuum analyze");
+
+            // Chefs се доделуваат директно во базата, па snapshot се вчитува повторно.
+            SnapshotCatalog catalog = application.getBean(SnapshotCatalog.class);
+            long start = System.nanoTime();
+            catalog.load();
+            System.out.println();
+            System.out.printf("%d dishes loaded in %d ms, snapshot takes about %.1f MB%n",
+                    catalog.current().dishCount(), (System.nanoTime() - start) / 1_000_000,
+                    catalog.current().sizeInBytes() / 1024.0 / 1024.0);
+            Path file = Files.createTempFile("catalog", ".snapshot");
+            try {
+                start = System.nanoTime();
+                CatalogSnapshotFile.write(catalog.current(), file);
+                long written = System.nanoTime() - start;
+                start = System.nanoTime();
+                CatalogSnapshotFile.read(file);
+                System.out.printf("snapshot file of %.1f MB written in %d ms, read in %d ms%n",
+                        Files.size(file) / 1024.0 / 1024.0, written / 1_000_000,
+                        (System.nanoTime() - start) / 1_000_000);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+            System.out.println();
+
+            new Runner(new OptionsBuilder()
+                    .include(SnapshotCatalogBenchmark.class.getName())
+                    .forks(0)
+                    .warmupIterations(2)
+                    .warmupTime(TimeValue.seconds(2))
+                    .measurementIterations(3)
+                    .measurementTime(TimeValue.seconds(3))
+                    .build()).run();
+        } finally {
+            context = null;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package mk.ukim.finki.wp.lab.benchmark;
+
+import mk.ukim.finki.wp.lab.LabApplication;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.repository.jpa.DishRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.InputStream;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark за страницата /dishes/all што се праќа во делови.
+ *
+ * Каталогот расте од 2.000 на 20.000 Dishes, и за секоја големина
+ * страницата се бара повеќепати преку HTTP. Се мерат времето до првиот
+ * бајт (TTFB) и времето до последниот бајт (медијана), и големината на
+ * страницата. Времето до првиот бајт треба да остане исто, бидејќи почетокот
+ * на страницата се праќа пред да се прочита првиот дел од редовите, а во
+ * меморија е само еден дел од 500 редови.
+ *
+ * Се стартува со: mvn test -Pbenchmark -Dtest=StreamedPageBenchmark
+ */
+@Testcontainers
+class StreamedPageBenchmark {
+
+    private static final int[] CATALOG_SIZES = {2_000, 20_000};
+    private static final int BATCH = 1_000;
+    private static final int WARMUP = 3;
+    private static final int REQUESTS = 10;
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_streamed_page")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @Test
+    void timeToFirstByteDoesNotGrowWithCatalog() throws Exception {
+        try (ConfigurableApplicationContext application = new SpringApplicationBuilder(LabApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn")) {
+            DishRepository dishRepository = application.getBean(DishRepository.class);
+            URI page = URI.create("http://localhost:"
+                    + ((WebServerApplicationContext) application).getWebServer().getPort() + "/dishes/all");
+            HttpClient client = login(page);
+
+            List<String> lines = new ArrayList<>();
+            double[] firstByte = new double[CATALOG_SIZES.length];
+            int seeded = 0;
+            for (int s = 0; s < CATALOG_SIZES.length; s++) {
+                seeded = seed(dishRepository, seeded, CATALOG_SIZES[s]);
+                for (int i = 0; i < WARMUP; i++) {
+                    fetch(client, page);
+                }
+                double[] ttfb = new double[REQUESTS];
+                double[] total = new double[REQUESTS];
+                long bytes = 0;
+                for (int i = 0; i < REQUESTS; i++) {
+                    Timing timing = fetch(client, page);
+                    ttfb[i] = timing.firstByteMillis();
+                    total[i] = timing.lastByteMillis();
+                    bytes = timing.bytes();
+                }
+                firstByte[s] = median(ttfb);
+                lines.add(String.format("%8d %12.1f %12.1f %12d", CATALOG_SIZES[s], firstByte[s], median(total), bytes / 1024));
+            }
+
+            System.out.println();
+            System.out.printf("%8s %12s %12s %12s%n", "dishes", "ttfb ms", "total ms", "page KB");
+            lines.forEach(System.out::println);
+            System.out.println();
+
+            // Десет пати поголем каталог, а првиот бајт стига во ист ред на големина.
+            assertThat(firstByte[1]).isLessThan(firstByte[0] * 3 + 20);
+        }
+    }
+
+    private static int seed(DishRepository dishRepository, int from, int to) {
+        for (int i = from; i < to; i += BATCH) {
+            List<Dish> dishes = new ArrayList<>();
+            for (int j = i; j < Math.min(i + BATCH, to); j++) {
+                dishes.add(new Dish(String.format("STREAM%06d", j), "Streamed dish " + j,
+                        Cuisine.values()[j % Cuisine.values().length], 5 + j % 90));
+            }
+            dishRepository.saveAll(dishes);
+        }
+        return to;
+    }
+
+    private static HttpClient login(URI page) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .cookieHandler(new CookieManager())
+                .build();
+        client.send(HttpRequest.newBuilder(page.resolve("/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString("username=user&password=user"))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        return client;
+    }
+
+    /**
+     * Го чита одговорот од мрежата како што пристигнува и ги бележи
+     * времињата до првиот и до последниот бајт.
+     */
+    private static Timing fetch(HttpClient client, URI page) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response = client.send(HttpRequest.newBuilder(page).build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+        try (InputStream body = response.body()) {
+            byte[] buffer = new byte[64 * 1024];
+            int read = body.read(buffer);
+            long firstByte = System.nanoTime();
+            long bytes = Math.max(read, 0);
+            while ((read = body.read(buffer)) >= 0) {
+                bytes += read;
+            }
+            long lastByte = System.nanoTime();
+            return new Timing((firstByte - start) / 1e6, (lastByte - start) / 1e6, bytes);
+        }
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private record Timing(double firstByteMillis, double lastByteMillis, long bytes) {
+    }
+}
@@ -0,0 +1,111 @@
+package mk.ukim.finki.wp.lab.benchmark;
+
+import mk.ukim.finki.wp.lab.service.impl.PrefixIndex;
+import mk.ukim.finki.wp.lab.service.impl.PrefixIndex.Entry;
+import mk.ukim.finki.wp.lab.service.impl.PrefixIndex.Match;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark (JMH) за PrefixIndex.
+ *
+ * Индексот се гради со {@code benchmark.entries} записи (стандардно 1.000.000)
+ * со имиња и кодови како Dishes во DishSearchBenchmark. Се мери просечното
+ * време на find() за 10 предлози, за префикси со многу и со малку погодоци,
+ * и колку меморија зафаќа индексот по запис.
+ *
+ * Се стартува со: mvn test -Pbenchmark -Dtest=SuggestBenchmark
+ */
+public class SuggestBenchmark {
+
+    private static final int ENTRIES = Integer.getInteger("benchmark.entries", 1_000_000);
+
+    private static final String[] ADJECTIVES = {"smoked", "grilled", "braised", "crispy", "spicy", "roasted",
+            "steamed", "glazed", "stuffed", "pickled"};
+    private static final String[] MAINS = {"chicken", "lamb", "salmon", "tofu", "beef", "duck", "octopus",
+            "mushroom", "pork", "cod", "lentil", "aubergine"};
+    private static final String[] SIDES = {"polenta", "couscous", "risotto", "gnocchi", "dumplings", "noodles",
+            "flatbread", "slaw", "chutney", "gremolata"};
+
+    @State(Scope.Benchmark)
+    public static class Lookup {
+
+        @Param({"s", "duck", "smoked duck with g", "gnocchi 12345", "zz"})
+        public String prefix;
+
+        PrefixIndex index;
+
+        @Setup
+        public void setup() {
+            index = build();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Match> find(Lookup lookup) {
+        return lookup.index.find(lookup.prefix, 10);
+    }
+
+    @Test
+    void lookupLatency() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(SuggestBenchmark.class.getName() + ".find")
+                .forks(1)
+                .jvmArgs("-Xmx2g", "-Dbenchmark.entries=" + ENTRIES)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(2))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(2))
+                .build()).run();
+    }
+
+    @Test
+    void memoryPerEntry() {
+        long before = usedHeap();
+        PrefixIndex index = build();
+        long after = usedHeap();
+
+        System.out.println();
+        System.out.printf("%d entries, %.1f MB, %.1f bytes per entry%n", index.size(),
+                (after - before) / 1024.0 / 1024.0, (after - before) / (double) index.size());
+        System.out.println();
+    }
+
+    private static PrefixIndex build() {
+        Random random = new Random(42);
+        List<Entry> entries = new ArrayList<>(ENTRIES);
+        for (int i = 0; i < ENTRIES; i++) {
+            entries.add(new Entry(i, ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                    + MAINS[random.nextInt(MAINS.length)] + " with "
+                    + SIDES[random.nextInt(SIDES.length)] + " " + i, List.of("SEARCH-" + i)));
+        }
+        PrefixIndex index = new PrefixIndex(Runnable::run, 4096);
+        index.reset(() -> entries);
+        return index;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
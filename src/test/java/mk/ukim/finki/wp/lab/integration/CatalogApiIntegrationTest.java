@@ -0,0 +1,160 @@
+package mk.ukim.finki.wp.lab.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.service.ChefService;
+import mk.ukim.finki.wp.lab.service.DishService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционен тест за REST API-то /api/v1/dishes и /api/v1/chefs.
+ *
+ * Проверува страничење со курсори до крајот на листата, филтри, избор на
+ * полиња и групно читање со една SQL наредба.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+class CatalogApiIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_catalog_api")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @DynamicPropertySource
+    static void setupDb(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                SqlStatementCounter.class::getName);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DishService dishService;
+
+    @Autowired
+    private ChefService chefService;
+
+    private Chef chef;
+    private List<Dish> dishes;
+
+    @BeforeEach
+    void init() {
+        chef = chefService.create("Api", "Zeta-" + System.nanoTime(), "Bio", Gender.FEMALE);
+        dishes = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            dishes.add(dishService.create("API-" + chef.getId() + "-" + i, "Api dish " + i,
+                    i % 2 == 0 ? Cuisine.ITALIAN : Cuisine.FRENCH, 10 + i * 10, List.of(chef.getId())));
+        }
+    }
+
+    private JsonNode read(String url) throws Exception {
+        String body = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    /**
+     * Со курсорот next се стигнува до крајот на листата, без повторени Dishes.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testPagesFollowTheCursor() throws Exception {
+        List<String> dishIds = new ArrayList<>();
+        String url = "/api/v1/dishes?size=2&fields=dishId&chef=" + chef.getId();
+        JsonNode page = read(url);
+        while (true) {
+            page.get("items").forEach(item -> dishIds.add(item.get("dishId").asText()));
+            assertThat(page.get("items").get(0).size()).isEqualTo(1);
+            if (page.get("next").isNull())
+                break;
+            page = read(url + "&after=" + page.get("next").asText());
+        }
+
+        assertThat(dishIds).containsExactlyElementsOf(dishes.stream().map(Dish::getDishId).toList());
+    }
+
+    /**
+     * Филтрите за кујна и време на подготовка важат и во API-то.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testFilters() throws Exception {
+        JsonNode page = read("/api/v1/dishes?cuisine=ITALIAN&minPreparationTime=20&chef=" + chef.getId());
+
+        assertThat(page.get("items")).hasSize(2);
+        page.get("items").forEach(item -> {
+            assertThat(item.get("cuisine").asText()).isEqualTo("ITALIAN");
+            assertThat(item.get("preparationTime").asInt()).isGreaterThanOrEqualTo(20);
+        });
+    }
+
+    /**
+     * Групното читање по id и dishId праќа една наредба по вид на клуч.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testBatchReadsWithOneStatementPerKeyKind() throws Exception {
+        String ids = dishes.get(3).getId() + "," + dishes.get(0).getId() + ",-1";
+
+        SqlStatementCounter.reset();
+        JsonNode batch = read("/api/v1/dishes/batch?id=" + ids + "&dishId=" + dishes.get(4).getDishId());
+
+        assertThat(SqlStatementCounter.count("select")).isEqualTo(2);
+        assertThat(batch.get("items").findValuesAsText("dishId")).containsExactly(
+                dishes.get(3).getDishId(), dishes.get(0).getDishId(), dishes.get(4).getDishId());
+        assertThat(batch.get("missing").get("id").get(0).asLong()).isEqualTo(-1);
+    }
+
+    /**
+     * Chefs се филтрираат по пол, а непостоечки Chef враќа 404.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testChefs() throws Exception {
+        chefService.create("Api", "Male", "Bio", Gender.MALE);
+
+        JsonNode female = read("/api/v1/chefs?gender=FEMALE&size=100&fields=id,gender");
+        assertThat(female.get("items").findValuesAsText("gender")).isNotEmpty().containsOnly("FEMALE");
+        assertThat(female.get("items").findValuesAsText("id")).contains(chef.getId().toString());
+
+        JsonNode one = read("/api/v1/chefs/" + chef.getId());
+        assertThat(one.get("lastName").asText()).isEqualTo(chef.getLastName());
+
+        mockMvc.perform(get("/api/v1/chefs/-1")).andExpect(status().isNotFound());
+    }
+}
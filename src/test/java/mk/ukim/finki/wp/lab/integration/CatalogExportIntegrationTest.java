@@ -0,0 +1,219 @@
+package mk.ukim.finki.wp.lab.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.ImportReport;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.ExportFormat;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.model.enums.ImportFormat;
+import mk.ukim.finki.wp.lab.model.enums.ImportKind;
+import mk.ukim.finki.wp.lab.service.CatalogExportService;
+import mk.ukim.finki.wp.lab.repository.jpa.ChefRepository;
+import mk.ukim.finki.wp.lab.service.CatalogImportService;
+import mk.ukim.finki.wp.lab.service.DishService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционен тест за извоз на каталогот (CSV/NDJSON преку StreamingResponseBody).
+ *
+ * Проверува дека одговорот се пишува асинхроно, дека колоните се исти
+ * како колоните за увоз (па извозот може повторно да се увезе)
+ * и дека само ADMIN има пристап.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+class CatalogExportIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_export")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @DynamicPropertySource
+    static void setupDb(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private CatalogExportService catalogExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ChefRepository chefRepository;
+
+    @Autowired
+    private DishService dishService;
+
+    private ImportReport importCatalog(ImportKind kind, String csv) {
+        return catalogImportService.importCatalog(kind, ImportFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Подготовка: еден Chef и еден Dish со клуч, поврзани меѓусебно.
+     */
+    @BeforeEach
+    void init() {
+        importCatalog(ImportKind.CHEFS, "externalKey,firstName,lastName,bio,gender\nEXP-C1,Exp,Chef,\"Bio, with comma\",MALE\n");
+        importCatalog(ImportKind.DISHES, "dishId,name,cuisine,preparationTime\nEXP-D1,Export dish,FRENCH,12\n");
+        importCatalog(ImportKind.ASSIGNMENTS, "dishId,chefKey\nEXP-D1,EXP-C1\n");
+    }
+
+    private String export(ImportKind kind, ExportFormat format) throws Exception {
+        MvcResult started = mockMvc.perform(get("/admin/export")
+                        .param("kind", kind.name())
+                        .param("format", format.name()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // Подолг timeout само за извозот, не за сите async барања
+        assertThat(started.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofHours(1).toMillis());
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * CSV извоз на Dishes: заглавие со колоните за увоз и ред за секој Dish.
+     */
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void testDishesCsvExport() throws Exception {
+        String csv = export(ImportKind.DISHES, ExportFormat.CSV);
+
+        assertThat(csv).startsWith("id,dishId,name,cuisine,preparationTime\n");
+        assertThat(csv).contains(",EXP-D1,\"Export dish\",FRENCH,12\n");
+    }
+
+    /**
+     * NDJSON извоз на Chefs и врските: еден JSON објект по ред.
+     */
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void testNdjsonExport() throws Exception {
+        List<JsonNode> chefs = new ArrayList<>();
+        for (String line : export(ImportKind.CHEFS, ExportFormat.NDJSON).split("\n")) {
+            chefs.add(objectMapper.readTree(line));
+        }
+        assertThat(chefs).anySatisfy(chef -> {
+            assertThat(chef.get("externalKey").asText()).isEqualTo("EXP-C1");
+            assertThat(chef.get("bio").asText()).isEqualTo("Bio, with comma");
+        });
+
+        JsonNode link = objectMapper.readTree(export(ImportKind.ASSIGNMENTS, ExportFormat.NDJSON).trim());
+        assertThat(link.get("dishId").asText()).isEqualTo("EXP-D1");
+        assertThat(link.get("chefKey").asText()).isEqualTo("EXP-C1");
+    }
+
+    /**
+     * Извезената датотека може повторно да се увезе без грешки:
+     * сите редови се ажурирања на постоечките Dishes.
+     */
+    @Test
+    void testExportCanBeImportedAgain() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        catalogExportService.export(ImportKind.DISHES, ExportFormat.CSV, output);
+
+        ImportReport report = importCatalog(ImportKind.DISHES, output.toString(StandardCharsets.UTF_8));
+
+        assertThat(report.rejected()).isZero();
+        assertThat(report.inserted()).isZero();
+        assertThat(report.updated()).isEqualTo(report.rowsRead()).isPositive();
+    }
+
+    /**
+     * Chef креиран преку формата исто така има клуч, па неговите врски
+     * со Dishes може да се извезат и повторно да се увезат.
+     */
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void testAssignmentsOfFormChefCanBeImportedAgain() throws Exception {
+        String lastName = "Form-" + System.nanoTime();
+        mockMvc.perform(post("/chefs/add")
+                        .param("firstName", "Round")
+                        .param("lastName", lastName)
+                        .param("bio", "Bio")
+                        .param("gender", Gender.FEMALE.name()))
+                .andExpect(status().is3xxRedirection());
+        Chef chef = chefRepository.findAll().stream()
+                .filter(c -> c.getLastName().equals(lastName))
+                .findFirst().orElseThrow();
+        Dish dish = dishService.create("EXP-" + lastName, "Round trip", Cuisine.FRENCH, 5, List.of(chef.getId()));
+
+        String assignments = export(ImportKind.ASSIGNMENTS, ExportFormat.CSV);
+        assertThat(assignments.lines())
+                .anyMatch(line -> line.startsWith(dish.getDishId() + ",") && line.contains(chef.getExternalKey()));
+
+        dishService.update(dish.getId(), dish.getDishId(), dish.getName(), dish.getCuisine(), 5, List.of());
+        ImportReport report = importCatalog(ImportKind.ASSIGNMENTS, assignments);
+
+        assertThat(report.rejected()).isZero();
+        assertThat(report.inserted()).isEqualTo(1);
+        assertThat(dishService.findById(dish.getId()).getChefs()).extracting(Chef::getId).containsExactly(chef.getId());
+    }
+
+    /**
+     * Одговорот се симнува како датотека.
+     */
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void testExportIsAnAttachment() throws Exception {
+        mockMvc.perform(get("/admin/export").param("kind", "DISHES").param("format", "NDJSON"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"dishes.ndjson\""))
+                .andExpect(content().contentType("application/x-ndjson"));
+    }
+
+    /**
+     * USER нема пристап до извозот.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testUserCannotExport() throws Exception {
+        mockMvc.perform(get("/admin/export").param("kind", "DISHES"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,211 @@
+package mk.ukim.finki.wp.lab.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.service.ChefService;
+import mk.ukim.finki.wp.lab.service.DishService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Интеграционен тест за GraphQL endpoint-от /graphql.
+ *
+ * Проверува дека вгнездено барање Chefs → Dishes → Chefs праќа ист број
+ * SQL наредби без разлика колку Chefs има на страницата, и дека премногу
+ * длабоки или премногу скапи барања се одбиваат пред извршување.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+class CatalogGraphQlIntegrationTest {
+
+    private static final String NESTED = """
+            query($gender: Gender, $first: Int) {
+              chefs(first: $first, gender: $gender) {
+                items { id lastName dishes { dishId chefs { id lastName } } }
+                next
+              }
+            }
+            """;
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_catalog_graphql")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @DynamicPropertySource
+    static void setupDb(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                SqlStatementCounter.class::getName);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DishService dishService;
+
+    @Autowired
+    private ChefService chefService;
+
+    private static List<Chef> chefs;
+    private static List<Dish> dishes;
+
+    @BeforeEach
+    void init() {
+        if (chefs != null)
+            return;
+
+        chefs = new ArrayList<>();
+        dishes = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            chefs.add(chefService.create("Graph", "Chef" + i, "Bio", Gender.FEMALE));
+        }
+        for (int i = 0; i < 6; i++) {
+            dishes.add(dishService.create("GQL-" + i, "Graph dish " + i, Cuisine.FRENCH,
+                    10 + i, List.of(chefs.get(i).getId(), chefs.get((i + 1) % chefs.size()).getId())));
+        }
+    }
+
+    private JsonNode query(String query, Map<String, Object> variables) throws Exception {
+        MvcResult started = mockMvc.perform(post("/graphql")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("query", query, "variables", variables))))
+                .andReturn();
+        MvcResult result = started.getRequest().isAsyncStarted()
+                ? mockMvc.perform(asyncDispatch(started)).andReturn()
+                : started;
+        assertThat(result.getResponse().getStatus()).isEqualTo(200);
+        String body = result.getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    /**
+     * Вгнездените Dishes и нивните Chefs се читаат по едно групно барање
+     * на ниво, за две и за шест Chefs на страницата.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testNestedQueryIsBatchedPerLevel() throws Exception {
+        SqlStatementCounter.reset();
+        JsonNode two = query(NESTED, Map.of("gender", "FEMALE", "first", 2));
+        int twoChefs = SqlStatementCounter.count("select");
+
+        SqlStatementCounter.reset();
+        JsonNode six = query(NESTED, Map.of("gender", "FEMALE", "first", 6));
+        int sixChefs = SqlStatementCounter.count("select");
+
+        assertThat(two.get("errors")).isNull();
+        assertThat(two.at("/data/chefs/items")).hasSize(2);
+        assertThat(two.at("/data/chefs/next").isNull()).isFalse();
+        assertThat(six.at("/data/chefs/items")).hasSize(6);
+        assertThat(sixChefs).isEqualTo(twoChefs).isLessThanOrEqualTo(5);
+
+        JsonNode first = six.at("/data/chefs/items/0");
+        assertThat(first.get("id").asLong()).isEqualTo(chefs.get(0).getId());
+        assertThat(first.get("dishes").findValuesAsText("dishId"))
+                .containsExactlyInAnyOrder(dishes.get(0).getDishId(), dishes.get(5).getDishId());
+        assertThat(first.at("/dishes/0/chefs").findValuesAsText("lastName")).contains("Chef0");
+    }
+
+    /**
+     * Едно Dish по id, со неговите Chefs; непостоечко Dish е null.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testDishById() throws Exception {
+        JsonNode found = query("query($id: ID!) { dish(id: $id) { name cuisine chefs { lastName } } }",
+                Map.of("id", dishes.get(2).getId()));
+        JsonNode missing = query("{ dish(id: -1) { name } }", Map.of());
+
+        assertThat(found.at("/data/dish/name").asText()).isEqualTo("Graph dish 2");
+        assertThat(found.at("/data/dish/cuisine").asText()).isEqualTo("FRENCH");
+        assertThat(found.at("/data/dish/chefs").findValuesAsText("lastName")).containsExactly("Chef2", "Chef3");
+        assertThat(missing.at("/data/dish").isNull()).isTrue();
+    }
+
+    /**
+     * Chef со повеќе Dishes од catalog.graphql.max-related ги враќа само
+     * првите по id, колку што се смета и во цената на барањето.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testRelatedListIsCapped() throws Exception {
+        Chef busy = chefService.create("Graph", "Busy", "Bio", Gender.MALE);
+        List<Long> busyDishes = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            busyDishes.add(dishService.create("GQL-BUSY-" + i, "Busy dish " + i, Cuisine.ITALIAN,
+                    5, List.of(busy.getId())).getId());
+        }
+
+        JsonNode result = query("query($id: ID!) { chef(id: $id) { dishes { id } } }", Map.of("id", busy.getId()));
+
+        assertThat(result.at("/data/chef/dishes").findValuesAsText("id"))
+                .containsExactlyElementsOf(busyDishes.subList(0, 10).stream().map(String::valueOf).toList());
+    }
+
+    /**
+     * Барање подлабоко од catalog.graphql.max-depth се одбива.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testTooDeepQueryIsRejected() throws Exception {
+        SqlStatementCounter.reset();
+        JsonNode result = query("""
+                { chefs(first: 1) { items { dishes { chefs { dishes { chefs { dishes { chefs { id } } } } } } } } }
+                """, Map.of());
+
+        assertThat(result.at("/data/chefs").isMissingNode()).isTrue();
+        assertThat(result.at("/errors/0/message").asText()).contains("depth");
+        assertThat(SqlStatementCounter.count("select")).isZero();
+    }
+
+    /**
+     * Плитко, но скапо барање се одбива според catalog.graphql.max-cost.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testTooCostlyQueryIsRejected() throws Exception {
+        JsonNode cheap = query(NESTED, Map.of("first", 20));
+        JsonNode costly = query("""
+                { dishes(first: 100) { items { chefs { dishes { chefs { dishes { name } } } } } } }
+                """, Map.of());
+
+        assertThat(cheap.get("errors")).isNull();
+        assertThat(costly.at("/data/dishes").isMissingNode()).isTrue();
+        assertThat(costly.at("/errors/0/message").asText()).contains("complexity");
+    }
+}
@@ -0,0 +1,259 @@
+package mk.ukim.finki.wp.lab.integration;
+
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.ImportReport;
+import mk.ukim.finki.wp.lab.model.dto.ImportRowError;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.model.enums.ImportFormat;
+import mk.ukim.finki.wp.lab.model.enums.ImportKind;
+import mk.ukim.finki.wp.lab.model.exceptions.CatalogImportException;
+import mk.ukim.finki.wp.lab.service.CatalogImportService;
+import mk.ukim.finki.wp.lab.service.ChefService;
+import mk.ukim.finki.wp.lab.service.DishService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционен тест за масовен увоз на каталог (CSV/JSON → COPY → staging → merge).
+ *
+ * Проверува дека валидните редови се внесуваат или ажурираат, дека невалидните
+ * редови се прескокнуваат и се пријавуваат со бројот на редот, дека неисправна
+ * датотека не внесува ништо и дека кешот не враќа застарени податоци по увозот.
+ * Мали batches и повеќе нишки се користат за да се помине низ паралелната валидација.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+class CatalogImportIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_import")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @DynamicPropertySource
+    static void setupDb(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("catalog.import.batch-size", () -> "3");
+        registry.add("catalog.import.parallelism", () -> "2");
+        registry.add("catalog.import.max-reported-errors", () -> "5");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private DishService dishService;
+
+    @Autowired
+    private ChefService chefService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private ImportReport importCatalog(ImportKind kind, ImportFormat format, String content) {
+        return catalogImportService.importCatalog(kind, format,
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private List<String> chefKeysOf(String dishId) {
+        return transactionTemplate.execute(status -> dishService.findByDishId(dishId).getChefs().stream()
+                .map(Chef::getExternalKey).sorted().collect(Collectors.toList()));
+    }
+
+    /**
+     * CSV увоз на Chefs, Dishes и нивните врски: невалидните редови
+     * се пријавуваат, а другите се внесуваат.
+     */
+    @Test
+    void testCsvImportLoadsValidRowsAndReportsInvalidOnes() {
+        ImportReport chefs = importCatalog(ImportKind.CHEFS, ImportFormat.CSV, """
+                externalKey,firstName,lastName,bio,gender
+                CSV-C1,Ana,Petrova,"Pastry, desserts",female
+                CSV-C2,Marko,Markov,Grill,MALE
+                CSV-C3,Bad,Gender,Bio,OTHER
+                CSV-C4,No,,Bio,MALE
+                CSV-C5,No,Bio,,MALE
+                """);
+        assertThat(chefs.rowsRead()).isEqualTo(5);
+        assertThat(chefs.inserted()).isEqualTo(2);
+        assertThat(chefs.rejected()).isEqualTo(3);
+        assertThat(chefs.errors()).extracting(ImportRowError::row).containsExactly(3L, 4L, 5L);
+        assertThat(chefs.errors().get(1).message()).isEqualTo("lastName is required");
+        assertThat(chefs.errors().get(2).message()).isEqualTo("bio is required");
+
+        ImportReport dishes = importCatalog(ImportKind.DISHES, ImportFormat.CSV, """
+                dishId,name,cuisine,preparationTime
+                CSV-D1,Baklava,ITALIAN,90
+                CSV-D2,Ajvar,FRENCH,-5
+                CSV-D3,Tavche,mexican,45
+                CSV-D1,Baklava Deluxe,ITALIAN,120
+                """);
+        assertThat(dishes.inserted()).isEqualTo(2);
+        assertThat(dishes.errors()).extracting(ImportRowError::row).containsExactly(1L, 2L);
+        assertThat(dishService.findByDishId("CSV-D1").getName()).isEqualTo("Baklava Deluxe");
+        assertThat(dishService.findByDishId("CSV-D3").getCuisine()).isEqualTo(Cuisine.MEXICAN);
+
+        ImportReport assignments = importCatalog(ImportKind.ASSIGNMENTS, ImportFormat.CSV, """
+                dishId,chefKey
+                CSV-D1,CSV-C1
+                CSV-D1,CSV-C2
+                CSV-D3,CSV-C9
+                CSV-D9,CSV-C1
+                CSV-D1,CSV-C1
+                """);
+        assertThat(assignments.inserted()).isEqualTo(2);
+        assertThat(assignments.errors()).extracting(ImportRowError::message)
+                .containsExactly("Unknown chef CSV-C9", "Unknown dish CSV-D9");
+        assertThat(chefKeysOf("CSV-D1")).containsExactly("CSV-C1", "CSV-C2");
+    }
+
+    /**
+     * Увезените редови го делат sequence-от со Hibernate,
+     * па Chefs и Dishes креирани потоа преку сервисите не се во конфликт.
+     */
+    @Test
+    void testEntitiesCreatedAfterImportGetFreshIds() {
+        importCatalog(ImportKind.CHEFS, ImportFormat.CSV, """
+                externalKey,firstName,lastName,bio,gender
+                SEQ-C1,Seq,One,Bio,MALE
+                SEQ-C2,Seq,Two,Bio,FEMALE
+                """);
+
+        Chef chef = chefService.create("After", "Import", "Bio", Gender.MALE);
+        Dish dish = dishService.create("SEQ-D1", "After import", Cuisine.BRITISH, 10, List.of(chef.getId()));
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from chef where id = ?", Long.class, chef.getId()))
+                .isEqualTo(1);
+        assertThat(dishService.findById(dish.getId()).getChefs()).extracting(Chef::getId).containsExactly(chef.getId());
+    }
+
+    /**
+     * JSON увоз (низа или NDJSON) ги ажурира постоечките Dishes по dishId,
+     * а претходно кешираните податоци се инвалидираат.
+     */
+    @Test
+    void testJsonImportUpdatesExistingDishAndEvictsCache() {
+        Dish dish = dishService.create("JSON-D1", "Old name", Cuisine.BRITISH, 10, List.of());
+        dishService.findByDishId("JSON-D1");
+        dishService.findById(dish.getId());
+
+        ImportReport array = importCatalog(ImportKind.DISHES, ImportFormat.JSON, """
+                [{"dishId": "JSON-D1", "name": "New name", "cuisine": "FRENCH", "preparationTime": 15},
+                 {"dishId": "JSON-D2", "name": "Second", "cuisine": "ITALIAN", "preparationTime": 5}]
+                """);
+        ImportReport ndjson = importCatalog(ImportKind.DISHES, ImportFormat.JSON, """
+                {"dishId": "JSON-D3", "name": "Third", "cuisine": "AMERICAN", "preparationTime": 20}
+                {"dishId": "JSON-D4", "name": "Fourth", "cuisine": "AMERICAN", "preparationTime": "ten"}
+                """);
+
+        assertThat(array.inserted()).isEqualTo(1);
+        assertThat(array.updated()).isEqualTo(1);
+        assertThat(ndjson.inserted()).isEqualTo(1);
+        assertThat(ndjson.errors()).containsExactly(new ImportRowError(2, "preparationTime must be a whole number"));
+
+        Dish updated = dishService.findById(dish.getId());
+        assertThat(updated.getName()).isEqualTo("New name");
+        assertThat(updated.getPreparationTime()).isEqualTo(15);
+    }
+
+    /**
+     * Неисправна датотека не внесува ништо, дури ни редовите пред грешката.
+     */
+    @Test
+    void testMalformedFileImportsNothing() {
+        assertThatThrownBy(() -> importCatalog(ImportKind.DISHES, ImportFormat.JSON, """
+                {"dishId": "BAD-D1", "name": "Fine", "cuisine": "FRENCH", "preparationTime": 1}
+                {"dishId": "BAD-D2", "name": "Fine", "cuisine": "FRENCH", "preparationTime": 2}
+                {"dishId": "BAD-D3", "name":
+                """)).isInstanceOf(CatalogImportException.class);
+
+        assertThat(dishService.findByDishId("BAD-D1")).isNull();
+    }
+
+    /**
+     * Сите одбиени редови се бројат, но во извештајот се чуваат
+     * само првите catalog.import.max-reported-errors.
+     */
+    @Test
+    void testErrorReportIsBounded() {
+        StringBuilder csv = new StringBuilder("dishId,name,cuisine,preparationTime\n");
+        for (int i = 1; i <= 40; i++) {
+            csv.append("MANY-").append(i).append(",Dish,").append(i % 2 == 0 ? "FRENCH" : "NONE").append(",5\n");
+        }
+
+        ImportReport report = importCatalog(ImportKind.DISHES, ImportFormat.CSV, csv.toString());
+
+        assertThat(report.rowsRead()).isEqualTo(40);
+        assertThat(report.inserted()).isEqualTo(20);
+        assertThat(report.rejected()).isEqualTo(20);
+        assertThat(report.errors()).extracting(ImportRowError::row).containsExactly(1L, 3L, 5L, 7L, 9L);
+    }
+
+    /**
+     * ADMIN увезува преку HTTP, со датотеката како тело на барањето.
+     */
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void testAdminImportsOverHttp() throws Exception {
+        mockMvc.perform(post("/admin/import")
+                        .param("kind", "DISHES")
+                        .contentType("text/csv")
+                        .content("dishId,name,cuisine,preparationTime\nHTTP-D1,Over HTTP,BRITISH,7\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.rejected").value(0));
+
+        assertThat(dishService.findByDishId("HTTP-D1").getName()).isEqualTo("Over HTTP");
+    }
+
+    /**
+     * USER нема пристап до увозот.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testUserCannotImport() throws Exception {
+        mockMvc.perform(post("/admin/import")
+                        .param("kind", "DISHES")
+                        .contentType("text/csv")
+                        .content("dishId,name,cuisine,preparationTime\nHTTP-D2,Denied,BRITISH,7\n"))
+                .andExpect(status().isForbidden());
+
+        assertThat(dishService.findByDishId("HTTP-D2")).isNull();
+    }
+}
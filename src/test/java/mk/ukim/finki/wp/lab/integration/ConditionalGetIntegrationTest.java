@@ -0,0 +1,144 @@
+package mk.ukim.finki.wp.lab.integration;
+
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.service.CatalogVersionService;
+import mk.ukim.finki.wp.lab.service.ChefService;
+import mk.ukim.finki.wp.lab.service.DishService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционен тест за условните GET барања (ETag / Last-Modified)
+ * на страниците /dishes, /chefs и /chefs/dishes/{id}.
+ *
+ * Проверува дека 304 одговорот не праќа ниту една SQL наредба, дека секоја
+ * измена по commit ја менува верзијата на каталогот, а измена што е
+ * вратена (rollback) не ја менува.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+class ConditionalGetIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_conditional_get")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @DynamicPropertySource
+    static void setupDb(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                SqlStatementCounter.class::getName);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DishService dishService;
+
+    @Autowired
+    private ChefService chefService;
+
+    @Autowired
+    private CatalogVersionService catalogVersion;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Chef chef;
+    private Dish dish;
+
+    @BeforeEach
+    void init() {
+        chef = chefService.create("Etag", "Chef", "Bio", Gender.FEMALE);
+        dish = dishService.create("ETAG-" + chef.getId(), "Etag Dish", Cuisine.ITALIAN, 25,
+                List.of(chef.getId()));
+    }
+
+    private String etag(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    /**
+     * Со тековниот ETag секоја страница враќа 304 без SQL наредби.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testNotModifiedDoesNotReachDatabase() throws Exception {
+        for (String url : List.of("/dishes", "/chefs", "/chefs/dishes/" + chef.getId())) {
+            String etag = etag(url);
+            SqlStatementCounter.reset();
+
+            mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified());
+
+            assertThat(SqlStatementCounter.total()).as(url).isZero();
+        }
+    }
+
+    /**
+     * Измена на Dish или Chef го менува ETag, па страницата повторно се праќа.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testWritesChangeTheETag() throws Exception {
+        String dishes = etag("/dishes");
+        dishService.update(dish.getId(), dish.getDishId(), "Renamed", Cuisine.ITALIAN, 25, List.of(chef.getId()));
+
+        mockMvc.perform(get("/dishes").header(HttpHeaders.IF_NONE_MATCH, dishes))
+                .andExpect(status().isOk());
+
+        String chefs = etag("/chefs");
+        chefService.delete(chef.getId());
+
+        mockMvc.perform(get("/chefs").header(HttpHeaders.IF_NONE_MATCH, chefs))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Измена што е вратена (rollback) не ја менува верзијата.
+     */
+    @Test
+    void testRolledBackWriteKeepsTheVersion() {
+        String version = catalogVersion.version();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            dishService.update(dish.getId(), dish.getDishId(), "Rolled back", Cuisine.MEXICAN, 5, List.of());
+            status.setRollbackOnly();
+        });
+
+        assertThat(catalogVersion.version()).isEqualTo(version);
+    }
+}
@@ -0,0 +1,223 @@
+package mk.ukim.finki.wp.lab.integration;
+
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.ChefFacet;
+import mk.ukim.finki.wp.lab.model.dto.DishFacets;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.DishSortField;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.model.enums.PreparationTimeRange;
+import mk.ukim.finki.wp.lab.repository.jpa.DishRepository;
+import mk.ukim.finki.wp.lab.service.ChefService;
+import mk.ukim.finki.wp.lab.service.DishService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Интеграционен тест за филтрите и бројачите (facets) на листата на Dishes.
+ *
+ * Секој тест креира свои Chefs и филтрира по нив, па бројачите
+ * не зависат од Dishes креирани во другите тестови.
+ * Проверува дека секој бројач ги применува сите филтри освен својот,
+ * дека индексот во меморија брои исто како базата,
+ * дека филтрираната листа се чита по страници (keyset)
+ * и дека филтрите можат да ги користат композитните индекси.
+ */
+@SpringBootTest
+@Testcontainers
+class DishFacetIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_facets")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @DynamicPropertySource
+    static void setupDb(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+    }
+
+    @Autowired
+    private DishService dishService;
+
+    @Autowired
+    private ChefService chefService;
+
+    @Autowired
+    private DishRepository dishRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Chef first;
+    private Chef second;
+    private Dish quick;
+    private Dish medium;
+    private Dish slow;
+
+    /**
+     * Два Chefs и четири Dishes:
+     * quick (ITALIAN, 10 мин, first), medium (ITALIAN, 20 мин, first и second),
+     * slow (FRENCH, 45 мин, second) и еден Dish без Chef.
+     */
+    @BeforeEach
+    void init() {
+        first = chefService.create("Facet", "First", "Bio", Gender.FEMALE);
+        second = chefService.create("Facet", "Second", "Bio", Gender.MALE);
+        String suffix = "-" + first.getId();
+        quick = dishService.create("FACET-Q" + suffix, "Quick", Cuisine.ITALIAN, 10, List.of(first.getId()));
+        medium = dishService.create("FACET-M" + suffix, "Medium", Cuisine.ITALIAN, 20,
+                List.of(first.getId(), second.getId()));
+        slow = dishService.create("FACET-S" + suffix, "Slow", Cuisine.FRENCH, 45, List.of(second.getId()));
+        dishService.create("FACET-N" + suffix, "No chef", Cuisine.MEXICAN, 90, List.of());
+    }
+
+    private List<Long> list(DishFilter filter) {
+        return dishService.listDishes(filter, DishSortField.NAME, Sort.Direction.ASC, ScrollPosition.keyset(), 20)
+                .stream().map(DishSummary::id).toList();
+    }
+
+    /**
+     * Бројачот по кујна не го применува филтерот по кујна, но го применува Chef филтерот,
+     * а бројачот по Chef го применува само филтерот по кујна.
+     */
+    @Test
+    void testFacetsIgnoreTheirOwnFilter() {
+        DishFacets facets = dishService.countFacets(new DishFilter(Set.of(Cuisine.ITALIAN), null, null,
+                Set.of(first.getId(), second.getId())));
+
+        assertThat(facets.cuisines()).containsOnly(entry(Cuisine.BRITISH, 0L), entry(Cuisine.ITALIAN, 2L),
+                entry(Cuisine.AMERICAN, 0L), entry(Cuisine.FRENCH, 1L), entry(Cuisine.MEXICAN, 0L));
+        assertThat(facets.preparationTimes()).containsOnly(entry(PreparationTimeRange.UNDER_15, 1L),
+                entry(PreparationTimeRange.UNDER_30, 1L), entry(PreparationTimeRange.UNDER_60, 0L),
+                entry(PreparationTimeRange.LONGER, 0L));
+        assertThat(facets.chefs()).contains(new ChefFacet(first.getId(), "Facet First", 2),
+                new ChefFacet(second.getId(), "Facet Second", 1));
+    }
+
+    /**
+     * Со сите три филтри секој бројач ги применува другите два.
+     */
+    @Test
+    void testFacetsWithEveryFilter() {
+        DishFilter filter = new DishFilter(Set.of(Cuisine.ITALIAN), 0, 14, Set.of(first.getId(), second.getId()));
+
+        DishFacets facets = dishService.countFacets(filter);
+
+        assertThat(facets.cuisines()).containsEntry(Cuisine.ITALIAN, 1L).containsEntry(Cuisine.FRENCH, 0L);
+        assertThat(facets.preparationTimes()).containsEntry(PreparationTimeRange.UNDER_15, 1L)
+                .containsEntry(PreparationTimeRange.UNDER_30, 1L)
+                .containsEntry(PreparationTimeRange.UNDER_60, 0L);
+        assertThat(facets.chefs()).contains(new ChefFacet(first.getId(), "Facet First", 1))
+                .contains(new ChefFacet(second.getId(), "Facet Second", 0));
+        assertThat(list(filter)).containsExactly(quick.getId());
+    }
+
+    /**
+     * Филтрите се комбинираат со AND, а вредностите во еден филтер со OR.
+     */
+    @Test
+    void testListingAppliesFilters() {
+        Set<Long> chefs = Set.of(first.getId(), second.getId());
+
+        assertThat(list(new DishFilter(null, null, null, chefs)))
+                .containsExactly(medium.getId(), quick.getId(), slow.getId());
+        assertThat(list(new DishFilter(Set.of(Cuisine.FRENCH, Cuisine.ITALIAN), 15, null, chefs)))
+                .containsExactly(medium.getId(), slow.getId());
+        assertThat(list(new DishFilter(Set.of(Cuisine.MEXICAN), null, null, chefs))).isEmpty();
+    }
+
+    /**
+     * Филтрираната листа се чита по страници без преклопување.
+     */
+    @Test
+    void testFilteredListingScrolls() {
+        DishFilter filter = new DishFilter(null, null, null, Set.of(first.getId(), second.getId()));
+        List<Long> seen = new ArrayList<>();
+        ScrollPosition position = ScrollPosition.keyset();
+        Window<DishSummary> page;
+        do {
+            page = dishService.listDishes(filter, DishSortField.PREPARATION_TIME, Sort.Direction.DESC, position, 2);
+            page.forEach(dish -> seen.add(dish.id()));
+            if (page.hasNext()) {
+                position = page.positionAt(page.size() - 1);
+            }
+        } while (page.hasNext());
+
+        assertThat(seen).containsExactly(slow.getId(), medium.getId(), quick.getId());
+    }
+
+    /**
+     * Бројачите од индексот во меморија се исти со бројачите од базата,
+     * и по измена и бришење на Dish и бришење на Chef.
+     */
+    @Test
+    void testIndexFacetsMatchDatabase() {
+        Set<Long> chefs = Set.of(first.getId(), second.getId());
+        List<DishFilter> filters = List.of(
+                new DishFilter(null, null, null, chefs),
+                new DishFilter(Set.of(Cuisine.ITALIAN), 15, 29, chefs),
+                new DishFilter(Set.of(Cuisine.FRENCH, Cuisine.MEXICAN), 30, null, Set.of(second.getId())));
+
+        filters.forEach(filter -> assertThat(dishService.countFacets(filter))
+                .isEqualTo(dishRepository.countFacets(filter, 10)));
+
+        dishService.update(quick.getId(), quick.getDishId(), "Quick", Cuisine.FRENCH, 35, List.of(second.getId()));
+        dishService.delete(slow.getId());
+        chefService.delete(first.getId());
+
+        filters.forEach(filter -> assertThat(dishService.countFacets(filter))
+                .isEqualTo(dishRepository.countFacets(filter, 10)));
+    }
+
+    /**
+     * Филтерот по кујна и време и Chef филтерот можат да ги користат композитните индекси.
+     * Табелите се мали, па seq scan се исклучува за да се види дали планерот може да ги користи.
+     */
+    @Test
+    void testFiltersUseCompositeIndexes() {
+        String dishPlan = plan("explain select id from dish where cuisine in ('ITALIAN', 'FRENCH') "
+                + "and preparation_time between 15 and 29");
+        String chefPlan = plan("explain select dish_id from dish_chefs where chefs_id in (1, 2)");
+
+        assertThat(dishPlan).contains("idx_dish_cuisine_preparation_time_id");
+        assertThat(chefPlan).contains("idx_dish_chefs_chefs_id_dish_id");
+    }
+
+    private String plan(String explain) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("set local enable_seqscan = off");
+            return String.join("\n", jdbcTemplate.queryForList(explain, String.class));
+        });
+    }
+}
@@ -0,0 +1,187 @@
+package mk.ukim.finki.wp.lab.integration;
+
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.dto.DishSearchHit;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.service.ChefService;
+import mk.ukim.finki.wp.lab.service.DishService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Интеграционен тест за пребарување на Dishes (tsvector + GIN индекс).
+ *
+ * Проверува рангирање (името е поважно од имињата на Chefs), префиксно
+ * пребарување, дека тригерите ги одржуваат имињата на Chefs во dish.chef_names,
+ * филтрите, означените зборови, страничењето и дека индексот се користи.
+ * Секој тест користи свои зборови, па тестовите не си влијаат меѓусебно.
+ */
+@SpringBootTest
+@Testcontainers
+class DishSearchIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_search")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @DynamicPropertySource
+    static void setupDb(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+    }
+
+    @Autowired
+    private DishService dishService;
+
+    @Autowired
+    private ChefService chefService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Slice<DishSearchHit> search(String query) {
+        return dishService.search(query, DishFilter.NONE, PageRequest.of(0, 10));
+    }
+
+    /**
+     * Dish чие име го содржи зборот е пред Dish кај кој зборот е само во името на Chef,
+     * а Dish се наоѓа и по името на Chef.
+     */
+    @Test
+    void testNameMatchesRankAboveChefMatches() {
+        Chef chef = chefService.create("Quokka", "Cook", "Bio", Gender.FEMALE);
+        Dish byChef = dishService.create("RANK-D1", "Plain soup", Cuisine.BRITISH, 10, List.of(chef.getId()));
+        Dish byName = dishService.create("RANK-D2", "Quokka stew", Cuisine.BRITISH, 10, List.of());
+
+        List<DishSearchHit> hits = search("quokka").getContent();
+
+        assertThat(hits).extracting(DishSearchHit::id).containsExactly(byName.getId(), byChef.getId());
+        assertThat(hits.get(1).chefNames()).isEqualTo("Quokka Cook");
+        assertThat(hits.get(1).headline()).isEqualTo("Plain soup - <mark>Quokka</mark> Cook");
+    }
+
+    /**
+     * Секој збор мора да се совпадне, а последниот може да биде и почеток на збор.
+     */
+    @Test
+    void testAllWordsMustMatchAsPrefixes() {
+        Dish dish = dishService.create("PREFIX-D1", "Caramelized pelican tart", Cuisine.FRENCH, 40, List.of());
+        dishService.create("PREFIX-D2", "Pelican broth", Cuisine.FRENCH, 40, List.of());
+
+        assertThat(search("pelican tar").getContent()).extracting(DishSearchHit::id).containsExactly(dish.getId());
+        assertThat(search("Pelican").getContent()).hasSize(2);
+        assertThat(search("french pelican").getContent()).hasSize(2);
+        assertThat(search("pelican & | ! (").getContent()).hasSize(2);
+    }
+
+    /**
+     * Промена на името на Chef и на поврзаноста се гледа во пребарувањето.
+     */
+    @Test
+    void testChefChangesAreSearchable() {
+        Chef chef = chefService.create("Narwhal", "Baker", "Bio", Gender.MALE);
+        Dish dish = dishService.create("CHEF-D1", "Rye bread", Cuisine.BRITISH, 60, List.of(chef.getId()));
+        assertThat(search("narwhal").getContent()).extracting(DishSearchHit::id).containsExactly(dish.getId());
+
+        chefService.update(chef.getId(), "Axolotl", "Baker", "Bio", Gender.MALE);
+        assertThat(search("narwhal").getContent()).isEmpty();
+        assertThat(search("axolotl").getContent()).extracting(DishSearchHit::id).containsExactly(dish.getId());
+
+        dishService.update(dish.getId(), "CHEF-D1", "Rye bread", Cuisine.BRITISH, 60, List.of());
+        assertThat(search("axolotl").getContent()).isEmpty();
+    }
+
+    /**
+     * Филтрите по кујна, време на подготовка и Chef се применуваат заедно со пребарувањето.
+     */
+    @Test
+    void testFiltersNarrowResults() {
+        Chef chef = chefService.create("Filter", "Chef", "Bio", Gender.FEMALE);
+        Dish quick = dishService.create("FILTER-D1", "Lemur salad", Cuisine.ITALIAN, 5, List.of(chef.getId()));
+        Dish slow = dishService.create("FILTER-D2", "Lemur roast", Cuisine.ITALIAN, 90, List.of());
+        Dish mexican = dishService.create("FILTER-D3", "Lemur tacos", Cuisine.MEXICAN, 20, List.of());
+        PageRequest page = PageRequest.of(0, 10);
+
+        assertThat(dishService.search("lemur", new DishFilter(Set.of(Cuisine.ITALIAN), null, null, null), page))
+                .extracting(DishSearchHit::id).containsExactlyInAnyOrder(quick.getId(), slow.getId());
+        assertThat(dishService.search("lemur", new DishFilter(null, 10, 60, null), page))
+                .extracting(DishSearchHit::id).containsExactly(mexican.getId());
+        assertThat(dishService.search("lemur", new DishFilter(null, null, null, Set.of(chef.getId())), page))
+                .extracting(DishSearchHit::id).containsExactly(quick.getId());
+    }
+
+    /**
+     * Текстот во означениот извадок е HTML escaped, а само <mark> останува како ознака.
+     */
+    @Test
+    void testHeadlineIsEscaped() {
+        dishService.create("HTML-D1", "<b>Okapi</b> & cream", Cuisine.AMERICAN, 15, List.of());
+
+        String headline = search("okapi").getContent().get(0).headline();
+
+        assertThat(headline).doesNotContain("<b>");
+        assertThat(headline).contains("<mark>Okapi</mark>").contains("&amp;");
+    }
+
+    /**
+     * Страниците не се преклопуваат, а последната нема следна страница.
+     */
+    @Test
+    void testResultsArePaginated() {
+        for (int i = 0; i < 5; i++) {
+            dishService.create("PAGE-D" + i, "Wombat pie " + i, Cuisine.BRITISH, i, List.of());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            Slice<DishSearchHit> hits = dishService.search("wombat", DishFilter.NONE, PageRequest.of(page, 2));
+            assertThat(hits.hasNext()).isEqualTo(page < 2);
+            hits.forEach(hit -> seen.add(hit.id()));
+        }
+
+        assertThat(seen).hasSize(5).doesNotHaveDuplicates();
+    }
+
+    /**
+     * Пребарувањето може да го користи GIN индексот.
+     * Табелата е мала, па seq scan се исклучува за да се види дали планерот може да го користи индексот.
+     */
+    @Test
+    void testSearchUsesGinIndex() {
+        List<String> plan = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("set local enable_seqscan = off");
+            return jdbcTemplate.queryForList(
+                    "explain select id from dish where search_vector @@ to_tsquery('english', 'wombat:*')",
+                    String.class);
+        });
+
+        assertThat(String.join("\n", plan)).contains("idx_dish_search_vector");
+    }
+}
@@ -80,7 +80,7 @@ class DishUpdateIntegrationTest {
                 new Chef("Update", "Chef", "Bio", Gender.FEMALE)
         );
 
-        dish = dishRepository.save(new Dish("UPD1", "OldName", Cuisine.ITALIAN, 30, List.of(chef)));
+        dish = dishRepository.save(new Dish("UPD" + System.nanoTime(), "OldName", Cuisine.ITALIAN, 30, List.of(chef)));
     }
 
     /**
@@ -93,10 +93,10 @@ class DishUpdateIntegrationTest {
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     void testUpdateDishFlow() throws Exception {
 
-        Long chefId = dish.getChefs().get(0).getId();
+        Long chefId = dish.getChefs().iterator().next().getId();
 
         mockMvc.perform(post("/dishes/edit/" + dish.getId())
-                        .param("dishId", "UPD1")
+                        .param("dishId", dish.getDishId())
                         .param("name", "Updated Name")
                         .param("cuisine", Cuisine.MEXICAN.name())
                         .param("preparationTime", "15")
@@ -112,4 +112,28 @@ class DishUpdateIntegrationTest {
         assertThat(updated.getPreparationTime()).isEqualTo(15);
 
     }
+
+    /**
+     * Chef што е избришан додека формата била отворена се игнорира:
+     * Dish се зачувува само со постоечките Chefs, без грешка од базата.
+     */
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testUpdateIgnoresUnknownChef() throws Exception {
+
+        Long chefId = dish.getChefs().iterator().next().getId();
+
+        mockMvc.perform(post("/dishes/edit/" + dish.getId())
+                        .param("dishId", dish.getDishId())
+                        .param("name", "OldName")
+                        .param("cuisine", Cuisine.ITALIAN.name())
+                        .param("preparationTime", "30")
+                        .param("chefsId", chefId.toString(), "-1"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/dishes"));
+
+        Dish updated = dishRepository.findWithChefsById(dish.getId()).orElseThrow();
+
+        assertThat(updated.getChefs()).extracting(Chef::getId).containsExactly(chefId);
+    }
 }
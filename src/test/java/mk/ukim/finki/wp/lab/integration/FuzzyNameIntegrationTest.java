@@ -0,0 +1,156 @@
+package mk.ukim.finki.wp.lab.integration;
+
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.ChefSummary;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import mk.ukim.finki.wp.lab.model.dto.NameMatches;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.service.ChefService;
+import mk.ukim.finki.wp.lab.service.DishService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+
+/**
+ * Интеграционен тест за пребарување на имиња со печатни грешки (pg_trgm).
+ *
+ * Проверува дека погрешно напишани имиња на Dishes и Chefs се наоѓаат,
+ * дека „Did you mean“ се предлага кога нема доволно слично име
+ * и дека пребарувањето ги користи trigram GIN индексите.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+class FuzzyNameIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_fuzzy")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @DynamicPropertySource
+    static void setupDb(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DishService dishService;
+
+    @Autowired
+    private ChefService chefService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Погрешно напишано име на Dish го наоѓа Dish, а најсличното име е предлогот.
+     */
+    @Test
+    void testMisspelledDishNameIsFound() {
+        Dish dish = dishService.create("FUZZY-D1", "Pappardelle ai funghi", Cuisine.ITALIAN, 25, List.of());
+        dishService.create("FUZZY-D2", "Funghi risotto", Cuisine.ITALIAN, 35, List.of());
+
+        NameMatches<DishSummary> found = dishService.findByNameFuzzy("Papardelle");
+
+        assertThat(found.matches()).extracting(DishSummary::id).containsExactly(dish.getId());
+        assertThat(found.didYouMean()).isEqualTo("Pappardelle ai funghi");
+    }
+
+    /**
+     * Погрешно напишано име или презиме на Chef го наоѓа Chef.
+     */
+    @Test
+    void testMisspelledChefNameIsFound() {
+        Chef chef = chefService.create("Massimiliano", "Botturini", "Bio", Gender.MALE);
+
+        NameMatches<ChefSummary> byLastName = chefService.findByNameFuzzy("Boturini");
+        NameMatches<ChefSummary> byFullName = chefService.findByNameFuzzy("massimilano botturini");
+
+        assertThat(byLastName.matches()).extracting(ChefSummary::id).containsExactly(chef.getId());
+        assertThat(byFullName.matches()).extracting(ChefSummary::id).startsWith(chef.getId());
+        assertThat(byLastName.didYouMean()).isEqualTo("Massimiliano Botturini");
+    }
+
+    /**
+     * Кога ниту едно име не е доволно слично, се враќа само предлог,
+     * а кога нема ништо слично, нема ни предлог.
+     */
+    @Test
+    void testDidYouMeanWhenNothingMatches() {
+        dishService.create("FUZZY-D3", "Quesadilla suprema", Cuisine.MEXICAN, 15, List.of());
+
+        NameMatches<DishSummary> distant = dishService.findByNameFuzzy("kesadila");
+        NameMatches<DishSummary> unrelated = dishService.findByNameFuzzy("xyzzy");
+
+        assertThat(distant.matches()).isEmpty();
+        assertThat(distant.didYouMean()).isEqualTo("Quesadilla suprema");
+        assertThat(unrelated).isEqualTo(NameMatches.none());
+    }
+
+    /**
+     * Страницата за пребарување предлага име кога нема резултати.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testSearchPageSuggestsName() throws Exception {
+        dishService.create("FUZZY-D4", "Shakshuka", Cuisine.AMERICAN, 30, List.of());
+
+        mockMvc.perform(get("/dishes/search").param("q", "shakshouka"))
+                .andExpect(model().attribute("didYouMean", "Shakshuka"))
+                .andExpect(content().string(containsString("Did you mean")));
+    }
+
+    /**
+     * Пребарувањата се опслужуваат од trigram GIN индексите.
+     * Табелите се мали, па другите начини на читање се исклучуваат за да се види
+     * дали планерот може да ги користи trigram индексите.
+     */
+    @Test
+    void testLookupsUseTrigramIndexes() {
+        String dishPlan = plan("explain select id from dish where 'papardelle' <% name");
+        String chefPlan = plan("explain select id from chef where 'boturini' <% (first_name || ' ' || last_name)");
+
+        assertThat(dishPlan).contains("Bitmap Index Scan on idx_dish_name_trgm").doesNotContain("Seq Scan");
+        assertThat(chefPlan).contains("Bitmap Index Scan on idx_chef_full_name_trgm").doesNotContain("Seq Scan");
+    }
+
+    private String plan(String explain) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("set local enable_seqscan = off");
+            jdbcTemplate.execute("set local enable_indexscan = off");
+            jdbcTemplate.execute("set local enable_indexonlyscan = off");
+            return String.join("\n", jdbcTemplate.queryForList(explain, String.class));
+        });
+    }
+}
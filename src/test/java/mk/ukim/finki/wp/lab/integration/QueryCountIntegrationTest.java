@@ -0,0 +1,280 @@
+package mk.ukim.finki.wp.lab.integration;
+
+import jakarta.persistence.EntityManagerFactory;
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.repository.jpa.ChefRepository;
+import mk.ukim.finki.wp.lab.repository.jpa.DishRepository;
+import mk.ukim.finki.wp.lab.service.ChefService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционен тест кој го брои бројот на SQL наредби по endpoint.
+ *
+ * Секој Dish е поврзан со повеќе Chefs (ManyToMany), па доколку
+ * асоцијациите се вчитуваат lazy, еден по еден, бројот на SELECT наредби
+ * би растел со бројот на Chefs (N+1 проблем).
+ *
+ * Тестот проверува дека секоја страница и сервис операција
+ * ја вчитува својата асоцијација со константен број на SELECT наредби.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+class QueryCountIntegrationTest {
+
+    private static final int CHEFS = 6;
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_query_count")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @DynamicPropertySource
+    static void setupDb(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                SqlStatementCounter.class::getName);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DishRepository dishRepository;
+
+    @Autowired
+    private ChefRepository chefRepository;
+
+    @Autowired
+    private ChefService chefService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<Chef> chefs;
+    private Dish dish;
+
+    /**
+     * Подготовка на тестни податоци:
+     * - се креираат повеќе Chefs (преку сервисот, за да ги знае и индексот на филтрите)
+     * - се креираат два Dish, секој поврзан со сите Chefs
+     * - second-level кешот се празни, за да се бројат барањата при ладен кеш
+     */
+    @BeforeEach
+    void init() {
+        chefs = new ArrayList<>();
+        for (int i = 0; i < CHEFS; i++) {
+            chefs.add(chefService.create("Count" + i, "Chef", "Bio", Gender.MALE));
+        }
+        dish = dishRepository.save(new Dish("QC1-" + chefs.get(0).getId(), "Query Count", Cuisine.ITALIAN, 20, new ArrayList<>(chefs)));
+        dishRepository.save(new Dish("QC2-" + chefs.get(0).getId(), "Query Count 2", Cuisine.FRENCH, 40, new ArrayList<>(chefs)));
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    private int selects(RequestBuilder request) throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+        return SqlStatementCounter.count("select");
+    }
+
+    private int statements(RequestBuilder request) throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+        return SqlStatementCounter.total();
+    }
+
+    private int selectsForRedirect(RequestBuilder request) throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(request).andExpect(status().is3xxRedirection());
+        return SqlStatementCounter.count("select");
+    }
+
+    /**
+     * Листата на јадења е едно барање за keyset страницата;
+     * бројачите на филтрите се читаат од индексот во меморија.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testDishesPageStatementCount() throws Exception {
+        assertThat(statements(get("/dishes"))).isEqualTo(1);
+    }
+
+    /**
+     * Филтрирана листа на јадења: исто едно барање, без разлика на бројот на филтри.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testFilteredDishesPageStatementCount() throws Exception {
+        var request = get("/dishes")
+                .param("cuisine", Cuisine.ITALIAN.name(), Cuisine.FRENCH.name())
+                .param("time", "UNDER_30");
+        chefs.forEach(c -> request.param("chef", c.getId().toString()));
+
+        assertThat(statements(request)).isEqualTo(1);
+    }
+
+    /**
+     * Листата на chefs е едно SELECT барање (keyset страница).
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testChefsPageStatementCount() throws Exception {
+        assertThat(selects(get("/chefs"))).isEqualTo(1);
+    }
+
+    /**
+     * Јадења по Chef: едно барање за Chef и едно за неговите јадења.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testDishesByChefStatementCount() throws Exception {
+        assertThat(selects(get("/chefs/dishes/" + chefs.get(0).getId()))).isEqualTo(2);
+    }
+
+    /**
+     * Формата за уредување: Dish заедно со Chefs (entity graph) и листата на Chefs.
+     * dish.chefs.contains(chef) во template-от не смее да иницијализира дополнителни колекции.
+     */
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void testEditDishFormStatementCount() throws Exception {
+        assertThat(selects(get("/dishes/dish-form/" + dish.getId()))).isEqualTo(2);
+    }
+
+    /**
+     * Ажурирање на Dish: бројот на SELECT наредби не зависи од бројот на Chefs.
+     * Се вчитува само Dish со тековните Chefs (entity graph); Chefs не се вчитуваат.
+     */
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void testUpdateDishStatementCount() throws Exception {
+        var request = post("/dishes/edit/" + dish.getId())
+                .param("dishId", dish.getDishId())
+                .param("name", "Updated")
+                .param("cuisine", Cuisine.MEXICAN.name())
+                .param("preparationTime", "15");
+        chefs.forEach(c -> request.param("chefsId", c.getId().toString()));
+
+        assertThat(selectsForRedirect(request)).isEqualTo(1);
+    }
+
+    /**
+     * Креирање на Dish: Chefs се поврзуваат преку референци,
+     * па ниту еден Chef (ниту неговите dishes) не се вчитува;
+     * се чита само кои од бараните id постојат, со едно барање.
+     * Редовите во dish_chefs се праќаат како еден JDBC batch.
+     */
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void testCreateDishDoesNotLoadChefs() throws Exception {
+        var request = post("/dishes/add")
+                .param("dishId", "QC3-" + chefs.get(0).getId())
+                .param("name", "Created")
+                .param("cuisine", Cuisine.FRENCH.name())
+                .param("preparationTime", "25");
+        chefs.forEach(c -> request.param("chefsId", c.getId().toString()));
+
+        selectsForRedirect(request);
+
+        assertThat(SqlStatementCounter.statements())
+                .filteredOn(sql -> sql.startsWith("select") && sql.contains(" from chef "))
+                .singleElement()
+                .satisfies(sql -> assertThat(sql).matches("select (\\w+)\\.id from chef \\1 where .*"));
+        assertThat(SqlStatementCounter.statements()).filteredOn(sql -> sql.startsWith("insert into dish_chefs")).hasSize(1);
+    }
+
+    /**
+     * Ажурирање на Dish со замена на еден Chef:
+     * Set асоцијацијата праќа само еден INSERT и еден DELETE врз dish_chefs,
+     * наместо бришење и повторно внесување на сите редови.
+     */
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void testUpdateDishWritesOnlyChangedJoinRows() throws Exception {
+        Chef extra = chefRepository.save(new Chef("Extra", "Chef", "Bio", Gender.FEMALE));
+
+        var request = post("/dishes/edit/" + dish.getId())
+                .param("dishId", dish.getDishId())
+                .param("name", "Query Count")
+                .param("cuisine", Cuisine.ITALIAN.name())
+                .param("preparationTime", "20");
+        chefs.subList(1, CHEFS).forEach(c -> request.param("chefsId", c.getId().toString()));
+        request.param("chefsId", extra.getId().toString());
+
+        SqlStatementCounter.reset();
+        mockMvc.perform(request).andExpect(status().is3xxRedirection());
+
+        List<String> joinTableWrites = SqlStatementCounter.statements().stream()
+                .filter(sql -> sql.contains("dish_chefs") && !sql.startsWith("select"))
+                .toList();
+        assertThat(joinTableWrites).hasSize(2);
+        assertThat(joinTableWrites).anyMatch(sql -> sql.startsWith("insert"));
+        assertThat(joinTableWrites).anyMatch(sql -> sql.startsWith("delete"));
+    }
+
+    /**
+     * Бришење на Chef: ништо не се вчитува, се праќаат само две DELETE наредби
+     * (редовите во dish_chefs, па самиот Chef), без оглед на бројот на Dish.
+     */
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void testDeleteChefStatementCount() throws Exception {
+        assertThat(selectsForRedirect(post("/chefs/delete/" + chefs.get(0).getId()))).isZero();
+        assertThat(SqlStatementCounter.count("delete")).isEqualTo(2);
+        assertThat(chefRepository.existsById(chefs.get(0).getId())).isFalse();
+        assertThat(dishRepository.findWithChefsById(dish.getId()).orElseThrow().getChefs()).hasSize(CHEFS - 1);
+    }
+
+    /**
+     * Bulk бришење на повеќе Chefs е исто две DELETE наредби.
+     */
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void testBulkDeleteChefsStatementCount() throws Exception {
+        var request = post("/chefs/delete");
+        chefs.forEach(c -> request.param("ids", c.getId().toString()));
+
+        assertThat(selectsForRedirect(request)).isZero();
+        assertThat(SqlStatementCounter.count("delete")).isEqualTo(2);
+        assertThat(dishRepository.findWithChefsById(dish.getId()).orElseThrow().getChefs()).isEmpty();
+    }
+
+    /**
+     * Bulk бришење на Dish: редовите во dish_chefs и Dish редовите, две DELETE наредби.
+     */
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void testBulkDeleteDishesStatementCount() throws Exception {
+        assertThat(selectsForRedirect(post("/dishes/delete").param("ids", dish.getId().toString()))).isZero();
+        assertThat(SqlStatementCounter.count("delete")).isEqualTo(2);
+        assertThat(dishRepository.existsById(dish.getId())).isFalse();
+    }
+}
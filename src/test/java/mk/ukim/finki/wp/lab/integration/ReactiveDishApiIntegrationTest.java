@@ -0,0 +1,158 @@
+package mk.ukim.finki.wp.lab.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.service.ChefService;
+import mk.ukim.finki.wp.lab.service.DishService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Интеграционен тест за реактивното API /reactive/api/v1.
+ *
+ * Страниците и курсорите се споредуваат со /api/v1, кое чита преку JPA:
+ * исти Dishes по ист редослед, а курсорот од едното API важи и во другото.
+ * Реактивното API е зад истата најава како и останатите страници.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+class ReactiveDishApiIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_reactive_api")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @DynamicPropertySource
+    static void setupDb(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DishService dishService;
+
+    @Autowired
+    private ChefService chefService;
+
+    private WebTestClient client;
+    private Chef chef;
+    private List<Dish> dishes;
+
+    @BeforeEach
+    void init() {
+        ResponseCookie session = webTestClient.post().uri("/login")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .body(BodyInserters.fromFormData("username", "user").with("password", "user"))
+                .exchange()
+                .returnResult(Void.class)
+                .getResponseCookies().getFirst("JSESSIONID");
+        assertThat(session).isNotNull();
+        client = webTestClient.mutate().defaultCookie("JSESSIONID", session.getValue()).build();
+
+        chef = chefService.create("Reactive", "Chef-" + System.nanoTime(), "Bio", Gender.MALE);
+        dishes = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            dishes.add(dishService.create("RX-" + chef.getId() + "-" + i, "Reactive dish " + i,
+                    i % 2 == 0 ? Cuisine.MEXICAN : Cuisine.BRITISH, 10 + i * 10, List.of(chef.getId())));
+        }
+    }
+
+    private JsonNode read(String url) {
+        return client.get().uri(url).exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class).returnResult().getResponseBody();
+    }
+
+    private List<Long> ids(JsonNode page) {
+        List<Long> ids = new ArrayList<>();
+        page.get("items").forEach(item -> ids.add(item.get("id").asLong()));
+        return ids;
+    }
+
+    /**
+     * Секоја страница е иста како во /api/v1, нанапред и наназад, а
+     * курсорите се заменливи.
+     */
+    @Test
+    void testPagesMatchTheServletApi() {
+        String query = "?size=2&sort=PREPARATION_TIME&dir=DESC&cuisine=MEXICAN,BRITISH&maxPreparationTime=1000";
+        JsonNode reactive = read("/reactive/api/v1/dishes" + query);
+        JsonNode servlet = read("/api/v1/dishes" + query);
+        List<Long> listed = new ArrayList<>();
+        while (true) {
+            assertThat(ids(reactive)).isEqualTo(ids(servlet));
+            assertThat(reactive.get("next")).isEqualTo(servlet.get("next"));
+            assertThat(reactive.get("previous")).isEqualTo(servlet.get("previous"));
+            listed.addAll(ids(reactive));
+            if (reactive.get("next").isNull())
+                break;
+
+            String after = "&after=" + servlet.get("next").asText();
+            reactive = read("/reactive/api/v1/dishes" + query + after);
+            servlet = read("/api/v1/dishes" + query + after);
+        }
+        assertThat(listed).doesNotHaveDuplicates().containsAll(dishes.stream().map(Dish::getId).toList());
+
+        String before = "&before=" + reactive.get("previous").asText();
+        assertThat(ids(read("/reactive/api/v1/dishes" + query + before)))
+                .isEqualTo(ids(read("/api/v1/dishes" + query + before)));
+    }
+
+    /**
+     * Dishes на еден Chef, и едно Dish по id и по dishId.
+     */
+    @Test
+    void testDishesOfChefAndSingleDish() {
+        JsonNode byChef = read("/reactive/api/v1/chefs/" + chef.getId() + "/dishes");
+        assertThat(ids(byChef)).containsExactlyElementsOf(dishes.stream().map(Dish::getId).toList());
+
+        JsonNode byDishId = read("/reactive/api/v1/dishes/by-dish-id/" + dishes.get(1).getDishId());
+        assertThat(byDishId.get("id").asLong()).isEqualTo(dishes.get(1).getId());
+        assertThat(byDishId.get("cuisine").asText()).isEqualTo("BRITISH");
+        assertThat(byDishId.get("preparationTime").asInt()).isEqualTo(20);
+
+        JsonNode byId = read("/reactive/api/v1/dishes/" + dishes.get(2).getId());
+        assertThat(byId.get("dishId").asText()).isEqualTo(dishes.get(2).getDishId());
+
+        client.get().uri("/reactive/api/v1/dishes/by-dish-id/NONE").exchange().expectStatus().isNotFound();
+        client.get().uri("/reactive/api/v1/dishes/-1").exchange().expectStatus().isNotFound();
+        client.get().uri("/reactive/api/v1/dishes?size=many").exchange().expectStatus().isBadRequest();
+    }
+
+    /**
+     * Без најава барањето се пренасочува кон /login.
+     */
+    @Test
+    void testRequiresLogin() {
+        webTestClient.get().uri("/reactive/api/v1/dishes").exchange()
+                .expectStatus().is3xxRedirection()
+                .expectHeader().value("Location", location -> assertThat(location).endsWith("/login"));
+    }
+}
@@ -0,0 +1,150 @@
+package mk.ukim.finki.wp.lab.integration;
+
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.service.ChefService;
+import mk.ukim.finki.wp.lab.service.DishService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционен тест за кешот на рендерирани страници (RenderedPageCache).
+ *
+ * Проверува дека повторното барање за иста страница се служи од кешот без
+ * SQL наредби, компресирано со gzip кога клиентот го прифаќа, дека ADMIN и
+ * USER добиваат различни страници и дека измена на каталогот ја рендерира
+ * страницата повторно.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+class RenderedPageCacheIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_page_cache")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @DynamicPropertySource
+    static void setupDb(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                SqlStatementCounter.class::getName);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DishService dishService;
+
+    @Autowired
+    private ChefService chefService;
+
+    private Dish dish;
+
+    @BeforeEach
+    void init() {
+        Chef chef = chefService.create("Cache", "Chef", "Bio", Gender.MALE);
+        dish = dishService.create("CACHE-" + chef.getId(), "Cached Dish", Cuisine.ITALIAN, 25,
+                List.of(chef.getId()));
+    }
+
+    private static String gunzip(byte[] body) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Второто барање се служи од кешот, без SQL наредби, со иста содржина:
+     * компресирана за клиент што прифаќа gzip и некомпресирана за другите.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testSecondRequestIsServedFromCache() throws Exception {
+        String rendered = mockMvc.perform(get("/dishes?size=50"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(rendered).contains("Cached Dish");
+
+        SqlStatementCounter.reset();
+        MockHttpServletResponse compressed = mockMvc.perform(get("/dishes?size=50")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse();
+        String plain = mockMvc.perform(get("/dishes?size=50"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(SqlStatementCounter.total()).isZero();
+        assertThat(gunzip(compressed.getContentAsByteArray())).isEqualTo(rendered);
+        assertThat(plain).isEqualTo(rendered);
+
+        mockMvc.perform(get("/dishes?size=50").header(HttpHeaders.IF_NONE_MATCH, compressed.getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+    }
+
+    /**
+     * ADMIN и USER добиваат различни страници (копчињата за измена).
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testPagesAreCachedPerRole() throws Exception {
+        String asUser = mockMvc.perform(get("/dishes")).andReturn().getResponse().getContentAsString();
+        String asAdmin = mockMvc.perform(get("/dishes").with(user("admin").roles("ADMIN")))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(asUser).doesNotContain("/dishes/dish-form/" + dish.getId());
+        assertThat(asAdmin).contains("/dishes/dish-form/" + dish.getId());
+        assertThat(mockMvc.perform(get("/dishes")).andReturn().getResponse().getContentAsString())
+                .isEqualTo(asUser);
+    }
+
+    /**
+     * По измена на Dish страницата повторно се рендерира со новите податоци.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testWriteInvalidatesCachedPages() throws Exception {
+        mockMvc.perform(get("/dishes?size=50")).andExpect(status().isOk());
+
+        dishService.update(dish.getId(), dish.getDishId(), "Renamed Dish", Cuisine.ITALIAN, 25, List.of());
+
+        String page = mockMvc.perform(get("/dishes?size=50")).andReturn().getResponse().getContentAsString();
+        assertThat(page).contains("Renamed Dish").doesNotContain("Cached Dish");
+    }
+}
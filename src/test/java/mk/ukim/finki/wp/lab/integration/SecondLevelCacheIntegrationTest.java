@@ -0,0 +1,242 @@
+package mk.ukim.finki.wp.lab.integration;
+
+import jakarta.persistence.EntityManagerFactory;
+import mk.ukim.finki.wp.lab.config.CacheConfig;
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.model.exceptions.DishIdAlreadyExistsException;
+import mk.ukim.finki.wp.lab.repository.jpa.ChefRepository;
+import mk.ukim.finki.wp.lab.service.ChefService;
+import mk.ukim.finki.wp.lab.service.DishService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционен тест за Hibernate second-level cache.
+ *
+ * Chef, Dish, нивните колекции, барањето за јадења по Chef
+ * и natural id (dishId) на Dish се кешираат.
+ * Тестот проверува дека повторното читање се служи од кешот
+ * (без SELECT наредби) и дека запишувањата преку сервисите
+ * го инвалидираат кешот, така што не се враќаат застарени податоци.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+class SecondLevelCacheIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_cache")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @DynamicPropertySource
+    static void setupDb(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                SqlStatementCounter.class::getName);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DishService dishService;
+
+    @Autowired
+    private ChefService chefService;
+
+    @Autowired
+    private ChefRepository chefRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+    private Chef first;
+    private Chef second;
+    private Dish dish;
+
+    /**
+     * Подготовка: два Chefs и еден Dish поврзан со двајцата,
+     * со празен кеш и ресетирана статистика.
+     */
+    @BeforeEach
+    void init() {
+        first = chefService.create("Cache", "First", "Bio", Gender.MALE);
+        second = chefService.create("Cache", "Second", "Bio", Gender.FEMALE);
+        dish = dishService.create("L2-" + first.getId(), "Cached", Cuisine.ITALIAN, 25,
+                List.of(first.getId(), second.getId()));
+
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private Set<Long> cachedDishIdsOf(Chef chef) {
+        return transactionTemplate.execute(status -> chefRepository.findById(chef.getId()).orElseThrow()
+                .getDishes().stream().map(Dish::getId).collect(Collectors.toSet()));
+    }
+
+    /**
+     * Второто читање на Chef по id не оди до базата.
+     */
+    @Test
+    void testChefIsServedFromCache() {
+        chefService.findById(first.getId());
+
+        SqlStatementCounter.reset();
+        Chef cached = chefService.findById(first.getId());
+
+        assertThat(cached.getLastName()).isEqualTo("First");
+        assertThat(SqlStatementCounter.count("select")).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics(Chef.class.getName()).getHitCount()).isEqualTo(1);
+    }
+
+    /**
+     * Ажурирање на Chef го заменува записот во кешот.
+     */
+    @Test
+    void testChefUpdateRefreshesCache() {
+        chefService.findById(first.getId());
+        chefService.update(first.getId(), "Cache", "Renamed", "Bio", Gender.MALE);
+
+        assertThat(chefService.findById(first.getId()).getLastName()).isEqualTo("Renamed");
+    }
+
+    /**
+     * Барањето за јадења по Chef се кешира, а ажурирање на Dish
+     * го инвалидира резултатот.
+     */
+    @Test
+    void testDishesByChefQueryCacheIsInvalidatedOnUpdate() {
+        dishService.listDishesByChef(second.getId());
+        SqlStatementCounter.reset();
+        assertThat(dishService.listDishesByChef(second.getId())).extracting(DishSummary::id).containsExactly(dish.getId());
+        assertThat(SqlStatementCounter.count("select")).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        dishService.update(dish.getId(), dish.getDishId(), "Cached", Cuisine.ITALIAN, 25, List.of(first.getId()));
+
+        assertThat(dishService.listDishesByChef(second.getId())).isEmpty();
+        assertThat(dishService.listDishesByChef(first.getId())).extracting(DishSummary::id).containsExactly(dish.getId());
+    }
+
+    /**
+     * Chef.dishes е инверзна страна на асоцијацијата: Chef отстранет од Dish
+     * не смее да го задржи Dish во кешираната колекција.
+     */
+    @Test
+    void testInverseCollectionIsEvictedWhenChefIsRemoved() {
+        assertThat(cachedDishIdsOf(second)).containsExactly(dish.getId());
+        assertThat(statistics.getDomainDataRegionStatistics(CacheConfig.CHEF_DISHES_REGION).getPutCount()).isEqualTo(1);
+
+        dishService.update(dish.getId(), dish.getDishId(), "Cached", Cuisine.ITALIAN, 25, List.of(first.getId()));
+
+        assertThat(cachedDishIdsOf(second)).isEmpty();
+        assertThat(cachedDishIdsOf(first)).containsExactly(dish.getId());
+    }
+
+    /**
+     * Бришење на Dish ги инвалидира кешираните колекции на неговите Chefs.
+     */
+    @Test
+    void testInverseCollectionIsEvictedWhenDishIsDeleted() {
+        assertThat(cachedDishIdsOf(first)).containsExactly(dish.getId());
+
+        dishService.delete(dish.getId());
+
+        assertThat(cachedDishIdsOf(first)).isEmpty();
+        assertThat(cachedDishIdsOf(second)).isEmpty();
+    }
+
+    /**
+     * Пребарувањето по dishId (natural id) по првото читање
+     * се решава од natural-id кешот, без SELECT наредби.
+     */
+    @Test
+    void testDishIdLookupIsServedFromNaturalIdCache() {
+        dishService.findByDishId(dish.getDishId());
+
+        SqlStatementCounter.reset();
+        Dish cached = dishService.findByDishId(dish.getDishId());
+
+        assertThat(cached.getId()).isEqualTo(dish.getId());
+        assertThat(SqlStatementCounter.count("select")).isZero();
+        assertThat(statistics.getNaturalIdCacheHitCount()).isPositive();
+    }
+
+    /**
+     * Промена на dishId преку update го инвалидира стариот код во natural-id кешот.
+     */
+    @Test
+    void testNaturalIdCacheFollowsDishIdChange() {
+        String oldDishId = dish.getDishId();
+        dishService.findByDishId(oldDishId);
+
+        dishService.update(dish.getId(), oldDishId + "-NEW", "Cached", Cuisine.ITALIAN, 25,
+                List.of(first.getId(), second.getId()));
+
+        assertThat(dishService.findByDishId(oldDishId)).isNull();
+        assertThat(dishService.findByDishId(oldDishId + "-NEW").getId()).isEqualTo(dish.getId());
+    }
+
+    /**
+     * dishId е единствен: друг Dish не може да го преземе истиот код.
+     */
+    @Test
+    void testDuplicateDishIdIsRejected() {
+        assertThatThrownBy(() -> dishService.create(dish.getDishId(), "Copy", Cuisine.FRENCH, 5, List.of()))
+                .isInstanceOf(DishIdAlreadyExistsException.class);
+    }
+
+    /**
+     * Hit/miss статистиката е достапна преку actuator metrics за ADMIN.
+     */
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void testCacheStatisticsAreExposed() throws Exception {
+        chefService.findById(first.getId());
+        chefService.findById(first.getId());
+
+        mockMvc.perform(get("/actuator/metrics/hibernate.second.level.cache.requests")
+                        .param("tag", "result:hit")
+                        .param("tag", "region:" + Chef.class.getName()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").value(1.0));
+    }
+}
@@ -0,0 +1,257 @@
+package mk.ukim.finki.wp.lab.integration;
+
+import mk.ukim.finki.wp.lab.config.CatalogSnapshotProperties;
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.ChefSummary;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.DishSortField;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.repository.jpa.ChefRepository;
+import mk.ukim.finki.wp.lab.repository.jpa.DishRepository;
+import mk.ukim.finki.wp.lab.service.ChefService;
+import mk.ukim.finki.wp.lab.service.DishService;
+import mk.ukim.finki.wp.lab.service.impl.CatalogSnapshot;
+import mk.ukim.finki.wp.lab.service.impl.CatalogSnapshotFile;
+import mk.ukim.finki.wp.lab.service.impl.SnapshotCatalog;
+import mk.ukim.finki.wp.lab.service.impl.SnapshotChefServiceImpl;
+import mk.ukim.finki.wp.lab.service.impl.SnapshotDishServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционен тест за профилот "snapshot".
+ *
+ * Со овој профил DishService и ChefService читаат од snapshot во меморија,
+ * а пишуваат во базата. Проверува дека читањата не праќаат ниту една SQL
+ * наредба, дека измените се видливи веднаш по commit
+ * и дека измена што е вратена (rollback) не се појавува, како и
+ * вчитувањето од snapshot датотека и усогласувањето со базата.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("snapshot")
+@Testcontainers
+class SnapshotCatalogIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_snapshot")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @DynamicPropertySource
+    static void setupDb(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                SqlStatementCounter.class::getName);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DishService dishService;
+
+    @Autowired
+    private ChefService chefService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SnapshotCatalog snapshotCatalog;
+
+    @Autowired
+    private DishRepository dishRepository;
+
+    @Autowired
+    private ChefRepository chefRepository;
+
+    private Chef chef;
+    private Dish dish;
+
+    /**
+     * Еден Chef и еден Dish, креирани преку сервисите.
+     */
+    @BeforeEach
+    void init() {
+        chef = chefService.create("Snapshot", "Chef", "Bio", Gender.FEMALE);
+        dish = dishService.create("SNAP-" + chef.getId(), "Snapshot Dish", Cuisine.ITALIAN, 25,
+                List.of(chef.getId()));
+    }
+
+    /**
+     * Профилот ги заменува сервисите со имплементациите од snapshot.
+     */
+    @Test
+    void testProfileSelectsSnapshotServices() {
+        assertThat(dishService).isInstanceOf(SnapshotDishServiceImpl.class);
+        assertThat(chefService).isInstanceOf(SnapshotChefServiceImpl.class);
+    }
+
+    /**
+     * Сите читања се од меморија: ниту една SQL наредба.
+     */
+    @Test
+    void testReadsDoNotReachDatabase() {
+        SqlStatementCounter.reset();
+
+        Dish found = dishService.findById(dish.getId());
+        Dish byCode = dishService.findByDishId(dish.getDishId());
+        Chef foundChef = chefService.findById(chef.getId());
+        List<DishSummary> byChef = dishService.listDishesByChef(chef.getId());
+        Map<Long, List<DishSummary>> byChefs = dishService.listDishesByChefs(List.of(chef.getId()), 10);
+        Map<Long, List<ChefSummary>> byDishes = chefService.listChefsByDishes(List.of(dish.getId()), 10);
+        List<Long> listed = dishService.listDishes(null, DishSortField.NAME, Sort.Direction.ASC,
+                ScrollPosition.keyset(), 1000).stream().map(DishSummary::id).toList();
+        List<Long> chefs = chefService.listChefs(null, Sort.Direction.ASC, ScrollPosition.keyset(), 1000)
+                .stream().map(ChefSummary::id).toList();
+
+        assertThat(SqlStatementCounter.total()).isZero();
+        assertThat(found.getName()).isEqualTo("Snapshot Dish");
+        assertThat(found.getChefs()).extracting(Chef::getId).containsExactly(chef.getId());
+        assertThat(byCode.getId()).isEqualTo(dish.getId());
+        assertThat(foundChef.getDishes()).extracting(Dish::getId).containsExactly(dish.getId());
+        assertThat(byChef).extracting(DishSummary::id).containsExactly(dish.getId());
+        assertThat(byChefs.get(chef.getId())).extracting(DishSummary::id).containsExactly(dish.getId());
+        assertThat(byDishes.get(dish.getId())).extracting(ChefSummary::id).containsExactly(chef.getId());
+        assertThat(listed).contains(dish.getId());
+        assertThat(chefs).contains(chef.getId());
+    }
+
+    /**
+     * Страницата со листата на Dishes се прикажува без SQL наредби.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testDishesPageDoesNotReachDatabase() throws Exception {
+        SqlStatementCounter.reset();
+
+        mockMvc.perform(get("/dishes")).andExpect(status().isOk());
+
+        assertThat(SqlStatementCounter.total()).isZero();
+    }
+
+    /**
+     * Измените и бришењата се видливи веднаш, а бришење на Chef ги брише и врските.
+     */
+    @Test
+    void testWritesArePublished() {
+        Chef other = chefService.create("Snapshot", "Other", "Bio", Gender.MALE);
+        dishService.update(dish.getId(), dish.getDishId(), "Renamed", Cuisine.FRENCH, 40,
+                List.of(chef.getId(), other.getId()));
+        chefService.update(other.getId(), "Snapshot", "Renamed", "New bio", Gender.MALE);
+
+        Dish updated = dishService.findById(dish.getId());
+        assertThat(updated.getName()).isEqualTo("Renamed");
+        assertThat(updated.getCuisine()).isEqualTo(Cuisine.FRENCH);
+        assertThat(updated.getChefs()).extracting(Chef::getLastName).containsExactlyInAnyOrder("Chef", "Renamed");
+
+        chefService.delete(chef.getId());
+        assertThat(chefService.findById(chef.getId())).isNull();
+        assertThat(dishService.findById(dish.getId()).getChefs()).extracting(Chef::getId)
+                .containsExactly(other.getId());
+
+        dishService.delete(dish.getId());
+        assertThat(dishService.findById(dish.getId())).isNull();
+        assertThat(dishService.findByDishId(dish.getDishId())).isNull();
+        assertThat(chefService.findById(other.getId()).getDishes()).isEmpty();
+    }
+
+    /**
+     * Измена што е вратена (rollback) не се појавува во snapshot.
+     */
+    @Test
+    void testRolledBackWriteIsNotPublished() {
+        transactionTemplate.executeWithoutResult(status -> {
+            dishService.update(dish.getId(), dish.getDishId(), "Rolled back", Cuisine.MEXICAN, 5, List.of());
+            status.setRollbackOnly();
+        });
+
+        Dish found = dishService.findById(dish.getId());
+        assertThat(found.getName()).isEqualTo("Snapshot Dish");
+        assertThat(found.getChefs()).extracting(Chef::getId).containsExactly(chef.getId());
+    }
+
+    /**
+     * Snapshot од датотека се користи веднаш, а потоа се усогласува со базата:
+     * Dish што недостасува се враќа, а Dish што не постои во базата се брише.
+     * При гаснење усогласениот snapshot се запишува назад во датотеката.
+     */
+    @Test
+    void testRestoredSnapshotIsReconciled(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshot stale = snapshotCatalog.current()
+                .withoutDishes(List.of(dish.getId()))
+                .withDish(-1, "STALE", "Stale Dish", Cuisine.FRENCH, 5, List.of());
+        CatalogSnapshotFile.write(stale, file);
+
+        SnapshotCatalog restored = new SnapshotCatalog(dishRepository, chefRepository, transactionManager,
+                new CatalogSnapshotProperties(file, Duration.ofHours(1)));
+        assertThat(restored.current().dish(-1)).isNotNull();
+        assertThat(restored.current().dish(dish.getId())).isNull();
+
+        restored.start();
+        assertThat(restored.reconciliation().get(1, TimeUnit.MINUTES)).isEqualTo(2);
+        assertThat(restored.current().dish(-1)).isNull();
+        assertThat(restored.current().chefsOf(dish.getId())).containsExactly(chef.getId());
+
+        restored.shutdown();
+        assertThat(CatalogSnapshotFile.read(file).snapshot().differences(restored.current())).isZero();
+    }
+
+    /**
+     * Оштетена датотека не се користи: snapshot се вчитува од базата.
+     */
+    @Test
+    void testCorruptFileFallsBackToDatabase(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("catalog.snapshot");
+        Files.writeString(file, "not a snapshot, but long enough for a header");
+
+        SnapshotCatalog restored = new SnapshotCatalog(dishRepository, chefRepository, transactionManager,
+                new CatalogSnapshotProperties(file, Duration.ofHours(1)));
+        assertThat(restored.current()).isNull();
+
+        restored.start();
+        assertThat(restored.reconciliation().get(1, TimeUnit.MINUTES)).isZero();
+        assertThat(restored.current().dish(dish.getId())).isNotNull();
+        restored.shutdown();
+        assertThat(CatalogSnapshotFile.read(file).snapshot().dish(dish.getId())).isNotNull();
+    }
+}
@@ -0,0 +1,51 @@
+package mk.ukim.finki.wp.lab.integration;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Hibernate StatementInspector кој ги запишува сите SQL наредби
+ * што Hibernate ги испраќа до базата.
+ *
+ * Се регистрира преку hibernate.session_factory.statement_inspector
+ * и се користи во тестовите за броење на SQL наредби по endpoint.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    @Override
+    public synchronized String inspect(String sql) {
+        synchronized (STATEMENTS) {
+            STATEMENTS.add(sql.toLowerCase(Locale.ROOT));
+        }
+        return sql;
+    }
+
+    public static void reset() {
+        synchronized (STATEMENTS) {
+            STATEMENTS.clear();
+        }
+    }
+
+    public static int total() {
+        synchronized (STATEMENTS) {
+            return STATEMENTS.size();
+        }
+    }
+
+    public static int count(String verb) {
+        synchronized (STATEMENTS) {
+            return (int) STATEMENTS.stream().filter(s -> s.startsWith(verb)).count();
+        }
+    }
+
+    public static List<String> statements() {
+        synchronized (STATEMENTS) {
+            return List.copyOf(STATEMENTS);
+        }
+    }
+}
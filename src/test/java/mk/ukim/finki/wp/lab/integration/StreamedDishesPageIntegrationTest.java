@@ -0,0 +1,130 @@
+package mk.ukim.finki.wp.lab.integration;
+
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.service.ChefService;
+import mk.ukim.finki.wp.lab.service.DishService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционен тест за страницата /dishes/all што се праќа во делови.
+ *
+ * Со 1.100 Dishes редовите се читаат во три дела (по 500), а страницата
+ * ги содржи сите, по еднаш и во бараниот редослед.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+class StreamedDishesPageIntegrationTest {
+
+    private static final int DISHES = 1_100;
+    private static final Pattern DISH_ID = Pattern.compile("<td>(STREAM-\\d+)</td>");
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_streamed_page")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @DynamicPropertySource
+    static void setupDb(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    static void seed(@Autowired ChefService chefService, @Autowired DishService dishService) {
+        Chef chef = chefService.create("Stream", "Chef", "Bio", Gender.FEMALE);
+        for (int i = 0; i < DISHES; i++) {
+            dishService.create(String.format("STREAM-%04d", i), String.format("Streamed %04d", i),
+                    i % 2 == 0 ? Cuisine.ITALIAN : Cuisine.FRENCH, 5 + i % 90, List.of(chef.getId()));
+        }
+    }
+
+    private static List<String> dishIds(String page) {
+        List<String> ids = new ArrayList<>();
+        Matcher matcher = DISH_ID.matcher(page);
+        while (matcher.find()) {
+            ids.add(matcher.group(1));
+        }
+        return ids;
+    }
+
+    /**
+     * Сите Dishes се на страницата, по еднаш, подредени по име во опаѓачки редослед.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testAllDishesAreStreamedInOrder() throws Exception {
+        String page = mockMvc.perform(get("/dishes/all?sort=NAME&dir=DESC"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> ids = dishIds(page);
+        assertThat(ids).hasSize(DISHES);
+        assertThat(ids.getFirst()).isEqualTo(String.format("STREAM-%04d", DISHES - 1));
+        assertThat(ids).isSortedAccordingTo((a, b) -> b.compareTo(a));
+        assertThat(page).doesNotContain("No dishes match");
+    }
+
+    /**
+     * Филтрите важат за сите делови, а празниот резултат се означува по табелата.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testFiltersApplyToEveryChunk() throws Exception {
+        String italian = mockMvc.perform(get("/dishes/all?cuisine=ITALIAN"))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(dishIds(italian)).hasSize(DISHES / 2)
+                .allMatch(id -> Integer.parseInt(id.substring("STREAM-".length())) % 2 == 0);
+
+        String none = mockMvc.perform(get("/dishes/all?cuisine=MEXICAN"))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(dishIds(none)).isEmpty();
+        assertThat(none).contains("No dishes match");
+    }
+
+    /**
+     * Со тековниот ETag страницата не се праќа повторно.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/dishes/all"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/dishes/all").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+}
@@ -0,0 +1,187 @@
+package mk.ukim.finki.wp.lab.integration;
+
+import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.Suggestion;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.model.enums.ImportFormat;
+import mk.ukim.finki.wp.lab.model.enums.ImportKind;
+import mk.ukim.finki.wp.lab.model.enums.SuggestionType;
+import mk.ukim.finki.wp.lab.service.CatalogImportService;
+import mk.ukim.finki.wp.lab.service.ChefService;
+import mk.ukim.finki.wp.lab.service.DishService;
+import mk.ukim.finki.wp.lab.service.SuggestionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционен тест за предлозите при пишување (/api/suggest).
+ *
+ * Проверува дека индексот во меморија ги следи промените направени преку
+ * сервисите и увозот, дека промена што е вратена (rollback) не се појавува
+ * и дека endpoint-от враќа JSON со ограничен број предлози.
+ * Секој тест користи свои зборови, па тестовите не си влијаат меѓусебно.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+class SuggestIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:17")
+                    .withDatabaseName("lab_suggest")
+                    .withUsername("postgres")
+                    .withPassword("1234");
+
+    @DynamicPropertySource
+    static void setupDb(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SuggestionService suggestionService;
+
+    @Autowired
+    private DishService dishService;
+
+    @Autowired
+    private ChefService chefService;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private List<Long> suggest(String prefix, SuggestionType type) {
+        return suggestionService.suggest(prefix, type, 10).stream().map(Suggestion::id).toList();
+    }
+
+    /**
+     * Креирање, измена и бришење на Dish веднаш се гледа во предлозите.
+     */
+    @Test
+    void testDishChangesAreSuggested() {
+        Dish dish = dishService.create("SUGGEST-D1", "Gibanica with cheese", Cuisine.BRITISH, 50, List.of());
+        assertThat(suggest("giban", SuggestionType.DISH)).containsExactly(dish.getId());
+        assertThat(suggest("suggest-d1", SuggestionType.DISH)).containsExactly(dish.getId());
+
+        dishService.update(dish.getId(), "SUGGEST-D1", "Burek with spinach", Cuisine.BRITISH, 50, List.of());
+        assertThat(suggest("giban", SuggestionType.DISH)).isEmpty();
+        assertThat(suggest("spina", SuggestionType.DISH)).containsExactly(dish.getId());
+
+        dishService.delete(dish.getId());
+        assertThat(suggest("spina", SuggestionType.DISH)).isEmpty();
+    }
+
+    /**
+     * Chefs се предлагаат по име и по презиме, одделно од Dishes.
+     */
+    @Test
+    void testChefChangesAreSuggested() {
+        Chef chef = chefService.create("Zlatka", "Kirovska", "Bio", Gender.FEMALE);
+        assertThat(suggest("kirov", SuggestionType.CHEF)).containsExactly(chef.getId());
+        assertThat(suggest("zlatka k", SuggestionType.CHEF)).containsExactly(chef.getId());
+        assertThat(suggest("kirov", SuggestionType.DISH)).isEmpty();
+
+        chefService.update(chef.getId(), "Zlatka", "Petrovska", "Bio", Gender.FEMALE);
+        assertThat(suggest("kirov", SuggestionType.CHEF)).isEmpty();
+
+        chefService.delete(chef.getId());
+        assertThat(suggest("zlatka", SuggestionType.CHEF)).isEmpty();
+    }
+
+    /**
+     * Промена во трансакција што е вратена не се предлага.
+     */
+    @Test
+    void testRolledBackChangesAreNotSuggested() {
+        transactionTemplate.executeWithoutResult(status -> {
+            dishService.create("SUGGEST-D2", "Pastrmajlija", Cuisine.BRITISH, 60, List.of());
+            status.setRollbackOnly();
+        });
+
+        assertThat(suggest("pastrm", null)).isEmpty();
+    }
+
+    /**
+     * Увезените Dishes се предлагаат по увозот.
+     */
+    @Test
+    void testImportedDishesAreSuggested() {
+        catalogImportService.importCatalog(ImportKind.DISHES, ImportFormat.CSV, new ByteArrayInputStream("""
+                dishId,name,cuisine,preparationTime
+                SUGGEST-D3,Kachamak,ITALIAN,20
+                SUGGEST-D4,Kachapuri,FRENCH,40
+                """.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(suggestionService.suggest("kacha", null, 10)).extracting(Suggestion::label)
+                .containsExactly("Kachamak", "Kachapuri");
+    }
+
+    /**
+     * Увезените Chefs се предлагаат по увозот, а индексот е повторно
+     * изграден од базата во нова трансакција по commit.
+     */
+    @Test
+    void testImportedChefsAreSuggested() {
+        catalogImportService.importCatalog(ImportKind.CHEFS, ImportFormat.CSV, new ByteArrayInputStream("""
+                externalKey,firstName,lastName,bio,gender
+                SUGGEST-C1,Vesna,Trajkovska,Bio,FEMALE
+                SUGGEST-C2,Vesko,Trajanov,Bio,MALE
+                """.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(suggestionService.suggest("traj", SuggestionType.CHEF, 10)).extracting(Suggestion::label)
+                .containsExactly("Vesko Trajanov", "Vesna Trajkovska");
+    }
+
+    /**
+     * Endpoint-от ги враќа предлозите како JSON и го почитува limit.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testSuggestEndpoint() throws Exception {
+        Chef chef = chefService.create("Velko", "Tavchev", "Bio", Gender.MALE);
+        dishService.create("SUGGEST-D5", "Tavche gravche", Cuisine.BRITISH, 90, List.of());
+        dishService.create("SUGGEST-D6", "Tavche with sausages", Cuisine.BRITISH, 100, List.of());
+
+        mockMvc.perform(get("/api/suggest").param("q", "tavch"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].label").value("Tavche gravche"))
+                .andExpect(jsonPath("$[2].type").value("CHEF"))
+                .andExpect(jsonPath("$[2].id").value(chef.getId()));
+
+        mockMvc.perform(get("/api/suggest").param("q", "tavch").param("type", "DISH").param("limit", "1"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].type").value("DISH"));
+    }
+}
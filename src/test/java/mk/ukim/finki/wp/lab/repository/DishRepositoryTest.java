@@ -2,6 +2,8 @@ package mk.ukim.finki.wp.lab.repository;
 
 import mk.ukim.finki.wp.lab.model.Chef;
 import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.DishChefIds;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
 import mk.ukim.finki.wp.lab.model.enums.Cuisine;
 import mk.ukim.finki.wp.lab.model.enums.Gender;
 import mk.ukim.finki.wp.lab.repository.jpa.ChefRepository;
@@ -10,6 +12,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -30,6 +36,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  *  - зачувување и пронаоѓање на Dish по dishId
  *  - бришење на Dish по ID
  *  - листање на сите Dish поврзани со даден Chef
+ *  - keyset (seek) листање по страници со сортирање
  */
 //testiraat samo repository sloj i povrzuvanje so baza t,e testcontainers startuva vistinska baza vo Docker, koja e aktivna samo za vreme na tstot
 //i ja gasi posle testot
@@ -142,4 +149,77 @@ class DishRepositoryTest {
 
         assertThat(dishes).hasSize(2);
     }
+
+    /**
+     * Тест за keyset листање:
+     *  - првата страница ги враќа првите Dish според време на подготовка
+     *  - следната страница продолжува од последниот ред без преклопување
+     */
+    @Test
+    void testKeysetScrollByPreparationTime() {
+
+        dishRepository.save(new Dish("K1", "Keyset1", Cuisine.ITALIAN, 30, List.of(savedChef)));
+        dishRepository.save(new Dish("K2", "Keyset2", Cuisine.FRENCH, 10, List.of(savedChef)));
+        dishRepository.save(new Dish("K3", "Keyset3", Cuisine.MEXICAN, 20, List.of(savedChef)));
+
+        Sort sort = Sort.by(Sort.Direction.ASC, "preparationTime", "id");
+
+        Window<Dish> first = dishRepository.findBy(ScrollPosition.keyset(), sort, Limit.of(2));
+
+        assertThat(first.getContent()).extracting(Dish::getDishId).containsExactly("K2", "K3");
+        assertThat(first.hasNext()).isTrue();
+
+        Window<Dish> second = dishRepository.findBy(first.positionAt(first.size() - 1), sort, Limit.of(2));
+
+        assertThat(second.getContent()).extracting(Dish::getDishId).containsExactly("K1");
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    /**
+     * Тест за keyset листање со проекција:
+     *  - редовите се DishSummary записи, а не managed Dish ентитети
+     *  - следната страница продолжува од последниот ред без преклопување
+     */
+    @Test
+    void testKeysetScrollSummariesByName() {
+
+        dishRepository.save(new Dish("S1", "Summary B", Cuisine.ITALIAN, 30, List.of(savedChef)));
+        dishRepository.save(new Dish("S2", "Summary A", Cuisine.FRENCH, 10, List.of(savedChef)));
+        dishRepository.save(new Dish("S3", "Summary C", Cuisine.MEXICAN, 20, List.of(savedChef)));
+
+        Sort sort = Sort.by(Sort.Direction.ASC, "name", "id");
+
+        Window<DishSummary> first = dishRepository.findSummariesBy(ScrollPosition.keyset(), sort, Limit.of(2));
+
+        assertThat(first.getContent()).extracting(DishSummary::dishId).containsExactly("S2", "S1");
+        assertThat(first.hasNext()).isTrue();
+
+        Window<DishSummary> second = dishRepository.findSummariesBy(first.positionAt(first.size() - 1), sort, Limit.of(2));
+
+        assertThat(second.getContent()).extracting(DishSummary::dishId).containsExactly("S3");
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    /**
+     * Тест за ограничени врски Dish–Chef:
+     *  - за секој Chef се враќаат само првите limit Dishes по id
+     *  - за секој Dish се враќаат само првите limit Chefs по id
+     */
+    @Test
+    void testChefIdsAreLimitedPerParent() {
+
+        Chef other = chefRepository.save(new Chef("Other", "Chef", "Bio", Gender.FEMALE));
+        Dish first = dishRepository.save(new Dish("L1", "Limited1", Cuisine.ITALIAN, 5, List.of(savedChef, other)));
+        Dish second = dishRepository.save(new Dish("L2", "Limited2", Cuisine.ITALIAN, 5, List.of(savedChef)));
+        dishRepository.save(new Dish("L3", "Limited3", Cuisine.ITALIAN, 5, List.of(savedChef)));
+
+        List<DishChefIds> byChefs = dishRepository.findChefIdsByChefIds(List.of(savedChef.getId(), other.getId()), 2);
+        List<DishChefIds> byDishes = dishRepository.findChefIdsByDishIds(List.of(first.getId()), 1);
+
+        assertThat(byChefs).containsExactly(
+                new DishChefIds(first.getId(), savedChef.getId()),
+                new DishChefIds(first.getId(), other.getId()),
+                new DishChefIds(second.getId(), savedChef.getId()));
+        assertThat(byDishes).containsExactly(new DishChefIds(first.getId(), savedChef.getId()));
+    }
 }
@@ -0,0 +1,120 @@
+package mk.ukim.finki.wp.lab.service;
+
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.DishSortField;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.service.impl.CatalogSnapshot;
+import mk.ukim.finki.wp.lab.service.impl.CatalogSnapshotFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit тестови за CatalogSnapshotFile.
+ *
+ * Snapshot со два Chefs и три Dishes се запишува во привремена датотека
+ * и повторно се чита.
+ */
+class CatalogSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    private CatalogSnapshot snapshot;
+    private Path file;
+
+    @BeforeEach
+    void setup() throws IOException {
+        snapshot = CatalogSnapshot.load(loader -> {
+            loader.dish(1, "D1", "Pizza", Cuisine.ITALIAN, 10);
+            loader.dish(2, "D2", "burger", Cuisine.AMERICAN, 20);
+            loader.dish(3, "D3", "Crepes", Cuisine.FRENCH, 45);
+            loader.chef(100, "EXT-1", "Ana", "Petrova", "Bio", Gender.FEMALE);
+            loader.chef(200, null, "Marko", "Ilievski", null, null);
+            loader.assign(1, 100);
+            loader.assign(1, 200);
+            loader.assign(3, 200);
+        });
+        file = directory.resolve("catalog.snapshot");
+        CatalogSnapshotFile.write(snapshot, file);
+    }
+
+    /**
+     * Прочитаниот snapshot е ист со запишаниот: редови, врски и редослед на листите.
+     */
+    @Test
+    void testRoundTrip() throws IOException {
+        CatalogSnapshotFile.Loaded loaded = CatalogSnapshotFile.read(file);
+        CatalogSnapshot read = loaded.snapshot();
+
+        assertThat(read.differences(snapshot)).isZero();
+        assertThat(read.dishes()).isEqualTo(snapshot.dishes());
+        assertThat(read.chefs()).isEqualTo(snapshot.chefs());
+        assertThat(read.dishesOf(200)).containsExactly(1, 3);
+        assertThat(read.listDishes(null, DishSortField.NAME, Sort.Direction.ASC, ScrollPosition.keyset(), 10)
+                .stream().map(DishSummary::id).toList()).containsExactly(2L, 3L, 1L);
+        assertThat(loaded.createdAt()).isPositive();
+        assertThat(Files.exists(directory.resolve("catalog.snapshot.tmp"))).isFalse();
+    }
+
+    /**
+     * Разликите до базата се бројат по редови.
+     */
+    @Test
+    void testDifferences() throws IOException {
+        CatalogSnapshot read = CatalogSnapshotFile.read(file).snapshot();
+        CatalogSnapshot changed = snapshot
+                .withDish(2, "D2", "Burger", Cuisine.AMERICAN, 20, List.of())
+                .withDish(4, "D4", "Tacos", Cuisine.MEXICAN, 90, List.of(100L))
+                .withoutChefs(List.of(200L));
+
+        // Dish 2 е изменет, 4 е нов, а Chef 200 е избришан заедно со врските на 1 и 3.
+        assertThat(read.differences(changed)).isEqualTo(5);
+    }
+
+    /**
+     * Оштетена содржина се открива преку checksum.
+     */
+    @Test
+    void testCorruptedPayloadIsRejected() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+
+        assertThatThrownBy(() -> CatalogSnapshotFile.read(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("checksum");
+    }
+
+    /**
+     * Датотека од друга верзија на форматот, скратена датотека или
+     * датотека што не е snapshot не се читаат.
+     */
+    @Test
+    void testOtherFilesAreRejected() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(4, 99);
+        Files.write(file, bytes);
+        assertThatThrownBy(() -> CatalogSnapshotFile.read(file)).hasMessageContaining("version 99");
+
+        ByteBuffer.wrap(bytes).putInt(4, 1);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+        assertThatThrownBy(() -> CatalogSnapshotFile.read(file)).hasMessageContaining("Truncated");
+
+        Files.writeString(file, "not a snapshot, but long enough for a header");
+        assertThatThrownBy(() -> CatalogSnapshotFile.read(file)).hasMessageContaining("Not a catalog snapshot");
+    }
+}
@@ -0,0 +1,135 @@
+package mk.ukim.finki.wp.lab.service;
+
+import mk.ukim.finki.wp.lab.model.dto.ChefSummary;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.DishSortField;
+import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.service.impl.CatalogSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit тестови за CatalogSnapshot.
+ *
+ * Snapshot се полни со два Chefs и четири Dishes:
+ * 1 (Pizza, ITALIAN, 10 мин, Chefs 100 и 200), 2 (burger, AMERICAN, 20 мин, Chef 100),
+ * 3 (Crepes, FRENCH, 45 мин, Chef 200) и 4 (Tacos, MEXICAN, 90 мин, без Chef).
+ */
+class CatalogSnapshotTest {
+
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setup() {
+        snapshot = CatalogSnapshot.load(loader -> {
+            loader.dish(3, "D3", "Crepes", Cuisine.FRENCH, 45);
+            loader.dish(1, "D1", "Pizza", Cuisine.ITALIAN, 10);
+            loader.dish(4, "D4", "Tacos", Cuisine.MEXICAN, 90);
+            loader.dish(2, "D2", "burger", Cuisine.AMERICAN, 20);
+            loader.chef(200, null, "Marko", "Ilievski", "Bio", Gender.MALE);
+            loader.chef(100, "EXT-1", "Ana", "Petrova", "Bio", Gender.FEMALE);
+            loader.assign(1, 200);
+            loader.assign(1, 100);
+            loader.assign(2, 100);
+            loader.assign(3, 200);
+            loader.assign(3, 999);
+        });
+    }
+
+    private List<Long> ids(Window<DishSummary> window) {
+        return window.stream().map(DishSummary::id).toList();
+    }
+
+    /**
+     * Врските се читаат во двете насоки, а врските кон непознат Chef се игнорираат.
+     */
+    @Test
+    void testLinksInBothDirections() {
+        assertThat(snapshot.chefsOf(1)).containsExactly(100, 200);
+        assertThat(snapshot.chefsOf(3)).containsExactly(200);
+        assertThat(snapshot.dishesOf(100)).containsExactly(1, 2);
+        assertThat(snapshot.dishesOf(200)).containsExactly(1, 3);
+        assertThat(snapshot.dishByCode("D4")).isEqualTo(new DishSummary(4L, "D4", "Tacos", Cuisine.MEXICAN, 90));
+        assertThat(snapshot.dishByCode("D5")).isNull();
+        assertThat(snapshot.chef(100)).isEqualTo(
+                new ChefSummary(100L, "EXT-1", "Ana", "Petrova", "Bio", Gender.FEMALE));
+    }
+
+    /**
+     * Листата се сортира како во базата (имињата без разлика на големи букви)
+     * и се филтрира како DishSpecifications.
+     */
+    @Test
+    void testListingSortsAndFilters() {
+        assertThat(ids(snapshot.listDishes(null, DishSortField.NAME, Sort.Direction.ASC, ScrollPosition.keyset(), 10)))
+                .containsExactly(2L, 3L, 1L, 4L);
+        assertThat(ids(snapshot.listDishes(null, DishSortField.CUISINE, Sort.Direction.DESC, ScrollPosition.keyset(), 10)))
+                .containsExactly(4L, 1L, 3L, 2L);
+        assertThat(ids(snapshot.listDishes(new DishFilter(null, 15, null, Set.of(200L)),
+                DishSortField.PREPARATION_TIME, Sort.Direction.ASC, ScrollPosition.keyset(), 10)))
+                .containsExactly(3L);
+    }
+
+    /**
+     * Страниците се читаат напред и назад без преклопување.
+     */
+    @Test
+    void testKeysetScrollsBothWays() {
+        List<Long> seen = new ArrayList<>();
+        ScrollPosition position = ScrollPosition.keyset();
+        Window<DishSummary> page;
+        do {
+            page = snapshot.listDishes(null, DishSortField.PREPARATION_TIME, Sort.Direction.DESC, position, 3);
+            seen.addAll(ids(page));
+            position = page.isEmpty() ? position : page.positionAt(page.size() - 1);
+        } while (page.hasNext());
+        assertThat(seen).containsExactly(4L, 3L, 2L, 1L);
+
+        ScrollPosition last = ScrollPosition.backward(((KeysetScrollPosition) position).getKeys());
+        Window<DishSummary> previous = snapshot.listDishes(null, DishSortField.PREPARATION_TIME, Sort.Direction.DESC, last, 2);
+        assertThat(ids(previous)).containsExactly(3L, 2L);
+        assertThat(previous.hasNext()).isTrue();
+    }
+
+    /**
+     * Измените враќаат нов snapshot, а стариот останува непроменет.
+     */
+    @Test
+    void testWritesCopyOnWrite() {
+        CatalogSnapshot updated = snapshot
+                .withDish(5, "D5", "Apple pie", Cuisine.BRITISH, 60, List.of(100L, 999L))
+                .withDish(1, "D1", "Zucchini", Cuisine.ITALIAN, 10, List.of(200L))
+                .withoutDishes(List.of(2L))
+                .withChef(300, null, "Elena", "Stojanova", "Bio", Gender.FEMALE)
+                .withChef(100, null, "Ana", "Andova", "New bio", Gender.FEMALE)
+                .withoutChefs(List.of(200L));
+
+        assertThat(ids(updated.listDishes(null, DishSortField.NAME, Sort.Direction.ASC, ScrollPosition.keyset(), 10)))
+                .containsExactly(5L, 3L, 4L, 1L);
+        assertThat(updated.chefsOf(5)).containsExactly(100);
+        assertThat(updated.chefsOf(1)).isEmpty();
+        assertThat(updated.dishesOf(100)).containsExactly(5);
+        assertThat(updated.chef(100).externalKey()).isEqualTo("EXT-1");
+        assertThat(updated.listChefs(null, Sort.Direction.ASC, ScrollPosition.keyset(), 10).stream()
+                .map(ChefSummary::lastName)).containsExactly("Andova", "Stojanova");
+        assertThat(updated.listChefs(Gender.FEMALE, Sort.Direction.DESC, ScrollPosition.keyset(), 10).stream()
+                .map(ChefSummary::lastName)).containsExactly("Stojanova", "Andova");
+        assertThat(updated.listChefs(Gender.MALE, Sort.Direction.ASC, ScrollPosition.keyset(), 10)).isEmpty();
+
+        assertThat(snapshot.dishCount()).isEqualTo(4);
+        assertThat(snapshot.dish(1).name()).isEqualTo("Pizza");
+        assertThat(snapshot.chefsOf(1)).containsExactly(100, 200);
+    }
+}
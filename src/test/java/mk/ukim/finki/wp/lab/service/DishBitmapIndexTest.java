@@ -0,0 +1,144 @@
+package mk.ukim.finki.wp.lab.service;
+
+import mk.ukim.finki.wp.lab.model.dto.ChefFacet;
+import mk.ukim.finki.wp.lab.model.dto.DishFacets;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.PreparationTimeRange;
+import mk.ukim.finki.wp.lab.service.impl.DishBitmapIndex;
+import mk.ukim.finki.wp.lab.service.impl.DishBitmapIndex.Entry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Unit тестови за DishBitmapIndex.
+ *
+ * Индексот се полни со два Chefs и четири Dishes:
+ * 1 (ITALIAN, 10 мин, Chefs 100 и 200), 2 (ITALIAN, 20 мин, Chef 100),
+ * 3 (FRENCH, 45 мин, Chef 200) и 4 (MEXICAN, 90 мин, без Chef).
+ */
+class DishBitmapIndexTest {
+
+    private DishBitmapIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new DishBitmapIndex();
+        index.reset(loader -> {
+            loader.chef(100, "Ana Petrova");
+            loader.chef(200, "Marko Ilievski");
+            loader.dish(1, Cuisine.ITALIAN, 10);
+            loader.dish(2, Cuisine.ITALIAN, 20);
+            loader.dish(3, Cuisine.FRENCH, 45);
+            loader.dish(4, Cuisine.MEXICAN, 90);
+            loader.assign(1, 100);
+            loader.assign(1, 200);
+            loader.assign(2, 100);
+            loader.assign(3, 200);
+        });
+    }
+
+    private List<Integer> match(DishFilter filter) {
+        return index.match(filter).stream().boxed().toList();
+    }
+
+    /**
+     * Вредностите во еден филтер се комбинираат со OR, а филтрите со AND.
+     */
+    @Test
+    void testMatchIntersectsFilters() {
+        assertThat(match(DishFilter.NONE)).containsExactly(1, 2, 3, 4);
+        assertThat(match(new DishFilter(Set.of(Cuisine.ITALIAN, Cuisine.FRENCH), null, null, null)))
+                .containsExactly(1, 2, 3);
+        assertThat(match(new DishFilter(Set.of(Cuisine.ITALIAN), 15, null, Set.of(100L)))).containsExactly(2);
+        assertThat(match(new DishFilter(null, 30, 59, Set.of(100L)))).isEmpty();
+        assertThat(match(new DishFilter(null, null, null, Set.of(999L)))).isEmpty();
+        assertThat(index.count(new DishFilter(null, 0, 29, Set.of(100L, 200L)))).isEqualTo(2);
+        assertThat(index.count(new DishFilter(Set.of(Cuisine.MEXICAN), null, null, null))).isEqualTo(1);
+    }
+
+    /**
+     * Се поддржуваат само граници на опсезите за време на подготовка.
+     */
+    @Test
+    void testSupportsOnlyRangeBounds() {
+        assertThat(index.supports(DishFilter.NONE)).isTrue();
+        assertThat(index.supports(new DishFilter(null, 15, 59, null))).isTrue();
+        assertThat(index.supports(new DishFilter(null, 60, null, null))).isTrue();
+        assertThat(index.supports(new DishFilter(null, 20, null, null))).isFalse();
+        assertThat(index.supports(new DishFilter(null, 0, 40, null))).isFalse();
+    }
+
+    /**
+     * Секој бројач ги применува сите филтри освен својот,
+     * а избраниот Chef се враќа и кога нема ниту еден Dish.
+     */
+    @Test
+    void testFacetsIgnoreTheirOwnFilter() {
+        index.putChef(300, "Elena Stojanova");
+
+        DishFacets facets = index.countFacets(new DishFilter(Set.of(Cuisine.ITALIAN), 0, 14, Set.of(200L, 300L)), 10);
+
+        assertThat(facets.cuisines()).containsOnly(entry(Cuisine.BRITISH, 0L), entry(Cuisine.ITALIAN, 1L),
+                entry(Cuisine.AMERICAN, 0L), entry(Cuisine.FRENCH, 0L), entry(Cuisine.MEXICAN, 0L));
+        assertThat(facets.preparationTimes()).containsOnly(entry(PreparationTimeRange.UNDER_15, 1L),
+                entry(PreparationTimeRange.UNDER_30, 0L), entry(PreparationTimeRange.UNDER_60, 0L),
+                entry(PreparationTimeRange.LONGER, 0L));
+        assertThat(facets.chefs()).containsExactly(new ChefFacet(100L, "Ana Petrova", 1),
+                new ChefFacet(200L, "Marko Ilievski", 1), new ChefFacet(300L, "Elena Stojanova", 0));
+    }
+
+    /**
+     * Се враќаат најмногу maxChefs Chefs со најмногу Dishes, плус избраните.
+     */
+    @Test
+    void testChefFacetsAreLimited() {
+        index.put(new Entry(5, Cuisine.FRENCH, 30, Set.of(200L)));
+
+        assertThat(index.countFacets(DishFilter.NONE, 1).chefs())
+                .containsExactly(new ChefFacet(200L, "Marko Ilievski", 3));
+        assertThat(index.countFacets(new DishFilter(null, null, null, Set.of(100L)), 1).chefs())
+                .containsExactly(new ChefFacet(200L, "Marko Ilievski", 3), new ChefFacet(100L, "Ana Petrova", 2));
+    }
+
+    /**
+     * Измената ги заменува кујната, времето и Chefs на Dish, а бришењето го отстранува.
+     * Избришан Chef повеќе не филтрира ниту се брои.
+     */
+    @Test
+    void testWritesUpdateBitmaps() {
+        index.put(new Entry(1, Cuisine.FRENCH, 70, List.of(200L)));
+        index.remove(3);
+        index.removeChef(100);
+
+        assertThat(match(new DishFilter(Set.of(Cuisine.ITALIAN), null, null, null))).containsExactly(2);
+        assertThat(match(new DishFilter(Set.of(Cuisine.FRENCH), 60, null, Set.of(200L)))).containsExactly(1);
+        assertThat(match(new DishFilter(null, null, null, Set.of(100L)))).isEmpty();
+        assertThat(index.countFacets(DishFilter.NONE, 10).chefs())
+                .containsExactly(new ChefFacet(200L, "Marko Ilievski", 1));
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    /**
+     * Пред вчитувањето индексот не одговара, а измените се игнорираат
+     * бидејќи вчитувањето ги содржи.
+     */
+    @Test
+    void testNothingIsAnsweredBeforeLoad() {
+        DishBitmapIndex empty = new DishBitmapIndex();
+        empty.put(new Entry(1, Cuisine.ITALIAN, 10, List.of()));
+
+        assertThat(empty.isLoaded()).isFalse();
+        assertThatThrownBy(() -> empty.count(DishFilter.NONE)).isInstanceOf(IllegalStateException.class);
+
+        empty.reset(loader -> loader.dish(2, Cuisine.FRENCH, 20));
+        assertThat(empty.match(DishFilter.NONE).toArray()).containsExactly(2);
+    }
+}
@@ -1,7 +1,14 @@
 package mk.ukim.finki.wp.lab.service;
 
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import mk.ukim.finki.wp.lab.config.CacheConfig;
 import mk.ukim.finki.wp.lab.model.Chef;
 import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.dto.DishSearchHit;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import mk.ukim.finki.wp.lab.model.dto.NameMatches;
 import mk.ukim.finki.wp.lab.model.enums.Cuisine;
 import mk.ukim.finki.wp.lab.model.enums.Gender;
 import mk.ukim.finki.wp.lab.repository.jpa.ChefRepository;
@@ -11,9 +18,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-
-import java.util.ArrayList;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -33,6 +47,21 @@ class DishServiceTest {
     @Mock
     private ChefRepository chefRepository;
 
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private org.hibernate.Cache hibernateCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private DishServiceImpl dishService;
 
     /**
@@ -41,7 +70,10 @@ class DishServiceTest {
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
-        dishService = new DishServiceImpl(dishRepository, chefRepository);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(cache.unwrap(org.hibernate.Cache.class)).thenReturn(hibernateCache);
+        dishService = new DishServiceImpl(dishRepository, chefRepository, entityManagerFactory, eventPublisher,
+                transactionManager);
     }
 
     /**
@@ -81,11 +113,13 @@ class DishServiceTest {
         // Креирање Chef со иницијализирана листа dishes
         Chef chef = new Chef("Chef", "Test", "Bio", Gender.MALE);
         chef.setId(5L);
-        chef.setDishes(new ArrayList<>());
+        chef.setDishes(new HashSet<>());
 
-        // Mock однесување
-        when(chefRepository.findAllById(List.of(5L)))
-                .thenReturn(List.of(chef));
+        // Mock однесување: Chef постои и се добива како референца, без вчитување
+        when(chefRepository.findExistingIds(Set.of(5L)))
+                .thenReturn(Set.of(5L));
+        when(chefRepository.getReferenceById(5L))
+                .thenReturn(chef);
 
         when(dishRepository.save(any(Dish.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
@@ -102,6 +136,60 @@ class DishServiceTest {
         assertThat(d.getChefs()).hasSize(1);
 
         // Проверка дека Dish е поврзан со Chef
-        assertThat(chef.getDishes()).contains(d);
+        assertThat(d.getChefs()).containsExactly(chef);
+
+        // Инверзната страна (chef.dishes) не се вчитува ниту менува
+        assertThat(chef.getDishes()).isEmpty();
+        verify(chefRepository).findExistingIds(Set.of(5L));
+        verify(chefRepository).getReferenceById(5L);
+        verifyNoMoreInteractions(chefRepository);
+
+        // Кешираната колекција chef.dishes се инвалидира
+        verify(hibernateCache).evictCollectionData(CacheConfig.CHEF_DISHES_REGION, 5L);
+    }
+
+    /**
+     * Текстот за пребарување се претвора во tsquery каде последниот збор е префикс,
+     * а знаците што не се букви или бројки се отстрануваат.
+     */
+    @Test
+    void testSearchBuildsPrefixQuery() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(dishRepository.search(anyString(), any(DishFilter.class), eq(pageable)))
+                .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+        dishService.search("  Tavče & gravče:*! ", DishFilter.NONE, pageable);
+
+        verify(dishRepository).search("tavče & gravče:*", DishFilter.NONE, pageable);
+    }
+
+    /**
+     * Празно пребарување не оди до базата.
+     */
+    @Test
+    void testBlankSearchReturnsNothing() {
+        Slice<DishSearchHit> hits = dishService.search(" !? ", DishFilter.NONE, PageRequest.of(0, 10));
+
+        assertThat(hits).isEmpty();
+        assertThat(hits.hasNext()).isFalse();
+        verifyNoInteractions(dishRepository);
+    }
+
+    /**
+     * Кога ниту едно име не е доволно слично, се бара најблиското име
+     * со помал праг, за предлогот „Did you mean“.
+     */
+    @Test
+    void testFuzzyLookupFallsBackToSuggestion() {
+        DishSummary closest = new DishSummary(1L, "D1", "Tagliatelle al Ragu", Cuisine.ITALIAN, 60);
+        when(dishRepository.findByNameSimilarTo(eq("Talyatele"), doubleThat(t -> t >= 0.5), anyInt()))
+                .thenReturn(List.of());
+        when(dishRepository.findByNameSimilarTo(eq("Talyatele"), doubleThat(t -> t < 0.5), eq(1)))
+                .thenReturn(List.of(closest));
+
+        NameMatches<DishSummary> found = dishService.findByNameFuzzy(" Talyatele ");
+
+        assertThat(found.matches()).isEmpty();
+        assertThat(found.didYouMean()).isEqualTo("Tagliatelle al Ragu");
     }
 }
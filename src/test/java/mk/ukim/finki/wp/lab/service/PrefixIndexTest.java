@@ -0,0 +1,151 @@
+package mk.ukim.finki.wp.lab.service;
+
+import mk.ukim.finki.wp.lab.service.impl.PrefixIndex;
+import mk.ukim.finki.wp.lab.service.impl.PrefixIndex.Entry;
+import mk.ukim.finki.wp.lab.service.impl.PrefixIndex.Match;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit тестови за PrefixIndex.
+ *
+ * Компактирањето се извршува веднаш (Runnable::run) со мал праг,
+ * освен во тестот каде што извршувањето се одложува рачно.
+ */
+class PrefixIndexTest {
+
+    private PrefixIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new PrefixIndex(Runnable::run, 3);
+        index.reset(() -> List.of(
+                new Entry(1, "Tagliatelle al Ragu", List.of("D-001")),
+                new Entry(2, "Tarte Tatin", List.of("D-002")),
+                new Entry(3, "Ragout  of lamb", List.of())));
+    }
+
+    private List<Long> ids(String prefix) {
+        return index.find(prefix, 10).stream().map(Match::id).toList();
+    }
+
+    /**
+     * Се наоѓа почеток на кој било збор, без разлика на големи и мали букви,
+     * а резултатите се подредени по пронајдениот текст.
+     */
+    @Test
+    void testFindsAnyWordPrefix() {
+        assertThat(ids("ta")).containsExactly(1L, 2L);
+        assertThat(ids("RAG")).containsExactly(3L, 1L);
+        assertThat(ids("tatin")).containsExactly(2L);
+        assertThat(ids("tart x")).isEmpty();
+        assertThat(ids("  ")).isEmpty();
+    }
+
+    /**
+     * Пребарувањето продолжува преку празно место, а вишокот празни места се игнорира.
+     */
+    @Test
+    void testMatchesAcrossWords() {
+        assertThat(ids("ragout of")).containsExactly(3L);
+        assertThat(ids("al   ra")).containsExactly(1L);
+        assertThat(index.find("ragout", 1)).containsExactly(new Match(3, "Ragout of lamb"));
+    }
+
+    /**
+     * Алијасите се пребаруваат, но се враќа ознаката,
+     * а ентитет што се совпаѓа повеќепати се враќа еднаш.
+     */
+    @Test
+    void testAliasesAreSearchedAndMatchesAreDistinct() {
+        assertThat(index.find("d-00", 10)).containsExactly(new Match(1, "Tagliatelle al Ragu"),
+                new Match(2, "Tarte Tatin"));
+        assertThat(ids("t")).containsExactly(1L, 2L);
+        assertThat(ids("ta")).hasSize(2);
+        assertThat(index.find("ta", 1)).hasSize(1);
+    }
+
+    /**
+     * Измената ги заменува старите клучеви, а бришењето го отстранува записот.
+     */
+    @Test
+    void testPutReplacesAndRemoveDeletes() {
+        index.put(new Entry(2, "Crème brûlée", List.of("D-002")));
+        index.remove(3);
+        index.put(new Entry(4, "Ragù alla bolognese", List.of()));
+
+        assertThat(ids("tatin")).isEmpty();
+        assertThat(ids("crè")).containsExactly(2L);
+        assertThat(ids("ragout")).isEmpty();
+        assertThat(ids("rag")).containsExactly(1L, 4L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    /**
+     * По компактирањето содржината е иста како пред него.
+     */
+    @Test
+    void testCompactionKeepsContent() {
+        for (long id = 10; id < 20; id++) {
+            index.put(new Entry(id, "Dumpling " + id, List.of()));
+        }
+        index.remove(1);
+        index.put(new Entry(2, "Tarte aux pommes", List.of()));
+
+        assertThat(index.size()).isEqualTo(12);
+        assertThat(ids("dump")).hasSize(10);
+        assertThat(ids("pom")).containsExactly(2L);
+        assertThat(ids("tag")).isEmpty();
+        assertThat(ids("d-002")).isEmpty();
+    }
+
+    /**
+     * Измените направени додека трае компактирањето не се губат,
+     * а компактирање започнато пред reset не ја враќа старата содржина.
+     */
+    @Test
+    void testWritesDuringCompactionAreReplayed() {
+        List<Runnable> pending = new ArrayList<>();
+        index = new PrefixIndex(pending::add, 2);
+        index.put(new Entry(1, "Apple pie", List.of()));
+        index.put(new Entry(2, "Banana bread", List.of()));
+        index.put(new Entry(3, "Cherry tart", List.of()));
+        index.remove(1);
+
+        pending.remove(0).run();
+
+        assertThat(ids("apple")).isEmpty();
+        assertThat(ids("ba")).containsExactly(2L);
+        assertThat(ids("cherry")).containsExactly(3L);
+        assertThat(index.size()).isEqualTo(2);
+
+        index.put(new Entry(4, "Date loaf", List.of()));
+        index.put(new Entry(5, "Elderflower jelly", List.of()));
+        index.reset(() -> List.of(new Entry(6, "Fig roll", List.of())));
+        pending.forEach(Runnable::run);
+
+        assertThat(ids("date")).isEmpty();
+        assertThat(ids("fig")).containsExactly(6L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    /**
+     * Со многу записи со ист почеток се враќаат првите по редослед.
+     */
+    @Test
+    void testLimitOnLargeIndex() {
+        index.reset(() -> IntStream.range(0, 10_000)
+                .mapToObj(i -> new Entry(i, "Dish %05d".formatted(i), List.of()))
+                .toList());
+
+        assertThat(index.find("dish 0012", 20)).extracting(Match::label)
+                .containsExactlyElementsOf(IntStream.range(120, 130).mapToObj("Dish %05d"::formatted).toList());
+        assertThat(index.find("dish", 3)).extracting(Match::id).containsExactly(0L, 1L, 2L);
+    }
+}
@@ -1,7 +1,9 @@
 package mk.ukim.finki.wp.lab.web;
 
 import mk.ukim.finki.wp.lab.model.Chef;
+import mk.ukim.finki.wp.lab.model.dto.ChefSummary;
 import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.service.CatalogVersionService;
 import mk.ukim.finki.wp.lab.service.ChefService;
 import mk.ukim.finki.wp.lab.service.DishService;
 import mk.ukim.finki.wp.lab.web.controller.ChefController;
@@ -12,12 +14,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -37,6 +47,9 @@ class ChefControllerTest {
     @MockitoBean
     private DishService dishService;
 
+    @MockitoBean
+    private CatalogVersionService catalogVersion;
+
     // Mock на auth provider за WebSecurityConfig
     @MockitoBean
     private CustomUsernamePasswordAuthenticationProvider authProvider;
@@ -47,12 +60,12 @@ class ChefControllerTest {
     @Test
     @WithMockUser(roles = {"USER"})
     void testGetChefsPageAsUser() throws Exception {
-        List<Chef> chefs = List.of(
-                new Chef("Test", "Chef", "Bio", Gender.MALE)
+        List<ChefSummary> chefs = List.of(
+                new ChefSummary(1L, null, "Test", "Chef", "Bio", Gender.MALE)
         );
 
-        Mockito.when(chefService.listChefs())
-                .thenReturn(chefs);
+        Mockito.when(chefService.listChefs(isNull(), eq(Sort.Direction.ASC), any(ScrollPosition.class), anyInt()))
+                .thenReturn(Window.from(chefs, ScrollPosition::offset));
 
         mockMvc.perform(get("/chefs"))
                 .andExpect(status().isOk())
@@ -128,6 +141,21 @@ class ChefControllerTest {
                 .andExpect(redirectedUrl("/chefs"));
     }
 
+    /**
+     * ADMIN може да избрише повеќе избрани Chefs одеднаш.
+     */
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void testBulkDeleteChefsAsAdmin() throws Exception {
+        mockMvc.perform(post("/chefs/delete")
+                        .param("ids", "1", "2", "3")
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/chefs"));
+
+        Mockito.verify(chefService).deleteAll(List.of(1L, 2L, 3L));
+    }
+
     /**
      * USER не може да брише Chef.
      */
@@ -137,4 +165,31 @@ class ChefControllerTest {
         mockMvc.perform(post("/chefs/delete/1"))
                 .andExpect(status().isForbidden());
     }
+
+    /**
+     * Страницата со Dishes на Chef се праќа со ETag, а при ист ETag и иста
+     * верзија на каталогот одговорот е 304 без повик до сервисите.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testDishesByChefNotModified() throws Exception {
+        Mockito.when(catalogVersion.version()).thenReturn("v-1");
+        Mockito.when(catalogVersion.lastModified()).thenReturn(1_700_000_000_000L);
+        Mockito.when(chefService.findById(1L)).thenReturn(new Chef("Test", "Chef", "Bio", Gender.MALE));
+
+        String etag = mockMvc.perform(get("/chefs/dishes/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Mockito.clearInvocations(chefService, dishService);
+
+        mockMvc.perform(get("/chefs/dishes/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        Mockito.verifyNoInteractions(chefService, dishService);
+
+        Mockito.when(catalogVersion.version()).thenReturn("v-2");
+        mockMvc.perform(get("/chefs/dishes/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
 }
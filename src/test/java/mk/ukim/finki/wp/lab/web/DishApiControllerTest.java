@@ -0,0 +1,139 @@
+package mk.ukim.finki.wp.lab.web;
+
+import mk.ukim.finki.wp.lab.config.CustomUsernamePasswordAuthenticationProvider;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.DishSortField;
+import mk.ukim.finki.wp.lab.service.CatalogVersionService;
+import mk.ukim.finki.wp.lab.service.DishService;
+import mk.ukim.finki.wp.lab.web.controller.DishApiController;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.json.JsonCompareMode;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Web MVC тест за REST API-то /api/v1/dishes, без вистински сервис слој.
+ */
+@WebMvcTest(DishApiController.class)
+@Import(mk.ukim.finki.wp.lab.config.WebSecurityConfig.class)
+@AutoConfigureMockMvc(addFilters = true)
+class DishApiControllerTest {
+
+    private static final DishSummary PIZZA = new DishSummary(1L, "D1", "Pizza", Cuisine.ITALIAN, 10);
+    private static final DishSummary TACOS = new DishSummary(4L, "D4", "Tacos", Cuisine.MEXICAN, 90);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private DishService dishService;
+
+    @MockitoBean
+    private CatalogVersionService catalogVersion;
+
+    @MockitoBean
+    private CustomUsernamePasswordAuthenticationProvider authProvider;
+
+    /**
+     * Страницата ги содржи само бараните полиња, а филтрите и големината
+     * на страницата се проследуваат до сервисот.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testListWithSparseFields() throws Exception {
+        DishFilter filter = new DishFilter(Set.of(Cuisine.ITALIAN), null, 30, null);
+        Mockito.when(dishService.listDishes(eq(filter), eq(DishSortField.PREPARATION_TIME), eq(Sort.Direction.DESC),
+                        any(ScrollPosition.class), eq(100)))
+                .thenReturn(Window.from(List.of(PIZZA), ScrollPosition::offset));
+
+        mockMvc.perform(get("/api/v1/dishes")
+                        .param("cuisine", "ITALIAN")
+                        .param("maxPreparationTime", "30")
+                        .param("sort", "PREPARATION_TIME")
+                        .param("dir", "DESC")
+                        .param("size", "500")
+                        .param("fields", "name, id"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("""
+                        {"items": [{"id": 1, "name": "Pizza"}], "next": null, "previous": null}
+                        """, JsonCompareMode.STRICT));
+    }
+
+    /**
+     * Непознато поле се одбива со 400, без читање на каталогот.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testUnknownFieldIsRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/dishes").param("fields", "id,chefs"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(dishService);
+    }
+
+    /**
+     * Групното читање ги враќа Dishes по бараниот редослед, секое по еднаш,
+     * и ги наведува оние што не постојат.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testBatchKeepsRequestedOrder() throws Exception {
+        Mockito.when(dishService.findSummariesById(anyCollection())).thenReturn(List.of(PIZZA, TACOS));
+        Mockito.when(dishService.findSummariesByDishId(anyCollection())).thenReturn(List.of(PIZZA));
+
+        mockMvc.perform(get("/api/v1/dishes/batch")
+                        .param("id", "4,9,1,4")
+                        .param("dishId", "D1,NONE"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("""
+                        {"items": [
+                            {"id": 4, "dishId": "D4", "name": "Tacos", "cuisine": "MEXICAN", "preparationTime": 90},
+                            {"id": 1, "dishId": "D1", "name": "Pizza", "cuisine": "ITALIAN", "preparationTime": 10}],
+                         "missing": {"id": [9], "dishId": ["NONE"]}}
+                        """, JsonCompareMode.STRICT));
+
+        mockMvc.perform(get("/api/v1/dishes/batch").param("id", String.join(",",
+                        LongStream.rangeClosed(1, 101).mapToObj(Long::toString).toList())))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Едно Dish по id, или 404 кога не постои.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testGetOne() throws Exception {
+        Mockito.when(dishService.findSummariesById(List.of(1L))).thenReturn(List.of(PIZZA));
+        Mockito.when(dishService.findSummariesById(List.of(2L))).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/v1/dishes/1").param("fields", "dishId"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"dishId\": \"D1\"}", JsonCompareMode.STRICT));
+        mockMvc.perform(get("/api/v1/dishes/2"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -2,8 +2,16 @@ package mk.ukim.finki.wp.lab.web;
 
 import mk.ukim.finki.wp.lab.model.Chef;
 import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.dto.ChefFacet;
+import mk.ukim.finki.wp.lab.model.dto.DishFacets;
+import mk.ukim.finki.wp.lab.model.dto.DishFilter;
+import mk.ukim.finki.wp.lab.model.dto.DishSearchHit;
+import mk.ukim.finki.wp.lab.model.dto.DishSummary;
 import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import mk.ukim.finki.wp.lab.model.enums.DishSortField;
 import mk.ukim.finki.wp.lab.model.enums.Gender;
+import mk.ukim.finki.wp.lab.model.enums.PreparationTimeRange;
+import mk.ukim.finki.wp.lab.service.CatalogVersionService;
 import mk.ukim.finki.wp.lab.service.ChefService;
 import mk.ukim.finki.wp.lab.service.DishService;
 import mk.ukim.finki.wp.lab.web.controller.DishController;
@@ -14,13 +22,33 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.WebUtils;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -32,6 +60,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @AutoConfigureMockMvc(addFilters = true)
 class DishControllerTest {
 
+    private static final DishFacets NO_FACETS = new DishFacets(Map.of(), Map.of(), List.of());
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -41,6 +71,9 @@ class DishControllerTest {
     @MockitoBean
     private ChefService chefService;
 
+    @MockitoBean
+    private CatalogVersionService catalogVersion;
+
     @MockitoBean
     private CustomUsernamePasswordAuthenticationProvider authProvider;
 
@@ -50,22 +83,167 @@ class DishControllerTest {
     @Test
     @WithMockUser(roles = {"USER"})
     void testGetDishesPageAsUser() throws Exception {
-        Chef chef = new Chef("Test", "Chef", "Bio", Gender.MALE);
-        Dish dish = new Dish("D_TEST", "Test Dish", Cuisine.ITALIAN, 15, List.of(chef));
+        DishSummary dish = new DishSummary(1L, "D_TEST", "Test Dish", Cuisine.ITALIAN, 15);
 
-        Mockito.when(dishService.listDishes())
-                .thenReturn(List.of(dish));
+        Mockito.when(dishService.listDishes(eq(DishFilter.NONE), eq(DishSortField.NAME), eq(Sort.Direction.ASC), any(ScrollPosition.class), anyInt()))
+                .thenReturn(Window.from(List.of(dish), ScrollPosition::offset));
+        Mockito.when(dishService.countFacets(DishFilter.NONE)).thenReturn(NO_FACETS);
 
         mockMvc.perform(get("/dishes"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("master-template"))
                 .andExpect(model().attributeExists("dishes"))
-                .andExpect(model().attribute("bodyContent", "listDishes"));
+                .andExpect(model().attribute("bodyContent", "listDishes"))
+                .andExpect(content().string(containsString("Test Dish")));
+    }
+
+    /**
+     * При ист ETag листата не се вчитува ниту прикажува повторно (304),
+     * а ETag е различен за корисник со друга улога (ADMIN ги гледа копчињата за измена).
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testGetDishesPageNotModified() throws Exception {
+        Mockito.when(catalogVersion.version()).thenReturn("v-1");
+        Mockito.when(catalogVersion.lastModified()).thenReturn(1_700_000_000_000L);
+        Mockito.when(dishService.listDishes(any(), any(), any(), any(ScrollPosition.class), anyInt()))
+                .thenReturn(Window.from(List.of(), ScrollPosition::offset));
+        Mockito.when(dishService.countFacets(any())).thenReturn(NO_FACETS);
+
+        String etag = mockMvc.perform(get("/dishes"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Mockito.clearInvocations(dishService);
+
+        mockMvc.perform(get("/dishes").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        Mockito.verifyNoInteractions(dishService);
+
+        mockMvc.perform(get("/dishes").header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Листата на јадења се вчитува по страници (keyset) и се сортира на серверот
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testGetDishesPageSortedByPreparationTime() throws Exception {
+        DishSummary dish = new DishSummary(1L, "D_TEST", "Test Dish", Cuisine.ITALIAN, 15);
+
+        Mockito.when(dishService.listDishes(eq(DishFilter.NONE), eq(DishSortField.PREPARATION_TIME), eq(Sort.Direction.DESC), any(ScrollPosition.class), eq(10)))
+                .thenReturn(Window.from(List.of(dish), ScrollPosition::offset));
+        Mockito.when(dishService.countFacets(DishFilter.NONE)).thenReturn(NO_FACETS);
+
+        mockMvc.perform(get("/dishes")
+                        .param("sort", "PREPARATION_TIME")
+                        .param("dir", "DESC")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("sort", DishSortField.PREPARATION_TIME))
+                .andExpect(model().attribute("dir", Sort.Direction.DESC))
+                .andExpect(model().attribute("nextCursor", (Object) null))
+                .andExpect(model().attribute("previousCursor", (Object) null));
+    }
+
+    /**
+     * Филтрите се проследуваат до сервисот, бројачите се прикажуваат,
+     * а линковите за сортирање ги задржуваат филтрите.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testGetDishesPageFiltered() throws Exception {
+        DishSummary dish = new DishSummary(1L, "D_TEST", "Test Dish", Cuisine.ITALIAN, 15);
+        DishFilter filter = new DishFilter(Set.of(Cuisine.ITALIAN), 15, 29, Set.of(7L));
+        DishFacets facets = new DishFacets(
+                Map.of(Cuisine.ITALIAN, 1203L),
+                Map.of(PreparationTimeRange.UNDER_30, 4551L),
+                List.of(new ChefFacet(7L, "Test Chef", 12)));
+
+        Mockito.when(dishService.listDishes(eq(filter), eq(DishSortField.NAME), eq(Sort.Direction.ASC), any(ScrollPosition.class), anyInt()))
+                .thenReturn(Window.from(List.of(dish), ScrollPosition::offset));
+        Mockito.when(dishService.countFacets(filter)).thenReturn(facets);
+
+        mockMvc.perform(get("/dishes")
+                        .param("cuisine", "ITALIAN")
+                        .param("time", "UNDER_30")
+                        .param("chef", "7"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("facets", facets))
+                .andExpect(model().attribute("filterQuery", "&cuisine=ITALIAN&time=UNDER_30&chef=7"))
+                .andExpect(content().string(containsString("ITALIAN (1 203)")))
+                .andExpect(content().string(containsString("15 - 29 min (4 551)")))
+                .andExpect(content().string(containsString("Test Chef (12)")))
+                .andExpect(content().string(containsString("size=20&amp;cuisine=ITALIAN&amp;time=UNDER_30&amp;chef=7")));
+    }
+
+    /**
+     * Сите јадења се прикажуваат на една страница што се праќа во делови:
+     * почетокот на страницата е веќе испратен пред да се вчита секој дел од редовите.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testGetAllDishesPageIsStreamed() throws Exception {
+        DishSummary first = new DishSummary(1L, "D_1", "First Dish", Cuisine.ITALIAN, 15);
+        DishSummary other = new DishSummary(3L, "D_3", "Other Dish", Cuisine.MEXICAN, 20);
+        DishSummary second = new DishSummary(2L, "D_2", "Second Dish", Cuisine.FRENCH, 30);
+        List<String> sentBeforeChunk = new ArrayList<>();
+
+        Mockito.when(dishService.listDishes(eq(DishFilter.NONE), eq(DishSortField.NAME), eq(Sort.Direction.ASC), any(ScrollPosition.class), eq(500)))
+                .thenAnswer(invocation -> {
+                    MockHttpServletResponse response = WebUtils.getNativeResponse(
+                            ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getResponse(),
+                            MockHttpServletResponse.class);
+                    sentBeforeChunk.add(response.isCommitted() ? response.getContentAsString() : "");
+                    return sentBeforeChunk.size() == 1
+                            ? Window.from(List.of(first, other), ScrollPosition::offset, true)
+                            : Window.from(List.of(second), ScrollPosition::offset, false);
+                });
+
+        mockMvc.perform(get("/dishes/all"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("bodyContent", "allDishes"))
+                .andExpect(content().string(containsString("Second Dish")))
+                .andExpect(content().string(not(containsString("No dishes match"))));
+
+        assertThat(sentBeforeChunk).hasSize(2);
+        assertThat(sentBeforeChunk.get(0)).contains("All Dishes").doesNotContain("First Dish");
+        // th:each гледа еден ред напред, па последниот ред од делот се праќа со следниот дел.
+        assertThat(sentBeforeChunk.get(1)).contains("First Dish").doesNotContain("Second Dish");
+        Mockito.verify(dishService, Mockito.never()).countFacets(any());
     }
 
     /**
      * ADMIN може да ја отвори формата за додавање
      */
+    /**
+     * Пребарувањето ги прикажува погодоците со означените зборови
+     * и ги проследува филтрите до сервисот.
+     */
+    @Test
+    @WithMockUser(roles = {"USER"})
+    void testSearchDishesPage() throws Exception {
+        DishSearchHit hit = new DishSearchHit(1L, "D_TEST", "Tavche gravche", Cuisine.ITALIAN, 15,
+                null, 0.6, "<mark>Tavche</mark> gravche");
+
+        Mockito.when(dishService.search(eq("tavche"), eq(new DishFilter(Set.of(Cuisine.ITALIAN), null, 30, null)),
+                        eq(PageRequest.of(0, 20))))
+                .thenReturn(new SliceImpl<>(List.of(hit), PageRequest.of(0, 20), true));
+
+        mockMvc.perform(get("/dishes/search")
+                        .param("q", "tavche")
+                        .param("cuisine", "ITALIAN")
+                        .param("maxPreparationTime", "30"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("bodyContent", "searchDishes"))
+                .andExpect(model().attribute("hasNext", true))
+                .andExpect(content().string(containsString("<mark>Tavche</mark> gravche")))
+                .andExpect(content().string(containsString("page=1")));
+    }
+
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void testAddDishFormAsAdmin() throws Exception {
@@ -139,6 +317,21 @@ class DishControllerTest {
                 .andExpect(redirectedUrl("/dishes"));
     }
 
+    /**
+     * ADMIN може да избрише повеќе избрани јадења одеднаш
+     */
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void testBulkDeleteDishesAsAdmin() throws Exception {
+        mockMvc.perform(post("/dishes/delete")
+                        .param("ids", "1", "2")
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/dishes"));
+
+        Mockito.verify(dishService).deleteAll(List.of(1L, 2L));
+    }
+
     /**
      * USER НЕ СМЕЕ да брише јадење
      */
@@ -0,0 +1,56 @@
+package mk.ukim.finki.wp.lab.web;
+
+import mk.ukim.finki.wp.lab.model.Dish;
+import mk.ukim.finki.wp.lab.model.enums.Cuisine;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit тестови за KeysetCursor.
+ *
+ * Се тестира:
+ *  - кодирање и декодирање на keyset позиција со типизирани вредности
+ *  - насоката (after / before) на декодираната позиција
+ *  - невалиден cursor враќа почетна позиција
+ */
+class KeysetCursorTest {
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("cuisine", Cuisine.ITALIAN);
+        keys.put("id", 42L);
+
+        String cursor = KeysetCursor.encode(ScrollPosition.forward(keys));
+
+        ScrollPosition position = KeysetCursor.position(cursor, null, Dish.class);
+
+        assertThat(position).isInstanceOf(KeysetScrollPosition.class);
+        KeysetScrollPosition keyset = (KeysetScrollPosition) position;
+        assertThat(keyset.scrollsBackward()).isFalse();
+        assertThat(keyset.getKeys()).containsEntry("cuisine", Cuisine.ITALIAN).containsEntry("id", 42L);
+    }
+
+    @Test
+    void testBeforeCursorScrollsBackward() {
+        String cursor = KeysetCursor.encode(ScrollPosition.forward(Map.of("name", "Tiramisu & co", "id", 7L)));
+
+        KeysetScrollPosition keyset = (KeysetScrollPosition) KeysetCursor.position(null, cursor, Dish.class);
+
+        assertThat(keyset.scrollsBackward()).isTrue();
+        assertThat(keyset.getKeys()).containsEntry("name", "Tiramisu & co");
+    }
+
+    @Test
+    void testInvalidCursorFallsBackToFirstPage() {
+        assertThat(KeysetCursor.position("not-a-cursor!", null, Dish.class).isInitial()).isTrue();
+        assertThat(KeysetCursor.position(KeysetCursor.encode(ScrollPosition.forward(Map.of("unknown", 1))), null, Dish.class)
+                .isInitial()).isTrue();
+    }
+}
@@ -5,6 +5,7 @@ import mk.ukim.finki.wp.lab.web.controller.ChefController;
 import mk.ukim.finki.wp.lab.web.controller.DishController;
 import mk.ukim.finki.wp.lab.web.controller.LoginController;
 import mk.ukim.finki.wp.lab.service.AuthService;
+import mk.ukim.finki.wp.lab.service.CatalogVersionService;
 import mk.ukim.finki.wp.lab.service.ChefService;
 import mk.ukim.finki.wp.lab.service.DishService;
 import org.junit.jupiter.api.Test;
@@ -39,6 +40,9 @@ class SecurityTests {
     @MockitoBean
     private AuthService authService;
 
+    @MockitoBean
+    private CatalogVersionService catalogVersion;
+
     @MockitoBean
     private CustomUsernamePasswordAuthenticationProvider authProvider;
 